@@ -4,12 +4,16 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.Instant;
 import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Abstract base class for domain events providing common functionality.
  */
 public abstract class AbstractDomainEvent implements DomainEvent {
     
+    @JsonProperty("event_id")
+    private final UUID eventId;
+    
     @JsonProperty("aggregate_id")
     private final String aggregateId;
     
@@ -27,6 +31,12 @@ public abstract class AbstractDomainEvent implements DomainEvent {
         this.eventType = Objects.requireNonNull(eventType, "Event type cannot be null");
         this.aggregateVersion = Objects.requireNonNull(aggregateVersion, "Aggregate version cannot be null");
         this.occurredAt = Instant.now();
+        this.eventId = EventIds.next();
+    }
+    
+    @Override
+    public UUID getEventId() {
+        return eventId;
     }
     
     @Override
@@ -67,7 +77,8 @@ public abstract class AbstractDomainEvent implements DomainEvent {
     @Override
     public String toString() {
         return getClass().getSimpleName() + "[" +
-               "aggregateId='" + aggregateId +
+               "eventId=" + eventId +
+               ", aggregateId='" + aggregateId +
                ", eventType='" + eventType +
                ", occurredAt=" + occurredAt +
                ", aggregateVersion=" + aggregateVersion +
@@ -3,8 +3,11 @@ package com.aalhendi.account_ms.domain.repositories;
 import com.aalhendi.account_ms.domain.entities.Account;
 import com.aalhendi.account_ms.domain.entities.NewAccount;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Domain repository interface for Account entities.
@@ -36,6 +39,22 @@ public interface AccountRepository {
      */
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    /**
+     * Finds when an account was last updated, without loading the account.
+     *
+     * @param accountNumber the account number
+     * @return the account's updated_at if it exists, empty otherwise
+     */
+    Optional<LocalDateTime> findUpdatedAtByAccountNumber(String accountNumber);
+
+    /**
+     * Finds the accounts with any of the given account numbers in a single query.
+     *
+     * @param accountNumbers the account numbers
+     * @return the accounts found, in no particular order
+     */
+    List<Account> findByAccountNumbers(Collection<String> accountNumbers);
+
     /**
      * Finds all accounts for a specific customer.
      *
@@ -44,6 +63,32 @@ public interface AccountRepository {
      */
     List<Account> findByCustomerNumber(String customerNumber);
 
+    /**
+     * Finds all accounts for any of the given customers in a single query.
+     *
+     * @param customerNumbers the 7-digit customer numbers
+     * @return the accounts found, in no particular order
+     */
+    List<Account> findByCustomerNumbers(Collection<String> customerNumbers);
+
+    /**
+     * Streams all accounts for a specific customer from a database cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     *
+     * @param customerNumber the 7-digit customer number
+     * @return stream of the customer's accounts, ordered by account number
+     */
+    Stream<Account> streamByCustomerNumber(String customerNumber);
+
+    /**
+     * Streams accounts updated at or after the given time from a database cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     *
+     * @param since lower bound on updated_at, or null for every account
+     * @return stream of accounts, ordered by updated_at
+     */
+    Stream<Account> streamUpdatedSince(LocalDateTime since);
+
     /**
      * Counts the number of accounts for a specific customer.
      *
@@ -5,8 +5,12 @@ import com.aalhendi.account_ms.domain.valueobjects.AccountStatus;
 import com.aalhendi.account_ms.domain.valueobjects.AccountType;
 import com.aalhendi.account_ms.domain.valueobjects.Balance;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Domain service for account operations.
@@ -32,6 +36,22 @@ public interface AccountService {
      */
     Optional<Account> getAccount(String accountNumber);
 
+    /**
+     * Retrieves when an account was last updated, without loading it.
+     *
+     * @param accountNumber the 10-digit account number
+     * @return the account's last update time if found, empty otherwise
+     */
+    Optional<LocalDateTime> getAccountUpdatedAt(String accountNumber);
+
+    /**
+     * Retrieves several accounts by account number in a single query.
+     *
+     * @param accountNumbers the 10-digit account numbers
+     * @return the accounts found, keyed by account number; numbers with no account are absent
+     */
+    Map<String, Account> getAccounts(Collection<String> accountNumbers);
+
     /**
      * Retrieves all accounts for a customer.
      *
@@ -40,6 +60,15 @@ public interface AccountService {
      */
     List<Account> getAccountsByCustomer(String customerNumber);
 
+    /**
+     * Streams all accounts for a customer to the sink, in account number order, without
+     * materializing the result set.
+     *
+     * @param customerNumber the 7-digit customer number
+     * @param sink           receives each account as it is fetched
+     */
+    void streamAccountsByCustomer(String customerNumber, Consumer<Account> sink);
+
     /**
      * Updates account status.
      *
@@ -12,6 +12,7 @@ import com.aalhendi.account_ms.domain.exceptions.BusinessException;
 import com.aalhendi.account_ms.infrastructure.grpc.CustomerServiceClient;
 import com.aalhendi.customer.grpc.ValidateCustomerResponse;
 import com.aalhendi.customer.grpc.CheckAccountLimitResponse;
+import com.aalhendi.customer.grpc.PrepareAccountCreationResponse;
 import com.aalhendi.account_ms.domain.events.AccountCreatedEvent;
 import com.aalhendi.account_ms.domain.events.AccountStatusChangedEvent;
 import com.aalhendi.account_ms.domain.events.AccountTransactionEvent;
@@ -21,9 +22,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of AccountService.
@@ -33,6 +42,8 @@ import java.util.Objects;
 @Transactional
 public class AccountServiceImpl implements AccountService {
 
+    private static final int MAX_ACCOUNTS_PER_CUSTOMER = 10;
+
     private final AccountRepository accountRepository;
     private final CustomerServiceClient customerServiceClient;
     private final DomainEventPublisher eventPublisher;
@@ -45,23 +56,25 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public Account createAccount(String customerNumber, AccountType accountType) {
-        ValidateCustomerResponse validation = customerServiceClient.validateCustomer(customerNumber);
-        
-        if (!validation.getIsValid()) {
-            throw new BusinessException(AccountError.CUSTOMER_NOT_FOUND, customerNumber);
-        }
-        
-        if (!validation.getIsActive()) {
-            throw new BusinessException(AccountError.ACCOUNT_NOT_ACTIVE, customerNumber, validation.getStatus());
-        }
-        
-        CheckAccountLimitResponse limitCheck = customerServiceClient.checkAccountLimit(customerNumber, accountType.toString());
-        
-        if (!limitCheck.getCanCreateAccount()) {
-            if (limitCheck.getAlreadyHasSalaryAccount() && accountType == AccountType.SALARY) {
-                throw new BusinessException(AccountError.SALARY_ACCOUNT_ALREADY_EXISTS, customerNumber, "existing-account");
-            } else if (limitCheck.getCurrentAccountCount() >= limitCheck.getMaxAccountLimit()) {
-                throw new BusinessException(AccountError.ACCOUNT_LIMIT_EXCEEDED, customerNumber);
+        Optional<ValidateCustomerResponse> cachedValidation = customerServiceClient.getCachedValidation(customerNumber);
+        
+        if (cachedValidation.isPresent()) {
+            // Near cache hit: this service owns the customer's accounts, so the limit check needs no network call
+            requireActiveCustomer(customerNumber, cachedValidation.get());
+            checkAccountLimit(customerNumber, accountType);
+        } else {
+            PrepareAccountCreationResponse preparation =
+                customerServiceClient.prepareAccountCreation(customerNumber, accountType.toString());
+            requireActiveCustomer(customerNumber, preparation.getValidation());
+            
+            CheckAccountLimitResponse limitCheck = preparation.getAccountLimit();
+            
+            if (!limitCheck.getCanCreateAccount()) {
+                if (limitCheck.getAlreadyHasSalaryAccount() && accountType == AccountType.SALARY) {
+                    throw new BusinessException(AccountError.SALARY_ACCOUNT_ALREADY_EXISTS, customerNumber, "existing-account");
+                } else if (limitCheck.getCurrentAccountCount() >= limitCheck.getMaxAccountLimit()) {
+                    throw new BusinessException(AccountError.ACCOUNT_LIMIT_EXCEEDED, customerNumber);
+                }
             }
         }
         
@@ -89,6 +102,38 @@ public class AccountServiceImpl implements AccountService {
         return savedAccount;
     }
 
+    private void requireActiveCustomer(String customerNumber, ValidateCustomerResponse validation) {
+        if (!validation.getIsValid()) {
+            throw new BusinessException(AccountError.CUSTOMER_NOT_FOUND, customerNumber);
+        }
+        
+        if (!validation.getIsActive()) {
+            throw new BusinessException(AccountError.ACCOUNT_NOT_ACTIVE, customerNumber, validation.getStatus());
+        }
+    }
+
+    /**
+     * Applies customer-ms's account limit rules against local data.
+     * - At most 10 active accounts (closed accounts don't count)
+     * - At most one SALARY account
+     * The total-accounts rule is enforced by serial assignment in generateAccountNumber.
+     */
+    private void checkAccountLimit(String customerNumber, AccountType accountType) {
+        List<Account> accounts = accountRepository.findByCustomerNumber(customerNumber);
+        
+        if (accountType == AccountType.SALARY
+                && accounts.stream().anyMatch(account -> account.getAccountType() == AccountType.SALARY)) {
+            throw new BusinessException(AccountError.SALARY_ACCOUNT_ALREADY_EXISTS, customerNumber, "existing-account");
+        }
+        
+        long activeAccounts = accounts.stream()
+            .filter(account -> account.getStatus().isActive())
+            .count();
+        if (activeAccounts >= MAX_ACCOUNTS_PER_CUSTOMER) {
+            throw new BusinessException(AccountError.ACCOUNT_LIMIT_EXCEEDED, customerNumber);
+        }
+    }
+
     /**
      * Generates a sequential account number for a customer.
      * Format: CCCCCCCNNN (7-digit customer + 3-digit serial from 001-010)
@@ -122,12 +167,37 @@ public class AccountServiceImpl implements AccountService {
         return accountRepository.findByAccountNumber(accountNumber);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getAccountUpdatedAt(String accountNumber) {
+        return accountRepository.findUpdatedAtByAccountNumber(accountNumber);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Account> getAccounts(Collection<String> accountNumbers) {
+        if (accountNumbers.isEmpty()) {
+            return Map.of();
+        }
+        return accountRepository.findByAccountNumbers(Set.copyOf(accountNumbers))
+                .stream()
+                .collect(Collectors.toMap(account -> account.getAccountNumber().value(), Function.identity()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Account> getAccountsByCustomer(String customerNumber) {
         return accountRepository.findByCustomerNumber(customerNumber);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAccountsByCustomer(String customerNumber, Consumer<Account> sink) {
+        try (Stream<Account> accounts = accountRepository.streamByCustomerNumber(customerNumber)) {
+            accounts.forEach(sink);
+        }
+    }
+
     @Override
     public Account updateAccountStatus(String accountNumber, AccountStatus status) {
         if (Objects.isNull(accountNumber) || accountNumber.trim().isEmpty()) {
@@ -125,4 +125,12 @@ public record Balance(BigDecimal value) {
         }
         return this.value.compareTo(other.value) >= 0;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Returns the balance in minor units (thousandths), e.g. 12.345 becomes 12345.
+     * Exact, since every Balance has 3 decimal places.
+     */
+    public long toMinorUnits() {
+        return value.unscaledValue().longValueExact();
+    }
+}
\ No newline at end of file
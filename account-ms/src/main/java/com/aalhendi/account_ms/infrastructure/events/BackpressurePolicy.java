@@ -0,0 +1,23 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+/**
+ * What a send does when its producer already has the most records in flight it is allowed.
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * Wait up to the profile's backpressure timeout for a slot, then fail.
+     */
+    BLOCK,
+
+    /**
+     * Fail at once, counted as a failed send.
+     */
+    FAIL_FAST,
+
+    /**
+     * Refuse at once and leave the record where it came from (the outbox, or the consumed topic) for a later attempt.
+     * Not counted as a failure.
+     */
+    SPILL
+}
@@ -1,90 +1,224 @@
 package com.aalhendi.account_ms.infrastructure.events;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.aalhendi.account_ms.infrastructure.grpc.CustomerServiceClient;
+import com.aalhendi.customer.events.CustomerCreated;
+import com.aalhendi.customer.events.CustomerStatusChanged;
+import com.aalhendi.customer.events.CustomerUpdated;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
 /**
  * Kafka consumer for customer domain events.
  * Handles customer events that are relevant to the account service.
+ * Listeners receive a whole poll at a time (up to max.poll.records), apply it as one unit and only then
+ * acknowledge it. Payloads are decoded by their content-type header, so JSON and protobuf records are both accepted.
+ * Events already processed, by event ID, are dropped from a batch before it is applied.
+ * A record that fails is handed to FailedEventForwarder for a later retry, so it doesn't hold back the partition;
+ * the batch is only left unacknowledged if that hand-off fails, and ListenerErrorHandlerConfig's error handler then
+ * redelivers it, backing off, until the hand-off succeeds.
  */
 @Component
-public class CustomerEventConsumer {
+public class CustomerEventConsumer implements EventBatchProcessor {
     
     private static final Logger logger = LoggerFactory.getLogger(CustomerEventConsumer.class);
+
+    static final String CUSTOMER_CREATED_TOPIC = "customer.events.created";
+    static final String CUSTOMER_STATUS_CHANGED_TOPIC = "customer.events.status-changed";
+    static final String CUSTOMER_UPDATED_TOPIC = "customer.events.updated";
     
-    private final ObjectMapper objectMapper;
+    private final DomainEventCodec codec;
+    private final CustomerServiceClient customerServiceClient;
+    private final ProcessedEventStore processedEvents;
+    private final FailedEventForwarder failedEventForwarder;
+
+    /**
+     * A decoded event together with the record it came from, which is what gets retried if it fails.
+     */
+    private record Received<T>(ConsumerRecord<String, byte[]> record, T event) {
+    }
     
-    public CustomerEventConsumer(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    public CustomerEventConsumer(DomainEventCodec codec, CustomerServiceClient customerServiceClient,
+                                 ProcessedEventStore processedEvents, FailedEventForwarder failedEventForwarder) {
+        this.codec = codec;
+        this.customerServiceClient = customerServiceClient;
+        this.processedEvents = processedEvents;
+        this.failedEventForwarder = failedEventForwarder;
     }
     
     /**
      * Handles customer created events.
      * Currently just log the event for audit purposes.
      */
-    @KafkaListener(topics = "customer.events.created", groupId = "account-service")
-    public void handleCustomerCreated(@Payload String eventJson,
-                                     @Header(KafkaHeaders.RECEIVED_KEY) String key,
-                                     @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                                     @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-                                     @Header(KafkaHeaders.OFFSET) long offset) {
-        
-        logger.info("Received customer created event from topic {} partition {} offset {} with key {}", 
-                   topic, partition, offset, key);
-        
-        try {
-            // Parse the event (for now just log it)
-            var eventData = objectMapper.readTree(eventJson);
-            String customerNumber = eventData.get("customer_number").asText();
-            String customerType = eventData.get("customer_type").asText();
-            
-            logger.info("Customer {} of type {} was created", customerNumber, customerType);
-            
-        } catch (Exception e) {
-            logger.error("Failed to process customer created event: {}", e.getMessage(), e);
-            // TODO(aalhendi): in a real system, we would send to DLQ here
-        }
+    @KafkaListener(topics = CUSTOMER_CREATED_TOPIC, groupId = "account-service")
+    public void handleCustomerCreated(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        logger.info("Received {} customer created events", records.size());
+        processCustomerCreated(records);
+        acknowledgment.acknowledge();
     }
     
     /**
      * Handles customer status changed events.
      * This is important for account service to know if customers become inactive.
+     * Keeps the customer validation near cache in step with customer-ms.
+     * Only the latest status per customer in a batch is applied. A change that comes back from a retry tier
+     * or a dead letter replay may be stale, so it evicts the customer instead of writing its status.
+     */
+    @KafkaListener(topics = CUSTOMER_STATUS_CHANGED_TOPIC, groupId = "account-service")
+    public void handleCustomerStatusChanged(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        logger.info("Received {} customer status changed events", records.size());
+        processCustomerStatusChanged(records);
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Handles customer updated events.
+     * A type change invalidates the cached validation, so the customer is evicted from the near cache,
+     * once per customer however many updates the batch holds.
      */
-    @KafkaListener(topics = "customer.events.status-changed", groupId = "account-service")
-    public void handleCustomerStatusChanged(@Payload String eventJson,
-                                          @Header(KafkaHeaders.RECEIVED_KEY) String key) {
+    @KafkaListener(topics = CUSTOMER_UPDATED_TOPIC)
+    public void handleCustomerUpdated(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        logger.info("Received {} customer updated events", records.size());
+        processCustomerUpdated(records);
+        acknowledgment.acknowledge();
+    }
+
+    @Override
+    public Set<String> topics() {
+        return Set.of(CUSTOMER_CREATED_TOPIC, CUSTOMER_STATUS_CHANGED_TOPIC, CUSTOMER_UPDATED_TOPIC);
+    }
+
+    @Override
+    public void process(String topic, List<ConsumerRecord<String, byte[]>> records) {
+        switch (topic) {
+            case CUSTOMER_CREATED_TOPIC -> processCustomerCreated(records);
+            case CUSTOMER_STATUS_CHANGED_TOPIC -> processCustomerStatusChanged(records);
+            case CUSTOMER_UPDATED_TOPIC -> processCustomerUpdated(records);
+            default -> throw new IllegalArgumentException("Not a customer event topic: " + topic);
+        }
+    }
+
+    private void processCustomerCreated(List<ConsumerRecord<String, byte[]>> records) {
+        List<FailedEventForwarder.FailedRecord> failures = new ArrayList<>();
+        List<Received<CustomerCreated>> events =
+            decodeNew(records, CustomerCreated.getDefaultInstance(), CustomerCreated::getEventId, failures);
         
-        logger.info("Received customer status changed event with key {}", key);
+        for (Received<CustomerCreated> received : events) {
+            logger.info("Customer {} of type {} was created",
+                       received.event().getCustomerNumber(), received.event().getCustomerType());
+        }
         
-        try {
-            var eventData = objectMapper.readTree(eventJson);
-            String customerNumber = eventData.get("customer_number").asText();
-            String newStatus = eventData.get("new_status").asText();
-            
-            logger.info("Customer {} status changed to {}", customerNumber, newStatus);
-            
-        } catch (Exception e) {
-            logger.error("Failed to process customer status changed event: {}", e.getMessage(), e);
+        complete(events, failures, CustomerCreated::getEventId);
+    }
+
+    private void processCustomerStatusChanged(List<ConsumerRecord<String, byte[]>> records) {
+        List<FailedEventForwarder.FailedRecord> failures = new ArrayList<>();
+        List<Received<CustomerStatusChanged>> events =
+            decodeNew(records, CustomerStatusChanged.getDefaultInstance(), CustomerStatusChanged::getEventId, failures);
+        
+        // A customer's events share a partition and arrive in offset order, so the last one seen is the latest
+        Map<String, List<Received<CustomerStatusChanged>>> byCustomer = new LinkedHashMap<>();
+        for (Received<CustomerStatusChanged> received : events) {
+            byCustomer.computeIfAbsent(received.event().getCustomerNumber(), customer -> new ArrayList<>()).add(received);
         }
+        
+        List<Received<CustomerStatusChanged>> applied = new ArrayList<>(events.size());
+        byCustomer.forEach((customerNumber, changes) -> {
+            Received<CustomerStatusChanged> latest = changes.getLast();
+            // Earlier changes are superseded either way; only the latest is retried if it fails
+            applied.addAll(changes.subList(0, changes.size() - 1));
+            try {
+                if (isRedelivered(latest.record())) {
+                    // NOTE(aalhendi): A retried or replayed change can be older than what the cache holds by now,
+                    // so it only drops the entry and the next validation asks customer-ms
+                    logger.info("Customer {} status changed to {} (redelivered), evicting cached validation",
+                               customerNumber, latest.event().getNewStatus());
+                    customerServiceClient.evictCachedValidation(customerNumber);
+                } else {
+                    logger.info("Customer {} status changed to {}", customerNumber, latest.event().getNewStatus());
+                    customerServiceClient.onCustomerStatusChanged(customerNumber, latest.event().getNewStatus());
+                }
+                applied.add(latest);
+            } catch (RuntimeException e) {
+                failures.add(new FailedEventForwarder.FailedRecord(latest.record(), e));
+            }
+        });
+        
+        complete(applied, failures, CustomerStatusChanged::getEventId);
+    }
+
+    private void processCustomerUpdated(List<ConsumerRecord<String, byte[]>> records) {
+        List<FailedEventForwarder.FailedRecord> failures = new ArrayList<>();
+        List<Received<CustomerUpdated>> events =
+            decodeNew(records, CustomerUpdated.getDefaultInstance(), CustomerUpdated::getEventId, failures);
+        
+        Map<String, List<Received<CustomerUpdated>>> byCustomer = new LinkedHashMap<>();
+        for (Received<CustomerUpdated> received : events) {
+            byCustomer.computeIfAbsent(received.event().getCustomerNumber(), customer -> new ArrayList<>()).add(received);
+        }
+        
+        List<Received<CustomerUpdated>> applied = new ArrayList<>(events.size());
+        byCustomer.forEach((customerNumber, updates) -> {
+            try {
+                customerServiceClient.evictCachedValidation(customerNumber);
+                applied.addAll(updates);
+            } catch (RuntimeException e) {
+                failures.add(new FailedEventForwarder.FailedRecord(updates.getLast().record(), e));
+                applied.addAll(updates.subList(0, updates.size() - 1));
+            }
+        });
+        
+        complete(applied, failures, CustomerUpdated::getEventId);
+        logger.info("Successfully processed {} customer updated events", applied.size());
     }
 
     /**
-     * Handles customer updated events.
+     * Whether the record came back through a retry tier or a dead letter replay rather than from its own topic.
      */
-    @KafkaListener(topics = "customer.events.updated")
-    public void handleCustomerUpdated(@Payload String eventJson) {
-        logger.info("Received customer updated event: {}", eventJson);
-        
-        try {
-            logger.info("Successfully processed customer updated event");
-        } catch (Exception e) {
-            logger.error("Error processing customer updated event: {}", eventJson, e);
+    private static boolean isRedelivered(ConsumerRecord<String, byte[]> record) {
+        return Objects.nonNull(record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC));
+    }
+
+    /**
+     * Decodes a batch and drops events that were already processed. Records that can't be decoded
+     * are added to {@code failures} rather than thrown, so one bad record doesn't hold back the rest of the partition.
+     */
+    private <T extends Message> List<Received<T>> decodeNew(List<ConsumerRecord<String, byte[]>> records, T defaultInstance,
+                                                            Function<T, String> eventId,
+                                                            List<FailedEventForwarder.FailedRecord> failures) {
+        List<Received<T>> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                events.add(new Received<>(record, codec.decode(record, defaultInstance)));
+            } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+                logger.error("Failed to decode record from topic {} partition {} offset {} with key {}: {}",
+                           record.topic(), record.partition(), record.offset(), record.key(), e.getMessage(), e);
+                failures.add(new FailedEventForwarder.FailedRecord(record, e));
+            }
         }
+        return processedEvents.skipProcessed(events, received -> eventId.apply(received.event()));
+    }
+
+    /**
+     * Records the applied events as processed and forwards the failed records for retry.
+     */
+    private <T> void complete(List<Received<T>> applied, List<FailedEventForwarder.FailedRecord> failures,
+                              Function<T, String> eventId) {
+        processedEvents.markProcessed(applied, received -> eventId.apply(received.event()));
+        failedEventForwarder.forward(failures);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import com.aalhendi.account.events.AccountClosed;
+import com.aalhendi.account.events.AccountCreated;
+import com.aalhendi.account.events.AccountStatusChanged;
+import com.aalhendi.account.events.AccountTransaction;
+import com.aalhendi.account_ms.domain.events.AccountClosedEvent;
+import com.aalhendi.account_ms.domain.events.AccountCreatedEvent;
+import com.aalhendi.account_ms.domain.events.AccountStatusChangedEvent;
+import com.aalhendi.account_ms.domain.events.AccountTransactionEvent;
+import com.aalhendi.account_ms.domain.events.DomainEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Encodes domain events for Kafka and decodes incoming ones.
+ * Outgoing events use the configured {@code events.encoding}; incoming records are decoded by their content-type
+ * header, so producers can move from JSON to protobuf one at a time while consumers read both.
+ * Either way a consumer gets the generated protobuf message, since its field names match the JSON properties.
+ */
+@Component
+public class DomainEventCodec {
+
+    private final ObjectWriter jsonWriter;
+    private final EventEncoding encoding;
+    private final JsonEventDecoder jsonDecoder;
+
+    public DomainEventCodec(ObjectMapper objectMapper, @Value("${events.encoding:json}") EventEncoding encoding) {
+        // ISO-8601 instants whatever the mapper's defaults, since that is what the protobuf JSON parser reads
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.encoding = encoding;
+        this.jsonDecoder = new JsonEventDecoder(objectMapper.getFactory());
+    }
+
+    /**
+     * A serialized event and the content type to send it with.
+     */
+    public record EncodedEvent(byte[] payload, String contentType) {}
+
+    /**
+     * Serializes an event with the configured encoding.
+     *
+     * @throws EventPublishingException if the event cannot be serialized
+     */
+    public EncodedEvent encode(DomainEvent event) {
+        return switch (encoding) {
+            case JSON -> new EncodedEvent(toJson(event), EventEncoding.JSON.contentType());
+            case PROTOBUF -> new EncodedEvent(toProto(event).toByteArray(), EventEncoding.PROTOBUF.contentType());
+        };
+    }
+
+    /**
+     * Decodes a payload into the given message type according to its content type.
+     *
+     * @param contentType the record's content-type header, or null for records written before it existed
+     * @param defaultInstance the expected message type, e.g. {@code CustomerStatusChanged.getDefaultInstance()}
+     */
+    public <T extends Message> T decode(byte[] payload, String contentType, T defaultInstance)
+            throws InvalidProtocolBufferException {
+        return decode(payload, EventEncoding.fromContentType(contentType), defaultInstance);
+    }
+
+    /**
+     * Decodes a consumed record into the given message type, by the record's content-type header.
+     */
+    public <T extends Message> T decode(ConsumerRecord<?, byte[]> record, T defaultInstance)
+            throws InvalidProtocolBufferException {
+        Header contentType = record.headers().lastHeader(EventEncoding.CONTENT_TYPE_HEADER);
+        return decode(record.value(),
+            EventEncoding.fromContentType(Objects.isNull(contentType) ? null : contentType.value()),
+            defaultInstance);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Message> T decode(byte[] payload, EventEncoding payloadEncoding, T defaultInstance)
+            throws InvalidProtocolBufferException {
+        return switch (payloadEncoding) {
+            case PROTOBUF -> (T) defaultInstance.getParserForType().parseFrom(payload);
+            case JSON -> jsonDecoder.decode(payload, defaultInstance);
+        };
+    }
+
+    private byte[] toJson(DomainEvent event) {
+        try {
+            return jsonWriter.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new EventPublishingException("Failed to serialize event " + event.getEventType(), e);
+        }
+    }
+
+    /**
+     * Maps a domain event onto its protobuf schema.
+     */
+    static Message toProto(DomainEvent event) {
+        return switch (event) {
+            case AccountCreatedEvent e -> AccountCreated.newBuilder()
+                .setAggregateId(e.getAggregateId())
+                .setEventType(e.getEventType())
+                .setOccurredAt(toTimestamp(e.getOccurredAt()))
+                .setAggregateVersion(e.getAggregateVersion())
+                .setEventId(e.getEventId().toString())
+                .setAccountNumber(e.getAccountNumber())
+                .setCustomerNumber(e.getCustomerNumber())
+                .setAccountType(e.getAccountType())
+                .setInitialBalance(toDecimalString(e.getInitialBalance()))
+                .setStatus(e.getStatus())
+                .build();
+            case AccountStatusChangedEvent e -> AccountStatusChanged.newBuilder()
+                .setAggregateId(e.getAggregateId())
+                .setEventType(e.getEventType())
+                .setOccurredAt(toTimestamp(e.getOccurredAt()))
+                .setAggregateVersion(e.getAggregateVersion())
+                .setEventId(e.getEventId().toString())
+                .setAccountNumber(e.getAccountNumber())
+                .setCustomerNumber(e.getCustomerNumber())
+                .setPreviousStatus(orEmpty(e.getPreviousStatus()))
+                .setNewStatus(e.getNewStatus())
+                .setReason(orEmpty(e.getReason()))
+                .setVersion(e.getVersion())
+                .build();
+            case AccountClosedEvent e -> AccountClosed.newBuilder()
+                .setAggregateId(e.getAggregateId())
+                .setEventType(e.getEventType())
+                .setOccurredAt(toTimestamp(e.getOccurredAt()))
+                .setAggregateVersion(e.getAggregateVersion())
+                .setEventId(e.getEventId().toString())
+                .setAccountNumber(e.getAccountNumber())
+                .setCustomerNumber(e.getCustomerNumber())
+                .setAccountType(e.getAccountType().name())
+                .setClosureReason(orEmpty(e.getClosureReason()))
+                .setClosedAt(Objects.toString(e.getClosedAt(), ""))
+                .setVersion(e.getVersion())
+                .build();
+            case AccountTransactionEvent e -> AccountTransaction.newBuilder()
+                .setAggregateId(e.getAggregateId())
+                .setEventType(e.getEventType())
+                .setOccurredAt(toTimestamp(e.getOccurredAt()))
+                .setAggregateVersion(e.getAggregateVersion())
+                .setEventId(e.getEventId().toString())
+                .setAccountNumber(e.getAccountNumber())
+                .setCustomerNumber(e.getCustomerNumber())
+                .setTransactionType(e.getTransactionType())
+                .setAmount(toDecimalString(e.getAmount()))
+                .setPreviousBalance(toDecimalString(e.getPreviousBalance()))
+                .setNewBalance(toDecimalString(e.getNewBalance()))
+                .setDescription(orEmpty(e.getDescription()))
+                .setVersion(e.getVersion())
+                .build();
+            default -> throw new EventPublishingException("No protobuf schema for event " + event.getEventType());
+        };
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.newBuilder()
+            .setSeconds(instant.getEpochSecond())
+            .setNanos(instant.getNano())
+            .build();
+    }
+
+    private static String toDecimalString(BigDecimal value) {
+        return Objects.isNull(value) ? "" : value.toPlainString();
+    }
+
+    // NOTE(aalhendi): proto3 strings can't be null; empty is the unset value
+    private static String orEmpty(String value) {
+        return Objects.requireNonNullElse(value, "");
+    }
+}
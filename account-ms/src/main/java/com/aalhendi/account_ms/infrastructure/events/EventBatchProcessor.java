@@ -0,0 +1,26 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies batches of event records from a set of topics.
+ * Implemented by each consumer, so records coming back from retry topics go through the same code as the originals.
+ */
+public interface EventBatchProcessor {
+
+    /**
+     * The topics this processor consumes.
+     */
+    Set<String> topics();
+
+    /**
+     * Applies records that originally came from the given topic.
+     * Records that fail are forwarded to a retry topic or the dead-letter topic rather than thrown.
+     *
+     * @throws EventPublishingException if failed records could not be forwarded, so the batch must be redelivered
+     */
+    void process(String topic, List<ConsumerRecord<String, byte[]>> records);
+}
@@ -0,0 +1,149 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for event topics and the producer profiles routes publish with.
+ * Profile settings override the matching {@code spring.kafka.producer.*} values; anything not set here is shared.
+ */
+@ConfigurationProperties(prefix = "events.routing")
+public class EventRoutingProperties {
+
+    /**
+     * Partitions per routed topic. Keep it equal to customer-ms so topics stay co-partitioned by customer number.
+     * Raising it later remaps keys to partitions, so size it for the expected consumer parallelism up front.
+     */
+    private int partitions = 12;
+
+    /**
+     * Replicas per routed topic.
+     */
+    private short replicas = 1;
+
+    private final Map<ProducerProfile, Profile> profiles = new EnumMap<>(Map.of(
+            ProducerProfile.CRITICAL, new Profile(),
+            ProducerProfile.BULK, new Profile()
+    ));
+
+    /**
+     * Producer settings for one profile. A profile that is configured at all is bound fresh,
+     * so settings it leaves out take these defaults rather than the shared producer's.
+     */
+    public static class Profile {
+
+        private String acks = "all";
+        private String compressionType = "none";
+        private Duration linger = Duration.ZERO;
+
+        /**
+         * Most records sent but not yet acked. Keep it times the typical record size well under buffer.memory,
+         * so a slow broker is met by the backpressure policy instead of send() blocking for max.block.ms.
+         */
+        private int maxInFlight = 10_000;
+
+        private BackpressurePolicy backpressure = BackpressurePolicy.BLOCK;
+
+        /**
+         * How long a send waits for an in-flight slot under {@link BackpressurePolicy#BLOCK}.
+         */
+        private Duration backpressureTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Whether send() waits for the broker ack before returning, so each record is confirmed before the next is sent.
+         */
+        private boolean syncConfirm = false;
+
+        /**
+         * How long a synchronous confirm waits for the ack.
+         */
+        private Duration confirmTimeout = Duration.ofSeconds(30);
+
+        public String getAcks() {
+            return acks;
+        }
+
+        public void setAcks(String acks) {
+            this.acks = acks;
+        }
+
+        public String getCompressionType() {
+            return compressionType;
+        }
+
+        public void setCompressionType(String compressionType) {
+            this.compressionType = compressionType;
+        }
+
+        public Duration getLinger() {
+            return linger;
+        }
+
+        public void setLinger(Duration linger) {
+            this.linger = linger;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public BackpressurePolicy getBackpressure() {
+            return backpressure;
+        }
+
+        public void setBackpressure(BackpressurePolicy backpressure) {
+            this.backpressure = backpressure;
+        }
+
+        public Duration getBackpressureTimeout() {
+            return backpressureTimeout;
+        }
+
+        public void setBackpressureTimeout(Duration backpressureTimeout) {
+            this.backpressureTimeout = backpressureTimeout;
+        }
+
+        public boolean isSyncConfirm() {
+            return syncConfirm;
+        }
+
+        public void setSyncConfirm(boolean syncConfirm) {
+            this.syncConfirm = syncConfirm;
+        }
+
+        public Duration getConfirmTimeout() {
+            return confirmTimeout;
+        }
+
+        public void setConfirmTimeout(Duration confirmTimeout) {
+            this.confirmTimeout = confirmTimeout;
+        }
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public short getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(short replicas) {
+        this.replicas = replicas;
+    }
+
+    public Map<ProducerProfile, Profile> getProfiles() {
+        return profiles;
+    }
+}
@@ -0,0 +1,222 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import com.aalhendi.account_ms.infrastructure.persistence.JpaOutboxEventRepository;
+import com.aalhendi.account_ms.infrastructure.persistence.OutboxEventEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox rows to Kafka.
+ * Each poll claims a batch of unsent rows with {@code FOR UPDATE SKIP LOCKED}, hands the whole batch to the producer
+ * before waiting on any ack (so it goes out in as few producer batches as possible), then marks the acked rows sent,
+ * all in one transaction. Relays on several instances claim disjoint batches.
+ * Delivery is at least once: a crash between the broker ack and the commit republishes the batch.
+ * The outbox is also where a saturated producer spills to: a send refused under {@link BackpressurePolicy#SPILL}
+ * leaves its row unsent, without marking it failed, for the next poll.
+ * Consumers take a key's last event as its latest, so once a row fails or spills, the later rows of its key in the
+ * batch are held back unsent too and follow it on a later poll. A row that has failed {@code max-attempts} times is
+ * parked: it is no longer claimed, so it stops holding its key and the drain back, and the key's later rows go ahead.
+ * NOTE(aalhendi): rows for one key are only strictly ordered while a single relay is draining them.
+ */
+@Component
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JpaOutboxEventRepository outboxRepository;
+    private final EventProducers producers;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter spilledCounter;
+    private final Counter heldCounter;
+    private final Counter parkedCounter;
+    private final Timer lagTimer;
+
+    public OutboxRelay(JpaOutboxEventRepository outboxRepository, EventProducers producers,
+                       PlatformTransactionManager transactionManager, OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.producers = producers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.sentCounter = Counter.builder("outbox.relay.sent")
+            .description("Outbox rows published to Kafka")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failed")
+            .description("Outbox publish attempts that failed or timed out")
+            .register(meterRegistry);
+        this.spilledCounter = Counter.builder("outbox.relay.spilled")
+            .description("Outbox rows left for the next poll because their producer was saturated")
+            .register(meterRegistry);
+        this.heldCounter = Counter.builder("outbox.relay.held")
+            .description("Outbox rows left for the next poll behind an earlier row of their key that failed or spilled")
+            .register(meterRegistry);
+        this.parkedCounter = Counter.builder("outbox.relay.parked")
+            .description("Outbox rows given up on after max-attempts failed publishes")
+            .register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.relay.lag")
+            .description("Time from writing an outbox row to its broker ack")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Drains the outbox batch by batch until it is empty or a publish fails.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:500ms}")
+    public void relay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int relayed;
+        do {
+            relayed = Objects.requireNonNullElse(transactionTemplate.execute(status -> relayBatch()), 0);
+        } while (relayed == properties.getBatchSize());
+    }
+
+    /**
+     * Claims, publishes and marks one batch. Returns the number of rows published,
+     * or 0 if any failed, spilled or were held back so the caller backs off until the next poll.
+     */
+    int relayBatch() {
+        List<OutboxEventEntity> batch = outboxRepository.claimUnsent(properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Null where a row is held back unsent, because an earlier row of its key was refused in the send call itself
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+        Set<String> refusedKeys = new HashSet<>();
+        for (OutboxEventEntity row : batch) {
+            if (Objects.nonNull(row.getMessageKey()) && refusedKeys.contains(row.getMessageKey())) {
+                sends.add(null);
+                continue;
+            }
+            CompletableFuture<SendResult<String, byte[]>> sent = send(row);
+            // e.g. spilled, or timed out waiting for an in-flight slot, while a later send may find a freed one
+            if (sent.isCompletedExceptionally() && Objects.nonNull(row.getMessageKey())) {
+                refusedKeys.add(row.getMessageKey());
+            }
+            sends.add(sent);
+        }
+        // Everything is queued in the producers; push it out now instead of waiting for linger.ms
+        producers.flush();
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<Long> failedIds = new ArrayList<>();
+        Set<String> stoppedKeys = new HashSet<>();
+        int spilled = 0;
+        int held = 0;
+        String lastError = null;
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEventEntity row = batch.get(i);
+            String key = row.getMessageKey();
+            if (Objects.nonNull(key) && stoppedKeys.contains(key)) {
+                held++;
+                continue;
+            }
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(row.getId());
+                lagTimer.record(Duration.between(row.getCreatedAt(), now));
+            } catch (ExecutionException | TimeoutException e) {
+                if (Objects.nonNull(key)) {
+                    stoppedKeys.add(key);
+                }
+                if (e.getCause() instanceof ProducerSaturatedException saturated && saturated.isSpilled()) {
+                    spilled++;
+                    continue;
+                }
+                failedIds.add(row.getId());
+                Throwable cause = Objects.requireNonNullElse(e.getCause(), e);
+                lastError = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+                logger.warn("Failed to publish outbox row {} ({}) to topic {}: {}",
+                        row.getId(), row.getEventType(), row.getTopic(), lastError);
+            } catch (InterruptedException e) {
+                // Shutting down; keep what was acked and leave the rest for the next relay
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, now);
+            sentCounter.increment(sentIds.size());
+        }
+        if (!failedIds.isEmpty()) {
+            outboxRepository.markFailed(failedIds, truncate(lastError));
+            failedCounter.increment(failedIds.size());
+            int parked = outboxRepository.parkExhausted(failedIds, properties.getMaxAttempts(), now);
+            if (parked > 0) {
+                parkedCounter.increment(parked);
+                logger.error("Parked {} outbox rows after {} failed publishes; they won't be relayed until parked_at is cleared",
+                        parked, properties.getMaxAttempts());
+            }
+        }
+        if (spilled > 0) {
+            spilledCounter.increment(spilled);
+        }
+        if (held > 0) {
+            heldCounter.increment(held);
+        }
+
+        logger.debug("Relayed {} outbox rows, {} failed, {} spilled, {} held", sentIds.size(), failedIds.size(), spilled, held);
+        return sentIds.size() == batch.size() ? batch.size() : 0;
+    }
+
+    /**
+     * Deletes rows published longer ago than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.cleanup-interval:1h}",
+               initialDelayString = "${outbox.relay.cleanup-interval:1h}")
+    public void deleteSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+            outboxRepository.deleteSentBefore(LocalDateTime.now().minus(properties.getRetention())));
+        logger.debug("Deleted {} published outbox rows", deleted);
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> send(OutboxEventEntity row) {
+        try {
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(row.getTopic(), row.getMessageKey(), row.getPayload());
+            record.headers().add(EventEncoding.CONTENT_TYPE_HEADER, row.getContentType().getBytes(StandardCharsets.UTF_8));
+            return producers.send(record);
+        } catch (RuntimeException e) {
+            // e.g. metadata unavailable within max.block.ms; treat like a failed ack
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String truncate(String error) {
+        return Objects.nonNull(error) && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,133 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import com.aalhendi.account_ms.infrastructure.persistence.JpaProcessedEventRepository;
+import com.aalhendi.account_ms.infrastructure.persistence.ProcessedEventEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Remembers which events consumers have applied, so redelivered ones are skipped.
+ * Recently processed IDs are held in memory, which answers most redeliveries; the rest are checked against the
+ * processed_event table with one query per batch, never one per record. IDs are recorded after a batch is applied
+ * and before it is acknowledged, so a crash in between still re-applies that batch once.
+ * Events without an ID, from producers that predate event IDs, are always applied and never recorded.
+ */
+@Component
+@EnableConfigurationProperties(DedupeProperties.class)
+public class ProcessedEventStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedEventStore.class);
+
+    private final JpaProcessedEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final DedupeProperties properties;
+    private final Cache<UUID, Boolean> window;
+    private final Counter skippedCounter;
+
+    public ProcessedEventStore(JpaProcessedEventRepository repository, PlatformTransactionManager transactionManager,
+                               DedupeProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.window = Caffeine.newBuilder()
+            .expireAfterWrite(properties.getWindow())
+            .maximumSize(properties.getWindowSize())
+            .build();
+        this.skippedCounter = Counter.builder("events.dedupe.skipped")
+            .description("Redelivered events skipped because they were already processed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the events that have not been processed yet, in their original order.
+     * An ID repeated within the batch is kept only the first time.
+     */
+    public <T> List<T> skipProcessed(List<T> events, Function<? super T, String> eventId) {
+        List<UUID> ids = events.stream().map(event -> parse(eventId.apply(event))).toList();
+
+        Set<UUID> unseen = new HashSet<>();
+        for (UUID id : ids) {
+            if (Objects.nonNull(id) && Objects.isNull(window.getIfPresent(id))) {
+                unseen.add(id);
+            }
+        }
+        Set<UUID> processed = unseen.isEmpty() ? Set.of() : repository.findProcessedIds(unseen);
+        processed.forEach(id -> window.put(id, Boolean.TRUE));
+
+        List<T> result = new ArrayList<>(events.size());
+        Set<UUID> kept = new HashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            UUID id = ids.get(i);
+            if (Objects.isNull(id) || (unseen.contains(id) && !processed.contains(id) && kept.add(id))) {
+                result.add(events.get(i));
+            }
+        }
+
+        int skipped = events.size() - result.size();
+        if (skipped > 0) {
+            skippedCounter.increment(skipped);
+            logger.info("Skipped {} of {} events as already processed", skipped, events.size());
+        }
+        return result;
+    }
+
+    /**
+     * Records the events as processed, in one transaction.
+     */
+    public <T> void markProcessed(List<T> events, Function<? super T, String> eventId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProcessedEventEntity> entities = events.stream()
+            .map(event -> parse(eventId.apply(event)))
+            .filter(Objects::nonNull)
+            .distinct()
+            .map(id -> new ProcessedEventEntity(id, now))
+            .toList();
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> repository.saveAll(entities));
+        entities.forEach(entity -> window.put(entity.getId(), Boolean.TRUE));
+    }
+
+    /**
+     * Deletes IDs processed longer ago than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${events.dedupe.cleanup-interval:1h}",
+               initialDelayString = "${events.dedupe.cleanup-interval:1h}")
+    public void deleteExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+            repository.deleteProcessedBefore(LocalDateTime.now().minus(properties.getRetention())));
+        logger.debug("Deleted {} processed event IDs", deleted);
+    }
+
+    private static UUID parse(String eventId) {
+        if (Objects.isNull(eventId) || eventId.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(eventId);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed event ID {}", eventId);
+            return null;
+        }
+    }
+}
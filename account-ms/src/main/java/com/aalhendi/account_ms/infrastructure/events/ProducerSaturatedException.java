@@ -0,0 +1,21 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+/**
+ * A send refused because its producer had too many records in flight.
+ */
+public class ProducerSaturatedException extends EventPublishingException {
+
+    private final BackpressurePolicy policy;
+
+    public ProducerSaturatedException(ProducerProfile profile, BackpressurePolicy policy, int maxInFlight) {
+        super("Producer " + profile + " has " + maxInFlight + " records in flight (backpressure policy " + policy + ")");
+        this.policy = policy;
+    }
+
+    /**
+     * Whether the caller should keep the record for later rather than treat this as a failure.
+     */
+    public boolean isSpilled() {
+        return policy == BackpressurePolicy.SPILL;
+    }
+}
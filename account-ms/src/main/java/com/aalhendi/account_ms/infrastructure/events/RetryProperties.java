@@ -0,0 +1,127 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for consumer retry topics.
+ * A record that fails goes to {@code <topic>.retry.0}, then {@code .retry.1} and so on, each tier waiting longer
+ * than the one before; after the last tier it goes to {@code <topic>.dlt}.
+ */
+@ConfigurationProperties(prefix = "events.retry")
+public class RetryProperties {
+
+    /**
+     * Retry tiers, i.e. how many times a failed record is retried before it is dead-lettered.
+     */
+    private int attempts = 3;
+
+    /**
+     * Delay before the first retry.
+     */
+    private Duration initialDelay = Duration.ofSeconds(1);
+
+    /**
+     * Factor each further tier's delay grows by.
+     */
+    private double multiplier = 5.0;
+
+    /**
+     * Upper bound on any tier's delay.
+     */
+    private Duration maxDelay = Duration.ofMinutes(5);
+
+    /**
+     * How long forwarding a batch's failed records may wait for broker acks before the batch is redelivered instead.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Dead-lettered records re-driven per poll when replaying.
+     */
+    private int replayBatchSize = 500;
+
+    /**
+     * Wait before a batch whose failed records could not be forwarded is redelivered the first time.
+     * Each further redelivery waits twice as long, up to {@code redeliveryMaxInterval}, and redeliveries never stop.
+     */
+    private Duration redeliveryInitialInterval = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound on the wait between redeliveries of the same batch.
+     */
+    private Duration redeliveryMaxInterval = Duration.ofMinutes(1);
+
+    /**
+     * Returns how long a record waits in the given retry tier.
+     */
+    public Duration delay(int tier) {
+        double millis = initialDelay.toMillis() * Math.pow(multiplier, tier);
+        return Duration.ofMillis((long) Math.min(millis, maxDelay.toMillis()));
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+
+    public int getReplayBatchSize() {
+        return replayBatchSize;
+    }
+
+    public void setReplayBatchSize(int replayBatchSize) {
+        this.replayBatchSize = replayBatchSize;
+    }
+
+    public Duration getRedeliveryInitialInterval() {
+        return redeliveryInitialInterval;
+    }
+
+    public void setRedeliveryInitialInterval(Duration redeliveryInitialInterval) {
+        this.redeliveryInitialInterval = redeliveryInitialInterval;
+    }
+
+    public Duration getRedeliveryMaxInterval() {
+        return redeliveryMaxInterval;
+    }
+
+    public void setRedeliveryMaxInterval(Duration redeliveryMaxInterval) {
+        this.redeliveryMaxInterval = redeliveryMaxInterval;
+    }
+}
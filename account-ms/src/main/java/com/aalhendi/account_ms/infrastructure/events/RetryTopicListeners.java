@@ -0,0 +1,156 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.kafka.listener.ListenerContainerPauseService;
+import org.springframework.kafka.listener.ListenerContainerRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Registers one listener container per retry tier, subscribed to that tier of every consumed topic.
+ * Within a partition a tier's records are due in offset order, so a container applies the due prefix of each
+ * partition in a batch, then parks each partition whose next record is not due yet: it seeks back to that record
+ * and pauses just that partition until it is due. Other partitions keep flowing, and waiting happens in the
+ * tier's own container, so neither the main listeners nor the other tiers are held up.
+ */
+@Component
+public class RetryTopicListeners implements KafkaListenerConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryTopicListeners.class);
+
+    private final Map<String, EventBatchProcessor> processorsByTopic = new HashMap<>();
+    private final RetryProperties properties;
+    private final ObjectProvider<ListenerContainerRegistry> containerRegistry;
+    private final ListenerContainerPauseService pauseService;
+
+    /**
+     * The listener of one tier's container, which knows the container to pause partitions of.
+     */
+    final class TierListener {
+
+        private final String listenerId;
+
+        private TierListener(String listenerId) {
+            this.listenerId = listenerId;
+        }
+
+        public void redeliver(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment,
+                              Consumer<?, ?> consumer) {
+            RetryTopicListeners.this.redeliver(listenerId, records, acknowledgment, consumer);
+        }
+    }
+
+    public RetryTopicListeners(List<EventBatchProcessor> processors, RetryProperties properties,
+                               ObjectProvider<ListenerContainerRegistry> containerRegistry, TaskScheduler taskScheduler) {
+        processors.forEach(processor -> processor.topics().forEach(topic -> processorsByTopic.put(topic, processor)));
+        this.properties = properties;
+        // The registry is built by the same post-processor that asks us for endpoints, so look it up when needed
+        this.containerRegistry = containerRegistry;
+        // Only pausePartition is used, which is handed its container, so the service needs no registry
+        this.pauseService = new ListenerContainerPauseService(null, taskScheduler);
+    }
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+        Method redeliver;
+        try {
+            redeliver = TierListener.class.getMethod("redeliver", List.class, Acknowledgment.class, Consumer.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+
+        for (int tier = 0; tier < properties.getAttempts(); tier++) {
+            int currentTier = tier;
+            MethodKafkaListenerEndpoint<String, byte[]> endpoint = new MethodKafkaListenerEndpoint<>();
+            endpoint.setId(listenerId(tier));
+            endpoint.setTopics(processorsByTopic.keySet().stream()
+                .map(topic -> FailedEventForwarder.retryTopic(topic, currentTier))
+                .toArray(String[]::new));
+            endpoint.setBean(new TierListener(endpoint.getId()));
+            endpoint.setMethod(redeliver);
+            endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+            registrar.registerEndpoint(endpoint);
+        }
+    }
+
+    static String listenerId(int tier) {
+        return "event-retry-" + tier;
+    }
+
+    /**
+     * Applies the records that are due, grouped by original topic, and parks each partition on its first record
+     * that is not. Offsets are committed per partition up to the last applied record, so a parked record is
+     * never committed before it has been applied.
+     */
+    void redeliver(String listenerId, List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment,
+                   Consumer<?, ?> consumer) {
+        long now = System.currentTimeMillis();
+        Map<TopicPartition, ConsumerRecord<String, byte[]>> notDue = new LinkedHashMap<>();
+        Map<TopicPartition, OffsetAndMetadata> applied = new HashMap<>();
+        Map<String, List<ConsumerRecord<String, byte[]>>> byTopic = new LinkedHashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (notDue.containsKey(partition)) {
+                continue;
+            }
+            if (FailedEventForwarder.dueAt(record) > now) {
+                notDue.put(partition, record);
+                continue;
+            }
+            byTopic.computeIfAbsent(FailedEventForwarder.originalTopic(record), topic -> new ArrayList<>()).add(record);
+            applied.put(partition, new OffsetAndMetadata(record.offset() + 1));
+        }
+
+        byTopic.forEach((topic, batch) -> {
+            EventBatchProcessor processor = processorsByTopic.get(topic);
+            if (Objects.isNull(processor)) {
+                throw new IllegalStateException("No processor for retried records from " + topic);
+            }
+            logger.debug("Retrying {} records from {}", batch.size(), topic);
+            processor.process(topic, batch);
+        });
+
+        if (notDue.isEmpty()) {
+            acknowledgment.acknowledge();
+            return;
+        }
+
+        // NOTE(aalhendi): acknowledge() would commit the whole batch, parked records included, so commit directly.
+        // This is the listener thread, and with manual acks the container commits nothing for this batch itself.
+        if (!applied.isEmpty()) {
+            consumer.commitSync(applied);
+        }
+        MessageListenerContainer container = containerRegistry.getObject().getListenerContainer(listenerId);
+        if (Objects.isNull(container)) {
+            throw new IllegalStateException("No listener container " + listenerId);
+        }
+        notDue.forEach((partition, head) -> {
+            consumer.seek(partition, head.offset());
+            pauseService.pausePartition(container, partition, Duration.ofMillis(FailedEventForwarder.dueAt(head) - now));
+        });
+    }
+}
@@ -5,13 +5,20 @@ import com.aalhendi.account_ms.domain.entities.Account;
 import com.aalhendi.account_ms.domain.services.AccountServiceImpl;
 import com.aalhendi.account_ms.domain.repositories.AccountRepository;
 import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.grpc.server.service.GrpcService;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * gRPC service implementation for Account operations.
@@ -22,11 +29,17 @@ import java.util.List;
 public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBase {
 
     private static final Logger logger = LoggerFactory.getLogger(AccountGrpcService.class);
+    static final int MAX_BATCH_SIZE = 500;
     
     private final AccountRepository accountRepository;
+    private final FlowControlledStreamer streamer;
+    private final SingleFlight singleFlight;
 
-    public AccountGrpcService(AccountRepository accountRepository) {
+    public AccountGrpcService(AccountRepository accountRepository, FlowControlledStreamer streamer,
+                              SingleFlight singleFlight) {
         this.accountRepository = accountRepository;
+        this.streamer = streamer;
+        this.singleFlight = singleFlight;
     }
 
     @Override
@@ -35,29 +48,24 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
         logger.debug("gRPC GetAccountsByCustomer called for customer: {}", request.getCustomerNumber());
         
         try {
-            List<Account> accounts = accountRepository.findByCustomerNumber(request.getCustomerNumber());
-            
-            GetAccountsByCustomerResponse.Builder responseBuilder = GetAccountsByCustomerResponse.newBuilder();
-            
-            for (Account account : accounts) {
-                AccountInfo accountInfo = AccountInfo.newBuilder()
-                    .setAccountNumber(account.getAccountNumber().value())
-                    .setCustomerNumber(account.getAccountNumber().customerNumber())
-                    .setAccountType(account.getAccountType().name())
-                    .setStatus(account.getStatus().name())
-                    .setBalance(account.getBalance().value().toString())
-                    .setCreatedAt(account.getCreatedAt().toString())
-                    .setUpdatedAt(account.getUpdatedAt().toString())
-                    .build();
-                    
-                responseBuilder.addAccounts(accountInfo);
-            }
-            
-            responseBuilder.setTotalCount(accounts.size());
+            GetAccountsByCustomerResponse response = singleFlight.execute("GetAccountsByCustomer", request.getCustomerNumber(), () -> {
+                List<Account> accounts = accountRepository.findByCustomerNumber(request.getCustomerNumber());
+                
+                GetAccountsByCustomerResponse.Builder responseBuilder = GetAccountsByCustomerResponse.newBuilder();
+                
+                for (Account account : accounts) {
+                    responseBuilder.addAccounts(toAccountInfo(account));
+                }
+                
+                return responseBuilder.setTotalCount(accounts.size()).build();
+            });
             
-            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onNext(response);
             responseObserver.onCompleted();
             
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+            
         } catch (Exception e) {
             logger.error("Error getting accounts for customer: {}", request.getCustomerNumber(), e);
             responseObserver.onError(Status.INTERNAL
@@ -66,29 +74,72 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
         }
     }
 
+    @Override
+    public void streamAccountsByCustomer(GetAccountsByCustomerRequest request,
+                                        StreamObserver<AccountInfo> responseObserver) {
+        logger.debug("gRPC StreamAccountsByCustomer called for customer: {}", request.getCustomerNumber());
+        
+        streamer.stream(
+            responseObserver,
+            () -> accountRepository.streamByCustomerNumber(request.getCustomerNumber()),
+            AccountGrpcService::toAccountInfo
+        );
+    }
+
+    @Override
+    public void streamAllAccounts(StreamAllAccountsRequest request, StreamObserver<AccountInfo> responseObserver) {
+        logger.debug("gRPC StreamAllAccounts called since: {}", request.getSinceUpdatedAt());
+        
+        LocalDateTime since = null;
+        if (!request.getSinceUpdatedAt().isEmpty()) {
+            try {
+                since = LocalDateTime.parse(request.getSinceUpdatedAt());
+            } catch (DateTimeParseException e) {
+                responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Invalid since_updated_at: " + request.getSinceUpdatedAt())
+                    .asRuntimeException());
+                return;
+            }
+        }
+        
+        LocalDateTime updatedSince = since;
+        streamer.stream(
+            responseObserver,
+            () -> accountRepository.streamUpdatedSince(updatedSince),
+            AccountGrpcService::toAccountInfo
+        );
+    }
+
     @Override
     public void hasActiveAccounts(HasActiveAccountsRequest request, 
                                  StreamObserver<HasActiveAccountsResponse> responseObserver) {
         logger.debug("gRPC HasActiveAccounts called for customer: {}", request.getCustomerNumber());
         
         try {
-            List<Account> accounts = accountRepository.findByCustomerNumber(request.getCustomerNumber());
-            
-            List<Account> activeAccounts = accounts.stream()
-                .filter(account -> account.getStatus().isActive())
-                .toList();
+            HasActiveAccountsResponse response = singleFlight.execute("HasActiveAccounts", request.getCustomerNumber(), () -> {
+                List<Account> accounts = accountRepository.findByCustomerNumber(request.getCustomerNumber());
                 
-            HasActiveAccountsResponse.Builder responseBuilder = HasActiveAccountsResponse.newBuilder()
-                .setHasActiveAccounts(!activeAccounts.isEmpty())
-                .setActiveAccountCount(activeAccounts.size());
+                List<Account> activeAccounts = accounts.stream()
+                    .filter(account -> account.getStatus().isActive())
+                    .toList();
+                    
+                HasActiveAccountsResponse.Builder responseBuilder = HasActiveAccountsResponse.newBuilder()
+                    .setHasActiveAccounts(!activeAccounts.isEmpty())
+                    .setActiveAccountCount(activeAccounts.size());
+                    
+                for (Account account : activeAccounts) {
+                    responseBuilder.addActiveAccountNumbers(account.getAccountNumber().value());
+                }
                 
-            for (Account account : activeAccounts) {
-                responseBuilder.addActiveAccountNumbers(account.getAccountNumber().value());
-            }
+                return responseBuilder.build();
+            });
             
-            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onNext(response);
             responseObserver.onCompleted();
             
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+            
         } catch (Exception e) {
             logger.error("Error checking active accounts for customer: {}", request.getCustomerNumber(), e);
             responseObserver.onError(Status.INTERNAL
@@ -103,50 +154,98 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
         logger.debug("gRPC GetAccountSummary called for customer: {}", request.getCustomerNumber());
         
         try {
-            List<Account> accounts = accountRepository.findByCustomerNumber(request.getCustomerNumber());
+            // Payroll runs fire many identical summaries at once; they share one query
+            GetAccountSummaryResponse response = singleFlight.execute("GetAccountSummary", request.getCustomerNumber(),
+                () -> toSummary(request.getCustomerNumber(), accountRepository.findByCustomerNumber(request.getCustomerNumber())));
             
-            int totalAccounts = accounts.size();
-            int activeAccounts = (int) accounts.stream()
-                .filter(account -> account.getStatus().isActive())
-                .count();
-                
-            boolean hasSalaryAccount = accounts.stream()
-                .anyMatch(account -> account.getAccountType().name().equals("SALARY"));
-                
-            // Calculate total balance (sum of all account balances)
-            var totalBalance = accounts.stream()
-                .map(account -> account.getBalance().value())
-                .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
             
-            GetAccountSummaryResponse.Builder responseBuilder = GetAccountSummaryResponse.newBuilder()
-                .setCustomerNumber(request.getCustomerNumber())
-                .setTotalAccounts(totalAccounts)
-                .setActiveAccounts(activeAccounts)
-                .setTotalBalance(totalBalance.toString())
-                .setHasSalaryAccount(hasSalaryAccount);
-                
-            for (Account account : accounts) {
-                AccountInfo accountInfo = AccountInfo.newBuilder()
-                    .setAccountNumber(account.getAccountNumber().value())
-                    .setCustomerNumber(account.getAccountNumber().customerNumber())
-                    .setAccountType(account.getAccountType().name())
-                    .setStatus(account.getStatus().name())
-                    .setBalance(account.getBalance().value().toString())
-                    .setCreatedAt(account.getCreatedAt().toString())
-                    .setUpdatedAt(account.getUpdatedAt().toString())
-                    .build();
-                    
-                responseBuilder.addAccountDetails(accountInfo);
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+            
+        } catch (Exception e) {
+            logger.error("Error getting account summary for customer: {}", request.getCustomerNumber(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void getAccountSummaries(GetAccountSummariesRequest request,
+                                   StreamObserver<GetAccountSummariesResponse> responseObserver) {
+        logger.debug("gRPC GetAccountSummaries called for {} customers", request.getCustomerNumbersCount());
+        
+        // Duplicates are answered once, in first-seen order
+        Set<String> customerNumbers = new LinkedHashSet<>(request.getCustomerNumbersList());
+        if (customerNumbers.size() > MAX_BATCH_SIZE) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("At most " + MAX_BATCH_SIZE + " customer numbers per request, got " + customerNumbers.size())
+                .asRuntimeException());
+            return;
+        }
+        
+        try {
+            Map<String, List<Account>> accountsByCustomer = customerNumbers.isEmpty()
+                ? Map.of()
+                : accountRepository.findByCustomerNumbers(customerNumbers).stream()
+                    .collect(Collectors.groupingBy(account -> account.getAccountNumber().customerNumber()));
+            
+            GetAccountSummariesResponse.Builder responseBuilder = GetAccountSummariesResponse.newBuilder();
+            for (String customerNumber : customerNumbers) {
+                responseBuilder.addSummaries(
+                    toSummary(customerNumber, accountsByCustomer.getOrDefault(customerNumber, List.of())));
             }
             
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
             
         } catch (Exception e) {
-            logger.error("Error getting account summary for customer: {}", request.getCustomerNumber(), e);
+            logger.error("Error getting account summaries for {} customers", customerNumbers.size(), e);
             responseObserver.onError(Status.INTERNAL
                 .withDescription("Internal error: " + e.getMessage())
                 .asRuntimeException());
         }
     }
-} 
\ No newline at end of file
+
+    private GetAccountSummaryResponse toSummary(String customerNumber, List<Account> accounts) {
+        int totalAccounts = accounts.size();
+        int activeAccounts = (int) accounts.stream()
+            .filter(account -> account.getStatus().isActive())
+            .count();
+            
+        boolean hasSalaryAccount = accounts.stream()
+            .anyMatch(account -> account.getAccountType().name().equals("SALARY"));
+            
+        // Calculate total balance (sum of all account balances)
+        var totalBalance = accounts.stream()
+            .map(account -> account.getBalance().value())
+            .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+        
+        GetAccountSummaryResponse.Builder responseBuilder = GetAccountSummaryResponse.newBuilder()
+            .setCustomerNumber(customerNumber)
+            .setTotalAccounts(totalAccounts)
+            .setActiveAccounts(activeAccounts)
+            .setTotalBalance(totalBalance.toString())
+            .setHasSalaryAccount(hasSalaryAccount);
+            
+        for (Account account : accounts) {
+            responseBuilder.addAccountDetails(toAccountInfo(account));
+        }
+        
+        return responseBuilder.build();
+    }
+
+    private static AccountInfo toAccountInfo(Account account) {
+        return AccountInfo.newBuilder()
+            .setAccountNumber(account.getAccountNumber().value())
+            .setCustomerNumber(account.getAccountNumber().customerNumber())
+            .setAccountType(account.getAccountType().name())
+            .setStatus(account.getStatus().name())
+            .setBalance(account.getBalance().value().toString())
+            .setCreatedAt(account.getCreatedAt().toString())
+            .setUpdatedAt(account.getUpdatedAt().toString())
+            .build();
+    }
+}
@@ -0,0 +1,256 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import com.aalhendi.account.grpc.v2.*;
+import com.aalhendi.account_ms.domain.entities.Account;
+import com.aalhendi.account_ms.domain.repositories.AccountRepository;
+import com.google.protobuf.Timestamp;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.grpc.server.service.GrpcService;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * gRPC service implementation for Account operations, v2 schema.
+ * Served alongside {@link AccountGrpcService} so clients can migrate one call at a time.
+ * Balances go out as minor units and timestamps as proto Timestamps, so no decimal or date strings are built per row.
+ */
+@GrpcService
+@Service
+public class AccountGrpcServiceV2 extends AccountServiceGrpc.AccountServiceImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountGrpcServiceV2.class);
+
+    // NOTE(aalhendi): timestamps are persisted as LocalDateTime in the JVM's zone
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final AccountRepository accountRepository;
+    private final FlowControlledStreamer streamer;
+    private final SingleFlight singleFlight;
+
+    public AccountGrpcServiceV2(AccountRepository accountRepository, FlowControlledStreamer streamer,
+                                SingleFlight singleFlight) {
+        this.accountRepository = accountRepository;
+        this.streamer = streamer;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public void getAccountsByCustomer(GetAccountsByCustomerRequest request,
+                                     StreamObserver<GetAccountsByCustomerResponse> responseObserver) {
+        logger.debug("gRPC v2 GetAccountsByCustomer called for customer: {}", request.getCustomerNumber());
+
+        try {
+            GetAccountsByCustomerResponse response = singleFlight.execute("v2.GetAccountsByCustomer", request.getCustomerNumber(), () -> {
+                List<Account> accounts = accountRepository.findByCustomerNumber(request.getCustomerNumber());
+
+                GetAccountsByCustomerResponse.Builder responseBuilder = GetAccountsByCustomerResponse.newBuilder();
+                for (Account account : accounts) {
+                    responseBuilder.addAccounts(toAccountInfo(account));
+                }
+
+                return responseBuilder.setTotalCount(accounts.size()).build();
+            });
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            logger.error("Error getting accounts for customer: {}", request.getCustomerNumber(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void streamAccountsByCustomer(GetAccountsByCustomerRequest request,
+                                        StreamObserver<AccountInfo> responseObserver) {
+        logger.debug("gRPC v2 StreamAccountsByCustomer called for customer: {}", request.getCustomerNumber());
+
+        streamer.stream(
+            responseObserver,
+            () -> accountRepository.streamByCustomerNumber(request.getCustomerNumber()),
+            AccountGrpcServiceV2::toAccountInfo
+        );
+    }
+
+    @Override
+    public void streamAllAccounts(StreamAllAccountsRequest request, StreamObserver<AccountInfo> responseObserver) {
+        logger.debug("gRPC v2 StreamAllAccounts called, since set: {}", request.hasSinceUpdatedAt());
+
+        LocalDateTime since = request.hasSinceUpdatedAt() ? toLocalDateTime(request.getSinceUpdatedAt()) : null;
+        streamer.stream(
+            responseObserver,
+            () -> accountRepository.streamUpdatedSince(since),
+            AccountGrpcServiceV2::toAccountInfo
+        );
+    }
+
+    @Override
+    public void hasActiveAccounts(HasActiveAccountsRequest request,
+                                 StreamObserver<HasActiveAccountsResponse> responseObserver) {
+        logger.debug("gRPC v2 HasActiveAccounts called for customer: {}", request.getCustomerNumber());
+
+        try {
+            HasActiveAccountsResponse response = singleFlight.execute("v2.HasActiveAccounts", request.getCustomerNumber(), () -> {
+                List<Account> activeAccounts = accountRepository.findByCustomerNumber(request.getCustomerNumber()).stream()
+                    .filter(account -> account.getStatus().isActive())
+                    .toList();
+
+                HasActiveAccountsResponse.Builder responseBuilder = HasActiveAccountsResponse.newBuilder()
+                    .setHasActiveAccounts(!activeAccounts.isEmpty())
+                    .setActiveAccountCount(activeAccounts.size());
+                for (Account account : activeAccounts) {
+                    responseBuilder.addActiveAccountNumbers(account.getAccountNumber().value());
+                }
+
+                return responseBuilder.build();
+            });
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            logger.error("Error checking active accounts for customer: {}", request.getCustomerNumber(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void getAccountSummary(GetAccountSummaryRequest request,
+                                 StreamObserver<GetAccountSummaryResponse> responseObserver) {
+        logger.debug("gRPC v2 GetAccountSummary called for customer: {}", request.getCustomerNumber());
+
+        try {
+            GetAccountSummaryResponse response = singleFlight.execute("v2.GetAccountSummary", request.getCustomerNumber(),
+                () -> toSummary(request.getCustomerNumber(), accountRepository.findByCustomerNumber(request.getCustomerNumber())));
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            logger.error("Error getting account summary for customer: {}", request.getCustomerNumber(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void getAccountSummaries(GetAccountSummariesRequest request,
+                                   StreamObserver<GetAccountSummariesResponse> responseObserver) {
+        logger.debug("gRPC v2 GetAccountSummaries called for {} customers", request.getCustomerNumbersCount());
+
+        // Duplicates are answered once, in first-seen order
+        Set<String> customerNumbers = new LinkedHashSet<>(request.getCustomerNumbersList());
+        if (customerNumbers.size() > AccountGrpcService.MAX_BATCH_SIZE) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("At most " + AccountGrpcService.MAX_BATCH_SIZE + " customer numbers per request, got " + customerNumbers.size())
+                .asRuntimeException());
+            return;
+        }
+
+        try {
+            Map<String, List<Account>> accountsByCustomer = customerNumbers.isEmpty()
+                ? Map.of()
+                : accountRepository.findByCustomerNumbers(customerNumbers).stream()
+                    .collect(Collectors.groupingBy(account -> account.getAccountNumber().customerNumber()));
+
+            GetAccountSummariesResponse.Builder responseBuilder = GetAccountSummariesResponse.newBuilder();
+            for (String customerNumber : customerNumbers) {
+                responseBuilder.addSummaries(
+                    toSummary(customerNumber, accountsByCustomer.getOrDefault(customerNumber, List.of())));
+            }
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error getting account summaries for {} customers", customerNumbers.size(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    private static GetAccountSummaryResponse toSummary(String customerNumber, List<Account> accounts) {
+        GetAccountSummaryResponse.Builder responseBuilder = GetAccountSummaryResponse.newBuilder()
+            .setCustomerNumber(customerNumber)
+            .setTotalAccounts(accounts.size());
+
+        int activeAccounts = 0;
+        long totalBalance = 0;
+        boolean hasSalaryAccount = false;
+        for (Account account : accounts) {
+            AccountInfo accountInfo = toAccountInfo(account);
+            if (account.getStatus().isActive()) {
+                activeAccounts++;
+            }
+            if (accountInfo.getAccountType() == AccountType.ACCOUNT_TYPE_SALARY) {
+                hasSalaryAccount = true;
+            }
+            totalBalance = Math.addExact(totalBalance, accountInfo.getBalanceMinorUnits());
+            responseBuilder.addAccountDetails(accountInfo);
+        }
+
+        return responseBuilder
+            .setActiveAccounts(activeAccounts)
+            .setTotalBalanceMinorUnits(totalBalance)
+            .setHasSalaryAccount(hasSalaryAccount)
+            .build();
+    }
+
+    private static AccountInfo toAccountInfo(Account account) {
+        return AccountInfo.newBuilder()
+            .setAccountNumber(account.getAccountNumber().value())
+            .setCustomerNumber(account.getAccountNumber().customerNumber())
+            .setAccountType(switch (account.getAccountType()) {
+                case SAVING -> AccountType.ACCOUNT_TYPE_SAVING;
+                case INVESTMENT -> AccountType.ACCOUNT_TYPE_INVESTMENT;
+                case SALARY -> AccountType.ACCOUNT_TYPE_SALARY;
+            })
+            .setStatus(switch (account.getStatus()) {
+                case PENDING -> AccountStatus.ACCOUNT_STATUS_PENDING;
+                case ACTIVE -> AccountStatus.ACCOUNT_STATUS_ACTIVE;
+                case SUSPENDED -> AccountStatus.ACCOUNT_STATUS_SUSPENDED;
+                case FROZEN -> AccountStatus.ACCOUNT_STATUS_FROZEN;
+                case CLOSED -> AccountStatus.ACCOUNT_STATUS_CLOSED;
+            })
+            .setBalanceMinorUnits(account.getBalance().toMinorUnits())
+            .setCreatedAt(toTimestamp(account.getCreatedAt()))
+            .setUpdatedAt(toTimestamp(account.getUpdatedAt()))
+            .build();
+    }
+
+    static Timestamp toTimestamp(LocalDateTime dateTime) {
+        Instant instant = dateTime.atZone(ZONE).toInstant();
+        return Timestamp.newBuilder()
+            .setSeconds(instant.getEpochSecond())
+            .setNanos(instant.getNano())
+            .build();
+    }
+
+    static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()), ZONE);
+    }
+}
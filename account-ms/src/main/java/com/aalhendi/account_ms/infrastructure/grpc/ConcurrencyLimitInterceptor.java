@@ -0,0 +1,134 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrent unary calls per method and sheds load once a call has queued too long.
+ * A call waits for a permit on its own (virtual) thread; if none frees up within the queue timeout,
+ * it is closed with RESOURCE_EXHAUSTED before the handler runs, so a burst costs the excess callers
+ * a fast failure instead of slowing every call down.
+ * Streaming calls are not limited here; FlowControlledStreamer bounds them.
+ */
+public class ConcurrencyLimitInterceptor implements ServerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    private record MethodLimiter(Semaphore permits, Timer queueTime, Counter rejected) {}
+
+    private final ServerConcurrencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, MethodLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(ServerConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+        if (!properties.isEnabled() || method.getType() != MethodDescriptor.MethodType.UNARY) {
+            return next.startCall(call, headers);
+        }
+
+        MethodLimiter limiter = limiters.computeIfAbsent(method.getFullMethodName(), fullMethodName -> newLimiter(method));
+        long queuedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = limiter.permits().tryAcquire(properties.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        limiter.queueTime().record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            limiter.rejected().increment();
+            logger.debug("Rejected {}: no permit within {}", method.getFullMethodName(), properties.getQueueTimeout());
+            call.close(Status.RESOURCE_EXHAUSTED
+                .withDescription("Server busy, " + method.getBareMethodName() + " queued longer than " + properties.getQueueTimeout()),
+                new Metadata());
+            return new ServerCall.Listener<>() {};
+        }
+
+        // Released exactly once, whichever of close, complete or cancel comes first
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.permits().release();
+            }
+        };
+
+        ServerCall<ReqT, RespT> releasingCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                release.run();
+                super.close(status, trailers);
+            }
+        };
+
+        try {
+            return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(releasingCall, headers)) {
+                @Override
+                public void onComplete() {
+                    try {
+                        super.onComplete();
+                    } finally {
+                        release.run();
+                    }
+                }
+
+                @Override
+                public void onCancel() {
+                    try {
+                        super.onCancel();
+                    } finally {
+                        release.run();
+                    }
+                }
+            };
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    private MethodLimiter newLimiter(MethodDescriptor<?, ?> method) {
+        int limit = properties.limitFor(method.getBareMethodName());
+        String methodTag = method.getFullMethodName();
+        Semaphore permits = new Semaphore(limit);
+
+        meterRegistry.gauge("grpc.server.concurrency.in-use",
+            Tags.of("method", methodTag), permits, p -> limit - p.availablePermits());
+        return new MethodLimiter(
+            permits,
+            Timer.builder("grpc.server.concurrency.queue-time")
+                .description("Time unary calls waited for a concurrency permit")
+                .tag("method", methodTag)
+                .register(meterRegistry),
+            Counter.builder("grpc.server.concurrency.rejected")
+                .description("Unary calls rejected with RESOURCE_EXHAUSTED after waiting past the queue timeout")
+                .tag("method", methodTag)
+                .register(meterRegistry)
+        );
+    }
+}
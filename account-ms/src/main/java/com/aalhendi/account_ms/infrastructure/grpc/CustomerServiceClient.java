@@ -1,14 +1,41 @@
 package com.aalhendi.account_ms.infrastructure.grpc;
 
 import com.aalhendi.customer.grpc.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
 /**
  * gRPC client for calling Customer service from Account service.
  * Handles inter-service communication to customer-ms.
+ * Every call gets a per-RPC deadline and goes through a per-RPC circuit breaker.
+ * Calls that reach the channel are timed by GrpcClientMetricsInterceptor (grpc.client.call.duration); calls an open
+ * breaker refuses never do, so they are counted here instead.
+ * Retries and hedging happen inside the channel (see GrpcClientConfig), below the breaker.
  * 
  * TODO(aalhendi): impl proper gRPC client config with service discovery, as opposed to hardcoded values
  */
@@ -16,13 +43,52 @@ import org.springframework.stereotype.Service;
 public class CustomerServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerServiceClient.class);
+    private static final String REJECTED_METRIC = "customer.service.client.rejected";
+    private static final String CIRCUIT_BREAKER_CONFIG = "customer-service";
+    private static final String VALIDATION_CACHE_NAME = "customer.validation.cache";
+    private static final String ACTIVE_STATUS = "ACTIVE";
+    private static final int VALIDATION_VERSION_STRIPES = 1024;
+    private static final Set<Status.Code> SERVER_FAILURES = EnumSet.of(
+        Status.Code.UNAVAILABLE,
+        Status.Code.DEADLINE_EXCEEDED,
+        Status.Code.INTERNAL,
+        Status.Code.UNKNOWN,
+        Status.Code.RESOURCE_EXHAUSTED
+    );
     
     // TODO(aalhendi): inject the actual gRPC stub with spring autowiring when Spring gRPC client is configured
     // should look like: @GrpcClient("customer-service")
     private final CustomerServiceGrpc.CustomerServiceBlockingStub customerServiceStub;
+    private final CustomerServiceClientProperties properties;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Cache<String, ValidateCustomerResponse> validationCache;
+    // Bumped by customer events, striped by customer number; a load that raced with an event
+    // for its customer must not be cached. Striping keeps one customer's events from voiding every load.
+    private final AtomicLongArray validationVersions = new AtomicLongArray(VALIDATION_VERSION_STRIPES);
+    private final Counter validationCacheEventUpdates;
 
-    public CustomerServiceClient(CustomerServiceGrpc.CustomerServiceBlockingStub customerServiceStub) {
+    public CustomerServiceClient(CustomerServiceGrpc.CustomerServiceBlockingStub customerServiceStub,
+                                 CustomerServiceClientProperties properties,
+                                 CircuitBreakerRegistry circuitBreakerRegistry,
+                                 MeterRegistry meterRegistry) {
         this.customerServiceStub = customerServiceStub;
+        this.properties = properties;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.meterRegistry = meterRegistry;
+        
+        CustomerServiceClientProperties.ValidationCache cacheProperties = properties.getValidationCache();
+        this.validationCache = Caffeine.newBuilder()
+            .maximumSize(cacheProperties.isEnabled() ? cacheProperties.getMaxSize() : 0)
+            // Expiry counts from the network fetch only; event-driven updates don't extend an entry's life
+            .expireAfter(Expiry.creating((String key, ValidateCustomerResponse value) -> cacheProperties.getMaxStaleness()))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, validationCache, VALIDATION_CACHE_NAME);
+        this.validationCacheEventUpdates = Counter.builder(VALIDATION_CACHE_NAME + ".event.updates")
+            .description("Cached customer validations updated or evicted by customer events")
+            .register(meterRegistry);
     }
 
     /**
@@ -40,7 +106,7 @@ public class CustomerServiceClient {
                 .setCustomerNumber(customerNumber)
                 .build();
                 
-            return customerServiceStub.getCustomer(request);
+            return invoke(CustomerServiceGrpc.getGetCustomerMethod(), stub -> stub.getCustomer(request));
             
         } catch (StatusRuntimeException e) {
             logger.error("gRPC error getting customer {}: {}", customerNumber, e.getStatus());
@@ -53,12 +119,18 @@ public class CustomerServiceClient {
 
     /**
      * Validates if customer exists and is active.
+     * Served from the near cache when possible.
      * 
      * @param customerNumber the customer number
      * @return validation response
      * @throws CustomerServiceException if service error
      */
     public ValidateCustomerResponse validateCustomer(String customerNumber) {
+        Optional<ValidateCustomerResponse> cached = getCachedValidation(customerNumber);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        
         logger.debug("Calling customer service to validate customer: {}", customerNumber);
         
         try {
@@ -66,7 +138,11 @@ public class CustomerServiceClient {
                 .setCustomerNumber(customerNumber)
                 .build();
                 
-            return customerServiceStub.validateCustomer(request);
+            long version = validationVersions.get(versionStripe(customerNumber));
+            ValidateCustomerResponse response =
+                invoke(CustomerServiceGrpc.getValidateCustomerMethod(), stub -> stub.validateCustomer(request));
+            cacheValidation(customerNumber, response, version);
+            return response;
             
         } catch (StatusRuntimeException e) {
             logger.error("gRPC error validating customer {}: {}", customerNumber, e.getStatus());
@@ -77,6 +153,32 @@ public class CustomerServiceClient {
         }
     }
 
+    /**
+     * Validates several customers in one round trip.
+     * 
+     * @param customerNumbers the customer numbers
+     * @return one validation result per distinct customer number, in request order
+     * @throws CustomerServiceException if service error
+     */
+    public ValidateCustomersResponse validateCustomers(Collection<String> customerNumbers) {
+        logger.debug("Calling customer service to validate {} customers", customerNumbers.size());
+        
+        try {
+            ValidateCustomersRequest request = ValidateCustomersRequest.newBuilder()
+                .addAllCustomerNumbers(customerNumbers)
+                .build();
+                
+            return invoke(CustomerServiceGrpc.getValidateCustomersMethod(), stub -> stub.validateCustomers(request));
+            
+        } catch (StatusRuntimeException e) {
+            logger.error("gRPC error validating {} customers: {}", customerNumbers.size(), e.getStatus());
+            throw new CustomerServiceException("Failed to validate " + customerNumbers.size() + " customers", e);
+        } catch (Exception e) {
+            logger.error("Unexpected error validating {} customers: {}", customerNumbers.size(), e.getMessage(), e);
+            throw new CustomerServiceException("Unexpected error validating " + customerNumbers.size() + " customers", e);
+        }
+    }
+
     /**
      * Checks if customer can create additional accounts.
      * 
@@ -95,7 +197,7 @@ public class CustomerServiceClient {
                 .setAccountType(accountType)
                 .build();
                 
-            return customerServiceStub.checkAccountLimit(request);
+            return invoke(CustomerServiceGrpc.getCheckAccountLimitMethod(), stub -> stub.checkAccountLimit(request));
             
         } catch (StatusRuntimeException e) {
             logger.error("gRPC error checking account limit for customer {}: {}", customerNumber, e.getStatus());
@@ -106,6 +208,146 @@ public class CustomerServiceClient {
         }
     }
 
+    /**
+     * Validates the customer and checks the account limit in a single round trip.
+     * 
+     * @param customerNumber the customer number
+     * @param accountType the account type to create
+     * @return validation result, plus the limit check if the customer is active
+     * @throws CustomerServiceException if service error
+     */
+    public PrepareAccountCreationResponse prepareAccountCreation(String customerNumber, String accountType) {
+        logger.debug("Calling customer service to prepare account creation for customer: {}, accountType: {}", 
+            customerNumber, accountType);
+        
+        try {
+            PrepareAccountCreationRequest request = PrepareAccountCreationRequest.newBuilder()
+                .setCustomerNumber(customerNumber)
+                .setAccountType(accountType)
+                .build();
+                
+            long version = validationVersions.get(versionStripe(customerNumber));
+            PrepareAccountCreationResponse response =
+                invoke(CustomerServiceGrpc.getPrepareAccountCreationMethod(), stub -> stub.prepareAccountCreation(request));
+            cacheValidation(customerNumber, response.getValidation(), version);
+            return response;
+            
+        } catch (StatusRuntimeException e) {
+            logger.error("gRPC error preparing account creation for customer {}: {}", customerNumber, e.getStatus());
+            throw new CustomerServiceException("Failed to prepare account creation for customer: " + customerNumber, e);
+        } catch (Exception e) {
+            logger.error("Unexpected error preparing account creation for customer {}: {}", customerNumber, e.getMessage(), e);
+            throw new CustomerServiceException("Unexpected error preparing account creation for customer: " + customerNumber, e);
+        }
+    }
+
+    /**
+     * Looks up a customer validation in the near cache only, without a network call.
+     * Entries are at most validation-cache.max-staleness old.
+     * 
+     * @param customerNumber the customer number
+     * @return the cached validation, empty on a miss
+     */
+    public Optional<ValidateCustomerResponse> getCachedValidation(String customerNumber) {
+        return Optional.ofNullable(validationCache.getIfPresent(customerNumber));
+    }
+
+    /**
+     * Applies a customer status change to the near cache.
+     * A cached entry is rewritten with the new status; uncached customers are left alone.
+     * 
+     * @param customerNumber the customer number
+     * @param newStatus the customer's new status name, e.g. ACTIVE
+     */
+    public void onCustomerStatusChanged(String customerNumber, String newStatus) {
+        // Bump before touching the entry, so a load either sees the bump or is rewritten below
+        validationVersions.incrementAndGet(versionStripe(customerNumber));
+        ValidateCustomerResponse updated = validationCache.asMap().computeIfPresent(customerNumber, (key, cached) -> {
+            boolean isActive = ACTIVE_STATUS.equals(newStatus);
+            ValidateCustomerResponse.Builder builder = cached.toBuilder()
+                .setIsActive(isActive)
+                .setStatus(newStatus)
+                .clearErrorMessage();
+            if (!isActive) {
+                builder.setErrorMessage("Customer is not active. Status: " + newStatus);
+            }
+            return builder.build();
+        });
+        if (Objects.nonNull(updated)) {
+            validationCacheEventUpdates.increment();
+            logger.debug("Updated cached validation for customer {} to status {}", customerNumber, newStatus);
+        }
+    }
+
+    /**
+     * Drops a customer from the near cache, e.g. after a change the cache can't apply in place.
+     * 
+     * @param customerNumber the customer number
+     */
+    public void evictCachedValidation(String customerNumber) {
+        validationVersions.incrementAndGet(versionStripe(customerNumber));
+        if (Objects.nonNull(validationCache.asMap().remove(customerNumber))) {
+            validationCacheEventUpdates.increment();
+        }
+    }
+
+    /**
+     * Caches a validation unless a customer event arrived while it was in flight.
+     * The version check and the write happen under the entry's lock, so an event's update can't land between them.
+     * Unknown customers are not cached, so a customer created moments later is seen immediately.
+     */
+    private void cacheValidation(String customerNumber, ValidateCustomerResponse response, long version) {
+        if (!response.getIsValid()) {
+            return;
+        }
+        int stripe = versionStripe(customerNumber);
+        validationCache.asMap().compute(customerNumber,
+            (key, cached) -> validationVersions.get(stripe) == version ? response : cached);
+    }
+
+    private static int versionStripe(String customerNumber) {
+        return Math.floorMod(customerNumber.hashCode(), VALIDATION_VERSION_STRIPES);
+    }
+
+    /**
+     * Invokes an RPC with its deadline and circuit breaker.
+     * An open breaker fails fast with UNAVAILABLE, so callers handle it like any other gRPC failure.
+     */
+    private <T> T invoke(MethodDescriptor<?, T> method, Function<CustomerServiceGrpc.CustomerServiceBlockingStub, T> call) {
+        String rpcName = method.getBareMethodName();
+        CustomerServiceClientProperties.MethodPolicy policy = properties.policyFor(rpcName);
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(rpcName, this::createCircuitBreaker);
+        
+        try {
+            return circuitBreaker.executeSupplier(() -> call.apply(
+                customerServiceStub.withDeadlineAfter(policy.getDeadline().toNanos(), TimeUnit.NANOSECONDS)));
+        } catch (CallNotPermittedException e) {
+            Counter.builder(REJECTED_METRIC)
+                .description("Customer service calls refused by an open circuit breaker, without reaching the channel")
+                .tag("method", rpcName)
+                .register(meterRegistry)
+                .increment();
+            throw Status.UNAVAILABLE
+                .withDescription("Circuit breaker open for customer service " + rpcName)
+                .withCause(e)
+                .asRuntimeException();
+        }
+    }
+
+    /**
+     * Creates the breaker for an RPC from the shared "customer-service" config, if one is defined.
+     * Only failures that point at an unhealthy server count; e.g. NOT_FOUND does not.
+     */
+    private CircuitBreaker createCircuitBreaker(String rpcName) {
+        CircuitBreakerConfig baseConfig = circuitBreakerRegistry.getConfiguration(CIRCUIT_BREAKER_CONFIG)
+            .orElse(circuitBreakerRegistry.getDefaultConfig());
+        CircuitBreakerConfig config = CircuitBreakerConfig.from(baseConfig)
+            .recordException(e -> e instanceof StatusRuntimeException sre
+                && SERVER_FAILURES.contains(sre.getStatus().getCode()))
+            .build();
+        return circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_CONFIG + "." + rpcName, config);
+    }
+
     /**
      * Custom exception for customer service communication errors.
      */
@@ -0,0 +1,381 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Connection and per-RPC call policies for the customer-ms gRPC client.
+ * Methods are keyed by their proto RPC name, e.g. {@code methods[GetCustomer].deadline=500ms}.
+ */
+@ConfigurationProperties(prefix = "grpc.client.customer-service")
+public class CustomerServiceClientProperties {
+
+    private String host = "localhost";
+    private int port = 9091;
+
+    /**
+     * Channel target URI, e.g. dns:///customer-ms:9091. Overrides host and port.
+     */
+    private String target;
+
+    /**
+     * Fixed replica addresses as host:port. Overrides target, host and port.
+     */
+    private List<String> addresses = new ArrayList<>();
+
+    /**
+     * gRPC load balancing policy: pick_first, round_robin or least_request.
+     */
+    private String loadBalancingPolicy = "round_robin";
+
+    private HealthCheck healthCheck = new HealthCheck();
+
+    /**
+     * Number of channels to spread calls over. Each keeps its own connection per replica.
+     */
+    private int channelPoolSize = 1;
+
+    /**
+     * Deadline for RPCs without their own policy.
+     */
+    private Duration defaultDeadline = Duration.ofSeconds(2);
+
+    /**
+     * Caps retries across the channel once too many calls fail (gRPC retry throttling).
+     */
+    private RetryThrottling retryThrottling = new RetryThrottling();
+
+    private Map<String, MethodPolicy> methods = new HashMap<>();
+
+    private ValidationCache validationCache = new ValidationCache();
+
+    /**
+     * Returns the policy for an RPC, falling back to the default deadline with no retries.
+     */
+    public MethodPolicy policyFor(String rpcName) {
+        MethodPolicy policy = methods.get(rpcName);
+        if (Objects.isNull(policy)) {
+            policy = new MethodPolicy();
+        }
+        if (Objects.isNull(policy.getDeadline())) {
+            policy.setDeadline(defaultDeadline);
+        }
+        return policy;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public List<String> getAddresses() {
+        return addresses;
+    }
+
+    public void setAddresses(List<String> addresses) {
+        this.addresses = addresses;
+    }
+
+    public String getLoadBalancingPolicy() {
+        return loadBalancingPolicy;
+    }
+
+    public void setLoadBalancingPolicy(String loadBalancingPolicy) {
+        this.loadBalancingPolicy = loadBalancingPolicy;
+    }
+
+    public HealthCheck getHealthCheck() {
+        return healthCheck;
+    }
+
+    public void setHealthCheck(HealthCheck healthCheck) {
+        this.healthCheck = healthCheck;
+    }
+
+    public int getChannelPoolSize() {
+        return channelPoolSize;
+    }
+
+    public void setChannelPoolSize(int channelPoolSize) {
+        this.channelPoolSize = channelPoolSize;
+    }
+
+    public Duration getDefaultDeadline() {
+        return defaultDeadline;
+    }
+
+    public void setDefaultDeadline(Duration defaultDeadline) {
+        this.defaultDeadline = defaultDeadline;
+    }
+
+    public RetryThrottling getRetryThrottling() {
+        return retryThrottling;
+    }
+
+    public void setRetryThrottling(RetryThrottling retryThrottling) {
+        this.retryThrottling = retryThrottling;
+    }
+
+    public ValidationCache getValidationCache() {
+        return validationCache;
+    }
+
+    public void setValidationCache(ValidationCache validationCache) {
+        this.validationCache = validationCache;
+    }
+
+    public Map<String, MethodPolicy> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(Map<String, MethodPolicy> methods) {
+        this.methods = methods;
+    }
+
+    /**
+     * Call policy for a single RPC.
+     * Retry and hedging are mutually exclusive in gRPC; hedging wins if both are enabled.
+     * Only enable either for idempotent RPCs.
+     */
+    public static class MethodPolicy {
+
+        private Duration deadline;
+        private Retry retry = new Retry();
+        private Hedging hedging = new Hedging();
+
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+
+        public Retry getRetry() {
+            return retry;
+        }
+
+        public void setRetry(Retry retry) {
+            this.retry = retry;
+        }
+
+        public Hedging getHedging() {
+            return hedging;
+        }
+
+        public void setHedging(Hedging hedging) {
+            this.hedging = hedging;
+        }
+    }
+
+    /**
+     * Sequential retries with exponential backoff, for failures that never reached the server.
+     */
+    public static class Retry {
+
+        private int maxAttempts = 1;
+        private Duration initialBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofMillis(500);
+        private double backoffMultiplier = 2.0;
+        private List<String> retryableStatusCodes = List.of("UNAVAILABLE");
+
+        public boolean isEnabled() {
+            return maxAttempts > 1;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public double getBackoffMultiplier() {
+            return backoffMultiplier;
+        }
+
+        public void setBackoffMultiplier(double backoffMultiplier) {
+            this.backoffMultiplier = backoffMultiplier;
+        }
+
+        public List<String> getRetryableStatusCodes() {
+            return retryableStatusCodes;
+        }
+
+        public void setRetryableStatusCodes(List<String> retryableStatusCodes) {
+            this.retryableStatusCodes = retryableStatusCodes;
+        }
+    }
+
+    /**
+     * Hedged requests: a further attempt is sent if no response arrives within the delay,
+     * and the first response wins. Trades extra load for a shorter tail.
+     */
+    public static class Hedging {
+
+        private int maxAttempts = 1;
+        private Duration delay = Duration.ofMillis(100);
+        private List<String> nonFatalStatusCodes = List.of("UNAVAILABLE");
+
+        public boolean isEnabled() {
+            return maxAttempts > 1;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getDelay() {
+            return delay;
+        }
+
+        public void setDelay(Duration delay) {
+            this.delay = delay;
+        }
+
+        public List<String> getNonFatalStatusCodes() {
+            return nonFatalStatusCodes;
+        }
+
+        public void setNonFatalStatusCodes(List<String> nonFatalStatusCodes) {
+            this.nonFatalStatusCodes = nonFatalStatusCodes;
+        }
+    }
+
+    /**
+     * Token bucket shared by all retries and hedges on the channel.
+     */
+    public static class RetryThrottling {
+
+        private int maxTokens = 10;
+        private double tokenRatio = 0.1;
+
+        public int getMaxTokens() {
+            return maxTokens;
+        }
+
+        public void setMaxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+        }
+
+        public double getTokenRatio() {
+            return tokenRatio;
+        }
+
+        public void setTokenRatio(double tokenRatio) {
+            this.tokenRatio = tokenRatio;
+        }
+    }
+
+    /**
+     * Client-side health checking over the standard grpc.health.v1 service.
+     * Replicas reporting NOT_SERVING get no calls. Applies to round_robin and least_request, not pick_first.
+     */
+    public static class HealthCheck {
+
+        private boolean enabled = true;
+
+        /**
+         * Service name to check; empty checks the server as a whole.
+         */
+        private String serviceName = "";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        public void setServiceName(String serviceName) {
+            this.serviceName = serviceName;
+        }
+    }
+
+    /**
+     * Near cache of ValidateCustomer results, kept fresh by customer status events.
+     * maxStaleness is a hard bound: an entry is never served once it is older than this,
+     * even if an invalidation event was lost.
+     */
+    public static class ValidationCache {
+
+        private boolean enabled = true;
+        private long maxSize = 10_000;
+        private Duration maxStaleness = Duration.ofSeconds(60);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Pumps a database cursor into a server-streaming gRPC call, honoring flow control.
+ * Each stream runs on its own worker thread inside a read-only transaction, and only sends
+ * while the call is ready, so a slow client holds back the cursor instead of filling memory.
+ */
+@Component
+public class FlowControlledStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlowControlledStreamer.class);
+
+    // Upper bound on a single wait, in case an onReady signal races with the readiness check
+    private static final long READY_POLL_MILLIS = 1000;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public FlowControlledStreamer(PlatformTransactionManager transactionManager,
+                                  @Value("${grpc.server.streams.max-concurrent:8}") int maxConcurrentStreams) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        // Each stream pins a DB connection for its lifetime, so the pool is bounded and never queues
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            maxConcurrentStreams, maxConcurrentStreams, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "grpc-stream-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Streams every element of the source to the observer, then completes the call.
+     * The source is opened and closed on the worker thread, inside the transaction.
+     *
+     * @param responseObserver the server call's response observer
+     * @param source opens the database stream
+     * @param mapper converts each element to a response message
+     */
+    public <T, R> void stream(StreamObserver<R> responseObserver, Supplier<Stream<T>> source, Function<T, R> mapper) {
+        ServerCallStreamObserver<R> call = (ServerCallStreamObserver<R>) responseObserver;
+        Object readySignal = new Object();
+
+        // Handlers must be registered before the service method returns
+        call.setOnReadyHandler(() -> signal(readySignal));
+        call.setOnCancelHandler(() -> signal(readySignal));
+
+        try {
+            executor.execute(() -> pump(call, readySignal, source, mapper));
+        } catch (RejectedExecutionException e) {
+            call.onError(Status.RESOURCE_EXHAUSTED
+                .withDescription("Too many concurrent streams, retry later")
+                .asRuntimeException());
+        }
+    }
+
+    private <T, R> void pump(ServerCallStreamObserver<R> call, Object readySignal,
+                             Supplier<Stream<T>> source, Function<T, R> mapper) {
+        try {
+            Long sent = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<T> elements = source.get()) {
+                    Iterator<T> iterator = elements.iterator();
+                    while (iterator.hasNext()) {
+                        if (!awaitReady(call, readySignal)) {
+                            return count;
+                        }
+                        call.onNext(mapper.apply(iterator.next()));
+                        count++;
+                    }
+                }
+                return count;
+            });
+
+            if (call.isCancelled() || Thread.currentThread().isInterrupted()) {
+                logger.debug("gRPC stream stopped after {} messages", sent);
+                return;
+            }
+            call.onCompleted();
+            logger.debug("gRPC stream completed with {} messages", sent);
+
+        } catch (Exception e) {
+            if (call.isCancelled()) {
+                return;
+            }
+            logger.error("Error streaming gRPC response", e);
+            call.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    /**
+     * Blocks until the call can accept another message.
+     *
+     * @return false if the call was cancelled or the worker interrupted while waiting
+     */
+    private boolean awaitReady(ServerCallStreamObserver<?> call, Object readySignal) {
+        synchronized (readySignal) {
+            while (!call.isReady() && !call.isCancelled()) {
+                try {
+                    readySignal.wait(READY_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return !call.isCancelled();
+    }
+
+    private static void signal(Object readySignal) {
+        synchronized (readySignal) {
+            readySignal.notifyAll();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,95 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-method gRPC meters for one side of a call, shared by the server and client metrics interceptors.
+ * Meter names are prefixed with the side, e.g. {@code grpc.client.call.duration}, and tagged by full method name.
+ * Meters are looked up once per method and cached, so recording a call doesn't touch the registry.
+ */
+final class GrpcCallMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final String prefix;
+    private final ConcurrentHashMap<String, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * @param side "server" or "client"
+     */
+    GrpcCallMetrics(MeterRegistry meterRegistry, String side) {
+        this.meterRegistry = meterRegistry;
+        this.prefix = "grpc." + side + ".";
+    }
+
+    MethodMeters forMethod(MethodDescriptor<?, ?> method) {
+        return meters.computeIfAbsent(method.getFullMethodName(), MethodMeters::new);
+    }
+
+    /**
+     * Meters for a single RPC.
+     */
+    final class MethodMeters {
+
+        private final String method;
+        private final Timer duration;
+        private final DistributionSummary requestSize;
+        private final DistributionSummary responseSize;
+        private final ConcurrentHashMap<Status.Code, Counter> responses = new ConcurrentHashMap<>();
+
+        private MethodMeters(String method) {
+            this.method = method;
+            this.duration = Timer.builder(prefix + "call.duration")
+                .description("Time from call start to close, including time spent queued or streaming")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+            this.requestSize = DistributionSummary.builder(prefix + "request.size")
+                .description("Serialized size of each request message")
+                .baseUnit("bytes")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+            this.responseSize = DistributionSummary.builder(prefix + "response.size")
+                .description("Serialized size of each response message")
+                .baseUnit("bytes")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+
+        void recordRequest(Object message) {
+            record(requestSize, message);
+        }
+
+        void recordResponse(Object message) {
+            record(responseSize, message);
+        }
+
+        void recordClose(Status.Code code, long startedAtNanos) {
+            duration.record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+            responses.computeIfAbsent(code, c -> Counter.builder(prefix + "responses")
+                    .description("Calls closed, by status code")
+                    .tag("method", method)
+                    .tag("status", c.name())
+                    .register(meterRegistry))
+                .increment();
+        }
+
+        // NOTE(aalhendi): protobuf memoizes the serialized size, so this is free once the message is on the wire
+        private static void record(DistributionSummary summary, Object message) {
+            if (message instanceof MessageLite protoMessage) {
+                summary.record(protoMessage.getSerializedSize());
+            }
+        }
+    }
+}
@@ -3,31 +3,44 @@ package com.aalhendi.account_ms.infrastructure.grpc;
 import com.aalhendi.customer.grpc.CustomerServiceGrpc;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 /**
  * Configuration for gRPC clients.
  * Sets up the gRPC channel and stubs for inter-service communication.
  */
 @Configuration
+@EnableConfigurationProperties(CustomerServiceClientProperties.class)
 public class GrpcClientConfig {
 
-    @Value("${grpc.client.customer-service.host:localhost}")
-    private String customerServiceHost;
-
-    @Value("${grpc.client.customer-service.port:9091}")
-    private int customerServicePort;
-
     /**
      * Creates a managed channel for customer service communication.
+     * Per-RPC retry and hedging policies, load balancing and health checking are applied through
+     * the channel's default service config. With channel-pool-size above 1, calls are spread over a pool.
+     * Every call is measured by GrpcClientMetricsInterceptor.
      */
     @Bean
-    public ManagedChannel customerServiceChannel() {
-        return ManagedChannelBuilder.forAddress(customerServiceHost, customerServicePort)
-                .usePlaintext() // TODO(aalhendi): use TLS in prod. this is for dev.
-                .build();
+    public ManagedChannel customerServiceChannel(CustomerServiceClientProperties properties, MeterRegistry meterRegistry) {
+        GrpcClientMetricsInterceptor metricsInterceptor = new GrpcClientMetricsInterceptor(meterRegistry);
+        List<ManagedChannel> channels = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, properties.getChannelPoolSize()); i++) {
+            channels.add(configureChannel(newChannelBuilder(properties), properties)
+                    .intercept(metricsInterceptor)
+                    .usePlaintext() // TODO(aalhendi): use TLS in prod. this is for dev.
+                    .build());
+        }
+        return channels.size() == 1 ? channels.get(0) : new ManagedChannelPool(channels);
     }
 
     /**
@@ -37,4 +50,86 @@ public class GrpcClientConfig {
     public CustomerServiceGrpc.CustomerServiceBlockingStub customerServiceStub(ManagedChannel customerServiceChannel) {
         return CustomerServiceGrpc.newBlockingStub(customerServiceChannel);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Applies the client properties that don't depend on the transport, so tests can use in-process channels.
+     */
+    static ManagedChannelBuilder<?> configureChannel(ManagedChannelBuilder<?> builder, CustomerServiceClientProperties properties) {
+        return builder
+                .defaultServiceConfig(customerServiceConfig(properties))
+                .enableRetry();
+    }
+
+    private static ManagedChannelBuilder<?> newChannelBuilder(CustomerServiceClientProperties properties) {
+        if (!properties.getAddresses().isEmpty()) {
+            List<InetSocketAddress> addresses = properties.getAddresses().stream()
+                    .map(GrpcClientConfig::parseAddress)
+                    .toList();
+            return ManagedChannelBuilder.forTarget(StaticAddressNameResolverProvider.register("customer-service", addresses));
+        }
+        if (Objects.nonNull(properties.getTarget()) && !properties.getTarget().isBlank()) {
+            return ManagedChannelBuilder.forTarget(properties.getTarget());
+        }
+        return ManagedChannelBuilder.forAddress(properties.getHost(), properties.getPort());
+    }
+
+    private static InetSocketAddress parseAddress(String address) {
+        int separator = address.lastIndexOf(':');
+        if (separator <= 0 || separator == address.length() - 1) {
+            throw new IllegalArgumentException("Expected host:port, got: " + address);
+        }
+        return new InetSocketAddress(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)));
+    }
+
+    /**
+     * Builds a gRPC service config (the JSON-shaped map the channel expects) from the client properties.
+     * NOTE(aalhendi): gRPC's service config parser wants doubles for numbers and "1.5s" strings for durations.
+     */
+    static Map<String, Object> customerServiceConfig(CustomerServiceClientProperties properties) {
+        List<Map<String, Object>> methodConfigs = new ArrayList<>();
+
+        properties.getMethods().forEach((rpcName, policy) -> {
+            Map<String, Object> methodConfig = new LinkedHashMap<>();
+            methodConfig.put("name", List.of(Map.of(
+                "service", CustomerServiceGrpc.SERVICE_NAME,
+                "method", rpcName
+            )));
+
+            if (policy.getHedging().isEnabled()) {
+                CustomerServiceClientProperties.Hedging hedging = policy.getHedging();
+                methodConfig.put("hedgingPolicy", Map.of(
+                    "maxAttempts", (double) hedging.getMaxAttempts(),
+                    "hedgingDelay", toServiceConfigDuration(hedging.getDelay()),
+                    "nonFatalStatusCodes", hedging.getNonFatalStatusCodes()
+                ));
+            } else if (policy.getRetry().isEnabled()) {
+                CustomerServiceClientProperties.Retry retry = policy.getRetry();
+                methodConfig.put("retryPolicy", Map.of(
+                    "maxAttempts", (double) retry.getMaxAttempts(),
+                    "initialBackoff", toServiceConfigDuration(retry.getInitialBackoff()),
+                    "maxBackoff", toServiceConfigDuration(retry.getMaxBackoff()),
+                    "backoffMultiplier", retry.getBackoffMultiplier(),
+                    "retryableStatusCodes", retry.getRetryableStatusCodes()
+                ));
+            }
+
+            methodConfigs.add(methodConfig);
+        });
+
+        Map<String, Object> serviceConfig = new LinkedHashMap<>();
+        serviceConfig.put("loadBalancingConfig", List.of(Map.of(properties.getLoadBalancingPolicy(), Map.of())));
+        if (properties.getHealthCheck().isEnabled()) {
+            serviceConfig.put("healthCheckConfig", Map.of("serviceName", properties.getHealthCheck().getServiceName()));
+        }
+        serviceConfig.put("methodConfig", methodConfigs);
+        serviceConfig.put("retryThrottling", Map.of(
+            "maxTokens", (double) properties.getRetryThrottling().getMaxTokens(),
+            "tokenRatio", properties.getRetryThrottling().getTokenRatio()
+        ));
+        return serviceConfig;
+    }
+
+    private static String toServiceConfigDuration(Duration duration) {
+        return (duration.toNanos() / 1_000_000_000.0) + "s";
+    }
+}
@@ -0,0 +1,58 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records latency, message sizes and status codes for every outgoing call on a channel.
+ * Sits above the channel's retry and hedging, so the latency is what the caller waited, attempts included.
+ * Calls a client's circuit breaker refuses never reach the channel, so they aren't recorded here.
+ */
+public class GrpcClientMetricsInterceptor implements ClientInterceptor {
+
+    private final GrpcCallMetrics metrics;
+
+    public GrpcClientMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.metrics = new GrpcCallMetrics(meterRegistry, "client");
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        GrpcCallMetrics.MethodMeters meters = metrics.forMethod(method);
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                long startedAt = System.nanoTime();
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onMessage(RespT message) {
+                        meters.recordResponse(message);
+                        super.onMessage(message);
+                    }
+
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        meters.recordClose(status.getCode(), startedAt);
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+
+            @Override
+            public void sendMessage(ReqT message) {
+                meters.recordRequest(message);
+                super.sendMessage(message);
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records latency, message sizes and status codes for every call this server handles.
+ * Registered ahead of the other global interceptors, so calls shed by ConcurrencyLimitInterceptor
+ * are counted as RESOURCE_EXHAUSTED and queue time shows up in the latency.
+ */
+public class GrpcServerMetricsInterceptor implements ServerInterceptor {
+
+    private final GrpcCallMetrics metrics;
+
+    public GrpcServerMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.metrics = new GrpcCallMetrics(meterRegistry, "server");
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        GrpcCallMetrics.MethodMeters meters = metrics.forMethod(call.getMethodDescriptor());
+        long startedAt = System.nanoTime();
+
+        // A cancelled call may never be closed, and a closed one can still see onCancel; count it once
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        ServerCall<ReqT, RespT> measuredCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendMessage(RespT message) {
+                meters.recordResponse(message);
+                super.sendMessage(message);
+            }
+
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (recorded.compareAndSet(false, true)) {
+                    meters.recordClose(status.getCode(), startedAt);
+                }
+                super.close(status, trailers);
+            }
+        };
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(measuredCall, headers)) {
+            @Override
+            public void onMessage(ReqT message) {
+                meters.recordRequest(message);
+                super.onMessage(message);
+            }
+
+            @Override
+            public void onCancel() {
+                if (recorded.compareAndSet(false, true)) {
+                    meters.recordClose(Status.Code.CANCELLED, startedAt);
+                }
+                super.onCancel();
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Concurrency limits for unary gRPC handlers.
+ * Limits are per method, keyed by proto RPC name, e.g. {@code limits[GetAccountSummary]=32};
+ * v1 and v2 of an RPC share the configured number but each get their own permits.
+ */
+@ConfigurationProperties(prefix = "grpc.server.concurrency")
+public class ServerConcurrencyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Concurrent calls per method when the method has no limit of its own.
+     */
+    private int defaultLimit = 64;
+
+    /**
+     * How long a call may wait for a permit before it is rejected with RESOURCE_EXHAUSTED.
+     */
+    private Duration queueTimeout = Duration.ofMillis(100);
+
+    private Map<String, Integer> limits = new HashMap<>();
+
+    /**
+     * Returns the limit for an RPC, falling back to the default.
+     */
+    public int limitFor(String rpcName) {
+        return limits.getOrDefault(rpcName, defaultLimit);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public Duration getQueueTimeout() {
+        return queueTimeout;
+    }
+
+    public void setQueueTimeout(Duration queueTimeout) {
+        this.queueTimeout = queueTimeout;
+    }
+
+    public Map<String, Integer> getLimits() {
+        return limits;
+    }
+
+    public void setLimits(Map<String, Integer> limits) {
+        this.limits = limits;
+    }
+}
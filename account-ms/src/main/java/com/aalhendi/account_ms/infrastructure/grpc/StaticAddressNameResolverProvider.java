@@ -0,0 +1,107 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Status;
+import io.grpc.StatusOr;
+
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves "static:///name" targets to the addresses registered for that name, one subchannel each,
+ * so a channel can balance over replicas listed in configuration instead of DNS.
+ * A single provider serves every static target. It is registered with gRPC's default {@link NameResolverRegistry},
+ * so channels find it by scheme like any other resolver.
+ */
+public final class StaticAddressNameResolverProvider extends NameResolverProvider {
+
+    public static final String SCHEME = "static";
+
+    private static final StaticAddressNameResolverProvider INSTANCE = new StaticAddressNameResolverProvider();
+
+    static {
+        NameResolverRegistry.getDefaultRegistry().register(INSTANCE);
+    }
+
+    private final Map<String, List<EquivalentAddressGroup>> addressGroups = new ConcurrentHashMap<>();
+    private final Set<Class<? extends SocketAddress>> addressTypes = ConcurrentHashMap.newKeySet();
+
+    private StaticAddressNameResolverProvider() {
+    }
+
+    /**
+     * Registers the addresses of a logical service name and returns its channel target, e.g. "static:///customer-service".
+     * Registering a name again replaces its addresses for channels that resolve it afterwards.
+     */
+    public static String register(String serviceName, List<? extends SocketAddress> addresses) {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one address is required");
+        }
+        addresses.forEach(address -> INSTANCE.addressTypes.add(address.getClass()));
+        INSTANCE.addressGroups.put(serviceName, addresses.stream()
+            .map(EquivalentAddressGroup::new)
+            .toList());
+        return SCHEME + ":///" + serviceName;
+    }
+
+    @Override
+    public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+        if (!SCHEME.equals(targetUri.getScheme())) {
+            return null;
+        }
+        String authority = Objects.requireNonNullElse(targetUri.getPath(), "").replaceFirst("^/", "");
+
+        return new NameResolver() {
+            @Override
+            public String getServiceAuthority() {
+                return authority;
+            }
+
+            @Override
+            public void start(Listener2 listener) {
+                List<EquivalentAddressGroup> groups = addressGroups.get(authority);
+                listener.onResult(ResolutionResult.newBuilder()
+                    .setAddressesOrError(Objects.isNull(groups)
+                        ? StatusOr.fromStatus(Status.UNAVAILABLE.withDescription("No addresses registered for " + authority))
+                        : StatusOr.fromValue(groups))
+                    .build());
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+    }
+
+    @Override
+    public String getDefaultScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    protected boolean isAvailable() {
+        return true;
+    }
+
+    // Below DNS's 5, so registering this never changes the default scheme of targets without one
+    @Override
+    protected int priority() {
+        return 4;
+    }
+
+    // The channel checks these against what its transport can connect to, e.g. in-process addresses in tests.
+    // NOTE(aalhendi): the check is per provider, not per target, so one process shouldn't mix transports.
+    @Override
+    public Collection<Class<? extends SocketAddress>> getProducedSocketAddressTypes() {
+        return Set.copyOf(addressTypes);
+    }
+}
@@ -3,10 +3,15 @@ package com.aalhendi.account_ms.infrastructure.persistence;
 import com.aalhendi.account_ms.domain.entities.Account;
 import com.aalhendi.account_ms.domain.entities.NewAccount;
 import com.aalhendi.account_ms.domain.repositories.AccountRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * JPA implementation of the AccountRepository domain interface.
@@ -16,9 +21,11 @@ import java.util.Optional;
 public class AccountRepositoryImpl implements AccountRepository {
 
     private final JpaAccountRepository jpaRepository;
+    private final EntityManager entityManager;
 
-    public AccountRepositoryImpl(JpaAccountRepository jpaRepository) {
+    public AccountRepositoryImpl(JpaAccountRepository jpaRepository, EntityManager entityManager) {
         this.jpaRepository = jpaRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -49,6 +56,46 @@ public class AccountRepositoryImpl implements AccountRepository {
                 .toList();
     }
 
+    @Override
+    public Optional<LocalDateTime> findUpdatedAtByAccountNumber(String accountNumber) {
+        return jpaRepository.findUpdatedAtByAccountNumber(accountNumber);
+    }
+
+    @Override
+    public List<Account> findByAccountNumbers(Collection<String> accountNumbers) {
+        return jpaRepository.findByAccountNumberIn(accountNumbers.toArray(String[]::new))
+                .stream()
+                .map(AccountEntity::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<Account> findByCustomerNumbers(Collection<String> customerNumbers) {
+        return jpaRepository.findByCustomerNumberIn(customerNumbers)
+                .stream()
+                .map(AccountEntity::toDomain)
+                .toList();
+    }
+
+    @Override
+    public Stream<Account> streamByCustomerNumber(String customerNumber) {
+        return jpaRepository.streamByCustomerNumber(customerNumber).map(this::detachToDomain);
+    }
+
+    @Override
+    public Stream<Account> streamUpdatedSince(LocalDateTime since) {
+        Stream<AccountEntity> entities = Objects.isNull(since)
+            ? jpaRepository.streamAll()
+            : jpaRepository.streamUpdatedSince(since);
+        return entities.map(this::detachToDomain);
+    }
+
+    private Account detachToDomain(AccountEntity entity) {
+        // Detach as we go so the persistence context doesn't grow with the stream
+        entityManager.detach(entity);
+        return entity.toDomain();
+    }
+
     @Override
     public long countByCustomerNumber(String customerNumber) {
         return jpaRepository.countByCustomerNumber(customerNumber);
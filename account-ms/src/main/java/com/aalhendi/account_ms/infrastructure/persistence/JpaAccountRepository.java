@@ -1,12 +1,18 @@
 package com.aalhendi.account_ms.infrastructure.persistence;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * JPA repository for AccountEntity.
@@ -20,6 +26,32 @@ public interface JpaAccountRepository extends JpaRepository<AccountEntity, Long>
     @Query("SELECT a FROM AccountEntity a WHERE SUBSTRING(a.accountNumber, 1, 7) = :customerNumber")
     List<AccountEntity> findByCustomerNumber(@Param("customerNumber") String customerNumber);
 
+    /**
+     * Find all accounts belonging to any of the given customers.
+     */
+    @Query("SELECT a FROM AccountEntity a WHERE SUBSTRING(a.accountNumber, 1, 7) IN :customerNumbers")
+    List<AccountEntity> findByCustomerNumberIn(@Param("customerNumbers") Collection<String> customerNumbers);
+
+    /**
+     * Stream all accounts belonging to a specific customer, ordered by account number.
+     * PostgreSQL only honours the fetch size inside a transaction, so call this from one.
+     */
+    @Query("SELECT a FROM AccountEntity a WHERE SUBSTRING(a.accountNumber, 1, 7) = :customerNumber ORDER BY a.accountNumber")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<AccountEntity> streamByCustomerNumber(@Param("customerNumber") String customerNumber);
+
+    /**
+     * Stream every account, ordered by last update.
+     */
+    @Query("SELECT a FROM AccountEntity a ORDER BY a.updatedAt, a.id")
+    Stream<AccountEntity> streamAll();
+
+    /**
+     * Stream accounts updated at or after the given time, ordered by last update.
+     */
+    @Query("SELECT a FROM AccountEntity a WHERE a.updatedAt >= :since ORDER BY a.updatedAt, a.id")
+    Stream<AccountEntity> streamUpdatedSince(@Param("since") LocalDateTime since);
+
     /**
      * Count accounts for a specific customer.
      */
@@ -31,6 +63,20 @@ public interface JpaAccountRepository extends JpaRepository<AccountEntity, Long>
      */
     Optional<AccountEntity> findByAccountNumber(String accountNumber);
 
+    /**
+     * Find the live accounts among the given account numbers. One statement shape whatever the count,
+     * since the numbers are bound as a single array parameter.
+     */
+    @Query(value = "SELECT * FROM account WHERE account_number = ANY(:accountNumbers) AND is_deleted = 0",
+           nativeQuery = true)
+    List<AccountEntity> findByAccountNumberIn(@Param("accountNumbers") String[] accountNumbers);
+
+    /**
+     * Find when an account was last updated, without loading it.
+     */
+    @Query("SELECT a.updatedAt FROM AccountEntity a WHERE a.accountNumber = :accountNumber")
+    Optional<LocalDateTime> findUpdatedAtByAccountNumber(@Param("accountNumber") String accountNumber);
+
     /**
      * Check if an account exists by account number.
      */
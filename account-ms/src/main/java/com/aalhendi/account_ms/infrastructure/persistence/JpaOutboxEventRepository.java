@@ -0,0 +1,57 @@
+package com.aalhendi.account_ms.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JPA repository for OutboxEventEntity.
+ */
+@Repository
+public interface JpaOutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    /**
+     * Lock up to {@code limit} of the oldest unsent rows that aren't parked for the current transaction.
+     * Rows already locked by another relay are skipped rather than waited on, so relays on
+     * several instances take disjoint batches.
+     */
+    @Query(value = "SELECT * FROM outbox_event WHERE sent_at IS NULL AND parked_at IS NULL ORDER BY outbox_event_id "
+                 + "LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEventEntity> claimUnsent(@Param("limit") int limit);
+
+    /**
+     * Mark rows as published.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEventEntity e SET e.sentAt = :sentAt WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Record a failed publish attempt; the rows stay unsent and are retried on the next poll.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEventEntity e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("error") String error);
+
+    /**
+     * Park those of the rows that have failed at least {@code maxAttempts} times, so they are no longer claimed.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEventEntity e SET e.parkedAt = :parkedAt WHERE e.id IN :ids AND e.attempts >= :maxAttempts")
+    int parkExhausted(@Param("ids") Collection<Long> ids, @Param("maxAttempts") int maxAttempts,
+                      @Param("parkedAt") LocalDateTime parkedAt);
+
+    /**
+     * Delete rows published before the given time.
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEventEntity e WHERE e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
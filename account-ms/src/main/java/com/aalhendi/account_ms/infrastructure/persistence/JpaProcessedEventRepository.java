@@ -0,0 +1,32 @@
+package com.aalhendi.account_ms.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JPA repository for ProcessedEventEntity.
+ */
+@Repository
+public interface JpaProcessedEventRepository extends JpaRepository<ProcessedEventEntity, UUID> {
+
+    /**
+     * Returns which of the given event IDs have already been processed.
+     */
+    @Query("SELECT e.eventId FROM ProcessedEventEntity e WHERE e.eventId IN :ids")
+    Set<UUID> findProcessedIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Delete IDs processed before the given time.
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessedEventEntity e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
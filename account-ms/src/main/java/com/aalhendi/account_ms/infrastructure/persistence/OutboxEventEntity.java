@@ -0,0 +1,124 @@
+package com.aalhendi.account_ms.infrastructure.persistence;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA entity for a row in the transactional outbox.
+ * Holds an already serialized event and where it goes; the relay publishes it as is.
+ */
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_event_id")
+    private Long id;
+
+    @Column(name = "aggregate_id", nullable = false, length = 50)
+    private String aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+
+    /**
+     * Default constructor for JPA.
+     */
+    public OutboxEventEntity() {
+    }
+
+    /**
+     * Creates an unsent outbox row.
+     */
+    public OutboxEventEntity(String aggregateId, String eventType, String topic, String messageKey,
+                             byte[] payload, String contentType, LocalDateTime createdAt) {
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payload = payload;
+        this.contentType = contentType;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public String getMessageKey() {
+        return messageKey;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getParkedAt() {
+        return parkedAt;
+    }
+}
@@ -0,0 +1,49 @@
+package com.aalhendi.account_ms.infrastructure.persistence;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * JPA entity for the ID of an event a consumer has applied.
+ * Always new: IDs are checked before they are recorded, so saving persists straight away
+ * instead of selecting first to decide between insert and merge.
+ */
+@Entity
+@Table(name = "processed_event")
+public class ProcessedEventEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "event_id")
+    private UUID eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    /**
+     * Default constructor for JPA.
+     */
+    public ProcessedEventEntity() {
+    }
+
+    public ProcessedEventEntity(UUID eventId, LocalDateTime processedAt) {
+        this.eventId = eventId;
+        this.processedAt = processedAt;
+    }
+
+    @Override
+    public UUID getId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
@@ -8,13 +8,20 @@ import com.aalhendi.account_ms.domain.valueobjects.Balance;
 import com.aalhendi.account_ms.domain.exceptions.BusinessException;
 import com.aalhendi.account_ms.domain.exceptions.AccountError;
 import com.aalhendi.account_ms.web.dtos.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -27,9 +34,11 @@ import java.util.Optional;
 public class AccountController {
 
     private final AccountService accountService;
+    private final ObjectMapper objectMapper;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, ObjectMapper objectMapper) {
         this.accountService = accountService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -48,18 +57,33 @@ public class AccountController {
 
     /**
      * Retrieves an account by its account number.
+     * Responses carry an ETag; a request whose If-None-Match still matches is answered 304 from the account's
+     * update time alone, without loading it.
      *
      * @param accountNumber the 10-digit account number
-     * @return the account if found, or HTTP 404 if not found
+     * @param ifNoneMatch   entity tags the client already holds, if any
+     * @return the account if found, HTTP 304 if unchanged, or HTTP 404 if not found
      */
     @GetMapping("/{accountNumber}")
-    public ResponseEntity<AccountResponse> getAccount(@PathVariable String accountNumber) {
+    public ResponseEntity<AccountResponse> getAccount(
+            @PathVariable String accountNumber,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (Objects.isNull(accountNumber) || !accountNumber.matches("\\d{10}")) {
             throw new BusinessException(
                 AccountError.VALIDATION_ERROR, accountNumber, "account_number"
             );
         }
-        
+
+        if (Objects.nonNull(ifNoneMatch)) {
+            Optional<String> etag = accountService.getAccountUpdatedAt(accountNumber).map(EntityTags::of);
+            if (etag.isPresent() && EntityTags.matches(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.get())
+                    .cacheControl(EntityTags.CACHE_CONTROL)
+                    .build();
+            }
+        }
+
         Optional<Account> accountOpt = accountService.getAccount(accountNumber);
         if (accountOpt.isEmpty()) {
             throw new BusinessException(
@@ -68,7 +92,30 @@ public class AccountController {
         }
         
         AccountResponse response = AccountResponse.from(accountOpt.get());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+            .eTag(EntityTags.of(accountOpt.get().getUpdatedAt()))
+            .cacheControl(EntityTags.CACHE_CONTROL)
+            .body(response);
+    }
+
+    /**
+     * Looks up several accounts in one request and one query, for clients that would otherwise fetch them one by one.
+     *
+     * @param request up to {@value AccountLookupRequest#MAX_ACCOUNT_NUMBERS} account numbers
+     * @return one result per requested account number, in request order, marking the ones not found
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<List<AccountLookupResult>> lookupAccounts(@Valid @RequestBody AccountLookupRequest request) {
+        Map<String, Account> accounts = accountService.getAccounts(request.accountNumbers());
+        List<AccountLookupResult> results = request.accountNumbers().stream()
+            .map(accountNumber -> {
+                Account account = accounts.get(accountNumber);
+                return Objects.isNull(account)
+                    ? AccountLookupResult.notFound(accountNumber)
+                    : AccountLookupResult.found(account);
+            })
+            .toList();
+        return ResponseEntity.ok(results);
     }
 
     /**
@@ -86,6 +133,33 @@ public class AccountController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * Streams a customer's accounts as NDJSON, one account per line, for clients that send
+     * {@code Accept: application/x-ndjson}. Rows are written as they are fetched from a database
+     * cursor, so memory stays flat regardless of how many accounts the customer has.
+     *
+     * @param customerNumber the 7-digit customer number
+     * @return the customer's accounts as a streamed response body
+     */
+    @GetMapping(value = "/customer/{customerNumber}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAccountsByCustomer(@PathVariable String customerNumber) {
+        StreamingResponseBody body = outputStream -> {
+            accountService.streamAccountsByCustomer(customerNumber, account -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(AccountResponse.from(account)));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
     /**
      * Updates an account's status.
      *
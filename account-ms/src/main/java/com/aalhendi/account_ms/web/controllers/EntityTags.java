@@ -0,0 +1,52 @@
+package com.aalhendi.account_ms.web.controllers;
+
+import org.springframework.http.CacheControl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Strong entity tags for single-resource GETs, derived from the entity's updated_at. Every change bumps updated_at,
+ * so two responses with the same tag have the same body, and a polling client can revalidate with If-None-Match
+ * and be answered from a version-only query.
+ */
+final class EntityTags {
+
+    /**
+     * Revalidate on every use, and keep out of shared caches.
+     */
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    // NOTE(aalhendi): bump when a response changes shape, so clients don't revalidate a body of the old shape
+    private static final String REPRESENTATION = "1";
+
+    private EntityTags() {
+    }
+
+    /**
+     * The tag for an entity last updated at the given time, to the microsecond the database keeps.
+     */
+    static String of(LocalDateTime updatedAt) {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "\"" + REPRESENTATION + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header matches the tag, with the weak comparison that header uses.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if ("*".equals(ifNoneMatch.trim())) {
+            return true;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -18,6 +19,7 @@ import java.util.List;
 /**
  * Global exception handler for the account microservice.
  * Handles all business exceptions and converts them to proper HTTP responses.
+ * Errors are always JSON, even for requests that only accept NDJSON from a streaming endpoint.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -41,7 +43,7 @@ public class GlobalExceptionHandler {
             List.of()
         );
         
-        return ResponseEntity.status(ex.getHttpStatus()).body(errorResponse);
+        return ResponseEntity.status(ex.getHttpStatus()).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     /**
@@ -65,7 +67,7 @@ public class GlobalExceptionHandler {
             details
         );
         
-        return ResponseEntity.badRequest().body(errorResponse);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     /**
@@ -89,7 +91,7 @@ public class GlobalExceptionHandler {
             details
         );
         
-        return ResponseEntity.badRequest().body(errorResponse);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     /**
@@ -108,7 +110,7 @@ public class GlobalExceptionHandler {
             List.of(ex.getMostSpecificCause().getMessage())
         );
         
-        return ResponseEntity.badRequest().body(errorResponse);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     /**
@@ -127,6 +129,6 @@ public class GlobalExceptionHandler {
             List.of()
         );
         
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 } 
\ No newline at end of file
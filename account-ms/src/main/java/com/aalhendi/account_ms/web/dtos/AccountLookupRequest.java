@@ -0,0 +1,24 @@
+package com.aalhendi.account_ms.web.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request DTO for looking up several accounts at once.
+ *
+ * @param accountNumbers the 10-digit account numbers, in the order results should come back in
+ */
+public record AccountLookupRequest(
+    @JsonProperty("account_numbers")
+    @NotEmpty(message = "At least one account number is required")
+    @Size(max = AccountLookupRequest.MAX_ACCOUNT_NUMBERS,
+          message = "At most " + AccountLookupRequest.MAX_ACCOUNT_NUMBERS + " account numbers can be looked up at once")
+    List<@Pattern(regexp = "\\d{10}", message = "Account number must be exactly 10 digits") String> accountNumbers
+) {
+
+    public static final int MAX_ACCOUNT_NUMBERS = 500;
+}
@@ -0,0 +1,31 @@
+package com.aalhendi.account_ms.web.dtos;
+
+import com.aalhendi.account_ms.domain.entities.Account;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One entry of a bulk account lookup, at the position of its account number in the request.
+ *
+ * @param accountNumber the account number that was looked up
+ * @param found whether the account exists
+ * @param account the account, or null if it wasn't found
+ */
+public record AccountLookupResult(
+    @JsonProperty("account_number")
+    String accountNumber,
+
+    @JsonProperty("found")
+    boolean found,
+
+    @JsonProperty("account")
+    AccountResponse account
+) {
+
+    public static AccountLookupResult found(Account account) {
+        return new AccountLookupResult(account.getAccountNumber().value(), true, AccountResponse.from(account));
+    }
+
+    public static AccountLookupResult notFound(String accountNumber) {
+        return new AccountLookupResult(accountNumber, false, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.aalhendi.account_ms.web.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Result of replaying a topic's dead-lettered records.
+ *
+ * @param topic the original topic whose dead-letter topic was replayed
+ * @param replayed how many records were sent back for retry
+ */
+public record DeadLetterReplayResponse(
+    @JsonProperty("topic")
+    String topic,
+
+    @JsonProperty("replayed")
+    int replayed
+) {
+}
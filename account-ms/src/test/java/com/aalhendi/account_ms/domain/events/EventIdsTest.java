@@ -0,0 +1,54 @@
+package com.aalhendi.account_ms.domain.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for EventIds.
+ */
+class EventIdsTest {
+
+    @Test
+    @DisplayName("Should generate version 7 IDs with the RFC variant and the timestamp in the top 48 bits")
+    void shouldGenerateVersion7Ids() {
+        // When
+        UUID id = EventIds.next(1_750_000_000_123L);
+
+        // Then
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(1_750_000_000_123L);
+    }
+
+    @Test
+    @DisplayName("Should order IDs by creation time")
+    void shouldOrderIdsByTime() {
+        // When
+        UUID earlier = EventIds.next(1_750_000_000_123L);
+        UUID later = EventIds.next(1_750_000_000_124L);
+
+        // Then
+        assertThat(earlier.toString()).isLessThan(later.toString());
+    }
+
+    @Test
+    @DisplayName("Should not repeat IDs generated within the same millisecond")
+    void shouldNotRepeatIdsWithinMillisecond() {
+        // Given
+        Set<UUID> ids = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(EventIds.next(1_750_000_000_123L));
+        }
+
+        // Then
+        assertThat(ids).hasSize(10_000);
+    }
+}
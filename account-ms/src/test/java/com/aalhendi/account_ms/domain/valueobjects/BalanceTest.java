@@ -289,4 +289,13 @@ class BalanceTest {
         // Then - original should remain unchanged
         assertEquals(originalAmount, original.value());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should convert to minor units")
+    void shouldConvertToMinorUnits() {
+        // Then
+        assertEquals(12345L, new Balance("12.345").toMinorUnits());
+        assertEquals(100000L, new Balance("100").toMinorUnits());
+        assertEquals(0L, Balance.ZERO.toMinorUnits());
+    }
+}
@@ -0,0 +1,332 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import com.aalhendi.account_ms.infrastructure.grpc.CustomerServiceClient;
+import com.aalhendi.account_ms.infrastructure.persistence.JpaProcessedEventRepository;
+import com.aalhendi.customer.events.CustomerStatusChanged;
+import com.aalhendi.customer.events.CustomerUpdated;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CustomerEventConsumer's batch listeners.
+ */
+class CustomerEventConsumerTest {
+
+    private CustomerServiceClient customerServiceClient;
+    private JpaProcessedEventRepository processedEventRepository;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    private Acknowledgment acknowledgment;
+    private CustomerEventConsumer consumer;
+    private long offset;
+
+    @SuppressWarnings("unchecked")
+    private static <T> T mockGeneric(Class<?> type) {
+        return (T) mock(type);
+    }
+
+    private static ProducerRecord<String, byte[]> anyRecord() {
+        return any();
+    }
+
+    private static CompletableFuture<SendResult<String, byte[]>> acked() {
+        return CompletableFuture.completedFuture(mockGeneric(SendResult.class));
+    }
+
+    @BeforeEach
+    void setUp() {
+        customerServiceClient = mock(CustomerServiceClient.class);
+        acknowledgment = mock(Acknowledgment.class);
+        processedEventRepository = mock(JpaProcessedEventRepository.class);
+        ProcessedEventStore processedEvents = new ProcessedEventStore(processedEventRepository,
+                mock(PlatformTransactionManager.class), new DedupeProperties(), new SimpleMeterRegistry());
+        kafkaTemplate = mockGeneric(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyRecord())).thenReturn(acked());
+        EventProducers producers = new EventProducers(
+                Map.of(ProducerProfile.CRITICAL, kafkaTemplate, ProducerProfile.BULK, kafkaTemplate),
+                new EventRoutingRegistry(), new EventRoutingProperties(), new SimpleMeterRegistry());
+        FailedEventForwarder failedEventForwarder =
+                new FailedEventForwarder(producers, new RetryProperties(), new SimpleMeterRegistry());
+        consumer = new CustomerEventConsumer(new DomainEventCodec(new ObjectMapper(), EventEncoding.PROTOBUF),
+                customerServiceClient, processedEvents, failedEventForwarder);
+    }
+
+    private ConsumerRecord<String, byte[]> record(String key, byte[] payload, String contentType) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("customer.events.status-changed", 0, offset++, key, payload);
+        record.headers().add(EventEncoding.CONTENT_TYPE_HEADER, contentType.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private ConsumerRecord<String, byte[]> record(String key, Message event) {
+        return record(key, event.toByteArray(), EventEncoding.PROTOBUF.contentType());
+    }
+
+    private static String header(ProducerRecord<String, byte[]> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+
+    private static CustomerStatusChanged statusChanged(String customerNumber, String newStatus) {
+        return CustomerStatusChanged.newBuilder().setCustomerNumber(customerNumber).setNewStatus(newStatus).build();
+    }
+
+    @Test
+    @DisplayName("Should apply only the latest status per customer, then acknowledge the batch")
+    void shouldApplyLatestStatusThenAcknowledge() {
+        // Given
+        List<ConsumerRecord<String, byte[]>> batch = List.of(
+                record("1234567", statusChanged("1234567", "SUSPENDED")),
+                record("7654321", statusChanged("7654321", "FROZEN")),
+                record("1234567", statusChanged("1234567", "ACTIVE")));
+
+        // When
+        consumer.handleCustomerStatusChanged(batch, acknowledgment);
+
+        // Then
+        InOrder inOrder = inOrder(customerServiceClient, acknowledgment);
+        inOrder.verify(customerServiceClient).onCustomerStatusChanged("1234567", "ACTIVE");
+        inOrder.verify(customerServiceClient).onCustomerStatusChanged("7654321", "FROZEN");
+        inOrder.verify(acknowledgment).acknowledge();
+        verifyNoMoreInteractions(customerServiceClient);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter an undecodable record and still acknowledge the rest of the batch")
+    void shouldSkipUndecodableRecord() {
+        // Given
+        List<ConsumerRecord<String, byte[]>> batch = List.of(
+                record("1234567", "not json".getBytes(StandardCharsets.UTF_8), EventEncoding.JSON.contentType()),
+                record("7654321", statusChanged("7654321", "CLOSED")));
+
+        // When
+        consumer.handleCustomerStatusChanged(batch, acknowledgment);
+
+        // Then
+        verify(customerServiceClient).onCustomerStatusChanged("7654321", "CLOSED");
+        verifyNoMoreInteractions(customerServiceClient);
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, byte[]> record) ->
+                record.topic().equals("customer.events.status-changed.dlt") && record.key().equals("1234567")));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should evict each updated customer once per batch")
+    void shouldEvictEachCustomerOnce() {
+        // Given
+        CustomerUpdated update = CustomerUpdated.newBuilder().setCustomerNumber("1234567").build();
+        List<ConsumerRecord<String, byte[]>> batch = List.of(record("1234567", update), record("1234567", update));
+
+        // When
+        consumer.handleCustomerUpdated(batch, acknowledgment);
+
+        // Then
+        verify(customerServiceClient, times(1)).evictCachedValidation("1234567");
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should send a record that fails to apply to the first retry tier and acknowledge the batch")
+    void shouldRetryFailedRecordOutOfBand() {
+        // Given
+        doThrow(new IllegalStateException("cache unavailable"))
+                .when(customerServiceClient).onCustomerStatusChanged(eq("1234567"), anyString());
+        List<ConsumerRecord<String, byte[]>> batch = List.of(
+                record("1234567", statusChanged("1234567", "ACTIVE")),
+                record("7654321", statusChanged("7654321", "FROZEN")));
+
+        // When
+        consumer.handleCustomerStatusChanged(batch, acknowledgment);
+
+        // Then
+        verify(customerServiceClient).onCustomerStatusChanged("7654321", "FROZEN");
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, byte[]> record) ->
+                record.topic().equals("customer.events.status-changed.retry.0")
+                        && record.key().equals("1234567")
+                        && header(record, FailedEventForwarder.ATTEMPT_HEADER).equals("1")
+                        && header(record, KafkaHeaders.DLT_EXCEPTION_FQCN).equals(IllegalStateException.class.getName())
+                        && header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC).equals("customer.events.status-changed")));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should not acknowledge a batch whose failed records could not be forwarded, so it is redelivered")
+    void shouldNotAcknowledgeWhenForwardingFails() {
+        // Given
+        doThrow(new IllegalStateException("cache unavailable"))
+                .when(customerServiceClient).onCustomerStatusChanged(anyString(), anyString());
+        when(kafkaTemplate.send(anyRecord()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        List<ConsumerRecord<String, byte[]>> batch = List.of(record("1234567", statusChanged("1234567", "ACTIVE")));
+
+        // When & Then - the container's error handler takes it from here
+        assertThatThrownBy(() -> consumer.handleCustomerStatusChanged(batch, acknowledgment))
+                .isInstanceOf(EventPublishingException.class);
+        verifyNoInteractions(acknowledgment);
+        verify(processedEventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should redeliver a batch through the container's error handler until its failed records are forwarded")
+    void shouldRedeliverUntilForwarded() {
+        // Given - the broker rejects the first two forwards
+        doThrow(new IllegalStateException("cache unavailable"))
+                .when(customerServiceClient).onCustomerStatusChanged(anyString(), anyString());
+        when(kafkaTemplate.send(anyRecord()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(acked());
+        List<ConsumerRecord<String, byte[]>> batch = List.of(record("1234567", statusChanged("1234567", "ACTIVE")));
+        TopicPartition partition = new TopicPartition("customer.events.status-changed", 0);
+        Consumer<String, byte[]> kafkaConsumer = mockGeneric(Consumer.class);
+        when(kafkaConsumer.assignment()).thenReturn(Set.of(partition));
+        when(kafkaConsumer.poll(any(Duration.class))).thenReturn(ConsumerRecords.empty());
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.isRunning()).thenReturn(true);
+        Runnable listener = () -> consumer.handleCustomerStatusChanged(batch, acknowledgment);
+
+        // When - as the container does, the first failure hands the batch to the error handler
+        EventPublishingException failure = catchThrowableOfType(EventPublishingException.class, listener::run);
+        errorHandler().handleBatch(failure, new ConsumerRecords<>(Map.of(partition, batch)), kafkaConsumer, container, listener);
+
+        // Then - redelivered in place until the forward went through, and nothing was skipped
+        verify(kafkaTemplate, times(3)).send(anyRecord());
+        verify(acknowledgment).acknowledge();
+        verify(kafkaConsumer, never()).seek(any(TopicPartition.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should leave a batch uncommitted rather than skip it when the container stops while redelivering it")
+    void shouldLeaveBatchUncommittedWhenStoppedWhileRedelivering() {
+        // Given
+        doThrow(new IllegalStateException("cache unavailable"))
+                .when(customerServiceClient).onCustomerStatusChanged(anyString(), anyString());
+        when(kafkaTemplate.send(anyRecord()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        List<ConsumerRecord<String, byte[]>> batch = List.of(record("1234567", statusChanged("1234567", "ACTIVE")));
+        TopicPartition partition = new TopicPartition("customer.events.status-changed", 0);
+        Consumer<String, byte[]> kafkaConsumer = mockGeneric(Consumer.class);
+        when(kafkaConsumer.assignment()).thenReturn(Set.of(partition));
+        when(kafkaConsumer.poll(any(Duration.class))).thenReturn(ConsumerRecords.empty());
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.isRunning()).thenReturn(true, false);
+        Runnable listener = () -> consumer.handleCustomerStatusChanged(batch, acknowledgment);
+        EventPublishingException failure = catchThrowableOfType(EventPublishingException.class, listener::run);
+
+        // When & Then - nothing is committed, so the next owner of the partition reads the batch again
+        assertThatThrownBy(() -> errorHandler().handleBatch(failure, new ConsumerRecords<>(Map.of(partition, batch)),
+                kafkaConsumer, container, listener))
+                .isInstanceOf(KafkaException.class);
+        verifyNoInteractions(acknowledgment);
+        verify(kafkaConsumer, never()).commitSync(anyMap());
+        verify(kafkaConsumer, never()).commitAsync(anyMap(), any());
+    }
+
+    private static DefaultErrorHandler errorHandler() {
+        RetryProperties properties = new RetryProperties();
+        properties.setRedeliveryInitialInterval(Duration.ofMillis(10));
+        properties.setRedeliveryMaxInterval(Duration.ofMillis(20));
+        return new ListenerErrorHandlerConfig().kafkaErrorHandler(properties);
+    }
+
+    @Test
+    @DisplayName("Should evict rather than overwrite the cached status for a change that comes back from a retry tier")
+    void shouldEvictRedeliveredStatusChange() {
+        // Given - the cache may have taken a newer change while this one waited in the tier
+        ConsumerRecord<String, byte[]> retried = record("1234567", statusChanged("1234567", "SUSPENDED"));
+        retried.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, "customer.events.status-changed".getBytes(StandardCharsets.UTF_8));
+        retried.headers().add(FailedEventForwarder.ATTEMPT_HEADER, "1".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        consumer.process("customer.events.status-changed", List.of(retried));
+
+        // Then
+        verify(customerServiceClient).evictCachedValidation("1234567");
+        verify(customerServiceClient, never()).onCustomerStatusChanged(anyString(), anyString());
+        verify(kafkaTemplate, never()).send(anyRecord());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter a record from the last retry tier that fails again")
+    void shouldDeadLetterAfterLastTier() {
+        // Given
+        doThrow(new IllegalStateException("cache unavailable"))
+                .when(customerServiceClient).evictCachedValidation(anyString());
+        ConsumerRecord<String, byte[]> retried = record("1234567", statusChanged("1234567", "ACTIVE"));
+        retried.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, "customer.events.status-changed".getBytes(StandardCharsets.UTF_8));
+        retried.headers().add(FailedEventForwarder.ATTEMPT_HEADER, "3".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        consumer.process("customer.events.status-changed", List.of(retried));
+
+        // Then
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, byte[]> record) ->
+                record.topic().equals("customer.events.status-changed.dlt")
+                        && record.headers().lastHeader(FailedEventForwarder.DUE_AT_HEADER) == null));
+    }
+
+    @Test
+    @DisplayName("Should skip a redelivered event from memory without asking the database again")
+    void shouldSkipRedeliveredEventFromMemory() {
+        // Given
+        CustomerStatusChanged event = statusChanged("1234567", "FROZEN").toBuilder()
+                .setEventId(UUID.randomUUID().toString())
+                .build();
+        consumer.handleCustomerStatusChanged(List.of(record("1234567", event)), acknowledgment);
+
+        // When
+        consumer.handleCustomerStatusChanged(List.of(record("1234567", event)), acknowledgment);
+
+        // Then
+        verify(customerServiceClient, times(1)).onCustomerStatusChanged("1234567", "FROZEN");
+        verify(processedEventRepository, times(1)).findProcessedIds(any());
+        verify(processedEventRepository, times(1)).saveAll(any());
+        verify(acknowledgment, times(2)).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should skip an event the database already records as processed")
+    void shouldSkipEventRecordedAsProcessed() {
+        // Given
+        UUID processedId = UUID.randomUUID();
+        when(processedEventRepository.findProcessedIds(any())).thenReturn(Set.of(processedId));
+        List<ConsumerRecord<String, byte[]>> batch = List.of(
+                record("1234567", statusChanged("1234567", "FROZEN").toBuilder().setEventId(processedId.toString()).build()),
+                record("7654321", statusChanged("7654321", "ACTIVE").toBuilder().setEventId(UUID.randomUUID().toString()).build()));
+
+        // When
+        consumer.handleCustomerStatusChanged(batch, acknowledgment);
+
+        // Then
+        verify(customerServiceClient).onCustomerStatusChanged("7654321", "ACTIVE");
+        verifyNoMoreInteractions(customerServiceClient);
+        verify(acknowledgment).acknowledge();
+    }
+}
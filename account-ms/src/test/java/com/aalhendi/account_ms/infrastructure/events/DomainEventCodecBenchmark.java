@@ -0,0 +1,128 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import com.aalhendi.account.events.AccountCreated;
+import com.aalhendi.account_ms.domain.events.AccountCreatedEvent;
+import com.aalhendi.account_ms.domain.valueobjects.AccountType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.util.JsonFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the JSON and protobuf event paths for AccountCreated: encoding on the producer,
+ * and decoding the way a consumer does it, then and now: readTree or JsonFormat over a String for JSON before,
+ * JsonEventDecoder streaming straight from the bytes now.
+ * Run with {@code -prof gc} (the default in main) to compare allocation per operation as well as time.
+ * <p>
+ * JMH forks its own JVM, so launch it as a process rather than with exec:java:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.aalhendi.account_ms.infrastructure.events.DomainEventCodecBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainEventCodecBenchmark {
+
+    private static final JsonFormat.Parser JSON_FORMAT = JsonFormat.parser().ignoringUnknownFields();
+
+    private ObjectMapper objectMapper;
+    private DomainEventCodec jsonCodec;
+    private AccountCreatedEvent event;
+    private byte[] jsonPayload;
+    private byte[] protoPayload;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonCodec = new DomainEventCodec(objectMapper, EventEncoding.JSON);
+        event = new AccountCreatedEvent("1234567001", "1234567", AccountType.SAVING,
+                new BigDecimal("1250.500"), "ACTIVE", 1L);
+        jsonPayload = jsonCodec.encode(event).payload();
+        protoPayload = DomainEventCodec.toProto(event).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] encodeProtobuf() {
+        return DomainEventCodec.toProto(event).toByteArray();
+    }
+
+    /**
+     * What the consumers did before: parse the whole document into a tree, then read two fields.
+     */
+    @Benchmark
+    public void decodeJsonTree(Blackhole blackhole) throws Exception {
+        JsonNode eventData = objectMapper.readTree(jsonPayload);
+        blackhole.consume(eventData.get("customer_number").asText());
+        blackhole.consume(eventData.get("account_type").asText());
+    }
+
+    /**
+     * What the codec did before: decode the bytes into a String, which JsonFormat parses into a tree
+     * and then copies into the protobuf message.
+     */
+    @Benchmark
+    public void decodeJsonFormat(Blackhole blackhole) throws Exception {
+        AccountCreated.Builder builder = AccountCreated.newBuilder();
+        JSON_FORMAT.merge(new String(jsonPayload, StandardCharsets.UTF_8), builder);
+        AccountCreated decoded = builder.build();
+        blackhole.consume(decoded.getCustomerNumber());
+        blackhole.consume(decoded.getAccountType());
+    }
+
+    /**
+     * JSON records during the migration: streamed from the bytes into the protobuf message.
+     */
+    @Benchmark
+    public void decodeJsonIntoProtobuf(Blackhole blackhole) throws Exception {
+        AccountCreated decoded = jsonCodec.decode(jsonPayload, EventEncoding.JSON.contentType(),
+                AccountCreated.getDefaultInstance());
+        blackhole.consume(decoded.getCustomerNumber());
+        blackhole.consume(decoded.getAccountType());
+    }
+
+    @Benchmark
+    public void decodeProtobuf(Blackhole blackhole) throws Exception {
+        AccountCreated decoded = AccountCreated.parseFrom(protoPayload);
+        blackhole.consume(decoded.getCustomerNumber());
+        blackhole.consume(decoded.getAccountType());
+    }
+
+    public static void main(String[] args) throws Exception {
+        DomainEventCodecBenchmark sizes = new DomainEventCodecBenchmark();
+        sizes.setUp();
+        System.out.printf("AccountCreated payload size: json=%d bytes, protobuf=%d bytes%n",
+                sizes.jsonPayload.length, sizes.protoPayload.length);
+
+        Options options = new OptionsBuilder()
+                .include(DomainEventCodecBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,208 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import com.aalhendi.account.events.AccountCreated;
+import com.aalhendi.account.events.AccountTransaction;
+import com.aalhendi.account_ms.domain.events.AccountCreatedEvent;
+import com.aalhendi.account_ms.domain.events.AccountTransactionEvent;
+import com.aalhendi.account_ms.domain.events.DomainEvent;
+import com.aalhendi.account_ms.domain.valueobjects.AccountType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for DomainEventCodec in both encodings.
+ */
+class DomainEventCodecTest {
+
+    // Same settings as Boot's auto-configured mapper: ISO-8601 dates, not epoch numbers
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static final AccountCreatedEvent CREATED = new AccountCreatedEvent(
+            "1234567001", "1234567", AccountType.SAVING, new BigDecimal("0.000"), "PENDING", 1L);
+
+    private static DomainEventCodec codec(EventEncoding encoding) {
+        return new DomainEventCodec(OBJECT_MAPPER, encoding);
+    }
+
+    private static void assertCreatedMatches(AccountCreated decoded) {
+        assertThat(decoded.getAggregateId()).isEqualTo("1234567001");
+        assertThat(decoded.getEventId()).isEqualTo(CREATED.getEventId().toString());
+        assertThat(decoded.getEventType()).isEqualTo(AccountCreatedEvent.EVENT_TYPE);
+        assertThat(decoded.getOccurredAt().getSeconds()).isEqualTo(CREATED.getOccurredAt().getEpochSecond());
+        assertThat(decoded.getOccurredAt().getNanos()).isEqualTo(CREATED.getOccurredAt().getNano());
+        assertThat(decoded.getAggregateVersion()).isEqualTo(1L);
+        assertThat(decoded.getCustomerNumber()).isEqualTo("1234567");
+        assertThat(decoded.getAccountType()).isEqualTo("SAVING");
+        assertThat(new BigDecimal(decoded.getInitialBalance())).isEqualByComparingTo("0");
+    }
+
+    @Nested
+    @DisplayName("Protobuf")
+    class Protobuf {
+
+        @Test
+        @DisplayName("Should round-trip an event through protobuf")
+        void shouldRoundTrip() throws Exception {
+            // When
+            DomainEventCodec.EncodedEvent encoded = codec(EventEncoding.PROTOBUF).encode(CREATED);
+            AccountCreated decoded = codec(EventEncoding.JSON)
+                    .decode(encoded.payload(), encoded.contentType(), AccountCreated.getDefaultInstance());
+
+            // Then
+            assertThat(encoded.contentType()).isEqualTo("application/x-protobuf");
+            assertCreatedMatches(decoded);
+        }
+
+        @Test
+        @DisplayName("Should encode a null description as the empty string")
+        void shouldEncodeNullAsEmpty() throws Exception {
+            // Given
+            AccountTransactionEvent event = new AccountTransactionEvent("1234567001", "1234567", "CREDIT",
+                    new BigDecimal("10.500"), new BigDecimal("0.000"), new BigDecimal("10.500"), null, 2L);
+
+            // When
+            DomainEventCodec.EncodedEvent encoded = codec(EventEncoding.PROTOBUF).encode(event);
+            AccountTransaction decoded = codec(EventEncoding.PROTOBUF)
+                    .decode(encoded.payload(), encoded.contentType(), AccountTransaction.getDefaultInstance());
+
+            // Then
+            assertThat(decoded.getDescription()).isEmpty();
+            assertThat(decoded.getAmount()).isEqualTo("10.500");
+        }
+
+        @Test
+        @DisplayName("Should be smaller than the JSON encoding")
+        void shouldBeSmallerThanJson() {
+            // When
+            int protoSize = codec(EventEncoding.PROTOBUF).encode(CREATED).payload().length;
+            int jsonSize = codec(EventEncoding.JSON).encode(CREATED).payload().length;
+
+            // Then
+            assertThat(protoSize).isLessThan(jsonSize);
+        }
+
+        @Test
+        @DisplayName("Should refuse an event without a protobuf schema")
+        void shouldRefuseUnknownEvent() {
+            // Given
+            DomainEvent unknown = new DomainEvent() {
+                public java.util.UUID getEventId() { return java.util.UUID.randomUUID(); }
+                public String getAggregateId() { return "1234567001"; }
+                public String getEventType() { return "AccountRenamed"; }
+                public java.time.Instant getOccurredAt() { return java.time.Instant.now(); }
+                public Long getAggregateVersion() { return 1L; }
+            };
+
+            // When & Then
+            assertThatThrownBy(() -> codec(EventEncoding.PROTOBUF).encode(unknown))
+                    .isInstanceOf(EventPublishingException.class)
+                    .hasMessageContaining("AccountRenamed");
+        }
+    }
+
+    @Nested
+    @DisplayName("JSON")
+    class Json {
+
+        @Test
+        @DisplayName("Should decode a JSON payload into the protobuf message")
+        void shouldDecodeJsonIntoProto() throws Exception {
+            // When
+            DomainEventCodec.EncodedEvent encoded = codec(EventEncoding.JSON).encode(CREATED);
+            AccountCreated decoded = codec(EventEncoding.PROTOBUF)
+                    .decode(encoded.payload(), encoded.contentType(), AccountCreated.getDefaultInstance());
+
+            // Then
+            assertThat(encoded.contentType()).isEqualTo("application/json");
+            assertCreatedMatches(decoded);
+        }
+
+        @Test
+        @DisplayName("Should treat a record without a content type as JSON")
+        void shouldDefaultToJson() throws Exception {
+            // Given
+            byte[] legacyPayload = OBJECT_MAPPER.writeValueAsBytes(CREATED);
+
+            // When
+            AccountCreated decoded = codec(EventEncoding.PROTOBUF)
+                    .decode(legacyPayload, null, AccountCreated.getDefaultInstance());
+
+            // Then
+            assertCreatedMatches(decoded);
+        }
+
+        @Test
+        @DisplayName("Should keep the scale of an amount written as a JSON number")
+        void shouldKeepAmountScale() throws Exception {
+            // Given
+            AccountTransactionEvent event = new AccountTransactionEvent("1234567001", "1234567", "CREDIT",
+                    new BigDecimal("10.500"), new BigDecimal("0.000"), new BigDecimal("10.500"), null, 2L);
+            DomainEventCodec.EncodedEvent encoded = codec(EventEncoding.JSON).encode(event);
+
+            // When
+            AccountTransaction decoded = codec(EventEncoding.JSON)
+                    .decode(encoded.payload(), encoded.contentType(), AccountTransaction.getDefaultInstance());
+
+            // Then
+            assertThat(new String(encoded.payload(), StandardCharsets.UTF_8)).contains("\"amount\":10.500");
+            assertThat(decoded.getAmount()).isEqualTo("10.500");
+            assertThat(decoded.getDescription()).isEmpty();
+            assertThat(decoded.getVersion()).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("Should skip unknown fields and accept JSON names and quoted numbers")
+        void shouldSkipUnknownFields() throws Exception {
+            // Given
+            byte[] payload = """
+                    {"customerNumber": "1234567", "aggregate_version": "7", "unknown": {"nested": [1, 2, {"deep": true}]},
+                     "account_type": "SALARY", "status": null, "occurred_at": "2025-06-01T12:00:00.123+03:00"}
+                    """.getBytes(StandardCharsets.UTF_8);
+
+            // When
+            AccountCreated decoded = codec(EventEncoding.JSON)
+                    .decode(payload, EventEncoding.JSON.contentType(), AccountCreated.getDefaultInstance());
+
+            // Then
+            assertThat(decoded.getCustomerNumber()).isEqualTo("1234567");
+            assertThat(decoded.getAggregateVersion()).isEqualTo(7L);
+            assertThat(decoded.getAccountType()).isEqualTo("SALARY");
+            assertThat(decoded.getStatus()).isEmpty();
+            assertThat(decoded.getOccurredAt().getSeconds())
+                    .isEqualTo(Instant.parse("2025-06-01T09:00:00Z").getEpochSecond());
+            assertThat(decoded.getOccurredAt().getNanos()).isEqualTo(123_000_000);
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed JSON payload as an invalid event")
+        void shouldRejectMalformedJson() {
+            // When & Then
+            assertThatThrownBy(() -> codec(EventEncoding.JSON).decode("{\"customer_number\": [".getBytes(StandardCharsets.UTF_8),
+                    EventEncoding.JSON.contentType(), AccountCreated.getDefaultInstance()))
+                    .isInstanceOf(InvalidProtocolBufferException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject an unknown content type")
+        void shouldRejectUnknownContentType() {
+            // When & Then
+            assertThatThrownBy(() -> codec(EventEncoding.JSON)
+                    .decode(new byte[0], "application/avro", AccountCreated.getDefaultInstance()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("application/avro");
+        }
+    }
+}
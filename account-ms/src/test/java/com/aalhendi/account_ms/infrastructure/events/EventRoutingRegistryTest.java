@@ -0,0 +1,88 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import com.aalhendi.account_ms.domain.events.AbstractDomainEvent;
+import com.aalhendi.account_ms.domain.events.AccountClosedEvent;
+import com.aalhendi.account_ms.domain.events.AccountCreatedEvent;
+import com.aalhendi.account_ms.domain.events.AccountStatusChangedEvent;
+import com.aalhendi.account_ms.domain.events.AccountTransactionEvent;
+import com.aalhendi.account_ms.domain.events.DomainEvent;
+import com.aalhendi.account_ms.domain.valueobjects.AccountType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for EventRoutingRegistry and the routing properties it is provisioned with.
+ */
+class EventRoutingRegistryTest {
+
+    private final EventRoutingRegistry registry = new EventRoutingRegistry();
+
+    @Test
+    @DisplayName("Should route every account event to its own topic keyed by customer number")
+    void shouldRouteEveryEventByCustomerNumber() {
+        // Given
+        List<DomainEvent> events = List.of(
+                new AccountCreatedEvent("1234567001", "1234567", AccountType.SAVING, BigDecimal.TEN, "ACTIVE", 0L),
+                new AccountStatusChangedEvent("1234567001", "1234567", "ACTIVE", "FROZEN", "Audit", 1L),
+                new AccountClosedEvent("1234567001", "1234567", AccountType.SAVING, "Requested", 2L),
+                new AccountTransactionEvent("1234567001", "1234567", "CREDIT", BigDecimal.ONE,
+                        BigDecimal.TEN, BigDecimal.valueOf(11), "Deposit", 3L));
+
+        // When & Then
+        assertThat(events)
+                .extracting(event -> registry.routeFor(event).topic(), event -> registry.routeFor(event).keyFor(event))
+                .containsExactly(
+                        tuple("account.events.created", "1234567"),
+                        tuple("account.events.status-changed", "1234567"),
+                        tuple("account.events.closed", "1234567"),
+                        tuple("account.events.transaction", "1234567"));
+        assertThat(registry.topics()).doesNotHaveDuplicates().hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Should send transactions with the bulk profile and unknown topics with the critical one")
+    void shouldResolveProfileByTopic() {
+        // When & Then
+        assertThat(registry.profileFor("account.events.transaction")).isEqualTo(ProducerProfile.BULK);
+        assertThat(registry.profileFor("account.events.created")).isEqualTo(ProducerProfile.CRITICAL);
+        assertThat(registry.profileFor("account.events.general")).isEqualTo(ProducerProfile.CRITICAL);
+    }
+
+    @Test
+    @DisplayName("Should refuse an event class without a route")
+    void shouldRefuseUnroutedEvent() {
+        // Given
+        DomainEvent unrouted = new AbstractDomainEvent("1234567001", "AccountRenamed", 0L) { };
+
+        // When & Then
+        assertThatThrownBy(() -> registry.routeFor(unrouted))
+                .isInstanceOf(EventPublishingException.class)
+                .hasMessageContaining("No route registered");
+    }
+
+    @Test
+    @DisplayName("Should override one profile setting and default the rest")
+    void shouldBindProfileOverrides() {
+        // When
+        EventRoutingProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "events.routing.partitions", "24",
+                "events.routing.profiles.bulk.compression-type", "zstd"
+        ))).bind("events.routing", EventRoutingProperties.class).get();
+
+        // Then
+        assertThat(properties.getPartitions()).isEqualTo(24);
+        assertThat(properties.getProfiles().get(ProducerProfile.BULK).getCompressionType()).isEqualTo("zstd");
+        assertThat(properties.getProfiles().get(ProducerProfile.BULK).getLinger()).isEqualTo(Duration.ZERO);
+        assertThat(properties.getProfiles().get(ProducerProfile.BULK).getAcks()).isEqualTo("all");
+        assertThat(properties.getProfiles().get(ProducerProfile.CRITICAL).getCompressionType()).isEqualTo("none");
+    }
+}
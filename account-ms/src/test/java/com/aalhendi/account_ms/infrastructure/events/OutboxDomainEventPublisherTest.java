@@ -0,0 +1,71 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import com.aalhendi.account_ms.domain.events.AccountStatusChangedEvent;
+import com.aalhendi.account_ms.infrastructure.persistence.JpaOutboxEventRepository;
+import com.aalhendi.account_ms.infrastructure.persistence.OutboxEventEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests that OutboxDomainEventPublisher only writes inside the caller's transaction, through the same
+ * transactional proxy Spring builds around it.
+ */
+class OutboxDomainEventPublisherTest {
+
+    private static final AccountStatusChangedEvent EVENT = new AccountStatusChangedEvent(
+            "1234567001", "1234567", "ACTIVE", "FROZEN", "Audit", 1L);
+
+    private JpaOutboxEventRepository outboxRepository;
+    private TransactionTemplate transactionTemplate;
+    private DomainEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        outboxRepository = mock(JpaOutboxEventRepository.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        ProxyFactory proxyFactory = new ProxyFactory(new OutboxDomainEventPublisher(outboxRepository,
+                new DomainEventCodec(new ObjectMapper(), EventEncoding.PROTOBUF), new EventRoutingRegistry()));
+        proxyFactory.addAdvice(new TransactionInterceptor((TransactionManager) transactionManager,
+                new AnnotationTransactionAttributeSource()));
+        publisher = (DomainEventPublisher) proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Should refuse to publish outside a transaction")
+    void shouldRefuseToPublishOutsideTransaction() {
+        // When & Then
+        assertThatThrownBy(() -> publisher.publish(EVENT))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    @DisplayName("Should write the event to the outbox inside the caller's transaction")
+    void shouldWriteToOutboxInsideTransaction() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> publisher.publish(EVENT));
+
+        // Then
+        verify(outboxRepository).save(any(OutboxEventEntity.class));
+    }
+}
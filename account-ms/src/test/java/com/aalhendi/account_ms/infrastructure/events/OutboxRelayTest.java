@@ -0,0 +1,377 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import com.aalhendi.account_ms.infrastructure.persistence.JpaOutboxEventRepository;
+import com.aalhendi.account_ms.infrastructure.persistence.OutboxEventEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for OutboxRelay against a mocked outbox table and producer.
+ */
+class OutboxRelayTest {
+
+    private JpaOutboxEventRepository outboxRepository;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> bulkTemplate;
+    private OutboxProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @SuppressWarnings("unchecked")
+    private static <T> T mockGeneric(Class<?> type) {
+        return (T) mock(type);
+    }
+
+    private static ProducerRecord<String, byte[]> anyRecord() {
+        return any();
+    }
+
+    private static CompletableFuture<SendResult<String, byte[]>> acked() {
+        return CompletableFuture.completedFuture(mockGeneric(SendResult.class));
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(JpaOutboxEventRepository.class);
+        kafkaTemplate = mockGeneric(KafkaTemplate.class);
+        bulkTemplate = mockGeneric(KafkaTemplate.class);
+        properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        relay = relayWith(new EventRoutingProperties());
+
+        when(kafkaTemplate.send(anyRecord())).thenReturn(acked());
+    }
+
+    private OutboxRelay relayWith(EventRoutingProperties routingProperties) {
+        meterRegistry = new SimpleMeterRegistry();
+        EventProducers producers = new EventProducers(
+                Map.of(ProducerProfile.CRITICAL, kafkaTemplate, ProducerProfile.BULK, bulkTemplate),
+                new EventRoutingRegistry(), routingProperties, meterRegistry);
+        return new OutboxRelay(outboxRepository, producers, mock(PlatformTransactionManager.class),
+                properties, meterRegistry);
+    }
+
+    private static EventRoutingProperties criticalProfile(int maxInFlight, BackpressurePolicy backpressure) {
+        EventRoutingProperties routingProperties = new EventRoutingProperties();
+        EventRoutingProperties.Profile critical = routingProperties.getProfiles().get(ProducerProfile.CRITICAL);
+        critical.setMaxInFlight(maxInFlight);
+        critical.setBackpressure(backpressure);
+        critical.setBackpressureTimeout(Duration.ofMillis(10));
+        return routingProperties;
+    }
+
+    private static OutboxEventEntity row(long id) {
+        return row(id, "1234567" + String.format("%03d", id));
+    }
+
+    private static OutboxEventEntity row(long id, String messageKey) {
+        OutboxEventEntity row = new OutboxEventEntity("1234567" + String.format("%03d", id), "AccountCreated",
+                "account.events.created", messageKey, "{}".getBytes(StandardCharsets.UTF_8),
+                "application/json", LocalDateTime.now());
+        row.setId(id);
+        return row;
+    }
+
+    private static ProducerRecord<String, byte[]> withKey(String key) {
+        return argThat((ProducerRecord<String, byte[]> record) -> key.equals(record.key()));
+    }
+
+    private static List<OutboxEventEntity> rows(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(OutboxRelayTest::row).toList();
+    }
+
+    @Nested
+    @DisplayName("Publishing")
+    class Publishing {
+
+        @Test
+        @DisplayName("Should publish every claimed row and mark them sent")
+        void shouldPublishAndMarkSent() {
+            // Given
+            when(outboxRepository.claimUnsent(2)).thenReturn(rows(1, 1));
+
+            // When
+            relay.relay();
+
+            // Then
+            verify(kafkaTemplate).send(argThat((ProducerRecord<String, byte[]> record) ->
+                    record.topic().equals("account.events.created")
+                            && record.key().equals("1234567001")
+                            && new String(record.headers().lastHeader(EventEncoding.CONTENT_TYPE_HEADER).value(),
+                                    StandardCharsets.UTF_8).equals("application/json")));
+            verify(kafkaTemplate).flush();
+            verify(outboxRepository).markSent(eq(List.of(1L)), any());
+            verify(outboxRepository, never()).markFailed(any(), any());
+            assertThat(meterRegistry.get("outbox.relay.sent").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should keep claiming while batches come back full")
+        void shouldDrainFullBatches() {
+            // Given
+            when(outboxRepository.claimUnsent(2)).thenReturn(rows(1, 2)).thenReturn(rows(3, 4)).thenReturn(rows(5, 5));
+
+            // When
+            relay.relay();
+
+            // Then
+            verify(outboxRepository, times(3)).claimUnsent(2);
+            verify(kafkaTemplate, times(5)).send(anyRecord());
+            verify(outboxRepository).markSent(eq(List.of(5L)), any());
+        }
+
+        @Test
+        @DisplayName("Should send each row with the producer of its topic's profile")
+        void shouldSendWithTopicProfile() {
+            // Given
+            OutboxEventEntity transaction = new OutboxEventEntity("1234567003", "account.events.transaction",
+                    "account.events.transaction", "1234567", "{}".getBytes(StandardCharsets.UTF_8),
+                    "application/json", LocalDateTime.now());
+            transaction.setId(3L);
+            when(outboxRepository.claimUnsent(2)).thenReturn(List.of(row(1), transaction));
+            when(bulkTemplate.send(anyRecord()))
+                    .thenReturn(acked());
+
+            // When
+            relay.relayBatch();
+
+            // Then
+            verify(kafkaTemplate).send(argThat((ProducerRecord<String, byte[]> record) -> record.topic().equals("account.events.created")));
+            verify(bulkTemplate).send(argThat((ProducerRecord<String, byte[]> record) -> record.topic().equals("account.events.transaction")));
+            verify(kafkaTemplate).flush();
+            verify(bulkTemplate).flush();
+            verify(outboxRepository).markSent(eq(List.of(1L, 3L)), any());
+        }
+
+        @Test
+        @DisplayName("Should do nothing when disabled")
+        void shouldDoNothingWhenDisabled() {
+            // Given
+            properties.setEnabled(false);
+
+            // When
+            relay.relay();
+
+            // Then
+            verifyNoInteractions(outboxRepository, kafkaTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Failures")
+    class Failures {
+
+        @Test
+        @DisplayName("Should leave failed rows unsent and stop draining until the next poll")
+        void shouldLeaveFailedRowsUnsent() {
+            // Given
+            when(outboxRepository.claimUnsent(2)).thenReturn(rows(1, 2));
+            when(kafkaTemplate.send(withKey("1234567002")))
+                    .thenReturn(CompletableFuture.failedFuture(new TimeoutException("Expiring 1 record(s)")));
+
+            // When
+            relay.relay();
+
+            // Then
+            verify(outboxRepository, times(1)).claimUnsent(2);
+            verify(outboxRepository).markSent(eq(List.of(1L)), any());
+            verify(outboxRepository).markFailed(eq(List.of(2L)), contains("Expiring 1 record(s)"));
+            assertThat(meterRegistry.get("outbox.relay.failed").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should hold back a key's later rows behind one that failed, so they don't overtake it")
+        void shouldHoldBackKeyBehindFailedRow() {
+            // Given
+            properties.setBatchSize(3);
+            when(outboxRepository.claimUnsent(3)).thenReturn(List.of(row(1, "1234567"), row(2, "1234567"), row(3, "7654321")));
+            when(kafkaTemplate.send(argThat((ProducerRecord<String, byte[]> record) -> record.key().equals("1234567"))))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Not enough replicas")))
+                    .thenReturn(acked());
+
+            // When
+            relay.relay();
+
+            // Then - row 2 went to the producer before row 1 failed, but only row 3 is marked sent
+            verify(outboxRepository).markSent(eq(List.of(3L)), any());
+            verify(outboxRepository).markFailed(eq(List.of(1L)), contains("Not enough replicas"));
+            verify(outboxRepository, times(1)).claimUnsent(3);
+            assertThat(meterRegistry.get("outbox.relay.held").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should park rows that have used up their attempts")
+        void shouldParkExhaustedRows() {
+            // Given
+            properties.setMaxAttempts(3);
+            when(outboxRepository.claimUnsent(2)).thenReturn(rows(1, 1));
+            when(kafkaTemplate.send(anyRecord()))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Record too large")));
+            when(outboxRepository.parkExhausted(eq(List.of(1L)), eq(3), any())).thenReturn(1);
+
+            // When
+            relay.relay();
+
+            // Then
+            InOrder inOrder = inOrder(outboxRepository);
+            inOrder.verify(outboxRepository).markFailed(eq(List.of(1L)), contains("Record too large"));
+            inOrder.verify(outboxRepository).parkExhausted(eq(List.of(1L)), eq(3), any());
+            assertThat(meterRegistry.get("outbox.relay.parked").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should treat a send that throws like a failed ack")
+        void shouldTreatThrowingSendAsFailure() {
+            // Given
+            when(outboxRepository.claimUnsent(2)).thenReturn(rows(1, 1));
+            when(kafkaTemplate.send(anyRecord()))
+                    .thenThrow(new IllegalStateException("Producer closed"));
+
+            // When
+            relay.relay();
+
+            // Then
+            verify(outboxRepository, never()).markSent(any(), any());
+            verify(outboxRepository).markFailed(eq(List.of(1L)), contains("Producer closed"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Backpressure")
+    class Backpressure {
+
+        @Test
+        @DisplayName("Should leave spilled rows unsent without marking them failed")
+        void shouldLeaveSpilledRowsUnmarked() {
+            // Given - one slot, and the first record is still waiting for its ack
+            relay = relayWith(criticalProfile(1, BackpressurePolicy.SPILL));
+            when(outboxRepository.claimUnsent(2)).thenReturn(rows(1, 2));
+            when(kafkaTemplate.send(anyRecord())).thenReturn(new CompletableFuture<>());
+            properties.setSendTimeout(Duration.ofMillis(10));
+
+            // When
+            relay.relay();
+
+            // Then
+            verify(kafkaTemplate, times(1)).send(anyRecord());
+            verify(outboxRepository, times(1)).claimUnsent(2);
+            verify(outboxRepository).markFailed(eq(List.of(1L)), contains("TimeoutException"));
+            assertThat(meterRegistry.get("outbox.relay.spilled").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("events.producer.rejected").tag("profile", "critical").counter().count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should not send a key's later rows once one of them spilled")
+        void shouldNotSendKeyBehindSpilledRow() {
+            // Given - one slot, taken by row 1 until its ack, so rows 2 and 3 of the next key can't have it
+            relay = relayWith(criticalProfile(1, BackpressurePolicy.SPILL));
+            properties.setBatchSize(3);
+            when(outboxRepository.claimUnsent(3)).thenReturn(List.of(row(1, "7654321"), row(2, "1234567"), row(3, "1234567")));
+            CompletableFuture<SendResult<String, byte[]>> firstAck = new CompletableFuture<>();
+            when(kafkaTemplate.send(withKey("7654321"))).thenAnswer(invocation -> firstAck);
+            doAnswer(invocation -> firstAck.complete(mockGeneric(SendResult.class))).when(kafkaTemplate).flush();
+
+            // When
+            relay.relayBatch();
+
+            // Then - row 3 isn't even offered to the producer, and follows row 2 on a later poll
+            verify(kafkaTemplate, never()).send(withKey("1234567"));
+            assertThat(meterRegistry.get("events.producer.rejected").tag("profile", "critical").counter().count())
+                    .isEqualTo(1);
+            verify(outboxRepository).markSent(eq(List.of(1L)), any());
+            verify(outboxRepository, never()).markFailed(any(), any());
+            assertThat(meterRegistry.get("outbox.relay.spilled").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("outbox.relay.held").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should fail sends over the bound under fail-fast")
+        void shouldFailFastWhenSaturated() {
+            // Given
+            relay = relayWith(criticalProfile(1, BackpressurePolicy.FAIL_FAST));
+            when(outboxRepository.claimUnsent(2)).thenReturn(rows(1, 2));
+            when(kafkaTemplate.send(anyRecord())).thenReturn(new CompletableFuture<>());
+            properties.setSendTimeout(Duration.ofMillis(10));
+
+            // When
+            relay.relayBatch();
+
+            // Then
+            verify(outboxRepository, never()).markSent(any(), any());
+            verify(outboxRepository).markFailed(eq(List.of(1L, 2L)), any());
+            assertThat(meterRegistry.find("outbox.relay.spilled").counter().count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should free a slot once a send completes, whether it was acked or failed")
+        void shouldReleaseSlotOnCompletion() {
+            // Given - one slot, block policy
+            relay = relayWith(criticalProfile(1, BackpressurePolicy.BLOCK));
+            when(outboxRepository.claimUnsent(2)).thenReturn(rows(1, 2));
+            when(kafkaTemplate.send(anyRecord()))
+                    .thenReturn(CompletableFuture.failedFuture(new TimeoutException("Expiring 1 record(s)")))
+                    .thenReturn(acked());
+
+            // When
+            relay.relayBatch();
+
+            // Then
+            verify(kafkaTemplate, times(2)).send(anyRecord());
+            verify(outboxRepository).markSent(eq(List.of(2L)), any());
+            verify(outboxRepository).markFailed(eq(List.of(1L)), contains("Expiring 1 record(s)"));
+            assertThat(meterRegistry.get("events.producer.in-flight").gauge().value()).isZero();
+            assertThat(meterRegistry.get("events.producer.send").tag("outcome", "failure").timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("events.producer.send").tag("outcome", "success").timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should wait for the ack before returning under sync confirm")
+        void shouldConfirmSynchronously() {
+            // Given - the ack arrives from another thread after send returns its future
+            EventRoutingProperties routingProperties = new EventRoutingProperties();
+            routingProperties.getProfiles().get(ProducerProfile.CRITICAL).setSyncConfirm(true);
+            relay = relayWith(routingProperties);
+            CompletableFuture<SendResult<String, byte[]>> ack = new CompletableFuture<>();
+            when(kafkaTemplate.send(anyRecord())).thenReturn(ack);
+            CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)
+                    .execute(() -> ack.complete(mockGeneric(SendResult.class)));
+            AtomicBoolean ackedBeforeFlush = new AtomicBoolean();
+            doAnswer(invocation -> {
+                ackedBeforeFlush.set(ack.isDone());
+                return null;
+            }).when(kafkaTemplate).flush();
+            when(outboxRepository.claimUnsent(2)).thenReturn(rows(1, 1));
+
+            // When
+            relay.relayBatch();
+
+            // Then
+            assertThat(ackedBeforeFlush).isTrue();
+            verify(outboxRepository).markSent(eq(List.of(1L)), any());
+        }
+    }
+}
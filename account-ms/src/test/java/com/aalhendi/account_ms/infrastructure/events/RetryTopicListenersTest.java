@@ -0,0 +1,141 @@
+package com.aalhendi.account_ms.infrastructure.events;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.listener.ListenerContainerRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for RetryTopicListeners re-driving retry tier records.
+ */
+class RetryTopicListenersTest {
+
+    private static final String LISTENER_ID = RetryTopicListeners.listenerId(0);
+
+    private EventBatchProcessor processor;
+    private Acknowledgment acknowledgment;
+    private Consumer<?, ?> consumer;
+    private MessageListenerContainer container;
+    private TaskScheduler taskScheduler;
+    private RetryTopicListeners listeners;
+    private long offset;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        processor = mock(EventBatchProcessor.class);
+        when(processor.topics()).thenReturn(Set.of("customer.events.updated", "customer.events.created"));
+        acknowledgment = mock(Acknowledgment.class);
+        consumer = mock(Consumer.class);
+        container = mock(MessageListenerContainer.class);
+        ListenerContainerRegistry containerRegistry = mock(ListenerContainerRegistry.class);
+        when(containerRegistry.getListenerContainer(LISTENER_ID)).thenReturn(container);
+        ObjectProvider<ListenerContainerRegistry> containerRegistryProvider = mock(ObjectProvider.class);
+        when(containerRegistryProvider.getObject()).thenReturn(containerRegistry);
+        taskScheduler = mock(TaskScheduler.class);
+        listeners = new RetryTopicListeners(List.of(processor), new RetryProperties(), containerRegistryProvider, taskScheduler);
+    }
+
+    private ConsumerRecord<String, byte[]> retryRecord(String originalTopic, int partition, long dueAt) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(originalTopic + ".retry.0", partition, offset++, "1234567", new byte[0]);
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, originalTopic.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(FailedEventForwarder.DUE_AT_HEADER, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    @Test
+    @DisplayName("Should apply due records by original topic and acknowledge the batch")
+    void shouldApplyDueRecords() {
+        // Given
+        long past = System.currentTimeMillis() - 1_000;
+        ConsumerRecord<String, byte[]> first = retryRecord("customer.events.updated", 0, past);
+        ConsumerRecord<String, byte[]> second = retryRecord("customer.events.created", 0, past);
+        ConsumerRecord<String, byte[]> third = retryRecord("customer.events.updated", 0, past);
+
+        // When
+        listeners.redeliver(LISTENER_ID, List.of(first, second, third), acknowledgment, consumer);
+
+        // Then
+        verify(processor).process("customer.events.updated", List.of(first, third));
+        verify(processor).process("customer.events.created", List.of(second));
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(consumer, container);
+    }
+
+    @Test
+    @DisplayName("Should stop a partition at its first record that is not due and pause it until it is")
+    void shouldPauseUntilNextRecordIsDue() {
+        // Given
+        ConsumerRecord<String, byte[]> due = retryRecord("customer.events.updated", 0, System.currentTimeMillis() - 1_000);
+        ConsumerRecord<String, byte[]> notDue = retryRecord("customer.events.updated", 0, System.currentTimeMillis() + 60_000);
+        TopicPartition partition = new TopicPartition("customer.events.updated.retry.0", 0);
+
+        // When
+        listeners.redeliver(LISTENER_ID, List.of(due, notDue), acknowledgment, consumer);
+
+        // Then
+        verify(processor).process("customer.events.updated", List.of(due));
+        verify(consumer).commitSync(Map.of(partition, new OffsetAndMetadata(due.offset() + 1)));
+        verify(consumer).seek(partition, notDue.offset());
+        verify(container).pausePartition(partition);
+        verify(taskScheduler).schedule(any(Runnable.class), argThat((Instant resumeAt) ->
+                resumeAt.isAfter(Instant.now()) && resumeAt.isBefore(Instant.now().plus(Duration.ofSeconds(61)))));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should keep applying other partitions while one waits for its next record")
+    void shouldNotHoldBackOtherPartitions() {
+        // Given - partition 0 waits, partition 1 is due behind it in the same poll
+        long past = System.currentTimeMillis() - 1_000;
+        ConsumerRecord<String, byte[]> waiting = retryRecord("customer.events.updated", 0, System.currentTimeMillis() + 60_000);
+        ConsumerRecord<String, byte[]> behindWaiting = retryRecord("customer.events.updated", 0, past);
+        ConsumerRecord<String, byte[]> otherFirst = retryRecord("customer.events.updated", 1, past);
+        ConsumerRecord<String, byte[]> otherSecond = retryRecord("customer.events.updated", 1, past);
+        TopicPartition waitingPartition = new TopicPartition("customer.events.updated.retry.0", 0);
+        TopicPartition otherPartition = new TopicPartition("customer.events.updated.retry.0", 1);
+
+        // When
+        listeners.redeliver(LISTENER_ID, List.of(waiting, behindWaiting, otherFirst, otherSecond), acknowledgment, consumer);
+
+        // Then - only the waiting partition is parked, and nothing past its head is applied or committed
+        verify(processor).process("customer.events.updated", List.of(otherFirst, otherSecond));
+        verify(consumer).commitSync(Map.of(otherPartition, new OffsetAndMetadata(otherSecond.offset() + 1)));
+        verify(consumer).seek(waitingPartition, waiting.offset());
+        verify(consumer, never()).seek(eq(otherPartition), anyLong());
+        verify(container).pausePartition(waitingPartition);
+        verify(container, never()).pausePartition(otherPartition);
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should grow the delay per tier up to the cap")
+    void shouldGrowDelayPerTier() {
+        // Given
+        RetryProperties properties = new RetryProperties();
+
+        // When & Then
+        assertThat(List.of(properties.delay(0), properties.delay(1), properties.delay(2), properties.delay(5)))
+                .containsExactly(Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(25), Duration.ofMinutes(5));
+    }
+}
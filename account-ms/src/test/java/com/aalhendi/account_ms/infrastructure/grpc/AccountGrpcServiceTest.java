@@ -0,0 +1,184 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import com.aalhendi.account.grpc.*;
+import com.aalhendi.account_ms.domain.entities.Account;
+import com.aalhendi.account_ms.domain.repositories.AccountRepository;
+import com.aalhendi.account_ms.domain.valueobjects.AccountNumber;
+import com.aalhendi.account_ms.domain.valueobjects.AccountStatus;
+import com.aalhendi.account_ms.domain.valueobjects.AccountType;
+import com.aalhendi.account_ms.domain.valueobjects.Balance;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AccountGrpcService over an in-process channel.
+ */
+class AccountGrpcServiceTest {
+
+    private AccountRepository accountRepository;
+    private FlowControlledStreamer streamer;
+    private Server server;
+    private ManagedChannel channel;
+    private AccountServiceGrpc.AccountServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        accountRepository = mock(AccountRepository.class);
+        streamer = new FlowControlledStreamer(mock(PlatformTransactionManager.class), 2);
+
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(new AccountGrpcService(accountRepository, streamer, new SingleFlight(new SimpleMeterRegistry())))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+        stub = AccountServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        streamer.shutdown();
+    }
+
+    private static Account account(String customerNumber, int serial) {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        return Account.reconstitute(
+                (long) serial,
+                new AccountNumber(customerNumber + String.format("%03d", serial)),
+                AccountType.SAVING,
+                AccountStatus.ACTIVE,
+                new Balance(new BigDecimal("100.000")),
+                now,
+                now
+        );
+    }
+
+    @Nested
+    @DisplayName("GetAccountSummaries")
+    class GetAccountSummariesTests {
+
+        @Test
+        @DisplayName("Should answer every distinct customer in request order with one query")
+        void shouldAnswerEveryCustomerInRequestOrder() {
+            // Given
+            when(accountRepository.findByCustomerNumbers(anyCollection()))
+                    .thenReturn(List.of(account("7654321", 1), account("1234567", 1), account("1234567", 2)));
+
+            // When
+            GetAccountSummariesResponse response = stub.getAccountSummaries(GetAccountSummariesRequest.newBuilder()
+                    .addAllCustomerNumbers(List.of("1234567", "9999999", "7654321", "1234567"))
+                    .build());
+
+            // Then
+            assertThat(response.getSummariesList())
+                    .extracting(GetAccountSummaryResponse::getCustomerNumber, GetAccountSummaryResponse::getTotalAccounts)
+                    .containsExactly(tuple("1234567", 2), tuple("9999999", 0), tuple("7654321", 1));
+            verify(accountRepository, times(1)).findByCustomerNumbers(anyCollection());
+        }
+    }
+
+    @Nested
+    @DisplayName("StreamAllAccounts")
+    class StreamAllAccountsTests {
+
+        @Test
+        @DisplayName("Should stream every account and close the cursor")
+        void shouldStreamEveryAccountAndCloseCursor() {
+            // Given
+            AtomicBoolean closed = new AtomicBoolean();
+            when(accountRepository.streamUpdatedSince(isNull())).thenReturn(
+                    IntStream.rangeClosed(1, 500)
+                            .mapToObj(i -> account(String.format("%07d", i), 1))
+                            .onClose(() -> closed.set(true)));
+
+            // When
+            Iterator<AccountInfo> accounts = stub.streamAllAccounts(StreamAllAccountsRequest.getDefaultInstance());
+            long count = 0;
+            while (accounts.hasNext()) {
+                accounts.next();
+                count++;
+            }
+
+            // Then
+            assertThat(count).isEqualTo(500);
+            assertThat(closed).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reject an unparseable since_updated_at")
+        void shouldRejectInvalidSinceUpdatedAt() {
+            // When
+            Iterator<AccountInfo> accounts = stub.streamAllAccounts(StreamAllAccountsRequest.newBuilder()
+                    .setSinceUpdatedAt("yesterday")
+                    .build());
+
+            // Then
+            assertThatThrownBy(accounts::hasNext)
+                    .isInstanceOf(StatusRuntimeException.class)
+                    .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                    .isEqualTo(Status.Code.INVALID_ARGUMENT);
+            verify(accountRepository, never()).streamUpdatedSince(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("StreamAccountsByCustomer")
+    class StreamAccountsByCustomerTests {
+
+        @Test
+        @DisplayName("Should stop reading the cursor when the client cancels")
+        void shouldStopReadingWhenClientCancels() throws Exception {
+            // Given
+            AtomicBoolean closed = new AtomicBoolean();
+            when(accountRepository.streamByCustomerNumber("1234567")).thenReturn(
+                    Stream.iterate(1, i -> i + 1)
+                            .map(i -> account("1234567", i % 999 + 1))
+                            .onClose(() -> closed.set(true)));
+
+            // When
+            var context = io.grpc.Context.current().withCancellation();
+            context.run(() -> {
+                Iterator<AccountInfo> accounts = stub.streamAccountsByCustomer(
+                        GetAccountsByCustomerRequest.newBuilder().setCustomerNumber("1234567").build());
+                accounts.next();
+                accounts.next();
+            });
+            context.cancel(null);
+
+            // Then
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!closed.get() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(closed).isTrue();
+        }
+    }
+}
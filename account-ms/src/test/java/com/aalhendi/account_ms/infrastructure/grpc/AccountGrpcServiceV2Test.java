@@ -0,0 +1,145 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import com.aalhendi.account.grpc.v2.*;
+import com.aalhendi.account_ms.domain.entities.Account;
+import com.aalhendi.account_ms.domain.repositories.AccountRepository;
+import com.aalhendi.account_ms.domain.valueobjects.AccountNumber;
+import com.aalhendi.account_ms.domain.valueobjects.Balance;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AccountGrpcServiceV2 served next to v1 over an in-process channel.
+ */
+class AccountGrpcServiceV2Test {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 6, 1, 12, 0, 0, 123_000_000);
+
+    private AccountRepository accountRepository;
+    private FlowControlledStreamer streamer;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        accountRepository = mock(AccountRepository.class);
+        streamer = new FlowControlledStreamer(mock(PlatformTransactionManager.class), 2);
+        SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(new AccountGrpcService(accountRepository, streamer, singleFlight))
+                .addService(new AccountGrpcServiceV2(accountRepository, streamer, singleFlight))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        streamer.shutdown();
+    }
+
+    private static Account account(int serial,
+                                   com.aalhendi.account_ms.domain.valueobjects.AccountType type,
+                                   com.aalhendi.account_ms.domain.valueobjects.AccountStatus status,
+                                   String balance) {
+        return Account.reconstitute(
+                (long) serial,
+                new AccountNumber("1234567" + String.format("%03d", serial)),
+                type,
+                status,
+                new Balance(new BigDecimal(balance)),
+                CREATED_AT,
+                CREATED_AT
+        );
+    }
+
+    @Test
+    @DisplayName("Should return typed summaries while v1 keeps serving strings")
+    void shouldServeTypedSummaryNextToV1() {
+        // Given
+        when(accountRepository.findByCustomerNumber("1234567")).thenReturn(List.of(
+                account(1, com.aalhendi.account_ms.domain.valueobjects.AccountType.SALARY,
+                        com.aalhendi.account_ms.domain.valueobjects.AccountStatus.ACTIVE, "1250.500"),
+                account(2, com.aalhendi.account_ms.domain.valueobjects.AccountType.SAVING,
+                        com.aalhendi.account_ms.domain.valueobjects.AccountStatus.CLOSED, "0.125")));
+
+        // When
+        GetAccountSummaryResponse v2 = AccountServiceGrpc.newBlockingStub(channel)
+                .getAccountSummary(GetAccountSummaryRequest.newBuilder().setCustomerNumber("1234567").build());
+        com.aalhendi.account.grpc.GetAccountSummaryResponse v1 = com.aalhendi.account.grpc.AccountServiceGrpc
+                .newBlockingStub(channel)
+                .getAccountSummary(com.aalhendi.account.grpc.GetAccountSummaryRequest.newBuilder()
+                        .setCustomerNumber("1234567")
+                        .build());
+
+        // Then
+        assertThat(v2.getTotalBalanceMinorUnits()).isEqualTo(1_250_625L);
+        assertThat(v2.getActiveAccounts()).isEqualTo(1);
+        assertThat(v2.getHasSalaryAccount()).isTrue();
+        assertThat(v2.getAccountDetailsList())
+                .extracting(AccountInfo::getAccountType, AccountInfo::getStatus, AccountInfo::getBalanceMinorUnits)
+                .containsExactly(
+                        tuple(AccountType.ACCOUNT_TYPE_SALARY, AccountStatus.ACCOUNT_STATUS_ACTIVE, 1_250_500L),
+                        tuple(AccountType.ACCOUNT_TYPE_SAVING, AccountStatus.ACCOUNT_STATUS_CLOSED, 125L));
+        assertThat(AccountGrpcServiceV2.toLocalDateTime(v2.getAccountDetails(0).getCreatedAt())).isEqualTo(CREATED_AT);
+
+        assertThat(v1.getTotalBalance()).isEqualTo("1250.625");
+        assertThat(v1.getAccountDetails(0).getCreatedAt()).isEqualTo(CREATED_AT.toString());
+    }
+
+    @Test
+    @DisplayName("Should stream every account when since_updated_at is unset")
+    void shouldStreamEveryAccountWhenSinceIsUnset() {
+        // Given
+        when(accountRepository.streamUpdatedSince(isNull())).thenReturn(Stream.of(
+                account(1, com.aalhendi.account_ms.domain.valueobjects.AccountType.SAVING,
+                        com.aalhendi.account_ms.domain.valueobjects.AccountStatus.ACTIVE, "10.000")));
+
+        // When
+        Iterator<AccountInfo> accounts = AccountServiceGrpc.newBlockingStub(channel)
+                .streamAllAccounts(StreamAllAccountsRequest.getDefaultInstance());
+
+        // Then
+        assertThat(accounts.next().getBalanceMinorUnits()).isEqualTo(10_000L);
+        assertThat(accounts.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should convert since_updated_at from a Timestamp")
+    void shouldConvertSinceUpdatedAt() {
+        // Given
+        when(accountRepository.streamUpdatedSince(CREATED_AT)).thenReturn(Stream.empty());
+
+        // When
+        Iterator<AccountInfo> accounts = AccountServiceGrpc.newBlockingStub(channel)
+                .streamAllAccounts(StreamAllAccountsRequest.newBuilder()
+                        .setSinceUpdatedAt(AccountGrpcServiceV2.toTimestamp(CREATED_AT))
+                        .build());
+
+        // Then
+        assertThat(accounts.hasNext()).isFalse();
+        verify(accountRepository).streamUpdatedSince(CREATED_AT);
+    }
+}
@@ -0,0 +1,134 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import com.aalhendi.account.grpc.AccountServiceGrpc;
+import com.aalhendi.account.grpc.GetAccountSummaryRequest;
+import com.aalhendi.account.grpc.GetAccountSummaryResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for ConcurrencyLimitInterceptor on a virtual-thread in-process server.
+ */
+class ConcurrencyLimitInterceptorTest {
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService serverExecutor;
+    private ExecutorService clientExecutor;
+    private Server server;
+    private ManagedChannel channel;
+    private AccountServiceGrpc.AccountServiceBlockingStub stub;
+
+    /**
+     * GetAccountSummary for "slow" blocks until released; every other customer answers at once.
+     */
+    private class SlowAccountService extends AccountServiceGrpc.AccountServiceImplBase {
+
+        @Override
+        public void getAccountSummary(GetAccountSummaryRequest request,
+                                      StreamObserver<GetAccountSummaryResponse> responseObserver) {
+            if (request.getCustomerNumber().equals("slow")) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            responseObserver.onNext(GetAccountSummaryResponse.newBuilder()
+                    .setCustomerNumber(request.getCustomerNumber())
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ServerConcurrencyProperties properties = new ServerConcurrencyProperties();
+        properties.getLimits().put("GetAccountSummary", 1);
+        properties.setQueueTimeout(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .executor(serverExecutor)
+                .addService(ServerInterceptors.intercept(new SlowAccountService(),
+                        new ConcurrencyLimitInterceptor(properties, meterRegistry)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).build();
+        stub = AccountServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        channel.shutdownNow();
+        server.shutdownNow();
+        serverExecutor.shutdownNow();
+        clientExecutor.shutdownNow();
+    }
+
+    private GetAccountSummaryResponse summary(String customerNumber) {
+        return stub.getAccountSummary(GetAccountSummaryRequest.newBuilder().setCustomerNumber(customerNumber).build());
+    }
+
+    @Test
+    @DisplayName("Should reject with RESOURCE_EXHAUSTED once a call queues past the budget")
+    void shouldRejectWhenQueuedPastBudget() throws Exception {
+        // Given - the only permit is held by a slow call
+        Future<GetAccountSummaryResponse> slow = clientExecutor.submit(() -> summary("slow"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When & Then
+        assertThatThrownBy(() -> summary("1234567"))
+                .isInstanceOf(StatusRuntimeException.class)
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        assertThat(meterRegistry.get("grpc.server.concurrency.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS).getCustomerNumber()).isEqualTo("slow");
+    }
+
+    @Test
+    @DisplayName("Should admit the next call once the permit is released")
+    void shouldAdmitAfterRelease() throws Exception {
+        // Given
+        Future<GetAccountSummaryResponse> slow = clientExecutor.submit(() -> summary("slow"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        // When
+        GetAccountSummaryResponse response = summary("1234567");
+
+        // Then
+        assertThat(response.getCustomerNumber()).isEqualTo("1234567");
+        assertThat(meterRegistry.get("grpc.server.concurrency.in-use").gauge().value()).isZero();
+    }
+}
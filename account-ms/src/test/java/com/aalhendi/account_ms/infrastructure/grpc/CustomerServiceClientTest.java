@@ -0,0 +1,233 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import com.aalhendi.customer.grpc.*;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for CustomerServiceClient deadlines, retries and circuit breaking over an in-process channel.
+ */
+class CustomerServiceClientTest {
+
+    private static final String SLOW_CUSTOMER = "1234567";
+
+    private final AtomicInteger getCustomerCalls = new AtomicInteger();
+    private final AtomicInteger validateCustomerCalls = new AtomicInteger();
+    // Run by the fake server while a ValidateCustomer call is in flight
+    private volatile Runnable duringValidation = () -> { };
+
+    private Server server;
+    private ManagedChannel channel;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerServiceClient client;
+
+    /**
+     * GetCustomer fails once with UNAVAILABLE, then succeeds.
+     * ValidateCustomer never answers for {@link #SLOW_CUSTOMER}, so those calls run into their deadline;
+     * every other customer is active.
+     */
+    private class FakeCustomerService extends CustomerServiceGrpc.CustomerServiceImplBase {
+
+        @Override
+        public void getCustomer(GetCustomerRequest request, StreamObserver<GetCustomerResponse> responseObserver) {
+            if (getCustomerCalls.incrementAndGet() == 1) {
+                responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(GetCustomerResponse.newBuilder()
+                    .setCustomerNumber(request.getCustomerNumber())
+                    .build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void validateCustomer(ValidateCustomerRequest request,
+                                     StreamObserver<ValidateCustomerResponse> responseObserver) {
+            validateCustomerCalls.incrementAndGet();
+            duringValidation.run();
+            if (SLOW_CUSTOMER.equals(request.getCustomerNumber())) {
+                return;
+            }
+            responseObserver.onNext(ValidateCustomerResponse.newBuilder()
+                    .setIsValid(true)
+                    .setIsActive(true)
+                    .setStatus("ACTIVE")
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CustomerServiceClientProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "grpc.client.customer-service.methods[GetCustomer].retry.max-attempts", "3",
+                "grpc.client.customer-service.methods[GetCustomer].retry.initial-backoff", "10ms",
+                "grpc.client.customer-service.methods[ValidateCustomer].deadline", "100ms"
+        ))).bind("grpc.client.customer-service", CustomerServiceClientProperties.class).get();
+
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .addService(new FakeCustomerService())
+                .build()
+                .start();
+        channel = GrpcClientConfig.configureChannel(InProcessChannelBuilder.forName(serverName), properties).build();
+
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(Map.of(
+                "customer-service", CircuitBreakerConfig.custom()
+                        .slidingWindowSize(4)
+                        .minimumNumberOfCalls(2)
+                        .failureRateThreshold(50)
+                        .waitDurationInOpenState(Duration.ofMinutes(1))
+                        .build()
+        ));
+        meterRegistry = new SimpleMeterRegistry();
+        client = new CustomerServiceClient(
+                CustomerServiceGrpc.newBlockingStub(channel), properties, circuitBreakerRegistry, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should transparently retry UNAVAILABLE for a retryable RPC")
+    void shouldRetryUnavailable() {
+        // When
+        GetCustomerResponse response = client.getCustomer("1234567");
+
+        // Then
+        assertThat(response.getCustomerNumber()).isEqualTo("1234567");
+        assertThat(getCustomerCalls).hasValue(2);
+        assertThat(meterRegistry.find("customer.service.client.rejected").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should enforce the per-RPC deadline")
+    void shouldEnforceDeadline() {
+        // When & Then
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.validateCustomer(SLOW_CUSTOMER))
+                .isInstanceOf(CustomerServiceClient.CustomerServiceException.class)
+                .hasCauseInstanceOf(StatusRuntimeException.class)
+                .cause()
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.DEADLINE_EXCEEDED);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Should serve repeat validations from the near cache")
+    void shouldServeRepeatValidationsFromCache() {
+        // When
+        client.validateCustomer("7654321");
+        ValidateCustomerResponse response = client.validateCustomer("7654321");
+
+        // Then
+        assertThat(response.getIsActive()).isTrue();
+        assertThat(validateCustomerCalls).hasValue(1);
+        assertThat(client.getCachedValidation("7654321")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should apply a status change event to a cached validation")
+    void shouldApplyStatusChangeToCachedValidation() {
+        // Given
+        client.validateCustomer("7654321");
+
+        // When
+        client.onCustomerStatusChanged("7654321", "SUSPENDED");
+        ValidateCustomerResponse response = client.validateCustomer("7654321");
+
+        // Then
+        assertThat(response.getIsActive()).isFalse();
+        assertThat(response.getStatus()).isEqualTo("SUSPENDED");
+        assertThat(validateCustomerCalls).hasValue(1);
+        assertThat(meterRegistry.get("customer.validation.cache.event.updates").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a validation that raced with an event for its customer")
+    void shouldNotCacheValidationThatRacedWithEvent() {
+        // Given - the customer is suspended while the validation is in flight
+        duringValidation = () -> client.onCustomerStatusChanged("7654321", "SUSPENDED");
+
+        // When
+        ValidateCustomerResponse response = client.validateCustomer("7654321");
+
+        // Then - the caller gets the answer, but the stale ACTIVE isn't cached over the event
+        assertThat(response.getIsActive()).isTrue();
+        assertThat(client.getCachedValidation("7654321")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should still cache a validation when an event for another customer arrives")
+    void shouldCacheValidationDespiteEventForOtherCustomer() {
+        // Given
+        duringValidation = () -> client.onCustomerStatusChanged("1111111", "SUSPENDED");
+
+        // When
+        client.validateCustomer("7654321");
+
+        // Then
+        assertThat(client.getCachedValidation("7654321")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should reload a validation once its entry is evicted")
+    void shouldReloadAfterEviction() {
+        // Given
+        client.validateCustomer("7654321");
+
+        // When
+        client.evictCachedValidation("7654321");
+        client.validateCustomer("7654321");
+
+        // Then
+        assertThat(validateCustomerCalls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should fail fast without calling the server once the breaker opens")
+    void shouldFailFastWhenCircuitOpen() {
+        // Given - two deadline failures open the breaker
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> client.validateCustomer(SLOW_CUSTOMER))
+                    .isInstanceOf(CustomerServiceClient.CustomerServiceException.class);
+        }
+        int callsBeforeOpen = validateCustomerCalls.get();
+
+        // When & Then
+        assertThatThrownBy(() -> client.validateCustomer(SLOW_CUSTOMER))
+                .isInstanceOf(CustomerServiceClient.CustomerServiceException.class)
+                .cause()
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.UNAVAILABLE);
+        assertThat(validateCustomerCalls).hasValue(callsBeforeOpen);
+        assertThat(meterRegistry.get("customer.service.client.rejected")
+                .tag("method", "ValidateCustomer")
+                .counter()
+                .count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,145 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import com.aalhendi.customer.grpc.CustomerServiceGrpc;
+import com.aalhendi.customer.grpc.GetCustomerRequest;
+import com.aalhendi.customer.grpc.GetCustomerResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for GrpcServerMetricsInterceptor and GrpcClientMetricsInterceptor on both ends of an in-process call.
+ */
+class GrpcMetricsInterceptorTest {
+
+    private static final String GET_CUSTOMER = CustomerServiceGrpc.getGetCustomerMethod().getFullMethodName();
+    private static final GetCustomerResponse RESPONSE = GetCustomerResponse.newBuilder()
+            .setCustomerNumber("1234567")
+            .setName("John Doe")
+            .setStatus("ACTIVE")
+            .build();
+
+    private SimpleMeterRegistry serverRegistry;
+    private SimpleMeterRegistry clientRegistry;
+    private Server server;
+    private ManagedChannel channel;
+    private CustomerServiceGrpc.CustomerServiceBlockingStub stub;
+
+    /**
+     * Knows only customer 1234567.
+     */
+    private static class FakeCustomerService extends CustomerServiceGrpc.CustomerServiceImplBase {
+
+        @Override
+        public void getCustomer(GetCustomerRequest request, StreamObserver<GetCustomerResponse> responseObserver) {
+            if (!request.getCustomerNumber().equals("1234567")) {
+                responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(RESPONSE);
+            responseObserver.onCompleted();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        serverRegistry = new SimpleMeterRegistry();
+        clientRegistry = new SimpleMeterRegistry();
+
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(new FakeCustomerService(),
+                        new GrpcServerMetricsInterceptor(serverRegistry)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName)
+                .directExecutor()
+                .intercept(new GrpcClientMetricsInterceptor(clientRegistry))
+                .build();
+        stub = CustomerServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private static GetCustomerRequest request(String customerNumber) {
+        return GetCustomerRequest.newBuilder().setCustomerNumber(customerNumber).build();
+    }
+
+    @Nested
+    @DisplayName("Successful calls")
+    class SuccessfulCalls {
+
+        @Test
+        @DisplayName("Should time calls per method on both sides")
+        void shouldTimeCallsPerMethod() {
+            // When
+            stub.getCustomer(request("1234567"));
+            stub.getCustomer(request("1234567"));
+
+            // Then
+            for (SimpleMeterRegistry registry : new SimpleMeterRegistry[]{serverRegistry, clientRegistry}) {
+                String side = registry == serverRegistry ? "server" : "client";
+                assertThat(registry.get("grpc." + side + ".call.duration").tag("method", GET_CUSTOMER).timer().count())
+                        .isEqualTo(2);
+                assertThat(registry.get("grpc." + side + ".responses").tag("method", GET_CUSTOMER).tag("status", "OK")
+                        .counter().count()).isEqualTo(2);
+            }
+        }
+
+        @Test
+        @DisplayName("Should record serialized request and response sizes")
+        void shouldRecordMessageSizes() {
+            // When
+            stub.getCustomer(request("1234567"));
+
+            // Then
+            assertThat(clientRegistry.get("grpc.client.request.size").summary().totalAmount())
+                    .isEqualTo(request("1234567").getSerializedSize());
+            assertThat(clientRegistry.get("grpc.client.response.size").summary().totalAmount())
+                    .isEqualTo(RESPONSE.getSerializedSize());
+            assertThat(serverRegistry.get("grpc.server.request.size").summary().totalAmount())
+                    .isEqualTo(request("1234567").getSerializedSize());
+            assertThat(serverRegistry.get("grpc.server.response.size").summary().totalAmount())
+                    .isEqualTo(RESPONSE.getSerializedSize());
+        }
+    }
+
+    @Nested
+    @DisplayName("Failed calls")
+    class FailedCalls {
+
+        @Test
+        @DisplayName("Should count failures by status code without a response size")
+        void shouldCountFailuresByStatus() {
+            // When
+            assertThatThrownBy(() -> stub.getCustomer(request("9999999")))
+                    .isInstanceOf(StatusRuntimeException.class);
+
+            // Then
+            assertThat(serverRegistry.get("grpc.server.responses").tag("status", "NOT_FOUND").counter().count())
+                    .isEqualTo(1);
+            assertThat(clientRegistry.get("grpc.client.responses").tag("status", "NOT_FOUND").counter().count())
+                    .isEqualTo(1);
+            assertThat(clientRegistry.find("grpc.client.responses").tag("status", "OK").counter()).isNull();
+            assertThat(clientRegistry.get("grpc.client.response.size").summary().count()).isZero();
+        }
+    }
+}
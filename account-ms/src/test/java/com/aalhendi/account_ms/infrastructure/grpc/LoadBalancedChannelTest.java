@@ -0,0 +1,181 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import com.aalhendi.customer.grpc.CustomerServiceGrpc;
+import com.aalhendi.customer.grpc.GetCustomerRequest;
+import com.aalhendi.customer.grpc.GetCustomerResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.inprocess.InProcessSocketAddress;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for client-side load balancing, health checking and channel pooling against several in-process replicas.
+ */
+class LoadBalancedChannelTest {
+
+    private static final int REPLICAS = 3;
+
+    private final List<Server> servers = new ArrayList<>();
+    private final List<AtomicInteger> callsPerReplica = new ArrayList<>();
+    private final List<HealthStatusManager> healthPerReplica = new ArrayList<>();
+    private final List<SocketAddress> addresses = new ArrayList<>();
+    private final List<ManagedChannel> channels = new ArrayList<>();
+
+    /**
+     * Answers GetCustomer and counts the calls this replica served.
+     */
+    private static class CountingCustomerService extends CustomerServiceGrpc.CustomerServiceImplBase {
+
+        private final AtomicInteger calls;
+
+        CountingCustomerService(AtomicInteger calls) {
+            this.calls = calls;
+        }
+
+        @Override
+        public void getCustomer(GetCustomerRequest request, StreamObserver<GetCustomerResponse> responseObserver) {
+            calls.incrementAndGet();
+            responseObserver.onNext(GetCustomerResponse.newBuilder()
+                    .setCustomerNumber(request.getCustomerNumber())
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < REPLICAS; i++) {
+            String serverName = InProcessServerBuilder.generateName();
+            AtomicInteger calls = new AtomicInteger();
+            HealthStatusManager health = new HealthStatusManager();
+            servers.add(InProcessServerBuilder.forName(serverName)
+                    .addService(new CountingCustomerService(calls))
+                    .addService(health.getHealthService())
+                    .build()
+                    .start());
+            callsPerReplica.add(calls);
+            healthPerReplica.add(health);
+            addresses.add(new InProcessSocketAddress(serverName));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        channels.forEach(ManagedChannel::shutdownNow);
+        servers.forEach(Server::shutdownNow);
+    }
+
+    private ManagedChannel channel(String loadBalancingPolicy) {
+        CustomerServiceClientProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "grpc.client.customer-service.load-balancing-policy", loadBalancingPolicy
+        ))).bind("grpc.client.customer-service", CustomerServiceClientProperties.class).get();
+
+        ManagedChannel channel = GrpcClientConfig.configureChannel(
+                InProcessChannelBuilder.forTarget(StaticAddressNameResolverProvider.register("customer-service", addresses)),
+                properties).build();
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * Calls until every expected replica has answered at least once, so all subchannels are READY,
+     * then resets the counters.
+     */
+    private void warmUp(CustomerServiceGrpc.CustomerServiceBlockingStub stub, List<Integer> expectedReplicas) {
+        for (int i = 0; i < 1000 && !expectedReplicas.stream().allMatch(r -> callsPerReplica.get(r).get() > 0); i++) {
+            stub.getCustomer(GetCustomerRequest.newBuilder().setCustomerNumber("1234567").build());
+        }
+        assertThat(expectedReplicas).allMatch(r -> callsPerReplica.get(r).get() > 0);
+        callsPerReplica.forEach(calls -> calls.set(0));
+    }
+
+    private void call(CustomerServiceGrpc.CustomerServiceBlockingStub stub, int times) {
+        for (int i = 0; i < times; i++) {
+            stub.getCustomer(GetCustomerRequest.newBuilder().setCustomerNumber("1234567").build());
+        }
+    }
+
+    @Test
+    @DisplayName("Should spread calls evenly over every replica with round_robin")
+    void shouldSpreadCallsWithRoundRobin() {
+        // Given
+        CustomerServiceGrpc.CustomerServiceBlockingStub stub = CustomerServiceGrpc.newBlockingStub(channel("round_robin"));
+        warmUp(stub, List.of(0, 1, 2));
+
+        // When
+        call(stub, 30);
+
+        // Then
+        assertThat(callsPerReplica).extracting(AtomicInteger::get).containsExactly(10, 10, 10);
+    }
+
+    @Test
+    @DisplayName("Should send no calls to a replica whose health check reports NOT_SERVING")
+    void shouldSkipUnhealthyReplica() {
+        // Given
+        healthPerReplica.get(1).setStatus("", ServingStatus.NOT_SERVING);
+        CustomerServiceGrpc.CustomerServiceBlockingStub stub = CustomerServiceGrpc.newBlockingStub(channel("round_robin"));
+        warmUp(stub, List.of(0, 2));
+
+        // When
+        call(stub, 30);
+
+        // Then
+        assertThat(callsPerReplica).extracting(AtomicInteger::get).containsExactly(15, 0, 15);
+    }
+
+    @Test
+    @DisplayName("Should use every healthy replica and skip an unhealthy one with least_request")
+    void shouldBalanceHealthyReplicasWithLeastRequest() {
+        // Given
+        healthPerReplica.get(2).setStatus("", ServingStatus.NOT_SERVING);
+        CustomerServiceGrpc.CustomerServiceBlockingStub stub = CustomerServiceGrpc.newBlockingStub(channel("least_request"));
+        warmUp(stub, List.of(0, 1));
+
+        // When
+        call(stub, 100);
+
+        // Then
+        assertThat(callsPerReplica.get(0).get() + callsPerReplica.get(1).get()).isEqualTo(100);
+        assertThat(callsPerReplica.get(0).get()).isPositive();
+        assertThat(callsPerReplica.get(1).get()).isPositive();
+        assertThat(callsPerReplica.get(2).get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should spread calls over every channel in a pool and shut them all down")
+    void shouldSpreadCallsOverChannelPool() {
+        // Given
+        ManagedChannel first = channel("round_robin");
+        ManagedChannel second = channel("round_robin");
+        ManagedChannelPool pool = new ManagedChannelPool(List.of(first, second));
+        CustomerServiceGrpc.CustomerServiceBlockingStub stub = CustomerServiceGrpc.newBlockingStub(pool);
+
+        // When
+        call(stub, 6);
+        pool.shutdown();
+
+        // Then
+        assertThat(callsPerReplica.stream().mapToInt(AtomicInteger::get).sum()).isEqualTo(6);
+        assertThat(first.isShutdown()).isTrue();
+        assertThat(second.isShutdown()).isTrue();
+    }
+}
@@ -0,0 +1,173 @@
+package com.aalhendi.account_ms.infrastructure.grpc;
+
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for SingleFlight request coalescing.
+ */
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private double coalescedCalls(String rpc) {
+        return meterRegistry.get("grpc.server.coalesced.calls").tag("method", rpc).counter().count();
+    }
+
+    private void awaitCoalesced(String rpc, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (meterRegistry.find("grpc.server.coalesced.calls").tag("method", rpc).counter() != null
+                    && coalescedCalls(rpc) >= expected) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        fail("Expected " + expected + " coalesced calls for " + rpc);
+    }
+
+    @Test
+    @DisplayName("Should run one lookup for concurrent identical calls and share its result")
+    void shouldShareOneLookupAcrossConcurrentCalls() throws Exception {
+        // Given
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlight.execute("GetAccountSummary", "1234567", () -> {
+            lookups.incrementAndGet();
+            await(release);
+            return "summary";
+        }));
+        while (lookups.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        // When
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("GetAccountSummary", "1234567", () -> {
+                lookups.incrementAndGet();
+                return "other";
+            })));
+        }
+        awaitCoalesced("GetAccountSummary", 4);
+        release.countDown();
+
+        // Then
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("summary");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("summary");
+        }
+        assertThat(lookups).hasValue(1);
+        assertThat(coalescedCalls("GetAccountSummary")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should keep different RPCs and keys apart")
+    void shouldKeepDifferentKeysApart() {
+        // When
+        String first = singleFlight.execute("GetAccountSummary", "1234567", () -> "a");
+        String second = singleFlight.execute("GetAccountSummary", "7654321", () -> "b");
+        String third = singleFlight.execute("HasActiveAccounts", "1234567", () -> "c");
+
+        // Then
+        assertThat(List.of(first, second, third)).containsExactly("a", "b", "c");
+        assertThat(meterRegistry.find("grpc.server.coalesced.calls").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should propagate a failure to joined calls without caching it")
+    void shouldPropagateFailureWithoutCachingIt() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlight.execute("GetAccountSummary", "1234567", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        started.await();
+        Future<String> follower = executor.submit(() -> singleFlight.execute("GetAccountSummary", "1234567", () -> "other"));
+        awaitCoalesced("GetAccountSummary", 1);
+
+        // When
+        release.countDown();
+
+        // Then
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("database down");
+        assertThat(singleFlight.execute("GetAccountSummary", "1234567", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    @DisplayName("Should stop waiting when a joined call is cancelled, leaving the lookup running")
+    void shouldStopWaitingWhenJoinedCallIsCancelled() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlight.execute("GetAccountSummary", "1234567", () -> {
+            started.countDown();
+            await(release);
+            return "summary";
+        }));
+        started.await();
+
+        Context.CancellableContext followerContext = Context.current().withCancellation();
+        Future<String> follower = executor.submit(() -> followerContext.call(
+                () -> singleFlight.execute("GetAccountSummary", "1234567", () -> "other")));
+        awaitCoalesced("GetAccountSummary", 1);
+
+        // When
+        followerContext.cancel(null);
+
+        // Then
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(StatusRuntimeException.class)
+                .cause()
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.CANCELLED);
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("summary");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
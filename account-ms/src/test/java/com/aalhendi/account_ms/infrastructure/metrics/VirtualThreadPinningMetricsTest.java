@@ -0,0 +1,62 @@
+package com.aalhendi.account_ms.infrastructure.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for VirtualThreadPinningMetrics.
+ */
+class VirtualThreadPinningMetricsTest {
+
+    @Test
+    @DisplayName("Should tag a pin with the topmost library frame")
+    void shouldTagTopmostLibraryFrame() {
+        // Given
+        List<String> jdbc = List.of("java.lang.Object", "org.postgresql.core.v3.QueryExecutorImpl",
+                "com.zaxxer.hikari.pool.ProxyPreparedStatement", "com.aalhendi.account_ms.infrastructure.persistence.AccountRepositoryImpl");
+        List<String> hikari = List.of("jdk.internal.misc.Unsafe", "com.zaxxer.hikari.util.ConcurrentBag",
+                "com.zaxxer.hikari.pool.HikariPool");
+
+        // When & Then
+        assertThat(VirtualThreadPinningMetrics.source(jdbc)).isEqualTo("jdbc");
+        assertThat(VirtualThreadPinningMetrics.source(hikari)).isEqualTo("hikari");
+        assertThat(VirtualThreadPinningMetrics.source(List.of("java.lang.Thread"))).isEqualTo(VirtualThreadPinningMetrics.OTHER);
+    }
+
+    @Test
+    @DisplayName("Should time a virtual thread that blocks inside a synchronized block")
+    void shouldTimePinnedVirtualThread() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Object lock = new Object();
+        try (VirtualThreadPinningMetrics metrics = new VirtualThreadPinningMetrics(Duration.ofMillis(10))) {
+            metrics.bindTo(registry);
+
+            // When
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            // Then - JFR streams events about once a second
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (registry.get("jvm.threads.virtual.pinned").tag("source", "application").timer().count() == 0
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertThat(registry.get("jvm.threads.virtual.pinned").tag("source", "application").timer().count()).isEqualTo(1);
+            assertThat(registry.get("jvm.threads.virtual.pinned").tag("source", "jdbc").timer().count()).isZero();
+        }
+    }
+}
@@ -97,6 +97,44 @@ class JpaAccountRepositoryTest {
         assertTrue(accounts.stream().anyMatch(a -> a.getAccountNumber().equals("1234567002")));
     }
 
+    @Test
+    void shouldFindAccountsForSeveralCustomersInOneQuery() {
+        // When - finding accounts for both customers plus an unknown one
+        List<AccountEntity> accounts = repository.findByCustomerNumberIn(List.of("1234567", "7654321", "9999999"));
+        
+        // Then - should return all 3 accounts
+        assertEquals(3, accounts.size());
+        assertTrue(accounts.stream().anyMatch(a -> a.getAccountNumber().equals("7654321001")));
+    }
+
+    @Test
+    void shouldFindAccountsByAccountNumbersInOneQuery() {
+        // Given - one account soft deleted
+        repository.delete(repository.findByAccountNumber("1234567002").orElseThrow());
+        entityManager.flush();
+
+        // When - looking up two live accounts, the deleted one and an unknown one
+        List<AccountEntity> accounts = repository.findByAccountNumberIn(
+                new String[] {"7654321001", "1234567001", "1234567002", "9999999001"});
+
+        // Then - should return only the live accounts
+        assertEquals(2, accounts.size());
+        assertTrue(accounts.stream().anyMatch(a -> a.getAccountNumber().equals("1234567001")));
+        assertTrue(accounts.stream().anyMatch(a -> a.getAccountNumber().equals("7654321001")));
+    }
+
+    @Test
+    void shouldFindUpdatedAtWithoutLoadingAccount() {
+        // When - reading only the update time of an existing and an unknown account
+        Optional<LocalDateTime> updatedAt = repository.findUpdatedAtByAccountNumber("1234567001");
+        Optional<LocalDateTime> unknown = repository.findUpdatedAtByAccountNumber("9999999001");
+
+        // Then - should match the stored account
+        assertTrue(updatedAt.isPresent());
+        assertEquals(repository.findByAccountNumber("1234567001").orElseThrow().getUpdatedAt(), updatedAt.get());
+        assertTrue(unknown.isEmpty());
+    }
+
     @Test
     void shouldCountAccountsByCustomerNumber() {
         // When - counting accounts for customer 1234567
@@ -0,0 +1,168 @@
+package com.aalhendi.account_ms.web;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of Tomcat request handling on its platform thread pool against virtual threads, the two modes
+ * {@code spring.threads.virtual.enabled} switches between. Each request does what a typical AccountController call
+ * does: a JDBC query on a connection borrowed from a pool sized like Hikari's default, then a blocking gRPC call to
+ * customer-ms. Both are simulated with sleeps, so this measures the threading model rather than the database.
+ * A batch of concurrent clients is sent per invocation; the score is requests per second.
+ * <p>
+ * JMH forks its own JVM, so launch it as a process rather than with exec:java:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.aalhendi.account_ms.web.RequestThreadingBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private static final int CLIENTS = 1000;
+    // Boot's default server.tomcat.threads.max and spring.datasource.hikari.maximum-pool-size
+    private static final int PLATFORM_THREADS = 200;
+    private static final int CONNECTION_POOL_SIZE = 10;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"1"})
+    public long jdbcMillis;
+
+    @Param({"20", "500"})
+    public long grpcMillis;
+
+    private Tomcat tomcat;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    /**
+     * Stands in for a controller call: a query on a pooled connection, then a remote call with no connection held.
+     */
+    private static final class BlockingServlet extends HttpServlet {
+
+        private final Semaphore connections = new Semaphore(CONNECTION_POOL_SIZE, true);
+        private final long jdbcMillis;
+        private final long grpcMillis;
+
+        private BlockingServlet(long jdbcMillis, long grpcMillis) {
+            this.jdbcMillis = jdbcMillis;
+            this.grpcMillis = grpcMillis;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            try {
+                connections.acquire();
+                try {
+                    Thread.sleep(jdbcMillis);
+                } finally {
+                    connections.release();
+                }
+                Thread.sleep(grpcMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
+            }
+            response.setContentType("application/json");
+            response.getWriter().write("{\"account_number\":\"1234567001\",\"status\":\"ACTIVE\"}");
+        }
+    }
+
+    @Setup
+    public void setUp() throws LifecycleException, IOException {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat-benchmark").toString());
+        tomcat.setPort(0);
+        Connector connector = tomcat.getConnector();
+        if ("virtual".equals(threads)) {
+            // What Boot configures when spring.threads.virtual.enabled is on
+            connector.getProtocolHandler().setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+        } else {
+            connector.setProperty("maxThreads", String.valueOf(PLATFORM_THREADS));
+        }
+        connector.setProperty("maxKeepAliveRequests", "-1");
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "accounts", new BlockingServlet(jdbcMillis, grpcMillis));
+        context.addServletMappingDecoded("/api/accounts/*", "accounts");
+        tomcat.start();
+
+        // Platform threads, so clients don't compete with virtual request handlers for carrier threads
+        clientExecutor = Executors.newCachedThreadPool();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + connector.getLocalPort() + "/api/accounts/1234567001"))
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws LifecycleException {
+        client.close();
+        clientExecutor.close();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLIENTS)
+    public void getAccount() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Unexpected status " + response.statusCode());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(RequestThreadingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
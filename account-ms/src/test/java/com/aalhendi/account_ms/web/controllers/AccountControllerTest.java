@@ -19,11 +19,17 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -200,6 +206,50 @@ class AccountControllerTest {
             verify(accountService).getAccount("1234567001");
         }
 
+        @Test
+        @DisplayName("Should tag the account with an ETag and ask clients to revalidate")
+        void shouldReturnETagAndCacheControl() throws Exception {
+            // Given
+            when(accountService.getAccount(anyString())).thenReturn(Optional.of(testAccount));
+
+            // When & Then
+            mockMvc.perform(get("/api/accounts/1234567001"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", EntityTags.of(testAccount.getUpdatedAt())))
+                    .andExpect(header().string("Cache-Control", "no-cache, private"));
+        }
+
+        @Test
+        @DisplayName("Should answer 304 from the update time alone when the ETag still matches")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            // Given
+            String etag = EntityTags.of(testAccount.getUpdatedAt());
+            when(accountService.getAccountUpdatedAt("1234567001")).thenReturn(Optional.of(testAccount.getUpdatedAt()));
+
+            // When & Then
+            mockMvc.perform(get("/api/accounts/1234567001").header("If-None-Match", "\"stale\", W/" + etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+
+            verify(accountService, never()).getAccount(anyString());
+        }
+
+        @Test
+        @DisplayName("Should return the account when the ETag no longer matches")
+        void shouldReturnAccountWhenETagStale() throws Exception {
+            // Given
+            String staleEtag = EntityTags.of(testAccount.getUpdatedAt().minusSeconds(5));
+            when(accountService.getAccountUpdatedAt("1234567001")).thenReturn(Optional.of(testAccount.getUpdatedAt()));
+            when(accountService.getAccount("1234567001")).thenReturn(Optional.of(testAccount));
+
+            // When & Then
+            mockMvc.perform(get("/api/accounts/1234567001").header("If-None-Match", staleEtag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", EntityTags.of(testAccount.getUpdatedAt())))
+                    .andExpect(jsonPath("$.account_number").value("1234567001"));
+        }
+
         @Test
         @DisplayName("Should return 404 when account not found")
         void shouldReturn404WhenAccountNotFound() throws Exception {
@@ -228,6 +278,113 @@ class AccountControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/accounts/customer/{customerNumber} - Get Customer Accounts")
+    class GetAccountsByCustomerTests {
+
+        @Test
+        @DisplayName("Should return accounts as a JSON array by default")
+        void shouldReturnAccountsAsJsonArray() throws Exception {
+            // Given
+            when(accountService.getAccountsByCustomer("1234567")).thenReturn(List.of(testAccount));
+
+            // When & Then
+            mockMvc.perform(get("/api/accounts/customer/1234567"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$[0].account_number").value("1234567001"));
+
+            verify(accountService, never()).streamAccountsByCustomer(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should stream accounts as NDJSON when asked for")
+        @SuppressWarnings("unchecked")
+        void shouldStreamAccountsAsNdjson() throws Exception {
+            // Given
+            doAnswer(invocation -> {
+                Consumer<Account> sink = invocation.getArgument(1);
+                sink.accept(testAccount);
+                sink.accept(testAccount);
+                return null;
+            }).when(accountService).streamAccountsByCustomer(eq("1234567"), any(Consumer.class));
+
+            // When
+            var result = mockMvc.perform(get("/api/accounts/customer/1234567").accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(matchesPattern("(\\{[^\\n]*\"account_number\":\"1234567001\"[^\\n]*}\\n){2}")));
+
+            verify(accountService, never()).getAccountsByCustomer(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/accounts/lookup - Lookup Accounts")
+    class LookupAccountsTests {
+
+        @Test
+        @DisplayName("Should return results in request order with not-found markers")
+        void shouldReturnResultsInRequestOrder() throws Exception {
+            // Given
+            when(accountService.getAccounts(anyList())).thenReturn(Map.of("1234567001", testAccount));
+            AccountLookupRequest request = new AccountLookupRequest(List.of("9999999001", "1234567001", "9999999001"));
+
+            // When & Then
+            mockMvc.perform(post("/api/accounts/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(3))
+                    .andExpect(jsonPath("$[0].account_number").value("9999999001"))
+                    .andExpect(jsonPath("$[0].found").value(false))
+                    .andExpect(jsonPath("$[0].account").doesNotExist())
+                    .andExpect(jsonPath("$[1].found").value(true))
+                    .andExpect(jsonPath("$[1].account.account_type").value("SAVING"))
+                    .andExpect(jsonPath("$[2].account_number").value("9999999001"))
+                    .andExpect(jsonPath("$[2].found").value(false));
+
+            verify(accountService).getAccounts(List.of("9999999001", "1234567001", "9999999001"));
+        }
+
+        @Test
+        @DisplayName("Should return 400 when an account number is malformed")
+        void shouldReturn400WhenAccountNumberMalformed() throws Exception {
+            // Given
+            AccountLookupRequest request = new AccountLookupRequest(List.of("1234567001", "123"));
+
+            // When & Then
+            mockMvc.perform(post("/api/accounts/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(accountService);
+        }
+
+        @Test
+        @DisplayName("Should return 400 when more account numbers are sent than allowed")
+        void shouldReturn400WhenTooManyAccountNumbers() throws Exception {
+            // Given
+            List<String> accountNumbers = IntStream.range(0, AccountLookupRequest.MAX_ACCOUNT_NUMBERS + 1)
+                    .mapToObj(i -> String.format("%010d", i))
+                    .toList();
+
+            // When & Then
+            mockMvc.perform(post("/api/accounts/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new AccountLookupRequest(accountNumbers))))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(accountService);
+        }
+    }
+
     @Nested
     @DisplayName("POST /api/accounts/{accountNumber}/credit - Credit Account")
     class CreditAccountTests {
@@ -2,8 +2,10 @@ package com.aalhendi.customer_ms;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CustomerMsApplication {
 
 	public static void main(String[] args) {
@@ -1,6 +1,7 @@
 package com.aalhendi.customer_ms.domain.events;
 
 import java.time.Instant;
+import java.util.UUID;
 
 /**
  * Base interface for all domain events.
@@ -9,6 +10,11 @@ import java.time.Instant;
  */
 public interface DomainEvent {
     
+    /**
+     * Gets the unique, time-ordered identifier of this event. Redeliveries of an event carry the same ID.
+     */
+    UUID getEventId();
+    
     /**
      * Gets the unique identifier of the aggregate that generated this event.
      */
@@ -0,0 +1,43 @@
+package com.aalhendi.customer_ms.domain.events;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generates time-ordered event IDs in the UUIDv7 layout (RFC 9562): a 48-bit Unix millisecond timestamp
+ * followed by 74 random bits. IDs sort by creation time, so they index well, and stay unique across instances
+ * without coordination.
+ */
+public final class EventIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private EventIds() {
+    }
+
+    /**
+     * Returns a new event ID for the current time.
+     */
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        // unix_ts_ms, 48 bits, then version 7, then rand_a, 12 bits
+        long mostSigBits = (epochMillis & 0xFFFF_FFFF_FFFFL) << 16
+                | 0x7000L
+                | ((random[0] & 0x0FL) << 8) | (random[1] & 0xFFL);
+
+        long leastSigBits = 0;
+        for (int i = 2; i < random.length; i++) {
+            leastSigBits = (leastSigBits << 8) | (random[i] & 0xFFL);
+        }
+        // variant 10, then rand_b, 62 bits
+        leastSigBits = 0x8000_0000_0000_0000L | (leastSigBits & 0x3FFF_FFFF_FFFF_FFFFL);
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -20,6 +20,12 @@ public enum CustomerError {
             "Customer with number '%s' already exists"
     ),
 
+    PROJECTION_REBUILD_IN_PROGRESS(
+            HttpStatus.CONFLICT,
+            "PROJECTION_REBUILD_IN_PROGRESS",
+            "A rebuild of the '%s' projection is already running"
+    ),
+
     // 404 Not Found errors
     CUSTOMER_NOT_FOUND(
             HttpStatus.NOT_FOUND,
@@ -89,6 +95,12 @@ public enum CustomerError {
             "At least one field must be provided for update"
     ),
 
+    INVALID_CREATED_RANGE(
+            HttpStatus.BAD_REQUEST,
+            "VALIDATION_ERROR",
+            "Invalid range for fields 'created_from,created_to': '%s' must be before '%s'"
+    ),
+
     INVALID_CUSTOMER_TYPE(
             HttpStatus.BAD_REQUEST,
             "INVALID_CUSTOMER_DATA",
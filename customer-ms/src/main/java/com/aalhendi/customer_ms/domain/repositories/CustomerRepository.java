@@ -2,9 +2,14 @@ package com.aalhendi.customer_ms.domain.repositories;
 
 import com.aalhendi.customer_ms.domain.entities.Customer;
 import com.aalhendi.customer_ms.domain.entities.NewCustomer;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerCursor;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerFilter;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Domain repository interface for Customer entities.
@@ -36,6 +41,22 @@ public interface CustomerRepository {
      */
     Optional<Customer> findByCustomerNumber(String customerNumber);
 
+    /**
+     * Finds when a customer was last updated, without loading the customer.
+     *
+     * @param customerNumber the 7-digit customer number
+     * @return the customer's updated_at if it exists, empty otherwise
+     */
+    Optional<LocalDateTime> findUpdatedAtByCustomerNumber(String customerNumber);
+
+    /**
+     * Finds all customers with the given customer numbers in a single query.
+     *
+     * @param customerNumbers the 7-digit customer numbers
+     * @return the customers found, in no particular order; unknown numbers are absent
+     */
+    List<Customer> findByCustomerNumbers(Collection<String> customerNumbers);
+
     /**
      * Finds a customer by national ID.
      *
@@ -60,6 +81,36 @@ public interface CustomerRepository {
      */
     List<Customer> findByNameContainingIgnoreCase(String name);
 
+    /**
+     * Streams customers by name (case-insensitive partial match).
+     * Rows are fetched from a database cursor, so the caller must consume the stream inside a
+     * transaction and close it when done.
+     *
+     * @param name the name to search for
+     * @return a lazily fetched stream of matching customers
+     */
+    Stream<Customer> streamByNameContainingIgnoreCase(String name);
+
+    /**
+     * Finds one keyset page of customers matching the filter, ordered by (createdAt, id).
+     *
+     * @param filter the filter criteria
+     * @param after the cursor of the last customer on the previous page, or null for the first page
+     * @param limit the maximum number of customers to return
+     * @return matching customers positioned strictly after the cursor
+     */
+    List<Customer> findByFilter(CustomerFilter filter, CustomerCursor after, int limit);
+
+    /**
+     * Streams all customers matching the filter, ordered by (createdAt, id).
+     * Rows are fetched from a database cursor, so the caller must consume the stream inside a
+     * transaction and close it when done.
+     *
+     * @param filter the filter criteria
+     * @return a lazily fetched stream of matching customers
+     */
+    Stream<Customer> streamByFilter(CustomerFilter filter);
+
     /**
      * Checks if a customer exists by customer number.
      *
@@ -0,0 +1,28 @@
+package com.aalhendi.customer_ms.domain.repositories;
+
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerSegment;
+
+import java.util.Map;
+
+/**
+ * Domain repository interface for persisted customer segment counters.
+ * Counters are maintained incrementally, in the same transaction as the customer write
+ * that moves a customer in or out of a segment.
+ */
+public interface CustomerSegmentCountRepository {
+
+    /**
+     * Atomically adds a delta to a segment counter, creating it if needed.
+     *
+     * @param segment the segment to adjust
+     * @param delta the amount to add (negative to subtract)
+     */
+    void adjust(CustomerSegment segment, long delta);
+
+    /**
+     * Loads every persisted segment counter.
+     *
+     * @return counts keyed by segment; segments with no row are absent
+     */
+    Map<CustomerSegment, Long> findAll();
+}
@@ -1,11 +1,18 @@
 package com.aalhendi.customer_ms.domain.services;
 
 import com.aalhendi.customer_ms.domain.entities.Customer;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerCursor;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerFilter;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerPage;
 import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
 import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Domain service for customer operations.
@@ -28,6 +35,17 @@ public interface CustomerService {
      */
     Optional<Customer> findByCustomerNumber(String customerNumber);
 
+    /**
+     * Finds when a customer was last updated, without loading it.
+     */
+    Optional<LocalDateTime> findUpdatedAtByCustomerNumber(String customerNumber);
+
+    /**
+     * Finds customers by customer number, keyed by customer number.
+     * Unknown customer numbers are absent from the result.
+     */
+    Map<String, Customer> findByCustomerNumbers(Collection<String> customerNumbers);
+
     /**
      * Updates customer information.
      */
@@ -42,4 +60,21 @@ public interface CustomerService {
      * Searches customers by name.
      */
     List<Customer> searchCustomersByName(String name);
-} 
\ No newline at end of file
+
+    /**
+     * Streams customers matching the name to the sink, without materializing the result set.
+     */
+    void searchCustomersByName(String name, Consumer<Customer> sink);
+
+    /**
+     * Filters customers by status, type and created-at range, one keyset page at a time.
+     * Pass a null cursor for the first page.
+     */
+    CustomerPage filterCustomers(CustomerFilter filter, CustomerCursor after, int limit);
+
+    /**
+     * Streams every customer matching the filter to the sink, in keyset order, without
+     * materializing the result set.
+     */
+    void exportCustomers(CustomerFilter filter, Consumer<Customer> sink);
+}
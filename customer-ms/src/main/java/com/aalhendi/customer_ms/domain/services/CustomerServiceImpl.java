@@ -13,9 +13,16 @@ import com.aalhendi.customer_ms.infrastructure.events.DomainEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of CustomerService.
@@ -26,10 +33,13 @@ import java.util.Optional;
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerStatsService statsService;
     private final DomainEventPublisher eventPublisher;
 
-    public CustomerServiceImpl(CustomerRepository customerRepository, DomainEventPublisher eventPublisher) {
+    public CustomerServiceImpl(CustomerRepository customerRepository, CustomerStatsService statsService,
+                               DomainEventPublisher eventPublisher) {
         this.customerRepository = customerRepository;
+        this.statsService = statsService;
         this.eventPublisher = eventPublisher;
     }
 
@@ -59,6 +69,7 @@ public class CustomerServiceImpl implements CustomerService {
             );
             
             Customer savedCustomer = customerRepository.save(newCustomer);
+            statsService.recordSegmentChange(null, segmentOf(savedCustomer));
             
             CustomerCreatedEvent event = new CustomerCreatedEvent(
                 customerNumberValue,
@@ -97,6 +108,10 @@ public class CustomerServiceImpl implements CustomerService {
         return String.format("%07d", timestamp);
     }
 
+    private static CustomerSegment segmentOf(Customer customer) {
+        return new CustomerSegment(customer.getCustomerType(), customer.getStatus());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Customer getCustomer(String customerNumber) {
@@ -112,9 +127,27 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.findByCustomerNumber(customerNumber);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findUpdatedAtByCustomerNumber(String customerNumber) {
+        return customerRepository.findUpdatedAtByCustomerNumber(customerNumber);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Customer> findByCustomerNumbers(Collection<String> customerNumbers) {
+        if (customerNumbers.isEmpty()) {
+            return Map.of();
+        }
+        return customerRepository.findByCustomerNumbers(customerNumbers)
+                .stream()
+                .collect(Collectors.toMap(c -> c.getCustomerNumber().value(), Function.identity()));
+    }
+
     @Override
     public Customer updateCustomer(String customerNumber, String name, String address, CustomerType customerType) {
         Customer customer = getCustomer(customerNumber);
+        CustomerSegment previousSegment = segmentOf(customer);
         
         StringBuilder changes = new StringBuilder();
         
@@ -149,6 +182,7 @@ public class CustomerServiceImpl implements CustomerService {
         }
         
         Customer updatedCustomer = customerRepository.save(customer);
+        statsService.recordSegmentChange(previousSegment, segmentOf(updatedCustomer));
         
         // Publish customer updated event
         CustomerUpdatedEvent event = new CustomerUpdatedEvent(
@@ -181,6 +215,9 @@ public class CustomerServiceImpl implements CustomerService {
         }
         
         Customer updatedCustomer = customerRepository.save(customer);
+        statsService.recordSegmentChange(
+            new CustomerSegment(updatedCustomer.getCustomerType(), previousStatus), segmentOf(updatedCustomer)
+        );
         
         // Publish customer status changed event
         CustomerStatusChangedEvent event = new CustomerStatusChangedEvent(
@@ -207,4 +244,40 @@ public class CustomerServiceImpl implements CustomerService {
         
         return customerRepository.findByNameContainingIgnoreCase(name.trim());
     }
-} 
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public void searchCustomersByName(String name, Consumer<Customer> sink) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new BusinessException(
+                CustomerError.MISSING_REQUIRED_FIELD, "name"
+            );
+        }
+
+        try (Stream<Customer> customers = customerRepository.streamByNameContainingIgnoreCase(name.trim())) {
+            customers.forEach(sink);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerPage filterCustomers(CustomerFilter filter, CustomerCursor after, int limit) {
+        // Fetch one extra row to learn whether there is a next page without a COUNT query
+        List<Customer> customers = customerRepository.findByFilter(filter, after, limit + 1);
+        if (customers.size() <= limit) {
+            return new CustomerPage(customers, null);
+        }
+
+        List<Customer> page = customers.subList(0, limit);
+        Customer last = page.getLast();
+        return new CustomerPage(page, new CustomerCursor(last.getCreatedAt(), last.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCustomers(CustomerFilter filter, Consumer<Customer> sink) {
+        try (Stream<Customer> customers = customerRepository.streamByFilter(filter)) {
+            customers.forEach(sink);
+        }
+    }
+}
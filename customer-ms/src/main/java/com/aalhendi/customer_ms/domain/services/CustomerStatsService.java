@@ -0,0 +1,53 @@
+package com.aalhendi.customer_ms.domain.services;
+
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerSegment;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
+
+import java.util.Map;
+
+/**
+ * Domain service for customer segment statistics.
+ * Counts are maintained incrementally instead of being aggregated with COUNT queries on read.
+ */
+public interface CustomerStatsService {
+
+    /**
+     * Records a customer moving between segments.
+     * Must be called inside the transaction that performs the customer write.
+     *
+     * @param from the previous segment, or null for a newly created customer
+     * @param to the new segment, or null for a removed customer
+     */
+    void recordSegmentChange(CustomerSegment from, CustomerSegment to);
+
+    /**
+     * Gets the current count for a single segment from the in-memory mirror.
+     */
+    long getSegmentCount(CustomerSegment segment);
+
+    /**
+     * Gets counts for every segment from the in-memory mirror.
+     */
+    Map<CustomerSegment, Long> getSegmentCounts();
+
+    /**
+     * Gets counts aggregated by customer type.
+     */
+    Map<CustomerType, Long> getCountsByType();
+
+    /**
+     * Gets counts aggregated by customer status.
+     */
+    Map<CustomerStatus, Long> getCountsByStatus();
+
+    /**
+     * Gets the total number of customers.
+     */
+    long getTotalCount();
+
+    /**
+     * Reloads the in-memory mirror from the persisted counters.
+     */
+    void refresh();
+}
@@ -0,0 +1,128 @@
+package com.aalhendi.customer_ms.domain.services;
+
+import com.aalhendi.customer_ms.domain.repositories.CustomerSegmentCountRepository;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerSegment;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of CustomerStatsService.
+ * Persisted counters are the source of truth; an in-memory mirror serves reads and gauges.
+ * The mirror is only touched after commit, and is periodically reloaded to absorb writes
+ * made by other instances.
+ */
+@Service
+public class CustomerStatsServiceImpl implements CustomerStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerStatsServiceImpl.class);
+
+    private final CustomerSegmentCountRepository segmentCountRepository;
+    private final Map<CustomerSegment, AtomicLong> mirror = new ConcurrentHashMap<>();
+
+    public CustomerStatsServiceImpl(CustomerSegmentCountRepository segmentCountRepository) {
+        this.segmentCountRepository = segmentCountRepository;
+        for (CustomerType type : CustomerType.values()) {
+            for (CustomerStatus status : CustomerStatus.values()) {
+                mirror.put(new CustomerSegment(type, status), new AtomicLong());
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordSegmentChange(CustomerSegment from, CustomerSegment to) {
+        if (Objects.equals(from, to)) {
+            return;
+        }
+
+        // Sorted so concurrent transactions lock counter rows in the same order
+        Map<CustomerSegment, Long> deltas = new TreeMap<>();
+        if (Objects.nonNull(from)) {
+            deltas.merge(from, -1L, Long::sum);
+        }
+        if (Objects.nonNull(to)) {
+            deltas.merge(to, 1L, Long::sum);
+        }
+
+        deltas.forEach(segmentCountRepository::adjust);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyToMirror(deltas);
+                }
+            });
+        } else {
+            applyToMirror(deltas);
+        }
+    }
+
+    @Override
+    public long getSegmentCount(CustomerSegment segment) {
+        return mirror.get(segment).get();
+    }
+
+    @Override
+    public Map<CustomerSegment, Long> getSegmentCounts() {
+        Map<CustomerSegment, Long> counts = new TreeMap<>();
+        mirror.forEach((segment, count) -> counts.put(segment, count.get()));
+        return counts;
+    }
+
+    @Override
+    public Map<CustomerType, Long> getCountsByType() {
+        Map<CustomerType, Long> counts = new EnumMap<>(CustomerType.class);
+        for (CustomerType type : CustomerType.values()) {
+            counts.put(type, 0L);
+        }
+        mirror.forEach((segment, count) -> counts.merge(segment.customerType(), count.get(), Long::sum));
+        return counts;
+    }
+
+    @Override
+    public Map<CustomerStatus, Long> getCountsByStatus() {
+        Map<CustomerStatus, Long> counts = new EnumMap<>(CustomerStatus.class);
+        for (CustomerStatus status : CustomerStatus.values()) {
+            counts.put(status, 0L);
+        }
+        mirror.forEach((segment, count) -> counts.merge(segment.status(), count.get(), Long::sum));
+        return counts;
+    }
+
+    @Override
+    public long getTotalCount() {
+        return mirror.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${customer.stats.refresh-interval:30s}",
+               initialDelayString = "${customer.stats.refresh-interval:30s}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        Map<CustomerSegment, Long> persisted = segmentCountRepository.findAll();
+        mirror.forEach((segment, count) -> count.set(persisted.getOrDefault(segment, 0L)));
+        logger.debug("Refreshed customer segment counters: {} segments", persisted.size());
+    }
+
+    private void applyToMirror(Map<CustomerSegment, Long> deltas) {
+        deltas.forEach((segment, delta) -> mirror.get(segment).addAndGet(delta));
+    }
+}
@@ -0,0 +1,58 @@
+package com.aalhendi.customer_ms.domain.valueobjects;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Keyset pagination cursor value object.
+ * Points at the last customer of a page by its (createdAt, id) sort key, so the next page
+ * can seek straight to it through an index instead of skipping over an OFFSET.
+ */
+public record CustomerCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Creates a CustomerCursor from its sort key.
+     */
+    public CustomerCursor {
+        if (Objects.isNull(createdAt) || Objects.isNull(id)) {
+            throw new IllegalArgumentException("Cursor created at and id cannot be null");
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe token.
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token produced by {@link #encode()}.
+     */
+    public static CustomerCursor decode(String token) {
+        if (Objects.isNull(token) || token.isBlank()) {
+            throw new IllegalArgumentException("Cursor cannot be empty");
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new CustomerCursor(
+                LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                Long.parseLong(raw.substring(separatorIndex + 1))
+            );
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NOTE(aalhendi): NumberFormatException is an IllegalArgumentException, so this also covers a bad id
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.aalhendi.customer_ms.domain.valueobjects;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Customer filter value object.
+ * Every criterion is optional; a null criterion matches all customers.
+ * The created-at range is half-open: [createdFrom, createdTo).
+ */
+public record CustomerFilter(CustomerStatus status, CustomerType customerType,
+                             LocalDateTime createdFrom, LocalDateTime createdTo) {
+
+    /**
+     * Creates a CustomerFilter, validating the created-at range.
+     */
+    public CustomerFilter {
+        if (Objects.nonNull(createdFrom) && Objects.nonNull(createdTo) && !createdFrom.isBefore(createdTo)) {
+            throw new IllegalArgumentException("created_from must be before created_to");
+        }
+    }
+
+    /**
+     * Creates a filter that matches all customers.
+     */
+    public static CustomerFilter all() {
+        return new CustomerFilter(null, null, null, null);
+    }
+}
@@ -0,0 +1,28 @@
+package com.aalhendi.customer_ms.domain.valueobjects;
+
+import com.aalhendi.customer_ms.domain.entities.Customer;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A single keyset page of customers.
+ * The next cursor is absent when this is the last page.
+ */
+public record CustomerPage(List<Customer> customers, CustomerCursor nextCursor) {
+
+    /**
+     * Creates a CustomerPage.
+     */
+    public CustomerPage {
+        customers = List.copyOf(Objects.requireNonNull(customers, "Customers cannot be null"));
+    }
+
+    /**
+     * Gets the cursor of the next page, if any.
+     */
+    public Optional<CustomerCursor> next() {
+        return Optional.ofNullable(nextCursor);
+    }
+}
@@ -0,0 +1,28 @@
+package com.aalhendi.customer_ms.domain.valueobjects;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Customer segment value object.
+ * A (type, status) bucket that customers are counted in.
+ */
+public record CustomerSegment(CustomerType customerType, CustomerStatus status) implements Comparable<CustomerSegment> {
+
+    private static final Comparator<CustomerSegment> ORDER = Comparator
+            .comparing(CustomerSegment::customerType)
+            .thenComparing(CustomerSegment::status);
+
+    /**
+     * Creates a CustomerSegment.
+     */
+    public CustomerSegment {
+        Objects.requireNonNull(customerType, "Customer type cannot be null");
+        Objects.requireNonNull(status, "Status cannot be null");
+    }
+
+    @Override
+    public int compareTo(CustomerSegment other) {
+        return ORDER.compare(this, other);
+    }
+}
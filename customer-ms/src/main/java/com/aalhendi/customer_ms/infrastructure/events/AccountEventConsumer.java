@@ -1,112 +1,220 @@
 package com.aalhendi.customer_ms.infrastructure.events;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.aalhendi.account.events.AccountClosed;
+import com.aalhendi.account.events.AccountCreated;
+import com.aalhendi.account.events.AccountStatusChanged;
+import com.aalhendi.account.events.AccountTransaction;
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRepository;
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRow;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Kafka consumer for account domain events.
  * Handles account events that are relevant to the customer service.
+ * Listeners receive a whole poll at a time (up to max.poll.records), apply it as one unit and only then
+ * acknowledge it. Payloads are decoded by their content-type header, so JSON and protobuf records are both accepted.
+ * Events already processed, by event ID, are dropped from a batch before it is applied.
+ * Applying a batch means upserting the account_projection read model, one write per account.
+ * A record that fails is handed to FailedEventForwarder for a later retry, so it doesn't hold back the partition;
+ * the batch is only left unacknowledged if that hand-off fails, and ListenerErrorHandlerConfig's error handler then
+ * redelivers it, backing off, until the hand-off succeeds.
  */
 @Component
-public class AccountEventConsumer {
+public class AccountEventConsumer implements EventBatchProcessor {
     
     private static final Logger logger = LoggerFactory.getLogger(AccountEventConsumer.class);
+
+    static final String ACCOUNT_CREATED_TOPIC = "account.events.created";
+    static final String ACCOUNT_CLOSED_TOPIC = "account.events.closed";
+    static final String ACCOUNT_STATUS_CHANGED_TOPIC = "account.events.status-changed";
+    static final String ACCOUNT_TRANSACTION_TOPIC = "account.events.transaction";
     
-    private final ObjectMapper objectMapper;
+    private final DomainEventCodec codec;
+    private final ProcessedEventStore processedEvents;
+    private final FailedEventForwarder failedEventForwarder;
+    private final AccountProjectionRepository projectionRepository;
+
+    /**
+     * A decoded event together with the record it came from, which is what gets retried if it fails.
+     */
+    private record Received<T>(ConsumerRecord<String, byte[]> record, T event) {
+    }
     
-    public AccountEventConsumer(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    public AccountEventConsumer(DomainEventCodec codec, ProcessedEventStore processedEvents,
+                                FailedEventForwarder failedEventForwarder, AccountProjectionRepository projectionRepository) {
+        this.codec = codec;
+        this.processedEvents = processedEvents;
+        this.failedEventForwarder = failedEventForwarder;
+        this.projectionRepository = projectionRepository;
     }
     
     /**
      * Handles account created events.
      * Updates customer's account count and tracks account relationships.
      */
-    @KafkaListener(topics = "account.events.created", groupId = "customer-service")
-    public void handleAccountCreated(@Payload String eventJson,
-                                   @Header(KafkaHeaders.RECEIVED_KEY) String key,
-                                   @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                                   @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-                                   @Header(KafkaHeaders.OFFSET) long offset) {
-        
-        logger.info("Received account created event from topic {} partition {} offset {} with key {}", 
-                   topic, partition, offset, key);
-        
-        try {
-            var eventData = objectMapper.readTree(eventJson);
-            String accountNumber = eventData.get("account_number").asText();
-            String customerNumber = eventData.get("customer_number").asText();
-            String accountType = eventData.get("account_type").asText();
-            
-            logger.info("Account {} of type {} created for customer {}", 
-                       accountNumber, accountType, customerNumber);
-
-            // NOTE(aalhendi): this is a demo, so we just log.
-            // in a real-scenario, we update account counts, trigger notifications or update local caches if any...
-            
-        } catch (Exception e) {
-            logger.error("Failed to process account created event: {}", e.getMessage(), e);
-        }
+    @KafkaListener(topics = ACCOUNT_CREATED_TOPIC, groupId = "customer-service")
+    public void handleAccountCreated(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        logger.info("Received {} account created events", records.size());
+        processAccountCreated(records);
+        acknowledgment.acknowledge();
     }
     
     /**
      * Handles account closed events.
      * Updates customer's account counts when accounts are closed.
      */
-    @KafkaListener(topics = "account.events.closed", groupId = "customer-service")
-    public void handleAccountClosed(@Payload String eventJson,
-                                  @Header(KafkaHeaders.RECEIVED_KEY) String key) {
-        
-        logger.info("Received account closed event with key {}", key);
-        
-        try {
-            var eventData = objectMapper.readTree(eventJson);
-            String accountNumber = eventData.get("account_number").asText();
-            String customerNumber = eventData.get("customer_number").asText();
-            
-            logger.info("Account {} closed for customer {}", accountNumber, customerNumber);
-
-            // NOTE(aalhendi): this is a demo, so we just log.
-            // in a real-scenario, we update account counts, trigger notifications or update local caches if any...
-            
-        } catch (Exception e) {
-            logger.error("Failed to process account closed event: {}", e.getMessage(), e);
-        }
+    @KafkaListener(topics = ACCOUNT_CLOSED_TOPIC, groupId = "customer-service")
+    public void handleAccountClosed(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        logger.info("Received {} account closed events", records.size());
+        processAccountClosed(records);
+        acknowledgment.acknowledge();
     }
 
     /**
      * Handles account status changed events.
      */
-    @KafkaListener(topics = "account.events.status-changed")
-    public void handleAccountStatusChanged(@Payload String eventJson) {
-        logger.info("Received account status changed event: {}", eventJson);
-        
-        try {         
-            logger.info("Successfully processed account status changed event");
-        } catch (Exception e) {
-            logger.error("Error processing account status changed event: {}", eventJson, e);
-        }
+    @KafkaListener(topics = ACCOUNT_STATUS_CHANGED_TOPIC)
+    public void handleAccountStatusChanged(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        processAccountStatusChanged(records);
+        acknowledgment.acknowledge();
     }
 
     /**
      * Handles account transaction events.
      */
-    @KafkaListener(topics = "account.events.transaction")
-    public void handleAccountTransaction(@Payload String eventJson) {
-        logger.info("Received account transaction event: {}", eventJson);
+    @KafkaListener(topics = ACCOUNT_TRANSACTION_TOPIC)
+    public void handleAccountTransaction(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        processAccountTransaction(records);
+        acknowledgment.acknowledge();
+    }
+
+    @Override
+    public Set<String> topics() {
+        return Set.of(ACCOUNT_CREATED_TOPIC, ACCOUNT_CLOSED_TOPIC, ACCOUNT_STATUS_CHANGED_TOPIC, ACCOUNT_TRANSACTION_TOPIC);
+    }
+
+    @Override
+    public void process(String topic, List<ConsumerRecord<String, byte[]>> records) {
+        switch (topic) {
+            case ACCOUNT_CREATED_TOPIC -> processAccountCreated(records);
+            case ACCOUNT_CLOSED_TOPIC -> processAccountClosed(records);
+            case ACCOUNT_STATUS_CHANGED_TOPIC -> processAccountStatusChanged(records);
+            case ACCOUNT_TRANSACTION_TOPIC -> processAccountTransaction(records);
+            default -> throw new IllegalArgumentException("Not an account event topic: " + topic);
+        }
+    }
+
+    private void processAccountCreated(List<ConsumerRecord<String, byte[]>> records) {
+        List<FailedEventForwarder.FailedRecord> failures = new ArrayList<>();
+        List<Received<AccountCreated>> events =
+            decodeNew(records, AccountCreated.getDefaultInstance(), AccountCreated::getEventId, failures);
+        for (Received<AccountCreated> received : events) {
+            AccountCreated event = received.event();
+            logger.info("Account {} of type {} created for customer {}", 
+                       event.getAccountNumber(), event.getAccountType(), event.getCustomerNumber());
+        }
+
+        // NOTE(aalhendi): account counts per customer come from the projection.
+        // in a real-scenario, we would also trigger notifications here...
         
-        try {          
-            logger.info("Successfully processed account transaction event");
-        } catch (Exception e) {
-            logger.error("Error processing account transaction event: {}", eventJson, e);
+        complete(project(events, AccountProjector::toRow, failures), failures, AccountCreated::getEventId);
+    }
+
+    private void processAccountClosed(List<ConsumerRecord<String, byte[]>> records) {
+        List<FailedEventForwarder.FailedRecord> failures = new ArrayList<>();
+        List<Received<AccountClosed>> events =
+            decodeNew(records, AccountClosed.getDefaultInstance(), AccountClosed::getEventId, failures);
+        for (Received<AccountClosed> received : events) {
+            logger.info("Account {} closed for customer {}",
+                       received.event().getAccountNumber(), received.event().getCustomerNumber());
+        }
+
+        complete(project(events, AccountProjector::toRow, failures), failures, AccountClosed::getEventId);
+    }
+
+    private void processAccountStatusChanged(List<ConsumerRecord<String, byte[]>> records) {
+        List<FailedEventForwarder.FailedRecord> failures = new ArrayList<>();
+        List<Received<AccountStatusChanged>> events =
+            decodeNew(records, AccountStatusChanged.getDefaultInstance(), AccountStatusChanged::getEventId, failures);
+        for (Received<AccountStatusChanged> received : events) {
+            logger.info("Received account status changed event: account {} is now {}",
+                       received.event().getAccountNumber(), received.event().getNewStatus());
         }
+        List<Received<AccountStatusChanged>> applied = project(events, AccountProjector::toRow, failures);
+        logger.info("Successfully processed {} account status changed events", applied.size());
+        complete(applied, failures, AccountStatusChanged::getEventId);
+    }
+
+    private void processAccountTransaction(List<ConsumerRecord<String, byte[]>> records) {
+        List<FailedEventForwarder.FailedRecord> failures = new ArrayList<>();
+        List<Received<AccountTransaction>> events =
+            decodeNew(records, AccountTransaction.getDefaultInstance(), AccountTransaction::getEventId, failures);
+        for (Received<AccountTransaction> received : events) {
+            AccountTransaction event = received.event();
+            logger.info("Received account transaction event: {} of {} on account {}",
+                       event.getTransactionType(), event.getAmount(), event.getAccountNumber());
+        }
+        List<Received<AccountTransaction>> applied = project(events, AccountProjector::toRow, failures);
+        logger.info("Successfully processed {} account transaction events", applied.size());
+        complete(applied, failures, AccountTransaction::getEventId);
+    }
+
+    /**
+     * Decodes a batch and drops events that were already processed. Records that can't be decoded
+     * are added to {@code failures} rather than thrown, so one bad record doesn't hold back the rest of the partition.
+     */
+    private <T extends Message> List<Received<T>> decodeNew(List<ConsumerRecord<String, byte[]>> records, T defaultInstance,
+                                                            Function<T, String> eventId,
+                                                            List<FailedEventForwarder.FailedRecord> failures) {
+        List<Received<T>> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                events.add(new Received<>(record, codec.decode(record, defaultInstance)));
+            } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+                logger.error("Failed to decode record from topic {} partition {} offset {} with key {}: {}",
+                           record.topic(), record.partition(), record.offset(), record.key(), e.getMessage(), e);
+                failures.add(new FailedEventForwarder.FailedRecord(record, e));
+            }
+        }
+        return processedEvents.skipProcessed(events, received -> eventId.apply(received.event()));
+    }
+
+    /**
+     * Upserts the projection with a batch's events and returns the ones applied. The upsert is one statement batch,
+     * so if it fails every event in it is retried; applying one again is harmless.
+     */
+    private <T> List<Received<T>> project(List<Received<T>> events, Function<T, AccountProjectionRow> toRow,
+                                          List<FailedEventForwarder.FailedRecord> failures) {
+        try {
+            projectionRepository.upsert(AccountProjector.fold(events.stream()
+                .map(received -> toRow.apply(received.event()))
+                .toList()));
+            return events;
+        } catch (RuntimeException e) {
+            logger.error("Failed to project {} account events", events.size(), e);
+            events.forEach(received -> failures.add(new FailedEventForwarder.FailedRecord(received.record(), e)));
+            return List.of();
+        }
+    }
+
+    /**
+     * Records the applied events as processed and forwards the failed records for retry.
+     */
+    private <T> void complete(List<Received<T>> applied, List<FailedEventForwarder.FailedRecord> failures,
+                              Function<T, String> eventId) {
+        processedEvents.markProcessed(applied, received -> eventId.apply(received.event()));
+        failedEventForwarder.forward(failures);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,282 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRepository;
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRow;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds the account_projection read model from the account event topics, e.g. after a schema change or a bug.
+ * The topics are read from the beginning up to their end offsets at the start of the rebuild, with one worker per
+ * partition number reading that partition of every topic. Events are keyed by customer number and every topic has
+ * the same partition count, so an account's events all reach the same worker and workers don't contend for rows;
+ * changes commute, so the result doesn't depend on it. Each worker folds a poll into one change per account and
+ * upserts the batch into a shadow table, which is swapped in once every worker is done.
+ * Events that arrive after the end offsets reach the shadow table through the live consumer's dual write.
+ * Nothing is committed, so the rebuild neither reads nor moves the live consumer group's offsets.
+ */
+@Component
+@EnableConfigurationProperties(ProjectionProperties.class)
+public class AccountProjectionRebuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountProjectionRebuilder.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final String PROJECTION = "account";
+
+    static final List<String> TOPICS = List.of(
+        AccountEventConsumer.ACCOUNT_CREATED_TOPIC,
+        AccountEventConsumer.ACCOUNT_CLOSED_TOPIC,
+        AccountEventConsumer.ACCOUNT_STATUS_CHANGED_TOPIC,
+        AccountEventConsumer.ACCOUNT_TRANSACTION_TOPIC
+    );
+
+    /**
+     * Where a rebuild is at.
+     */
+    public enum State { IDLE, RUNNING, COMPLETED, FAILED }
+
+    /**
+     * A snapshot of the current or last rebuild.
+     *
+     * @param state where the rebuild is at
+     * @param workers how many partition workers it runs
+     * @param recordsTotal records between the beginning and the end offsets of every topic
+     * @param recordsApplied records replayed so far
+     * @param startedAt when it started, or null if no rebuild has run
+     * @param finishedAt when it finished, or null while it runs
+     * @param failure why it failed, or null
+     */
+    public record Progress(State state, int workers, long recordsTotal, long recordsApplied,
+                           Instant startedAt, Instant finishedAt, String failure) {
+
+        /**
+         * Average replay throughput since the rebuild started.
+         */
+        public double recordsPerSecond() {
+            if (Objects.isNull(startedAt)) {
+                return 0;
+            }
+            Instant until = Objects.requireNonNullElseGet(finishedAt, Instant::now);
+            long millis = Math.max(1, Duration.between(startedAt, until).toMillis());
+            return recordsApplied * 1000.0 / millis;
+        }
+    }
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final AccountProjector projector;
+    private final AccountProjectionRepository repository;
+    private final ProjectionProperties properties;
+    private final String groupId;
+    private final MeterRegistry meterRegistry;
+    private final Counter recordsCounter;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("projection-rebuild").daemon().factory());
+
+    private final AtomicLong recordsApplied = new AtomicLong();
+    private volatile State state = State.IDLE;
+    private volatile int workers;
+    private volatile long recordsTotal;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    public AccountProjectionRebuilder(ConsumerFactory<String, byte[]> consumerFactory, AccountProjector projector,
+                                      AccountProjectionRepository repository, ProjectionProperties properties,
+                                      @Value("${spring.kafka.consumer.group-id}") String consumerGroupId,
+                                      MeterRegistry meterRegistry) {
+        this.consumerFactory = consumerFactory;
+        this.projector = projector;
+        this.repository = repository;
+        this.properties = properties;
+        this.groupId = consumerGroupId + "-projection-rebuild";
+        this.meterRegistry = meterRegistry;
+        this.recordsCounter = Counter.builder("projections.rebuild.records")
+            .description("Events replayed into a projection's shadow table")
+            .tag("projection", PROJECTION)
+            .register(meterRegistry);
+        Gauge.builder("projections.rebuild.remaining", this,
+                rebuilder -> rebuilder.state == State.RUNNING ? rebuilder.recordsTotal - rebuilder.recordsApplied.get() : 0)
+            .description("Events left to replay before a running projection rebuild can swap its table in")
+            .tag("projection", PROJECTION)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts a rebuild in the background, unless one is already running.
+     *
+     * @return the progress of the started rebuild, or null if one was already running
+     */
+    public synchronized Progress start() {
+        if (state == State.RUNNING) {
+            return null;
+        }
+        recordsApplied.set(0);
+        workers = 0;
+        recordsTotal = 0;
+        startedAt = Instant.now();
+        finishedAt = null;
+        failure = null;
+        state = State.RUNNING;
+        coordinator.execute(this::rebuild);
+        return progress();
+    }
+
+    public Progress progress() {
+        return new Progress(state, workers, recordsTotal, recordsApplied.get(), startedAt, finishedAt, failure);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    private void rebuild() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            // The shadow exists before the end offsets are read, so every later event is dual-written into it
+            repository.createShadow();
+            Map<Integer, List<TopicPartition>> partitionsByNumber = new TreeMap<>();
+            Map<TopicPartition, Long> endOffsets;
+            try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(groupId, "-rebuild", null, null)) {
+                for (String topic : TOPICS) {
+                    for (PartitionInfo partition : Objects.requireNonNullElse(consumer.partitionsFor(topic), List.<PartitionInfo>of())) {
+                        partitionsByNumber.computeIfAbsent(partition.partition(), number -> new ArrayList<>())
+                            .add(new TopicPartition(topic, partition.partition()));
+                    }
+                }
+                List<TopicPartition> all = partitionsByNumber.values().stream().flatMap(List::stream).toList();
+                endOffsets = consumer.endOffsets(all);
+                Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(all);
+                recordsTotal = all.stream().mapToLong(tp -> endOffsets.get(tp) - beginningOffsets.get(tp)).sum();
+            }
+            workers = partitionsByNumber.size();
+            logger.info("Rebuilding {} projection from {} records with {} workers", PROJECTION, recordsTotal, workers);
+
+            if (!partitionsByNumber.isEmpty()) {
+                try (ExecutorService pool = Executors.newFixedThreadPool(workers,
+                        Thread.ofPlatform().name("projection-rebuild-", 0).factory())) {
+                    List<Future<?>> replays = new ArrayList<>(workers);
+                    partitionsByNumber.values().forEach(partitions -> replays.add(pool.submit(() -> replay(partitions, endOffsets))));
+                    try {
+                        for (Future<?> replay : replays) {
+                            replay.get();
+                        }
+                    } catch (ExecutionException | InterruptedException e) {
+                        pool.shutdownNow();
+                        throw e;
+                    }
+                }
+            }
+
+            repository.swapShadow();
+            state = State.COMPLETED;
+            logger.info("Rebuilt {} projection from {} records in {}", PROJECTION, recordsApplied.get(),
+                Duration.between(startedAt, Instant.now()));
+        } catch (Exception e) {
+            outcome = "failure";
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            logger.error("Failed to rebuild {} projection", PROJECTION, cause);
+            failure = cause.getMessage();
+            state = State.FAILED;
+            try {
+                repository.dropShadow();
+            } catch (RuntimeException dropFailure) {
+                logger.warn("Failed to drop {} projection shadow table", PROJECTION, dropFailure);
+            }
+        } finally {
+            finishedAt = Instant.now();
+            sample.stop(Timer.builder("projections.rebuild")
+                .description("Time taken to rebuild a projection")
+                .tag("projection", PROJECTION)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Replays the given partitions, one per topic, from the beginning up to their end offsets into the shadow table.
+     */
+    private void replay(List<TopicPartition> partitions, Map<TopicPartition, Long> endOffsets) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(properties.getRebuildBatchSize()));
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        String clientIdSuffix = "-rebuild-" + partitions.getFirst().partition();
+
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(groupId, clientIdSuffix, null, overrides)) {
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Set<TopicPartition> remaining = new HashSet<>(partitions);
+            pauseCompleted(consumer, remaining, endOffsets);
+
+            while (!remaining.isEmpty()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Projection rebuild interrupted");
+                }
+                List<AccountProjectionRow> rows = new ArrayList<>();
+                int replayed = 0;
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    if (record.offset() >= endOffsets.get(new TopicPartition(record.topic(), record.partition()))) {
+                        continue;
+                    }
+                    replayed++;
+                    try {
+                        rows.add(projector.project(record));
+                    } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+                        logger.warn("Skipping undecodable record from topic {} partition {} offset {}: {}",
+                            record.topic(), record.partition(), record.offset(), e.getMessage());
+                    }
+                }
+                repository.upsertShadow(AccountProjector.fold(rows));
+                recordsApplied.addAndGet(replayed);
+                recordsCounter.increment(replayed);
+                pauseCompleted(consumer, remaining, endOffsets);
+            }
+        }
+    }
+
+    /**
+     * Stops fetching partitions that reached their end offset; later records are the live consumer's.
+     */
+    private static void pauseCompleted(Consumer<String, byte[]> consumer, Set<TopicPartition> remaining,
+                                       Map<TopicPartition, Long> endOffsets) {
+        List<TopicPartition> completed = remaining.stream()
+            .filter(partition -> consumer.position(partition) >= endOffsets.get(partition))
+            .toList();
+        if (!completed.isEmpty()) {
+            consumer.pause(completed);
+            completed.forEach(remaining::remove);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.aalhendi.account.events.AccountClosed;
+import com.aalhendi.account.events.AccountCreated;
+import com.aalhendi.account.events.AccountStatusChanged;
+import com.aalhendi.account.events.AccountTransaction;
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRow;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps account events to account_projection changes.
+ * The live consumer maps events it has already decoded; a rebuild decodes raw records by topic.
+ */
+@Component
+public class AccountProjector {
+
+    private static final String CLOSED_STATUS = "CLOSED";
+
+    private final DomainEventCodec codec;
+
+    public AccountProjector(DomainEventCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Decodes a record from one of the account event topics into the change it makes.
+     *
+     * @throws InvalidProtocolBufferException if the payload can't be decoded
+     * @throws IllegalArgumentException if the topic isn't an account event topic, or the content type is unknown
+     */
+    public AccountProjectionRow project(ConsumerRecord<String, byte[]> record) throws InvalidProtocolBufferException {
+        return switch (record.topic()) {
+            case AccountEventConsumer.ACCOUNT_CREATED_TOPIC -> toRow(codec.decode(record, AccountCreated.getDefaultInstance()));
+            case AccountEventConsumer.ACCOUNT_CLOSED_TOPIC -> toRow(codec.decode(record, AccountClosed.getDefaultInstance()));
+            case AccountEventConsumer.ACCOUNT_STATUS_CHANGED_TOPIC ->
+                toRow(codec.decode(record, AccountStatusChanged.getDefaultInstance()));
+            case AccountEventConsumer.ACCOUNT_TRANSACTION_TOPIC ->
+                toRow(codec.decode(record, AccountTransaction.getDefaultInstance()));
+            default -> throw new IllegalArgumentException("Not an account event topic: " + record.topic());
+        };
+    }
+
+    static AccountProjectionRow toRow(AccountCreated event) {
+        Instant occurredAt = toInstant(event.getOccurredAt());
+        return new AccountProjectionRow(event.getAccountNumber(), event.getCustomerNumber(), emptyToNull(event.getAccountType()),
+            emptyToNull(event.getStatus()), occurredAt, toDecimal(event.getInitialBalance()), occurredAt);
+    }
+
+    static AccountProjectionRow toRow(AccountStatusChanged event) {
+        return new AccountProjectionRow(event.getAccountNumber(), event.getCustomerNumber(), null,
+            emptyToNull(event.getNewStatus()), toInstant(event.getOccurredAt()), null, null);
+    }
+
+    static AccountProjectionRow toRow(AccountClosed event) {
+        return new AccountProjectionRow(event.getAccountNumber(), event.getCustomerNumber(), emptyToNull(event.getAccountType()),
+            CLOSED_STATUS, toInstant(event.getOccurredAt()), null, null);
+    }
+
+    static AccountProjectionRow toRow(AccountTransaction event) {
+        return new AccountProjectionRow(event.getAccountNumber(), event.getCustomerNumber(), null,
+            null, null, toDecimal(event.getNewBalance()), toInstant(event.getOccurredAt()));
+    }
+
+    /**
+     * Folds changes into one per account, so a batch writes each row once. Rows come out in account number order,
+     * so concurrent batches lock rows in the same order.
+     */
+    static Collection<AccountProjectionRow> fold(Iterable<AccountProjectionRow> rows) {
+        Map<String, AccountProjectionRow> byAccount = new TreeMap<>();
+        for (AccountProjectionRow row : rows) {
+            byAccount.merge(row.accountNumber(), row, AccountProjectionRow::merge);
+        }
+        return byAccount.values();
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+    }
+
+    private static BigDecimal toDecimal(String value) {
+        return value.isEmpty() ? null : new BigDecimal(value);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,131 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Re-drives dead-lettered records, e.g. once the bug or outage that failed them is fixed.
+ * Records are read from {@code <topic>.dlt} in batches and sent to the first retry tier of their original topic with
+ * the attempt count reset, so they go through the consumer again with a full set of retries. Progress is committed
+ * under a dedicated consumer group after each batch is acked, so a replay resumes where the last one stopped.
+ * Records that were already applied before they were dead-lettered are skipped by consumer dedupe.
+ */
+@Component
+public class DeadLetterReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayer.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final EventProducers producers;
+    private final RetryProperties properties;
+    private final String groupId;
+
+    public DeadLetterReplayer(ConsumerFactory<String, byte[]> consumerFactory, EventProducers producers,
+                              RetryProperties properties,
+                              @Value("${spring.kafka.consumer.group-id}") String consumerGroupId) {
+        this.consumerFactory = consumerFactory;
+        this.producers = producers;
+        this.properties = properties;
+        this.groupId = consumerGroupId + "-dlt-replay";
+    }
+
+    /**
+     * Replays up to {@code maxRecords} records from the dead-letter topic of {@code topic}.
+     * One replay runs at a time, since concurrent ones would read the same records.
+     *
+     * @return the number of records re-driven
+     * @throws EventPublishingException if a batch could not be sent; batches before it stay replayed
+     */
+    public synchronized int replay(String topic, int maxRecords) {
+        String deadLetterTopic = FailedEventForwarder.deadLetterTopic(topic);
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(maxRecords, properties.getReplayBatchSize())));
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        int replayed = 0;
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(groupId, null, null, overrides)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                .map(partition -> new TopicPartition(deadLetterTopic, partition.partition()))
+                .toList();
+            if (partitions.isEmpty()) {
+                return 0;
+            }
+            consumer.assign(partitions);
+
+            while (replayed < maxRecords) {
+                ConsumerRecords<String, byte[]> batch = consumer.poll(POLL_TIMEOUT);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+                batch.forEach(records::add);
+                records = records.subList(0, Math.min(records.size(), maxRecords - replayed));
+                resend(records);
+                consumer.commitSync(nextOffsets(records));
+                replayed += records.size();
+                logger.info("Replayed {} records from {} ({} so far)", records.size(), deadLetterTopic, replayed);
+            }
+        }
+        return replayed;
+    }
+
+    private void resend(List<ConsumerRecord<String, byte[]>> records) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            Headers headers = new RecordHeaders(record.headers().toArray());
+            headers.remove(FailedEventForwarder.ATTEMPT_HEADER);
+            headers.remove(FailedEventForwarder.DUE_AT_HEADER);
+            String target = FailedEventForwarder.retryTopic(FailedEventForwarder.originalTopic(record), 0);
+            sends.add(producers.send(new ProducerRecord<>(target, null, record.key(), record.value(), headers)));
+        }
+        producers.flush();
+
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new EventPublishingException("Failed to replay " + records.size() + " dead-lettered records", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventPublishingException("Interrupted while replaying dead-lettered records", e);
+        }
+    }
+
+    /**
+     * Offsets to commit so the next replay starts after the given records.
+     */
+    private static Map<TopicPartition, OffsetAndMetadata> nextOffsets(List<ConsumerRecord<String, byte[]>> records) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            offsets.merge(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1),
+                (current, next) -> next.offset() > current.offset() ? next : current);
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,54 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for consumer-side event deduplication.
+ * The cleanup interval is read straight by the {@code @Scheduled} method in ProcessedEventStore.
+ */
+@ConfigurationProperties(prefix = "events.dedupe")
+public class DedupeProperties {
+
+    /**
+     * How long a processed event ID stays in memory. Redeliveries after a rebalance or a failed batch
+     * usually arrive well within this, so they are skipped without asking the database.
+     */
+    private Duration window = Duration.ofMinutes(10);
+
+    /**
+     * Most event IDs kept in memory.
+     */
+    private long windowSize = 100_000;
+
+    /**
+     * How long processed event IDs are kept in the database. Must cover the longest redelivery to expect,
+     * e.g. a consumer group reset to an earlier offset.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public long getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(long windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+}
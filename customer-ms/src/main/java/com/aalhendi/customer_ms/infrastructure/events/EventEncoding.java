@@ -0,0 +1,62 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Wire encodings for domain event payloads, identified on each record by the content-type header.
+ */
+public enum EventEncoding {
+
+    JSON("application/json"),
+    PROTOBUF("application/x-protobuf");
+
+    /**
+     * Kafka record header carrying the payload's content type.
+     */
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+
+    private final String contentType;
+    private final byte[] contentTypeBytes;
+
+    EventEncoding(String contentType) {
+        this.contentType = contentType;
+        this.contentTypeBytes = contentType.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * Resolves a content-type header value. Records without one predate the header and are JSON.
+     */
+    public static EventEncoding fromContentType(String contentType) {
+        if (Objects.isNull(contentType)) {
+            return JSON;
+        }
+        for (EventEncoding encoding : values()) {
+            if (encoding.contentType.equalsIgnoreCase(contentType)) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported event content type: " + contentType);
+    }
+
+    /**
+     * Resolves a raw content-type header value. The usual exact spellings are matched on the bytes, so the per-record
+     * lookup doesn't decode the header into a String.
+     */
+    public static EventEncoding fromContentType(byte[] contentType) {
+        if (Objects.isNull(contentType)) {
+            return JSON;
+        }
+        for (EventEncoding encoding : values()) {
+            if (Arrays.equals(encoding.contentTypeBytes, contentType)) {
+                return encoding;
+            }
+        }
+        return fromContentType(new String(contentType, StandardCharsets.UTF_8));
+    }
+}
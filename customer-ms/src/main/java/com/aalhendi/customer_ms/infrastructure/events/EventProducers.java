@@ -0,0 +1,202 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * One producer per {@link ProducerProfile}, each built from the shared {@code spring.kafka.producer.*} settings
+ * with the profile's overrides on top. Records are sent with the producer of their topic's route.
+ * Each producer has a bounded number of records in flight, and a send over the bound is handled by the profile's
+ * {@link BackpressurePolicy}, so a slow broker pushes back on callers instead of filling buffer.memory.
+ * A profile can also confirm synchronously, returning only once the broker has acked the record.
+ * Send failures only ever complete the returned future exceptionally; nothing is thrown from a completion callback.
+ */
+@Component
+@EnableConfigurationProperties(EventRoutingProperties.class)
+public class EventProducers {
+
+    private final Map<ProducerProfile, Lane> lanes = new EnumMap<>(ProducerProfile.class);
+    private final EventRoutingRegistry registry;
+
+    /**
+     * A profile's producer together with its in-flight bound and meters.
+     */
+    private static final class Lane {
+        private final ProducerProfile profile;
+        private final KafkaTemplate<String, byte[]> template;
+        private final EventRoutingProperties.Profile settings;
+        private final Semaphore inFlight;
+        private final Timer acked;
+        private final Timer failed;
+        private final Counter rejected;
+
+        private Lane(ProducerProfile profile, KafkaTemplate<String, byte[]> template,
+                     EventRoutingProperties.Profile settings, MeterRegistry meterRegistry) {
+            this.profile = profile;
+            this.template = template;
+            this.settings = settings;
+            this.inFlight = new Semaphore(settings.getMaxInFlight());
+            this.acked = sendTimer(profile, "success", meterRegistry);
+            this.failed = sendTimer(profile, "failure", meterRegistry);
+            this.rejected = Counter.builder("events.producer.rejected")
+                .description("Sends refused because the producer had too many records in flight")
+                .tag("profile", profile.name().toLowerCase())
+                .tag("policy", settings.getBackpressure().name().toLowerCase())
+                .register(meterRegistry);
+            Gauge.builder("events.producer.in-flight", inFlight, permits -> settings.getMaxInFlight() - permits.availablePermits())
+                .description("Records sent but not yet acked or failed")
+                .tag("profile", profile.name().toLowerCase())
+                .register(meterRegistry);
+        }
+
+        private static Timer sendTimer(ProducerProfile profile, String outcome, MeterRegistry meterRegistry) {
+            return Timer.builder("events.producer.send")
+                .description("Time from send to broker ack or failure")
+                .tag("profile", profile.name().toLowerCase())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+
+        private boolean acquire() {
+            if (settings.getBackpressure() != BackpressurePolicy.BLOCK) {
+                return inFlight.tryAcquire();
+            }
+            try {
+                return inFlight.tryAcquire(settings.getBackpressureTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void complete(long startNanos, boolean success) {
+            inFlight.release();
+            (success ? acked : failed).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Autowired
+    public EventProducers(KafkaProperties kafkaProperties, EventRoutingProperties routingProperties,
+                          EventRoutingRegistry registry, MeterRegistry meterRegistry) {
+        this(createTemplates(kafkaProperties, routingProperties, meterRegistry), registry, routingProperties, meterRegistry);
+    }
+
+    EventProducers(Map<ProducerProfile, KafkaTemplate<String, byte[]>> templates, EventRoutingRegistry registry,
+                   EventRoutingProperties routingProperties, MeterRegistry meterRegistry) {
+        this.registry = registry;
+        templates.forEach((profile, template) -> lanes.put(profile, new Lane(profile, template,
+            Objects.requireNonNullElseGet(routingProperties.getProfiles().get(profile), EventRoutingProperties.Profile::new),
+            meterRegistry)));
+    }
+
+    private static Map<ProducerProfile, KafkaTemplate<String, byte[]>> createTemplates(
+            KafkaProperties kafkaProperties, EventRoutingProperties routingProperties, MeterRegistry meterRegistry) {
+        Map<ProducerProfile, KafkaTemplate<String, byte[]>> templates = new EnumMap<>(ProducerProfile.class);
+        for (ProducerProfile profile : ProducerProfile.values()) {
+            Map<String, Object> config = new HashMap<>(kafkaProperties.buildProducerProperties());
+            EventRoutingProperties.Profile settings = routingProperties.getProfiles().get(profile);
+            if (Objects.nonNull(settings)) {
+                putIfSet(config, ProducerConfig.ACKS_CONFIG, settings.getAcks());
+                putIfSet(config, ProducerConfig.COMPRESSION_TYPE_CONFIG, settings.getCompressionType());
+                putIfSet(config, ProducerConfig.LINGER_MS_CONFIG,
+                        Objects.isNull(settings.getLinger()) ? null : (int) settings.getLinger().toMillis());
+            }
+            DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(config);
+            // The client's own metrics, e.g. buffer-available-bytes and record-queue-time-avg for the send queue
+            factory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                    List.of(Tag.of("profile", profile.name().toLowerCase()))));
+            templates.put(profile, new KafkaTemplate<>(factory));
+        }
+        return templates;
+    }
+
+    private static void putIfSet(Map<String, Object> config, String key, Object value) {
+        if (Objects.nonNull(value)) {
+            config.put(key, value);
+        }
+    }
+
+    /**
+     * Sends a record with the producer of its topic's profile.
+     * Completes exceptionally with a {@link ProducerSaturatedException} if the producer has no in-flight slot for it.
+     */
+    public CompletableFuture<SendResult<String, byte[]>> send(ProducerRecord<String, byte[]> record) {
+        Lane lane = lanes.get(registry.profileFor(record.topic()));
+        if (!lane.acquire()) {
+            lane.rejected.increment();
+            return CompletableFuture.failedFuture(new ProducerSaturatedException(
+                lane.profile, lane.settings.getBackpressure(), lane.settings.getMaxInFlight()));
+        }
+
+        long startNanos = System.nanoTime();
+        CompletableFuture<SendResult<String, byte[]>> sent;
+        try {
+            sent = lane.template.send(record);
+        } catch (RuntimeException e) {
+            // e.g. metadata unavailable within max.block.ms
+            lane.complete(startNanos, false);
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<SendResult<String, byte[]>> tracked =
+            sent.whenComplete((result, failure) -> lane.complete(startNanos, Objects.isNull(failure)));
+        return lane.settings.isSyncConfirm() ? confirm(lane, tracked) : tracked;
+    }
+
+    private static CompletableFuture<SendResult<String, byte[]>> confirm(Lane lane,
+                                                                        CompletableFuture<SendResult<String, byte[]>> sent) {
+        try {
+            return CompletableFuture.completedFuture(
+                sent.get(lane.settings.getConfirmTimeout().toNanos(), TimeUnit.NANOSECONDS));
+        } catch (ExecutionException e) {
+            return CompletableFuture.failedFuture(Objects.requireNonNullElse(e.getCause(), e));
+        } catch (TimeoutException e) {
+            return CompletableFuture.failedFuture(new EventPublishingException(
+                "No ack from " + lane.profile + " producer within " + lane.settings.getConfirmTimeout(), e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new EventPublishingException("Interrupted while waiting for an ack", e));
+        }
+    }
+
+    /**
+     * Flushes every producer, so queued records go out without waiting for linger.
+     */
+    public void flush() {
+        lanes.values().forEach(lane -> lane.template.flush());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> {
+            if (lane.template.getProducerFactory() instanceof DefaultKafkaProducerFactory<String, byte[]> factory) {
+                factory.destroy();
+            }
+        });
+    }
+}
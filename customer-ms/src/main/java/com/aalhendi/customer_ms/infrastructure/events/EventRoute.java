@@ -0,0 +1,32 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.aalhendi.customer_ms.domain.events.DomainEvent;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Where and how one event class is published: its topic, its partition key and the producer profile it is sent with.
+ *
+ * @param eventType    the event class this route applies to
+ * @param topic        the Kafka topic
+ * @param partitionKey extracts the record key, which decides the partition
+ * @param profile      the producer settings used to send it
+ */
+public record EventRoute<E extends DomainEvent>(Class<E> eventType, String topic,
+                                                Function<? super E, String> partitionKey, ProducerProfile profile) {
+
+    public EventRoute {
+        Objects.requireNonNull(eventType, "Event type cannot be null");
+        Objects.requireNonNull(topic, "Topic cannot be null");
+        Objects.requireNonNull(partitionKey, "Partition key cannot be null");
+        Objects.requireNonNull(profile, "Producer profile cannot be null");
+    }
+
+    /**
+     * Returns the record key for an event of this route's type.
+     */
+    public String keyFor(DomainEvent event) {
+        return partitionKey.apply(eventType.cast(event));
+    }
+}
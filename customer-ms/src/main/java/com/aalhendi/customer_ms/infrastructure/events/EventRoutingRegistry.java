@@ -0,0 +1,73 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.aalhendi.customer_ms.domain.events.CustomerCreatedEvent;
+import com.aalhendi.customer_ms.domain.events.CustomerStatusChangedEvent;
+import com.aalhendi.customer_ms.domain.events.CustomerUpdatedEvent;
+import com.aalhendi.customer_ms.domain.events.DomainEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Routes each domain event class to its topic, partition key and producer profile.
+ * Every customer event is keyed by customer number, the same key account-ms uses for its account events, so topics
+ * with equal partition counts are co-partitioned: all events for one customer land on the same partition number
+ * in both services.
+ * Publishing an event class that is not registered fails rather than falling back to a catch-all topic.
+ */
+@Component
+public class EventRoutingRegistry {
+
+    private final Map<Class<? extends DomainEvent>, EventRoute<?>> routes = new LinkedHashMap<>();
+    private final Map<String, ProducerProfile> profilesByTopic = new LinkedHashMap<>();
+
+    public EventRoutingRegistry() {
+        register(CustomerCreatedEvent.class, "customer.events.created",
+                CustomerCreatedEvent::getCustomerNumber, ProducerProfile.CRITICAL);
+        register(CustomerStatusChangedEvent.class, "customer.events.status-changed",
+                CustomerStatusChangedEvent::getCustomerNumber, ProducerProfile.CRITICAL);
+        register(CustomerUpdatedEvent.class, "customer.events.updated",
+                CustomerUpdatedEvent::getCustomerNumber, ProducerProfile.BULK);
+    }
+
+    private <E extends DomainEvent> void register(Class<E> eventType, String topic,
+                                                  Function<? super E, String> partitionKey, ProducerProfile profile) {
+        routes.put(eventType, new EventRoute<>(eventType, topic, partitionKey, profile));
+        ProducerProfile existing = profilesByTopic.putIfAbsent(topic, profile);
+        if (Objects.nonNull(existing) && existing != profile) {
+            throw new IllegalStateException("Topic " + topic + " is registered with both " + existing + " and " + profile);
+        }
+    }
+
+    /**
+     * Returns the route for an event.
+     *
+     * @throws EventPublishingException if the event's class has no route
+     */
+    public EventRoute<?> routeFor(DomainEvent event) {
+        EventRoute<?> route = routes.get(event.getClass());
+        if (Objects.isNull(route)) {
+            throw new EventPublishingException("No route registered for " + event.getClass().getSimpleName());
+        }
+        return route;
+    }
+
+    /**
+     * Returns the producer profile for a topic. Topics that are not registered, such as those on outbox rows
+     * written before a route changed, use {@link ProducerProfile#CRITICAL}.
+     */
+    public ProducerProfile profileFor(String topic) {
+        return profilesByTopic.getOrDefault(topic, ProducerProfile.CRITICAL);
+    }
+
+    /**
+     * Returns every routed topic, for provisioning.
+     */
+    public List<String> topics() {
+        return List.copyOf(profilesByTopic.keySet());
+    }
+}
@@ -0,0 +1,47 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Provisions every routed topic at startup with the configured partition and replica counts, along with the retry
+ * and dead-letter topics of every consumed topic. Those are this service's to create, since only it reads them.
+ * KafkaAdmin creates missing topics and adds partitions to existing ones that have fewer; it never removes any.
+ */
+@Configuration
+@EnableConfigurationProperties({EventRoutingProperties.class, RetryProperties.class})
+public class EventTopicConfig {
+
+    @Bean
+    public KafkaAdmin.NewTopics eventTopics(EventRoutingRegistry registry, EventRoutingProperties properties) {
+        return new KafkaAdmin.NewTopics(registry.topics().stream()
+                .map(topic -> TopicBuilder.name(topic)
+                        .partitions(properties.getPartitions())
+                        .replicas(properties.getReplicas())
+                        .build())
+                .toArray(NewTopic[]::new));
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics retryTopics(List<EventBatchProcessor> processors, RetryProperties retryProperties,
+                                            EventRoutingProperties properties) {
+        return new KafkaAdmin.NewTopics(processors.stream()
+                .flatMap(processor -> processor.topics().stream())
+                .flatMap(topic -> Stream.concat(
+                        IntStream.range(0, retryProperties.getAttempts()).mapToObj(tier -> FailedEventForwarder.retryTopic(topic, tier)),
+                        Stream.of(FailedEventForwarder.deadLetterTopic(topic))))
+                .map(topic -> TopicBuilder.name(topic)
+                        .partitions(properties.getPartitions())
+                        .replicas(properties.getReplicas())
+                        .build())
+                .toArray(NewTopic[]::new));
+    }
+}
@@ -0,0 +1,179 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves records that failed to apply out of the way of healthy traffic.
+ * A retriable failure goes to the next retry tier of the record's original topic, stamped with the attempt number
+ * and the time it becomes due; once the tiers are used up, or if the failure can never succeed (the record can't be
+ * decoded), it goes to the original topic's dead-letter topic.
+ * Original topic, partition, offset and timestamp use Spring Kafka's {@code kafka_dlt-original-*} headers, written on
+ * the first failure and kept from then on; the exception headers describe the latest failure.
+ */
+@Component
+@EnableConfigurationProperties(RetryProperties.class)
+public class FailedEventForwarder {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailedEventForwarder.class);
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    /**
+     * Retries already made, as a decimal string. Absent on a record that has not failed yet.
+     */
+    public static final String ATTEMPT_HEADER = "retry-attempt";
+
+    /**
+     * Epoch millis before which a retry record must not be applied, as a decimal string.
+     */
+    public static final String DUE_AT_HEADER = "retry-due-at";
+
+    private final EventProducers producers;
+    private final RetryProperties properties;
+    private final Counter retriedCounter;
+    private final Counter deadLetteredCounter;
+
+    /**
+     * A record that failed to apply, and why.
+     */
+    public record FailedRecord(ConsumerRecord<String, byte[]> record, Exception cause) {
+    }
+
+    public FailedEventForwarder(EventProducers producers, RetryProperties properties, MeterRegistry meterRegistry) {
+        this.producers = producers;
+        this.properties = properties;
+        this.retriedCounter = Counter.builder("events.retry.forwarded")
+            .description("Failed records sent to a retry topic")
+            .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("events.retry.dead-lettered")
+            .description("Failed records sent to a dead-letter topic")
+            .register(meterRegistry);
+    }
+
+    public static String retryTopic(String topic, int tier) {
+        return topic + ".retry." + tier;
+    }
+
+    public static String deadLetterTopic(String topic) {
+        return topic + ".dlt";
+    }
+
+    /**
+     * Returns the topic a record was first published to, following it back through retry and dead-letter topics.
+     */
+    public static String originalTopic(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        return Objects.isNull(header) ? record.topic() : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns when a retry record becomes due, or 0 for a record without a due time.
+     */
+    public static long dueAt(ConsumerRecord<?, ?> record) {
+        return longHeader(record.headers(), DUE_AT_HEADER);
+    }
+
+    /**
+     * Sends every failed record on and waits for the broker to ack them all.
+     *
+     * @throws EventPublishingException if any could not be sent, so the caller leaves its batch unacknowledged
+     */
+    public void forward(List<FailedRecord> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<?>> sends = failures.stream().map(this::send).toList();
+        producers.flush();
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new EventPublishingException("Failed to forward " + failures.size() + " failed records", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventPublishingException("Interrupted while forwarding failed records", e);
+        }
+    }
+
+    private CompletableFuture<?> send(FailedRecord failure) {
+        ConsumerRecord<String, byte[]> record = failure.record();
+        String originalTopic = originalTopic(record);
+        int attempt = (int) longHeader(record.headers(), ATTEMPT_HEADER);
+        boolean retry = isRetriable(failure.cause()) && attempt < properties.getAttempts();
+        String target = retry ? retryTopic(originalTopic, attempt) : deadLetterTopic(originalTopic);
+
+        Headers headers = new RecordHeaders(record.headers().toArray());
+        if (Objects.isNull(headers.lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC))) {
+            headers.add(KafkaHeaders.DLT_ORIGINAL_TOPIC, record.topic().getBytes(StandardCharsets.UTF_8));
+            headers.add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES).putInt(record.partition()).array());
+            headers.add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(record.offset()).array());
+            headers.add(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP, ByteBuffer.allocate(Long.BYTES).putLong(record.timestamp()).array());
+        }
+        replace(headers, KafkaHeaders.DLT_EXCEPTION_FQCN, failure.cause().getClass().getName());
+        replace(headers, KafkaHeaders.DLT_EXCEPTION_MESSAGE, truncate(failure.cause().getMessage()));
+        replace(headers, ATTEMPT_HEADER, String.valueOf(retry ? attempt + 1 : attempt));
+        headers.remove(DUE_AT_HEADER);
+
+        if (retry) {
+            long dueAt = System.currentTimeMillis() + properties.delay(attempt).toMillis();
+            headers.add(DUE_AT_HEADER, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+            retriedCounter.increment();
+            logger.warn("Record from {} partition {} offset {} failed ({}), retrying via {}",
+                    record.topic(), record.partition(), record.offset(), failure.cause().toString(), target);
+        } else {
+            deadLetteredCounter.increment();
+            logger.error("Record from {} partition {} offset {} failed ({}), dead-lettering to {}",
+                    record.topic(), record.partition(), record.offset(), failure.cause().toString(), target);
+        }
+
+        try {
+            return producers.send(new ProducerRecord<>(target, null, record.key(), record.value(), headers));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Records that can't be decoded will fail the same way however often they are retried.
+     */
+    private static boolean isRetriable(Exception cause) {
+        return !(cause instanceof InvalidProtocolBufferException || cause instanceof IllegalArgumentException);
+    }
+
+    private static void replace(Headers headers, String key, String value) {
+        headers.remove(key);
+        if (Objects.nonNull(value)) {
+            headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static long longHeader(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return Objects.isNull(header) ? 0 : Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    private static String truncate(String message) {
+        return Objects.nonNull(message) && message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+}
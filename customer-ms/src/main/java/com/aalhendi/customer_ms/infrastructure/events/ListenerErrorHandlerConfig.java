@@ -0,0 +1,41 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.Map;
+
+/**
+ * Error handling for every listener container, the main listeners and the retry tiers alike; Boot's container
+ * factory picks up the bean. A listener only throws once it can't hand its failed records off, e.g. because the
+ * broker is down, so the batch is redelivered with a growing backoff until the hand-off succeeds.
+ * Without this bean Spring Kafka retries ten times back to back and then logs and skips the batch.
+ */
+@Configuration
+@EnableConfigurationProperties(RetryProperties.class)
+public class ListenerErrorHandlerConfig {
+
+    private static final double REDELIVERY_MULTIPLIER = 2.0;
+
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(RetryProperties properties) {
+        ExponentialBackOff backOff = new ExponentialBackOff(properties.getRedeliveryInitialInterval().toMillis(),
+                REDELIVERY_MULTIPLIER);
+        backOff.setMaxInterval(properties.getRedeliveryMaxInterval().toMillis());
+        // Never stops, so the recoverer isn't reached; if it ever is, throwing makes the handler seek the batch back
+        backOff.setMaxElapsedTime(Long.MAX_VALUE);
+        backOff.setMaxAttempts(Integer.MAX_VALUE);
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler((record, exception) -> {
+            throw new KafkaException("Not skipping record from " + record.topic() + " partition " + record.partition()
+                    + " offset " + record.offset(), exception);
+        }, backOff);
+        // The defaults treat e.g. conversion errors as fatal and skip straight to the recoverer; nothing is skipped here
+        errorHandler.setClassifications(Map.of(), true);
+        return errorHandler;
+    }
+}
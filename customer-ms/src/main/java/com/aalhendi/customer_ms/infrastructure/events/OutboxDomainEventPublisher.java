@@ -0,0 +1,63 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.aalhendi.customer_ms.domain.events.DomainEvent;
+import com.aalhendi.customer_ms.infrastructure.persistence.JpaOutboxEventRepository;
+import com.aalhendi.customer_ms.infrastructure.persistence.OutboxEventEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox implementation of the domain event publisher.
+ * Writes each event to the outbox table in the caller's transaction, so an event is stored if and only if
+ * the state change that raised it commits. OutboxRelay publishes the rows to Kafka afterwards,
+ * which keeps Kafka off the request path. Topics and keys come from EventRoutingRegistry.
+ * Every publish must run inside a transaction; without one there is nothing to make the event atomic with.
+ * The guard is on the class, as publish(DomainEvent) calls the other overload on this and skips the proxy.
+ * TODO(aalhendi): /should/ be in common lib
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxDomainEventPublisher implements DomainEventPublisher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDomainEventPublisher.class);
+    
+    private final JpaOutboxEventRepository outboxRepository;
+    private final DomainEventCodec codec;
+    private final EventRoutingRegistry routingRegistry;
+    
+    public OutboxDomainEventPublisher(JpaOutboxEventRepository outboxRepository, DomainEventCodec codec,
+                                      EventRoutingRegistry routingRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.codec = codec;
+        this.routingRegistry = routingRegistry;
+    }
+    
+    @Override
+    public void publish(DomainEvent event) {
+        publish(routingRegistry.routeFor(event).topic(), event);
+    }
+    
+    @Override
+    public void publish(String topic, DomainEvent event) {
+        DomainEventCodec.EncodedEvent encoded = codec.encode(event);
+        String key = routingRegistry.routeFor(event).keyFor(event);
+        
+        logger.info("Writing event {} for topic {} with key {} to the outbox as {}", 
+                   event.getEventType(), topic, key, encoded.contentType());
+
+        outboxRepository.save(new OutboxEventEntity(
+                event.getAggregateId(),
+                event.getEventType(),
+                topic,
+                key,
+                encoded.payload(),
+                encoded.contentType(),
+                LocalDateTime.now()
+        ));
+    }
+}
\ No newline at end of file
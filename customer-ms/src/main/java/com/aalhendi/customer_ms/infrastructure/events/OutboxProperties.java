@@ -0,0 +1,75 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the outbox relay.
+ * The poll and cleanup intervals are read straight by the {@code @Scheduled} methods in OutboxRelay.
+ */
+@ConfigurationProperties(prefix = "outbox.relay")
+public class OutboxProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Rows claimed and published per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long a batch waits for broker acks before the unacked rows are left for the next poll.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Failed publishes after which a row is parked and no longer relayed. Spills and held-back rows don't count.
+     */
+    private int maxAttempts = 20;
+
+    /**
+     * How long published rows are kept before cleanup deletes them.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+}
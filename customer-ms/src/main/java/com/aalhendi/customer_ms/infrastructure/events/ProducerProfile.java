@@ -0,0 +1,18 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+/**
+ * Named producer settings an event route publishes with.
+ * The settings behind each profile come from {@code events.routing.profiles.*}, see EventRoutingProperties.
+ */
+public enum ProducerProfile {
+
+    /**
+     * State changes other services act on: no compression or linger, so they go out as soon as they are relayed.
+     */
+    CRITICAL,
+
+    /**
+     * Frequent events where throughput matters more than latency: compressed and batched.
+     */
+    BULK
+}
@@ -0,0 +1,23 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for rebuilding read models from the event topics.
+ */
+@ConfigurationProperties(prefix = "events.projection")
+public class ProjectionProperties {
+
+    /**
+     * Most records a rebuild worker polls, folds and upserts in one go.
+     */
+    private int rebuildBatchSize = 5000;
+
+    public int getRebuildBatchSize() {
+        return rebuildBatchSize;
+    }
+
+    public void setRebuildBatchSize(int rebuildBatchSize) {
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+}
@@ -0,0 +1,94 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import com.aalhendi.account.grpc.GetAccountSummaryResponse;
+import com.aalhendi.customer.grpc.CheckAccountLimitResponse;
+import com.aalhendi.customer_ms.domain.entities.Customer;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Account limit rules shared by the v1 and v2 customer gRPC services.
+ * The account counts come from account-ms.
+ */
+@Component
+public class AccountLimitChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountLimitChecker.class);
+
+    private final AccountServiceClient accountServiceClient;
+
+    public AccountLimitChecker(AccountServiceClient accountServiceClient) {
+        this.accountServiceClient = accountServiceClient;
+    }
+
+    /**
+     * Checks whether a customer may open another account of the given type.
+     *
+     * @param customerNumber the customer number, used in messages and for the account summary lookup
+     * @param accountType the requested account type name, e.g. "SALARY"
+     * @param customer the loaded customer, or null if it doesn't exist
+     */
+    public CheckAccountLimitResponse check(String customerNumber, String accountType, Customer customer) {
+        CheckAccountLimitResponse.Builder responseBuilder = CheckAccountLimitResponse.newBuilder();
+        
+        if (Objects.isNull(customer)) {
+            responseBuilder
+                .setCanCreateAccount(false)
+                .setCurrentAccountCount(0)
+                .setMaxAccountLimit(10)
+                .setAlreadyHasSalaryAccount(false)
+                .setErrorMessage("Customer not found: " + customerNumber);
+        } else {
+            // Get real account data from account service
+            int currentActiveAccountCount = 0;  // Only ACTIVE accounts count toward the 10-account limit
+            int totalAccountCount = 0;          // All accounts (including closed) for serial numbering
+            int maxAccountLimit = 10;
+            boolean alreadyHasSalaryAccount = false;
+            
+            try {
+                GetAccountSummaryResponse accountSummary = accountServiceClient.getAccountSummary(customerNumber);
+                currentActiveAccountCount = accountSummary.getActiveAccounts();  // Only active accounts for limit
+                totalAccountCount = accountSummary.getTotalAccounts();           // All accounts for serial numbering
+                alreadyHasSalaryAccount = accountSummary.getHasSalaryAccount();
+            } catch (Exception e) {
+                logger.warn("Failed to get account summary for customer {}: {}", customerNumber, e.getMessage());
+                // Continue with default values (0 accounts, no salary account)
+                // TODO(aalhendi): this is a hack. in a real scenario, we would return an error to the client
+            }
+            
+            // Business Rules:
+            // 1. Customer must be ACTIVE
+            // 2. Active accounts must be < 10 (closed accounts don't count toward limit)
+            // 3. Can't have multiple SALARY accounts
+            // 4. Total accounts (including closed) must be < 10 for serial numbering (handled in account service)
+            boolean canCreate = customer.getStatus() == CustomerStatus.ACTIVE 
+                && currentActiveAccountCount < maxAccountLimit
+                && totalAccountCount < maxAccountLimit  // Also check total for serial availability
+                && (!accountType.equals("SALARY") || !alreadyHasSalaryAccount);
+            
+            responseBuilder
+                .setCanCreateAccount(canCreate)
+                .setCurrentAccountCount(currentActiveAccountCount)  // Return active account count for limit checking
+                .setMaxAccountLimit(maxAccountLimit)
+                .setAlreadyHasSalaryAccount(alreadyHasSalaryAccount);
+                
+            if (!canCreate) {
+                if (customer.getStatus() != CustomerStatus.ACTIVE) {
+                    responseBuilder.setErrorMessage("Customer is not active. Status: " + customer.getStatus().name());
+                } else if (currentActiveAccountCount >= maxAccountLimit) {
+                    responseBuilder.setErrorMessage("Customer has reached maximum active account limit of " + maxAccountLimit);
+                } else if (totalAccountCount >= maxAccountLimit) {
+                    responseBuilder.setErrorMessage("Customer has reached maximum total account limit (including closed accounts) of " + maxAccountLimit);
+                } else if (accountType.equals("SALARY") && alreadyHasSalaryAccount) {
+                    responseBuilder.setErrorMessage("Customer already has a salary account");
+                }
+            }
+        }
+        
+        return responseBuilder.build();
+    }
+}
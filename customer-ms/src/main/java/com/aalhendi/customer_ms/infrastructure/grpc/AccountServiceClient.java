@@ -6,6 +6,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+
 /**
  * gRPC client for calling Account service from Customer service.
  * Handles inter-service communication to account-ms.
@@ -47,6 +49,32 @@ public class AccountServiceClient {
         }
     }
 
+    /**
+     * Gets account summaries for several customers in one round trip.
+     * 
+     * @param customerNumbers the customer numbers
+     * @return one summary per distinct customer number, in request order
+     * @throws AccountServiceException if service error
+     */
+    public GetAccountSummariesResponse getAccountSummaries(Collection<String> customerNumbers) {
+        logger.debug("Calling account service to get account summaries for {} customers", customerNumbers.size());
+        
+        try {
+            GetAccountSummariesRequest request = GetAccountSummariesRequest.newBuilder()
+                .addAllCustomerNumbers(customerNumbers)
+                .build();
+                
+            return accountServiceStub.getAccountSummaries(request);
+            
+        } catch (StatusRuntimeException e) {
+            logger.error("gRPC error getting account summaries for {} customers: {}", customerNumbers.size(), e.getStatus());
+            throw new AccountServiceException("Failed to get account summaries for " + customerNumbers.size() + " customers", e);
+        } catch (Exception e) {
+            logger.error("Unexpected error getting account summaries for {} customers: {}", customerNumbers.size(), e.getMessage(), e);
+            throw new AccountServiceException("Unexpected error getting account summaries for " + customerNumbers.size() + " customers", e);
+        }
+    }
+
     /**
      * Checks if customer has active accounts.
      * 
@@ -0,0 +1,124 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection and load balancing settings for the account-ms gRPC client.
+ */
+@ConfigurationProperties(prefix = "grpc.client.account-service")
+public class AccountServiceClientProperties {
+
+    private String host = "localhost";
+    private int port = 9093;
+
+    /**
+     * Channel target URI, e.g. dns:///account-ms:9093. Overrides host and port.
+     */
+    private String target;
+
+    /**
+     * Fixed replica addresses as host:port. Overrides target, host and port.
+     */
+    private List<String> addresses = new ArrayList<>();
+
+    /**
+     * gRPC load balancing policy: pick_first, round_robin or least_request.
+     */
+    private String loadBalancingPolicy = "round_robin";
+
+    private HealthCheck healthCheck = new HealthCheck();
+
+    /**
+     * Number of channels to spread calls over. Each keeps its own connection per replica.
+     */
+    private int channelPoolSize = 1;
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public List<String> getAddresses() {
+        return addresses;
+    }
+
+    public void setAddresses(List<String> addresses) {
+        this.addresses = addresses;
+    }
+
+    public String getLoadBalancingPolicy() {
+        return loadBalancingPolicy;
+    }
+
+    public void setLoadBalancingPolicy(String loadBalancingPolicy) {
+        this.loadBalancingPolicy = loadBalancingPolicy;
+    }
+
+    public HealthCheck getHealthCheck() {
+        return healthCheck;
+    }
+
+    public void setHealthCheck(HealthCheck healthCheck) {
+        this.healthCheck = healthCheck;
+    }
+
+    public int getChannelPoolSize() {
+        return channelPoolSize;
+    }
+
+    public void setChannelPoolSize(int channelPoolSize) {
+        this.channelPoolSize = channelPoolSize;
+    }
+
+    /**
+     * Client-side health checking over the standard grpc.health.v1 service.
+     * Replicas reporting NOT_SERVING get no calls. Applies to round_robin and least_request, not pick_first.
+     */
+    public static class HealthCheck {
+
+        private boolean enabled = true;
+
+        /**
+         * Service name to check; empty checks the server as a whole.
+         */
+        private String serviceName = "";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        public void setServiceName(String serviceName) {
+            this.serviceName = serviceName;
+        }
+    }
+}
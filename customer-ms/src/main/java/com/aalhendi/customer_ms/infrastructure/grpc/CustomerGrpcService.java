@@ -5,16 +5,19 @@ import com.aalhendi.customer_ms.domain.entities.Customer;
 import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
 import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
 import com.aalhendi.customer_ms.domain.services.CustomerServiceImpl;
-import com.aalhendi.customer_ms.infrastructure.grpc.AccountServiceClient;
-import com.aalhendi.account.grpc.GetAccountSummaryResponse;
 import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.grpc.server.service.GrpcService;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * gRPC service implementation for Customer operations.
@@ -25,13 +28,17 @@ import java.util.Optional;
 public class CustomerGrpcService extends CustomerServiceGrpc.CustomerServiceImplBase {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerGrpcService.class);
+    private static final int MAX_BATCH_SIZE = 500;
     
     private final CustomerServiceImpl customerService;
-    private final AccountServiceClient accountServiceClient;
+    private final AccountLimitChecker accountLimitChecker;
+    private final SingleFlight singleFlight;
 
-    public CustomerGrpcService(CustomerServiceImpl customerService, AccountServiceClient accountServiceClient) {
+    public CustomerGrpcService(CustomerServiceImpl customerService, AccountLimitChecker accountLimitChecker,
+                               SingleFlight singleFlight) {
         this.customerService = customerService;
-        this.accountServiceClient = accountServiceClient;
+        this.accountLimitChecker = accountLimitChecker;
+        this.singleFlight = singleFlight;
     }
 
     @Override
@@ -39,30 +46,30 @@ public class CustomerGrpcService extends CustomerServiceGrpc.CustomerServiceImpl
         logger.debug("gRPC GetCustomer called for customer: {}", request.getCustomerNumber());
         
         try {
-            Optional<Customer> customerOpt = customerService.findByCustomerNumber(request.getCustomerNumber());
+            Optional<GetCustomerResponse> responseOpt = singleFlight.execute("GetCustomer", request.getCustomerNumber(),
+                () -> customerService.findByCustomerNumber(request.getCustomerNumber()).map(customer -> GetCustomerResponse.newBuilder()
+                    .setCustomerNumber(customer.getCustomerNumber().value())
+                    .setName(customer.getName().value())
+                    .setNationalId(customer.getNationalId().value())
+                    .setCustomerType(customer.getCustomerType().name())
+                    .setAddress(customer.getAddress().value())
+                    .setStatus(customer.getStatus().name())
+                    .setCreatedAt(customer.getCreatedAt().toString())
+                    .setUpdatedAt(customer.getUpdatedAt().toString())
+                    .build()));
             
-            if (customerOpt.isEmpty()) {
+            if (responseOpt.isEmpty()) {
                 responseObserver.onError(Status.NOT_FOUND
                     .withDescription("Customer not found: " + request.getCustomerNumber())
                     .asRuntimeException());
                 return;
             }
-            
-            Customer customer = customerOpt.get();
-            GetCustomerResponse response = GetCustomerResponse.newBuilder()
-                .setCustomerNumber(customer.getCustomerNumber().value())
-                .setName(customer.getName().value())
-                .setNationalId(customer.getNationalId().value())
-                .setCustomerType(customer.getCustomerType().name())
-                .setAddress(customer.getAddress().value())
-                .setStatus(customer.getStatus().name())
-                .setCreatedAt(customer.getCreatedAt().toString())
-                .setUpdatedAt(customer.getUpdatedAt().toString())
-                .build();
                 
-            responseObserver.onNext(response);
+            responseObserver.onNext(responseOpt.get());
             responseObserver.onCompleted();
             
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
         } catch (Exception e) {
             logger.error("Error getting customer: {}", request.getCustomerNumber(), e);
             responseObserver.onError(Status.INTERNAL
@@ -76,110 +83,125 @@ public class CustomerGrpcService extends CustomerServiceGrpc.CustomerServiceImpl
         logger.debug("gRPC ValidateCustomer called for customer: {}", request.getCustomerNumber());
         
         try {
-            Optional<Customer> customerOpt = customerService.findByCustomerNumber(request.getCustomerNumber());
+            // Account creation bursts validate the same customer concurrently; they share one load
+            ValidateCustomerResponse response = singleFlight.execute("ValidateCustomer", request.getCustomerNumber(),
+                () -> toValidation(request.getCustomerNumber(),
+                    customerService.findByCustomerNumber(request.getCustomerNumber()).orElse(null)));
             
-            ValidateCustomerResponse.Builder responseBuilder = ValidateCustomerResponse.newBuilder();
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
             
-            if (customerOpt.isEmpty()) {
-                responseBuilder
-                    .setIsValid(false)
-                    .setIsActive(false)
-                    .setErrorMessage("Customer not found: " + request.getCustomerNumber());
-            } else {
-                Customer customer = customerOpt.get();
-                boolean isActive = customer.getStatus() == CustomerStatus.ACTIVE;
-                
-                responseBuilder
-                    .setIsValid(true)
-                    .setIsActive(isActive)
-                    .setCustomerType(customer.getCustomerType().name())
-                    .setStatus(customer.getStatus().name());
-                    
-                if (!isActive) {
-                    responseBuilder.setErrorMessage("Customer is not active. Status: " + customer.getStatus().name());
-                }
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            logger.error("Error validating customer: {}", request.getCustomerNumber(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void validateCustomers(ValidateCustomersRequest request, StreamObserver<ValidateCustomersResponse> responseObserver) {
+        logger.debug("gRPC ValidateCustomers called for {} customers", request.getCustomerNumbersCount());
+        
+        // Duplicates are answered once, in first-seen order
+        Set<String> customerNumbers = new LinkedHashSet<>(request.getCustomerNumbersList());
+        if (customerNumbers.size() > MAX_BATCH_SIZE) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("At most " + MAX_BATCH_SIZE + " customer numbers per request, got " + customerNumbers.size())
+                .asRuntimeException());
+            return;
+        }
+        
+        try {
+            Map<String, Customer> customers = customerService.findByCustomerNumbers(customerNumbers);
+            
+            ValidateCustomersResponse.Builder responseBuilder = ValidateCustomersResponse.newBuilder();
+            for (String customerNumber : customerNumbers) {
+                responseBuilder.addResults(CustomerValidation.newBuilder()
+                    .setCustomerNumber(customerNumber)
+                    .setValidation(toValidation(customerNumber, customers.get(customerNumber))));
             }
             
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
             
         } catch (Exception e) {
-            logger.error("Error validating customer: {}", request.getCustomerNumber(), e);
+            logger.error("Error validating {} customers", customerNumbers.size(), e);
             responseObserver.onError(Status.INTERNAL
                 .withDescription("Internal error: " + e.getMessage())
                 .asRuntimeException());
         }
     }
 
+    private ValidateCustomerResponse toValidation(String customerNumber, Customer customer) {
+        ValidateCustomerResponse.Builder responseBuilder = ValidateCustomerResponse.newBuilder();
+        
+        if (Objects.isNull(customer)) {
+            return responseBuilder
+                .setIsValid(false)
+                .setIsActive(false)
+                .setErrorMessage("Customer not found: " + customerNumber)
+                .build();
+        }
+        
+        boolean isActive = customer.getStatus() == CustomerStatus.ACTIVE;
+        
+        responseBuilder
+            .setIsValid(true)
+            .setIsActive(isActive)
+            .setCustomerType(customer.getCustomerType().name())
+            .setStatus(customer.getStatus().name());
+            
+        if (!isActive) {
+            responseBuilder.setErrorMessage("Customer is not active. Status: " + customer.getStatus().name());
+        }
+        
+        return responseBuilder.build();
+    }
+
     @Override
-    public void checkAccountLimit(CheckAccountLimitRequest request, StreamObserver<CheckAccountLimitResponse> responseObserver) {
-        logger.debug("gRPC CheckAccountLimit called for customer: {}, accountType: {}", 
+    public void prepareAccountCreation(PrepareAccountCreationRequest request,
+                                       StreamObserver<PrepareAccountCreationResponse> responseObserver) {
+        logger.debug("gRPC PrepareAccountCreation called for customer: {}, accountType: {}",
             request.getCustomerNumber(), request.getAccountType());
         
         try {
-            Optional<Customer> customerOpt = customerService.findByCustomerNumber(request.getCustomerNumber());
+            // One customer load serves both the validation and the limit check
+            Customer customer = customerService.findByCustomerNumber(request.getCustomerNumber()).orElse(null);
             
-            CheckAccountLimitResponse.Builder responseBuilder = CheckAccountLimitResponse.newBuilder();
+            ValidateCustomerResponse validation = toValidation(request.getCustomerNumber(), customer);
+            PrepareAccountCreationResponse.Builder responseBuilder = PrepareAccountCreationResponse.newBuilder()
+                .setValidation(validation);
             
-            if (customerOpt.isEmpty()) {
-                responseBuilder
-                    .setCanCreateAccount(false)
-                    .setCurrentAccountCount(0)
-                    .setMaxAccountLimit(10)
-                    .setAlreadyHasSalaryAccount(false)
-                    .setErrorMessage("Customer not found: " + request.getCustomerNumber());
-            } else {
-                Customer customer = customerOpt.get();
-                
-                // Get real account data from account service
-                int currentActiveAccountCount = 0;  // Only ACTIVE accounts count toward the 10-account limit
-                int totalAccountCount = 0;          // All accounts (including closed) for serial numbering
-                int maxAccountLimit = 10;
-                boolean alreadyHasSalaryAccount = false;
-                
-                try {
-                    GetAccountSummaryResponse accountSummary = accountServiceClient.getAccountSummary(request.getCustomerNumber());
-                    currentActiveAccountCount = accountSummary.getActiveAccounts();  // Only active accounts for limit
-                    totalAccountCount = accountSummary.getTotalAccounts();           // All accounts for serial numbering
-                    alreadyHasSalaryAccount = accountSummary.getHasSalaryAccount();
-                } catch (Exception e) {
-                    logger.warn("Failed to get account summary for customer {}: {}", request.getCustomerNumber(), e.getMessage());
-                    // Continue with default values (0 accounts, no salary account)
-                    // TODO(aalhendi): this is a hack. in a real scenario, we would return an error to the client
-                }
-                
-                // Business Rules:
-                // 1. Customer must be ACTIVE
-                // 2. Active accounts must be < 10 (closed accounts don't count toward limit)
-                // 3. Can't have multiple SALARY accounts
-                // 4. Total accounts (including closed) must be < 10 for serial numbering (handled in account service)
-                boolean canCreate = customer.getStatus() == CustomerStatus.ACTIVE 
-                    && currentActiveAccountCount < maxAccountLimit
-                    && totalAccountCount < maxAccountLimit  // Also check total for serial availability
-                    && (!request.getAccountType().equals("SALARY") || !alreadyHasSalaryAccount);
-                
-                responseBuilder
-                    .setCanCreateAccount(canCreate)
-                    .setCurrentAccountCount(currentActiveAccountCount)  // Return active account count for limit checking
-                    .setMaxAccountLimit(maxAccountLimit)
-                    .setAlreadyHasSalaryAccount(alreadyHasSalaryAccount);
-                    
-                if (!canCreate) {
-                    if (customer.getStatus() != CustomerStatus.ACTIVE) {
-                        responseBuilder.setErrorMessage("Customer is not active. Status: " + customer.getStatus().name());
-                    } else if (currentActiveAccountCount >= maxAccountLimit) {
-                        responseBuilder.setErrorMessage("Customer has reached maximum active account limit of " + maxAccountLimit);
-                    } else if (totalAccountCount >= maxAccountLimit) {
-                        responseBuilder.setErrorMessage("Customer has reached maximum total account limit (including closed accounts) of " + maxAccountLimit);
-                    } else if (request.getAccountType().equals("SALARY") && alreadyHasSalaryAccount) {
-                        responseBuilder.setErrorMessage("Customer already has a salary account");
-                    }
-                }
+            // The limit check needs an account summary round trip, so skip it when the answer is already no
+            if (validation.getIsActive()) {
+                responseBuilder.setAccountLimit(accountLimitChecker.check(request.getCustomerNumber(), request.getAccountType(), customer));
             }
             
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
             
+        } catch (Exception e) {
+            logger.error("Error preparing account creation for customer: {}", request.getCustomerNumber(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void checkAccountLimit(CheckAccountLimitRequest request, StreamObserver<CheckAccountLimitResponse> responseObserver) {
+        logger.debug("gRPC CheckAccountLimit called for customer: {}, accountType: {}", 
+            request.getCustomerNumber(), request.getAccountType());
+        
+        try {
+            Optional<Customer> customerOpt = customerService.findByCustomerNumber(request.getCustomerNumber());
+            
+            responseObserver.onNext(accountLimitChecker.check(request.getCustomerNumber(), request.getAccountType(), customerOpt.orElse(null)));
+            responseObserver.onCompleted();
+            
         } catch (Exception e) {
             logger.error("Error checking account limit for customer: {}", request.getCustomerNumber(), e);
             responseObserver.onError(Status.INTERNAL
@@ -187,4 +209,4 @@ public class CustomerGrpcService extends CustomerServiceGrpc.CustomerServiceImpl
                 .asRuntimeException());
         }
     }
-} 
\ No newline at end of file
+}
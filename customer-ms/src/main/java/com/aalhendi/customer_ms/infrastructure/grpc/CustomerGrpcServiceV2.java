@@ -0,0 +1,238 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import com.aalhendi.account.grpc.v2.AccountType;
+import com.aalhendi.customer.grpc.v2.*;
+import com.aalhendi.customer_ms.domain.entities.Customer;
+import com.aalhendi.customer_ms.domain.services.CustomerServiceImpl;
+import com.google.protobuf.Timestamp;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.grpc.server.service.GrpcService;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * gRPC service implementation for Customer operations, v2 schema.
+ * Served alongside {@link CustomerGrpcService} so clients can migrate one call at a time.
+ * Types and statuses go out as proto enums and timestamps as proto Timestamps.
+ */
+@GrpcService
+@Service
+public class CustomerGrpcServiceV2 extends CustomerServiceGrpc.CustomerServiceImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerGrpcServiceV2.class);
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // NOTE(aalhendi): timestamps are persisted as LocalDateTime in the JVM's zone
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final CustomerServiceImpl customerService;
+    private final AccountLimitChecker accountLimitChecker;
+    private final SingleFlight singleFlight;
+
+    public CustomerGrpcServiceV2(CustomerServiceImpl customerService, AccountLimitChecker accountLimitChecker,
+                                 SingleFlight singleFlight) {
+        this.customerService = customerService;
+        this.accountLimitChecker = accountLimitChecker;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public void getCustomer(GetCustomerRequest request, StreamObserver<GetCustomerResponse> responseObserver) {
+        logger.debug("gRPC v2 GetCustomer called for customer: {}", request.getCustomerNumber());
+
+        try {
+            Optional<GetCustomerResponse> responseOpt = singleFlight.execute("v2.GetCustomer", request.getCustomerNumber(),
+                () -> customerService.findByCustomerNumber(request.getCustomerNumber()).map(customer -> GetCustomerResponse.newBuilder()
+                    .setCustomerNumber(customer.getCustomerNumber().value())
+                    .setName(customer.getName().value())
+                    .setNationalId(customer.getNationalId().value())
+                    .setCustomerType(toProto(customer.getCustomerType()))
+                    .setAddress(customer.getAddress().value())
+                    .setStatus(toProto(customer.getStatus()))
+                    .setCreatedAt(toTimestamp(customer.getCreatedAt()))
+                    .setUpdatedAt(toTimestamp(customer.getUpdatedAt()))
+                    .build()));
+
+            if (responseOpt.isEmpty()) {
+                responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("Customer not found: " + request.getCustomerNumber())
+                    .asRuntimeException());
+                return;
+            }
+
+            responseObserver.onNext(responseOpt.get());
+            responseObserver.onCompleted();
+
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            logger.error("Error getting customer: {}", request.getCustomerNumber(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void validateCustomer(ValidateCustomerRequest request, StreamObserver<ValidateCustomerResponse> responseObserver) {
+        logger.debug("gRPC v2 ValidateCustomer called for customer: {}", request.getCustomerNumber());
+
+        try {
+            ValidateCustomerResponse response = singleFlight.execute("v2.ValidateCustomer", request.getCustomerNumber(),
+                () -> toValidation(request.getCustomerNumber(),
+                    customerService.findByCustomerNumber(request.getCustomerNumber()).orElse(null)));
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            logger.error("Error validating customer: {}", request.getCustomerNumber(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void validateCustomers(ValidateCustomersRequest request, StreamObserver<ValidateCustomersResponse> responseObserver) {
+        logger.debug("gRPC v2 ValidateCustomers called for {} customers", request.getCustomerNumbersCount());
+
+        // Duplicates are answered once, in first-seen order
+        Set<String> customerNumbers = new LinkedHashSet<>(request.getCustomerNumbersList());
+        if (customerNumbers.size() > MAX_BATCH_SIZE) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("At most " + MAX_BATCH_SIZE + " customer numbers per request, got " + customerNumbers.size())
+                .asRuntimeException());
+            return;
+        }
+
+        try {
+            Map<String, Customer> customers = customerService.findByCustomerNumbers(customerNumbers);
+
+            ValidateCustomersResponse.Builder responseBuilder = ValidateCustomersResponse.newBuilder();
+            for (String customerNumber : customerNumbers) {
+                responseBuilder.addResults(CustomerValidation.newBuilder()
+                    .setCustomerNumber(customerNumber)
+                    .setValidation(toValidation(customerNumber, customers.get(customerNumber))));
+            }
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error validating {} customers", customerNumbers.size(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void prepareAccountCreation(PrepareAccountCreationRequest request,
+                                       StreamObserver<PrepareAccountCreationResponse> responseObserver) {
+        logger.debug("gRPC v2 PrepareAccountCreation called for customer: {}, accountType: {}",
+            request.getCustomerNumber(), request.getAccountType());
+
+        String accountType = switch (request.getAccountType()) {
+            case ACCOUNT_TYPE_SAVING -> "SAVING";
+            case ACCOUNT_TYPE_INVESTMENT -> "INVESTMENT";
+            case ACCOUNT_TYPE_SALARY -> "SALARY";
+            case ACCOUNT_TYPE_UNSPECIFIED, UNRECOGNIZED -> null;
+        };
+        if (Objects.isNull(accountType)) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Unknown account_type: " + request.getAccountTypeValue())
+                .asRuntimeException());
+            return;
+        }
+
+        try {
+            // One customer load serves both the validation and the limit check
+            Customer customer = customerService.findByCustomerNumber(request.getCustomerNumber()).orElse(null);
+
+            ValidateCustomerResponse validation = toValidation(request.getCustomerNumber(), customer);
+            PrepareAccountCreationResponse.Builder responseBuilder = PrepareAccountCreationResponse.newBuilder()
+                .setValidation(validation);
+
+            // The limit check needs an account summary round trip, so skip it when the answer is already no
+            if (validation.getIsActive()) {
+                responseBuilder.setAccountLimit(accountLimitChecker.check(request.getCustomerNumber(), accountType, customer));
+            }
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error preparing account creation for customer: {}", request.getCustomerNumber(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal error: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    private static ValidateCustomerResponse toValidation(String customerNumber, Customer customer) {
+        ValidateCustomerResponse.Builder responseBuilder = ValidateCustomerResponse.newBuilder();
+
+        if (Objects.isNull(customer)) {
+            return responseBuilder
+                .setIsValid(false)
+                .setIsActive(false)
+                .setErrorMessage("Customer not found: " + customerNumber)
+                .build();
+        }
+
+        boolean isActive = customer.getStatus() == com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus.ACTIVE;
+
+        responseBuilder
+            .setIsValid(true)
+            .setIsActive(isActive)
+            .setCustomerType(toProto(customer.getCustomerType()))
+            .setStatus(toProto(customer.getStatus()));
+
+        if (!isActive) {
+            responseBuilder.setErrorMessage("Customer is not active. Status: " + customer.getStatus().name());
+        }
+
+        return responseBuilder.build();
+    }
+
+    private static CustomerType toProto(com.aalhendi.customer_ms.domain.valueobjects.CustomerType customerType) {
+        return switch (customerType) {
+            case RETAIL -> CustomerType.CUSTOMER_TYPE_RETAIL;
+            case CORPORATE -> CustomerType.CUSTOMER_TYPE_CORPORATE;
+            case INVESTMENT -> CustomerType.CUSTOMER_TYPE_INVESTMENT;
+        };
+    }
+
+    private static CustomerStatus toProto(com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus status) {
+        return switch (status) {
+            case PENDING -> CustomerStatus.CUSTOMER_STATUS_PENDING;
+            case ACTIVE -> CustomerStatus.CUSTOMER_STATUS_ACTIVE;
+            case SUSPENDED -> CustomerStatus.CUSTOMER_STATUS_SUSPENDED;
+            case FROZEN -> CustomerStatus.CUSTOMER_STATUS_FROZEN;
+            case CLOSED -> CustomerStatus.CUSTOMER_STATUS_CLOSED;
+        };
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        Instant instant = dateTime.atZone(ZONE).toInstant();
+        return Timestamp.newBuilder()
+            .setSeconds(instant.getEpochSecond())
+            .setNanos(instant.getNano())
+            .build();
+    }
+}
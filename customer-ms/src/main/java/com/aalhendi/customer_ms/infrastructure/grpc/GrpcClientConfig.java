@@ -3,31 +3,43 @@ package com.aalhendi.customer_ms.infrastructure.grpc;
 import com.aalhendi.account.grpc.AccountServiceGrpc;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 /**
  * Configuration for gRPC clients.
  * Sets up the gRPC channel and stubs for inter-service communication.
  */
 @Configuration
+@EnableConfigurationProperties(AccountServiceClientProperties.class)
 public class GrpcClientConfig {
 
-    @Value("${grpc.client.account-service.host:localhost}")
-    private String accountServiceHost;
-
-    @Value("${grpc.client.account-service.port:9093}")
-    private int accountServicePort;
-
     /**
      * Creates a managed channel for account service communication.
+     * Load balancing and health checking are applied through the channel's default service config.
+     * With channel-pool-size above 1, calls are spread over a pool.
+     * Every call is measured by GrpcClientMetricsInterceptor.
      */
     @Bean
-    public ManagedChannel accountServiceChannel() {
-        return ManagedChannelBuilder.forAddress(accountServiceHost, accountServicePort)
-                .usePlaintext() // TODO(aalhendi): use TLS in prod. this is for dev.
-                .build();
+    public ManagedChannel accountServiceChannel(AccountServiceClientProperties properties, MeterRegistry meterRegistry) {
+        GrpcClientMetricsInterceptor metricsInterceptor = new GrpcClientMetricsInterceptor(meterRegistry);
+        List<ManagedChannel> channels = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, properties.getChannelPoolSize()); i++) {
+            channels.add(configureChannel(newChannelBuilder(properties), properties)
+                    .intercept(metricsInterceptor)
+                    .usePlaintext() // TODO(aalhendi): use TLS in prod. this is for dev.
+                    .build());
+        }
+        return channels.size() == 1 ? channels.get(0) : new ManagedChannelPool(channels);
     }
 
     /**
@@ -37,4 +49,44 @@ public class GrpcClientConfig {
     public AccountServiceGrpc.AccountServiceBlockingStub accountServiceStub(ManagedChannel accountServiceChannel) {
         return AccountServiceGrpc.newBlockingStub(accountServiceChannel);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Applies the client properties that don't depend on the transport, so tests can use in-process channels.
+     */
+    static ManagedChannelBuilder<?> configureChannel(ManagedChannelBuilder<?> builder, AccountServiceClientProperties properties) {
+        return builder.defaultServiceConfig(accountServiceConfig(properties));
+    }
+
+    /**
+     * Builds a gRPC service config (the JSON-shaped map the channel expects) from the client properties.
+     */
+    static Map<String, Object> accountServiceConfig(AccountServiceClientProperties properties) {
+        Map<String, Object> serviceConfig = new LinkedHashMap<>();
+        serviceConfig.put("loadBalancingConfig", List.of(Map.of(properties.getLoadBalancingPolicy(), Map.of())));
+        if (properties.getHealthCheck().isEnabled()) {
+            serviceConfig.put("healthCheckConfig", Map.of("serviceName", properties.getHealthCheck().getServiceName()));
+        }
+        return serviceConfig;
+    }
+
+    private static ManagedChannelBuilder<?> newChannelBuilder(AccountServiceClientProperties properties) {
+        if (!properties.getAddresses().isEmpty()) {
+            List<InetSocketAddress> addresses = properties.getAddresses().stream()
+                    .map(GrpcClientConfig::parseAddress)
+                    .toList();
+            return ManagedChannelBuilder.forTarget(StaticAddressNameResolverProvider.register("account-service", addresses));
+        }
+        if (Objects.nonNull(properties.getTarget()) && !properties.getTarget().isBlank()) {
+            return ManagedChannelBuilder.forTarget(properties.getTarget());
+        }
+        return ManagedChannelBuilder.forAddress(properties.getHost(), properties.getPort());
+    }
+
+    private static InetSocketAddress parseAddress(String address) {
+        int separator = address.lastIndexOf(':');
+        if (separator <= 0 || separator == address.length() - 1) {
+            throw new IllegalArgumentException("Expected host:port, got: " + address);
+        }
+        return new InetSocketAddress(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import io.grpc.ServerBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.grpc.server.ServerBuilderCustomizer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration for the gRPC server.
+ * Handlers run on virtual threads, so a call blocked on JPA parks cheaply instead of holding a platform thread,
+ * and ConcurrencyLimitInterceptor bounds how many run at once.
+ */
+@Configuration
+@EnableConfigurationProperties(ServerConcurrencyProperties.class)
+public class GrpcServerConfig {
+
+    // NOTE(aalhendi): not a bean; an Executor bean would replace Boot's applicationTaskExecutor
+    private final ExecutorService grpcServerExecutor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-vt-", 0).factory());
+
+    /**
+     * Runs every call on its own virtual thread.
+     */
+    @Bean
+    public <T extends ServerBuilder<T>> ServerBuilderCustomizer<T> grpcServerExecutorCustomizer() {
+        return serverBuilder -> serverBuilder.executor(grpcServerExecutor);
+    }
+
+    /**
+     * Outermost interceptor, so shed and cancelled calls are measured too.
+     */
+    @Bean
+    @GlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public GrpcServerMetricsInterceptor grpcServerMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new GrpcServerMetricsInterceptor(meterRegistry);
+    }
+
+    @Bean
+    @GlobalServerInterceptor
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor(ServerConcurrencyProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        return new ConcurrencyLimitInterceptor(properties, meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        grpcServerExecutor.shutdown();
+    }
+}
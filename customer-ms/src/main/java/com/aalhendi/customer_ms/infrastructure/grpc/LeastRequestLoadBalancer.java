@@ -0,0 +1,176 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import io.grpc.ClientStreamTracer;
+import io.grpc.ConnectivityState;
+import io.grpc.ConnectivityStateInfo;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+import java.net.SocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Least-request load balancer: one subchannel per resolved address, and each call goes to the
+ * less busy of two randomly chosen READY subchannels ("power of two choices").
+ * Busy means calls currently open on that subchannel, counted with a stream tracer.
+ * All methods run in the channel's synchronization context, as for any LoadBalancer.
+ */
+final class LeastRequestLoadBalancer extends LoadBalancer {
+
+    private static final int CHOICE_COUNT = 2;
+
+    private final Helper helper;
+    private final Map<List<SocketAddress>, Endpoint> endpoints = new HashMap<>();
+    private Status lastFailure = Status.UNAVAILABLE.withDescription("No addresses resolved yet");
+
+    /**
+     * A subchannel together with its latest state and open call count.
+     */
+    private static final class Endpoint {
+        private final Subchannel subchannel;
+        private final AtomicInteger openCalls = new AtomicInteger();
+        private final ClientStreamTracer.Factory tracerFactory;
+        private ConnectivityStateInfo stateInfo = ConnectivityStateInfo.forNonError(ConnectivityState.IDLE);
+
+        private Endpoint(Subchannel subchannel) {
+            this.subchannel = subchannel;
+            this.tracerFactory = new ClientStreamTracer.Factory() {
+                @Override
+                public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+                    openCalls.incrementAndGet();
+                    return new ClientStreamTracer() {
+                        @Override
+                        public void streamClosed(Status status) {
+                            openCalls.decrementAndGet();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    LeastRequestLoadBalancer(Helper helper) {
+        this.helper = helper;
+    }
+
+    @Override
+    public Status acceptResolvedAddresses(ResolvedAddresses resolvedAddresses) {
+        List<EquivalentAddressGroup> addressGroups = resolvedAddresses.getAddresses();
+        if (addressGroups.isEmpty()) {
+            Status status = Status.UNAVAILABLE.withDescription("Name resolver returned no addresses");
+            handleNameResolutionError(status);
+            return status;
+        }
+
+        Map<List<SocketAddress>, Endpoint> removed = new HashMap<>(endpoints);
+        for (EquivalentAddressGroup addressGroup : addressGroups) {
+            List<SocketAddress> key = addressGroup.getAddresses();
+            if (Objects.nonNull(removed.remove(key))) {
+                continue;
+            }
+            Subchannel subchannel = helper.createSubchannel(CreateSubchannelArgs.newBuilder()
+                .setAddresses(addressGroup)
+                .build());
+            Endpoint endpoint = new Endpoint(subchannel);
+            endpoints.put(key, endpoint);
+            subchannel.start(stateInfo -> onSubchannelState(endpoint, stateInfo));
+            subchannel.requestConnection();
+        }
+
+        removed.forEach((key, endpoint) -> {
+            endpoints.remove(key);
+            endpoint.subchannel.shutdown();
+        });
+
+        updateBalancingState();
+        return Status.OK;
+    }
+
+    @Override
+    public void handleNameResolutionError(Status error) {
+        lastFailure = error;
+        if (endpoints.values().stream().noneMatch(LeastRequestLoadBalancer::isReady)) {
+            helper.updateBalancingState(ConnectivityState.TRANSIENT_FAILURE,
+                new FixedResultPicker(PickResult.withError(error)));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        endpoints.values().forEach(endpoint -> endpoint.subchannel.shutdown());
+        endpoints.clear();
+    }
+
+    private void onSubchannelState(Endpoint endpoint, ConnectivityStateInfo stateInfo) {
+        if (!endpoints.containsValue(endpoint) || stateInfo.getState() == ConnectivityState.SHUTDOWN) {
+            return;
+        }
+        if (stateInfo.getState() == ConnectivityState.TRANSIENT_FAILURE) {
+            lastFailure = stateInfo.getStatus();
+        }
+        // Like round_robin, keep every subchannel connected rather than waiting for a pick
+        if (stateInfo.getState() == ConnectivityState.IDLE) {
+            endpoint.subchannel.requestConnection();
+        }
+        endpoint.stateInfo = stateInfo;
+        updateBalancingState();
+    }
+
+    private void updateBalancingState() {
+        List<Endpoint> ready = endpoints.values().stream()
+            .filter(LeastRequestLoadBalancer::isReady)
+            .toList();
+
+        if (!ready.isEmpty()) {
+            helper.updateBalancingState(ConnectivityState.READY, new LeastRequestPicker(ready));
+            return;
+        }
+
+        boolean connecting = endpoints.values().stream()
+            .map(endpoint -> endpoint.stateInfo.getState())
+            .anyMatch(state -> state == ConnectivityState.CONNECTING || state == ConnectivityState.IDLE);
+        if (connecting) {
+            helper.updateBalancingState(ConnectivityState.CONNECTING, new FixedResultPicker(PickResult.withNoResult()));
+        } else {
+            helper.updateBalancingState(ConnectivityState.TRANSIENT_FAILURE,
+                new FixedResultPicker(PickResult.withError(lastFailure)));
+        }
+    }
+
+    private static boolean isReady(Endpoint endpoint) {
+        return endpoint.stateInfo.getState() == ConnectivityState.READY;
+    }
+
+    /**
+     * Picks the endpoint with fewer open calls out of CHOICE_COUNT random samples.
+     * Called concurrently by application threads, so it only reads the immutable list and atomic counters.
+     */
+    private static final class LeastRequestPicker extends SubchannelPicker {
+
+        private final List<Endpoint> ready;
+
+        private LeastRequestPicker(List<Endpoint> ready) {
+            this.ready = ready;
+        }
+
+        @Override
+        public PickResult pickSubchannel(PickSubchannelArgs args) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Endpoint best = ready.get(random.nextInt(ready.size()));
+            for (int i = 1; i < CHOICE_COUNT; i++) {
+                Endpoint candidate = ready.get(random.nextInt(ready.size()));
+                if (candidate.openCalls.get() < best.openCalls.get()) {
+                    best = candidate;
+                }
+            }
+            return PickResult.withSubchannel(best.subchannel, best.tracerFactory);
+        }
+    }
+}
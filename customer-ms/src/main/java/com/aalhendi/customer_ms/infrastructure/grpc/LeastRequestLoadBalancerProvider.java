@@ -0,0 +1,50 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.NameResolver;
+import io.grpc.protobuf.services.HealthCheckingLoadBalancerUtil;
+
+import java.util.Map;
+
+/**
+ * Registers the "least_request" load balancing policy (see META-INF/services/io.grpc.LoadBalancerProvider).
+ * Subchannels are health checked when the service config has a healthCheckConfig, same as round_robin.
+ */
+public final class LeastRequestLoadBalancerProvider extends LoadBalancerProvider {
+
+    public static final String POLICY_NAME = "least_request";
+
+    private static final LoadBalancer.Factory UNCHECKED_FACTORY = new LoadBalancer.Factory() {
+        @Override
+        public LoadBalancer newLoadBalancer(LoadBalancer.Helper helper) {
+            return new LeastRequestLoadBalancer(helper);
+        }
+    };
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public int getPriority() {
+        return 5;
+    }
+
+    @Override
+    public String getPolicyName() {
+        return POLICY_NAME;
+    }
+
+    @Override
+    public LoadBalancer newLoadBalancer(LoadBalancer.Helper helper) {
+        return HealthCheckingLoadBalancerUtil.newHealthCheckingLoadBalancer(UNCHECKED_FACTORY, helper);
+    }
+
+    @Override
+    public NameResolver.ConfigOrError parseLoadBalancingPolicyConfig(Map<String, ?> rawConfig) {
+        // The policy has no settings
+        return NameResolver.ConfigOrError.fromConfig(Map.of());
+    }
+}
@@ -0,0 +1,100 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed set of identically configured channels used as one, spreading calls round robin.
+ * Each channel keeps its own connection per backend, so a pool of N gives N HTTP/2 connections
+ * per replica; for callers that outgrow one connection's stream limit and event loop.
+ */
+public class ManagedChannelPool extends ManagedChannel {
+
+    private static final List<ConnectivityState> STATE_RANKING = List.of(
+        ConnectivityState.READY,
+        ConnectivityState.CONNECTING,
+        ConnectivityState.IDLE,
+        ConnectivityState.TRANSIENT_FAILURE,
+        ConnectivityState.SHUTDOWN
+    );
+
+    private final List<ManagedChannel> channels;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ManagedChannelPool(List<ManagedChannel> channels) {
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("A channel pool needs at least one channel");
+        }
+        this.channels = List.copyOf(channels);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> methodDescriptor,
+                                                         CallOptions callOptions) {
+        return pick().newCall(methodDescriptor, callOptions);
+    }
+
+    @Override
+    public String authority() {
+        return channels.get(0).authority();
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+        channels.forEach(ManagedChannel::shutdown);
+        return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return channels.stream().allMatch(ManagedChannel::isShutdown);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return channels.stream().allMatch(ManagedChannel::isTerminated);
+    }
+
+    @Override
+    public ManagedChannel shutdownNow() {
+        channels.forEach(ManagedChannel::shutdownNow);
+        return this;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ManagedChannel channel : channels) {
+            if (!channel.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reports the best state across the pool, e.g. READY if any channel is.
+     */
+    @Override
+    public ConnectivityState getState(boolean requestConnection) {
+        ConnectivityState best = ConnectivityState.SHUTDOWN;
+        for (ManagedChannel channel : channels) {
+            ConnectivityState state = channel.getState(requestConnection);
+            if (STATE_RANKING.indexOf(state) < STATE_RANKING.indexOf(best)) {
+                best = state;
+            }
+        }
+        return best;
+    }
+
+    private ManagedChannel pick() {
+        return channels.get(Math.floorMod(next.getAndIncrement(), channels.size()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import io.grpc.Context;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical lookups: while a call for (rpc, key) is in flight, further
+ * callers wait for its result instead of running the same query again.
+ * Nothing is cached; the entry is dropped as soon as the first call finishes, successfully or not.
+ */
+@Component
+public class SingleFlight {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+    private static final String COALESCED_METRIC = "grpc.server.coalesced.calls";
+
+    private record FlightKey(String rpc, String key) {}
+
+    private final ConcurrentHashMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("grpc.server.coalesced.in-flight", inFlight, ConcurrentHashMap::size)
+            .description("Distinct lookups currently in flight that later callers can join")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs the lookup, or joins an identical one already in flight.
+     * The first caller runs it on its own thread and shares the outcome, including exceptions.
+     * A joining caller whose gRPC call is cancelled, or runs past its deadline, stops waiting
+     * without affecting the shared lookup.
+     *
+     * @param rpc the RPC name, e.g. "ValidateCustomer"
+     * @param key the request key within that RPC
+     * @param lookup the lookup to run; its result must be safe to share across calls
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String rpc, String key, Supplier<T> lookup) {
+        FlightKey flightKey = new FlightKey(rpc, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+
+        if (Objects.nonNull(existing)) {
+            coalescedCounter(rpc).increment();
+            logger.debug("Joined in-flight {} for key {}", rpc, key);
+            return (T) await(existing);
+        }
+
+        try {
+            T result = lookup.get();
+            // Remove before completing, so a caller arriving from here on starts a fresh lookup
+            inFlight.remove(flightKey, flight);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flightKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(CompletableFuture<Object> flight) {
+        // Wait on a copy, so cancelling this caller's wait leaves the shared flight alone
+        CompletableFuture<Object> wait = flight.copy();
+        Context context = Context.current();
+        Context.CancellationListener onCancel = cancelledContext -> wait.cancel(false);
+        context.addListener(onCancel, Runnable::run);
+
+        try {
+            return wait.join();
+        } catch (CancellationException e) {
+            throw Status.CANCELLED
+                .withDescription("Call cancelled while waiting for a coalesced lookup")
+                .withCause(context.cancellationCause())
+                .asRuntimeException();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        } finally {
+            context.removeListener(onCancel);
+        }
+    }
+
+    private Counter coalescedCounter(String rpc) {
+        return coalescedCounters.computeIfAbsent(rpc, method -> Counter.builder(COALESCED_METRIC)
+            .description("Calls answered by joining an identical in-flight lookup")
+            .tag("method", method)
+            .register(meterRegistry));
+    }
+}
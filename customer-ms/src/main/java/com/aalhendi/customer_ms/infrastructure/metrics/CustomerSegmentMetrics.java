@@ -0,0 +1,37 @@
+package com.aalhendi.customer_ms.infrastructure.metrics;
+
+import com.aalhendi.customer_ms.domain.services.CustomerStatsService;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerSegment;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers a gauge per customer segment, backed by the in-memory counters.
+ */
+@Component
+public class CustomerSegmentMetrics implements MeterBinder {
+
+    private final CustomerStatsService statsService;
+
+    public CustomerSegmentMetrics(CustomerStatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (CustomerType type : CustomerType.values()) {
+            for (CustomerStatus status : CustomerStatus.values()) {
+                CustomerSegment segment = new CustomerSegment(type, status);
+                Gauge.builder("customers.segment.count", statsService, s -> s.getSegmentCount(segment))
+                        .description("Number of customers in a type/status segment")
+                        .tag("customer_type", type.name())
+                        .tag("status", status.name())
+                        .register(registry);
+            }
+        }
+    }
+}
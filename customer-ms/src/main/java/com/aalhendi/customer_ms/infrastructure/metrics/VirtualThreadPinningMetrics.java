@@ -0,0 +1,139 @@
+package com.aalhendi.customer_ms.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times virtual threads pinned to their carrier, from the JDK's {@code jdk.VirtualThreadPinned} JFR event.
+ * A virtual thread that blocks inside a synchronized block or under a native frame can't unmount, so it holds one
+ * of the few carrier threads (one per core) for as long as it blocks; a handful of pinned JDBC calls stall every request.
+ * Each pin is tagged with the library it happened in, so pins on the Hikari and JDBC paths show apart from the rest,
+ * and the first pin at each call site is logged with its stack.
+ * Only active when {@code spring.threads.virtual.enabled} is on.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMetrics implements MeterBinder, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMetrics.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    static final String OTHER = "other";
+
+    /**
+     * Source tags by package prefix. The topmost frame with a known prefix names the source.
+     */
+    private static final Map<String, String> SOURCES = new LinkedHashMap<>();
+
+    static {
+        SOURCES.put("com.zaxxer.hikari.", "hikari");
+        SOURCES.put("org.postgresql.", "jdbc");
+        SOURCES.put("org.hibernate.", "hibernate");
+        SOURCES.put("io.grpc.", "grpc");
+        SOURCES.put("org.apache.kafka.", "kafka");
+        SOURCES.put("com.aalhendi.", "application");
+    }
+
+    private final Duration threshold;
+    private final Map<String, Timer> timers = new HashMap<>();
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMetrics(@Value("${threads.virtual.pinning.threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        if (Objects.nonNull(stream)) {
+            return;
+        }
+        for (String source : SOURCES.values()) {
+            timers.put(source, pinnedTimer(source, registry));
+        }
+        timers.put(OTHER, pinnedTimer(OTHER, registry));
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    private static Timer pinnedTimer(String source, MeterRegistry registry) {
+        return Timer.builder("jvm.threads.virtual.pinned")
+            .description("Time virtual threads stayed pinned to their carrier while blocked")
+            .tag("source", source)
+            .register(registry);
+    }
+
+    private void record(RecordedEvent event) {
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String source = source(frames.stream().map(frame -> frame.getMethod().getType().getName()).toList());
+        timers.get(source).record(event.getDuration());
+
+        RecordedFrame site = frames.stream()
+            .filter(frame -> !frame.getMethod().getType().getName().startsWith("java."))
+            .findFirst()
+            .orElse(null);
+        String siteName = Objects.isNull(site) ? OTHER
+            : site.getMethod().getType().getName() + "." + site.getMethod().getName();
+        if (loggedSites.add(siteName)) {
+            logger.warn("Virtual thread pinned for {} in {} ({}):{}", event.getDuration(), siteName, source,
+                describe(frames));
+        }
+    }
+
+    /**
+     * The source tag for a pinned stack, given the class of each frame from the top.
+     */
+    static String source(List<String> frameClassNames) {
+        for (String className : frameClassNames) {
+            for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+                if (className.startsWith(source.getKey())) {
+                    return source.getValue();
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return Objects.isNull(stackTrace) ? List.of() : stackTrace.getFrames();
+    }
+
+    private static String describe(List<RecordedFrame> frames) {
+        StringBuilder description = new StringBuilder();
+        frames.stream().limit(LOGGED_FRAMES).forEach(frame -> description.append(System.lineSeparator())
+            .append("\tat ").append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName())
+            .append(':').append(frame.getLineNumber()));
+        return description.toString();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (Objects.nonNull(stream)) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.aalhendi.customer_ms.infrastructure.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Writes the account_projection read model with batched upserts.
+ * A rebuild fills a shadow table, account_projection_rebuild, and then swaps it in with two renames in one transaction.
+ * While the shadow exists, live writes go to both tables, so events consumed during a rebuild aren't lost by the swap.
+ * Plain JDBC rather than JPA: the table is only ever upserted in bulk and its name changes under a rebuild.
+ */
+@Repository
+public class AccountProjectionRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountProjectionRepository.class);
+
+    static final String TABLE = "account_projection";
+    static final String SHADOW_TABLE = "account_projection_rebuild";
+    private static final String RETIRED_TABLE = "account_projection_retired";
+    // Liquibase's names for the live table's indexes. Index names are schema-wide, so the shadow's use its own until the swap
+    static final String PRIMARY_KEY = "account_projection_pkey";
+    static final String CUSTOMER_NUMBER_INDEX = "idx_account_projection_customer_number";
+    private static final String SHADOW_PRIMARY_KEY = "account_projection_rebuild_pkey";
+    private static final String SHADOW_CUSTOMER_NUMBER_INDEX = "idx_account_projection_rebuild_customer_number";
+
+    // NOTE(aalhendi): GREATEST ignores NULLs in postgres, so an event that doesn't carry a field keeps the current one
+    private static final String UPSERT = """
+            INSERT INTO %s AS p (account_number, customer_number, account_type, status, status_at, balance, balance_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (account_number) DO UPDATE SET
+                account_type = COALESCE(EXCLUDED.account_type, p.account_type),
+                status = CASE WHEN p.status_at IS NULL OR EXCLUDED.status_at > p.status_at THEN EXCLUDED.status ELSE p.status END,
+                status_at = GREATEST(p.status_at, EXCLUDED.status_at),
+                balance = CASE WHEN p.balance_at IS NULL OR EXCLUDED.balance_at > p.balance_at THEN EXCLUDED.balance ELSE p.balance END,
+                balance_at = GREATEST(p.balance_at, EXCLUDED.balance_at),
+                updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public AccountProjectionRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Applies live changes, and to the shadow table as well while a rebuild is running.
+     * The live upsert locks account_projection first, which holds off a swap until this transaction commits.
+     */
+    public void upsert(Collection<AccountProjectionRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            write(TABLE, rows);
+            if (shadowExists()) {
+                write(SHADOW_TABLE, rows);
+            }
+        });
+    }
+
+    /**
+     * Applies replayed changes to the shadow table only.
+     */
+    public void upsertShadow(Collection<AccountProjectionRow> rows) {
+        if (!rows.isEmpty()) {
+            write(SHADOW_TABLE, rows);
+        }
+    }
+
+    /**
+     * Creates an empty shadow table shaped like the live one, dropping any left behind by a failed rebuild.
+     * Its indexes are created under names of our own, which {@link #swapShadow()} can rename to the live ones.
+     */
+    public void createShadow() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + SHADOW_TABLE);
+            jdbcTemplate.execute("CREATE TABLE " + SHADOW_TABLE + " (LIKE " + TABLE + " INCLUDING ALL EXCLUDING INDEXES)");
+            jdbcTemplate.execute("ALTER TABLE " + SHADOW_TABLE + " ADD CONSTRAINT " + SHADOW_PRIMARY_KEY
+                + " PRIMARY KEY (account_number)");
+            jdbcTemplate.execute("CREATE INDEX " + SHADOW_CUSTOMER_NUMBER_INDEX + " ON " + SHADOW_TABLE + " (customer_number)");
+        });
+        logger.info("Created projection shadow table {}", SHADOW_TABLE);
+    }
+
+    /**
+     * Makes the shadow table the live one, under the live table's index and constraint names.
+     * Readers see either the old or the new table, never a partial one.
+     */
+    public void swapShadow() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Same lock order as upsert, live table first, so the two can't deadlock
+            jdbcTemplate.execute("LOCK TABLE " + TABLE + ", " + SHADOW_TABLE + " IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + RETIRED_TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + SHADOW_TABLE + " RENAME TO " + TABLE);
+            jdbcTemplate.execute("DROP TABLE " + RETIRED_TABLE);
+            // The retired table held the live names until it was dropped
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME CONSTRAINT " + SHADOW_PRIMARY_KEY + " TO " + PRIMARY_KEY);
+            jdbcTemplate.execute("ALTER INDEX " + SHADOW_CUSTOMER_NUMBER_INDEX + " RENAME TO " + CUSTOMER_NUMBER_INDEX);
+        });
+        logger.info("Swapped projection shadow table {} in as {}", SHADOW_TABLE, TABLE);
+    }
+
+    /**
+     * Drops the shadow table, leaving the live one untouched.
+     */
+    public void dropShadow() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + SHADOW_TABLE);
+    }
+
+    private boolean shadowExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT to_regclass(?) IS NOT NULL", Boolean.class, SHADOW_TABLE));
+    }
+
+    private void write(String table, Collection<AccountProjectionRow> rows) {
+        jdbcTemplate.batchUpdate(UPSERT.formatted(table), rows, rows.size(), AccountProjectionRepository::bind);
+    }
+
+    private static void bind(PreparedStatement statement, AccountProjectionRow row) throws SQLException {
+        statement.setString(1, row.accountNumber());
+        statement.setString(2, row.customerNumber());
+        statement.setString(3, row.accountType());
+        statement.setString(4, row.status());
+        statement.setTimestamp(5, toTimestamp(row.statusAt()));
+        statement.setObject(6, row.balance(), Types.NUMERIC);
+        statement.setTimestamp(7, toTimestamp(row.balanceAt()));
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Objects.isNull(instant) ? null : Timestamp.from(instant);
+    }
+}
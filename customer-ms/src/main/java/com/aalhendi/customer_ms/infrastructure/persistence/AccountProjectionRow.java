@@ -0,0 +1,46 @@
+package com.aalhendi.customer_ms.infrastructure.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A change to one account_projection row, as carried by one or more account events.
+ * Fields an event doesn't carry are null. Status and balance each come with the occurred_at of the event
+ * that set them, and the later one wins, so rows can be merged in any order.
+ *
+ * @param accountNumber the account, the row's key
+ * @param customerNumber the account's customer, which never changes
+ * @param accountType the account type, or null if not carried
+ * @param status the account status, or null if not carried
+ * @param statusAt when {@code status} was set
+ * @param balance the account balance, or null if not carried
+ * @param balanceAt when {@code balance} was set
+ */
+public record AccountProjectionRow(
+    String accountNumber,
+    String customerNumber,
+    String accountType,
+    String status,
+    Instant statusAt,
+    BigDecimal balance,
+    Instant balanceAt
+) {
+
+    /**
+     * Folds a later change for the same account into this one, the same way the upsert does in the database.
+     */
+    public AccountProjectionRow merge(AccountProjectionRow other) {
+        boolean otherStatus = Objects.isNull(statusAt) || (Objects.nonNull(other.statusAt) && other.statusAt.isAfter(statusAt));
+        boolean otherBalance = Objects.isNull(balanceAt) || (Objects.nonNull(other.balanceAt) && other.balanceAt.isAfter(balanceAt));
+        return new AccountProjectionRow(
+            accountNumber,
+            customerNumber,
+            Objects.nonNull(other.accountType) ? other.accountType : accountType,
+            otherStatus ? other.status : status,
+            otherStatus ? other.statusAt : statusAt,
+            otherBalance ? other.balance : balance,
+            otherBalance ? other.balanceAt : balanceAt
+        );
+    }
+}
@@ -3,10 +3,16 @@ package com.aalhendi.customer_ms.infrastructure.persistence;
 import com.aalhendi.customer_ms.domain.entities.Customer;
 import com.aalhendi.customer_ms.domain.entities.NewCustomer;
 import com.aalhendi.customer_ms.domain.repositories.CustomerRepository;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerCursor;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerFilter;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * JPA implementation of the CustomerRepository domain interface.
@@ -16,9 +22,11 @@ import java.util.Optional;
 public class CustomerRepositoryImpl implements CustomerRepository {
 
     private final JpaCustomerRepository jpaRepository;
+    private final EntityManager entityManager;
 
-    public CustomerRepositoryImpl(JpaCustomerRepository jpaRepository) {
+    public CustomerRepositoryImpl(JpaCustomerRepository jpaRepository, EntityManager entityManager) {
         this.jpaRepository = jpaRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -41,6 +49,19 @@ public class CustomerRepositoryImpl implements CustomerRepository {
                 .map(CustomerEntity::toDomain);
     }
 
+    @Override
+    public Optional<LocalDateTime> findUpdatedAtByCustomerNumber(String customerNumber) {
+        return jpaRepository.findUpdatedAtByCustomerNumber(customerNumber);
+    }
+
+    @Override
+    public List<Customer> findByCustomerNumbers(Collection<String> customerNumbers) {
+        return jpaRepository.findByCustomerNumberIn(customerNumbers)
+                .stream()
+                .map(CustomerEntity::toDomain)
+                .toList();
+    }
+
     @Override
     public Optional<Customer> findByNationalId(String nationalId) {
         return jpaRepository.findByNationalId(nationalId)
@@ -63,6 +84,39 @@ public class CustomerRepositoryImpl implements CustomerRepository {
                 .toList();
     }
 
+    @Override
+    public Stream<Customer> streamByNameContainingIgnoreCase(String name) {
+        return jpaRepository.streamByNameContainingIgnoreCase(name)
+            .map(entity -> {
+                entityManager.detach(entity);
+                return entity.toDomain();
+            });
+    }
+
+    @Override
+    public List<Customer> findByFilter(CustomerFilter filter, CustomerCursor after, int limit) {
+        return jpaRepository.findBy(
+                CustomerSpecifications.matching(filter, after),
+                query -> query.sortBy(CustomerSpecifications.KEYSET_ORDER).limit(limit).all()
+            )
+            .stream()
+            .map(CustomerEntity::toDomain)
+            .toList();
+    }
+
+    @Override
+    public Stream<Customer> streamByFilter(CustomerFilter filter) {
+        return jpaRepository.findBy(
+                CustomerSpecifications.matching(filter, null),
+                query -> query.sortBy(CustomerSpecifications.KEYSET_ORDER).stream()
+            )
+            .map(entity -> {
+                // Detach as we go so the persistence context doesn't grow with the export
+                entityManager.detach(entity);
+                return entity.toDomain();
+            });
+    }
+
     @Override
     public boolean existsByCustomerNumber(String customerNumber) {
         return jpaRepository.existsByCustomerNumber(customerNumber);
@@ -0,0 +1,84 @@
+package com.aalhendi.customer_ms.infrastructure.persistence;
+
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerSegment;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * JPA entity for a customer segment counter row.
+ */
+@Entity
+@Table(name = "customer_segment_count")
+@IdClass(CustomerSegmentCountEntity.Key.class)
+public class CustomerSegmentCountEntity {
+
+    @Id
+    @Column(name = "customer_type", nullable = false, length = 20)
+    private String customerType;
+
+    @Id
+    @Column(name = "status", nullable = false)
+    private Integer status;
+
+    @Column(name = "customer_count", nullable = false)
+    private Long customerCount;
+
+    /**
+     * Default constructor for JPA.
+     */
+    public CustomerSegmentCountEntity() {
+    }
+
+    public String getCustomerType() {
+        return customerType;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public Long getCustomerCount() {
+        return customerCount;
+    }
+
+    /**
+     * Converts this row's key to a domain CustomerSegment.
+     */
+    public CustomerSegment toSegment() {
+        return new CustomerSegment(CustomerType.valueOf(customerType), CustomerStatus.fromCode(status));
+    }
+
+    /**
+     * Composite primary key.
+     */
+    public static class Key implements Serializable {
+
+        private String customerType;
+        private Integer status;
+
+        public Key() {
+        }
+
+        public Key(String customerType, Integer status) {
+            this.customerType = customerType;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (Objects.isNull(o) || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(customerType, key.customerType) && Objects.equals(status, key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customerType, status);
+        }
+    }
+}
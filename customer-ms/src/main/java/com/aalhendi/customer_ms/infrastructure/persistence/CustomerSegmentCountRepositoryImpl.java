@@ -0,0 +1,36 @@
+package com.aalhendi.customer_ms.infrastructure.persistence;
+
+import com.aalhendi.customer_ms.domain.repositories.CustomerSegmentCountRepository;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerSegment;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * JPA implementation of the CustomerSegmentCountRepository domain interface.
+ */
+@Repository
+public class CustomerSegmentCountRepositoryImpl implements CustomerSegmentCountRepository {
+
+    private final JpaCustomerSegmentCountRepository jpaRepository;
+
+    public CustomerSegmentCountRepositoryImpl(JpaCustomerSegmentCountRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public void adjust(CustomerSegment segment, long delta) {
+        jpaRepository.upsertDelta(segment.customerType().name(), segment.status().getCode(), delta);
+    }
+
+    @Override
+    public Map<CustomerSegment, Long> findAll() {
+        return jpaRepository.findAll()
+                .stream()
+                .collect(Collectors.toMap(
+                    CustomerSegmentCountEntity::toSegment,
+                    CustomerSegmentCountEntity::getCustomerCount
+                ));
+    }
+}
@@ -0,0 +1,62 @@
+package com.aalhendi.customer_ms.infrastructure.persistence;
+
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerCursor;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerFilter;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * JPA specifications for filtering customers.
+ * Only the criteria that are actually set end up in the WHERE clause, so each query shape
+ * lines up with one of the (filter column, created_at, customer_id) indexes.
+ */
+public final class CustomerSpecifications {
+
+    /**
+     * Keyset sort order. Must match the column order of the filter indexes and the cursor.
+     */
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id"));
+
+    private CustomerSpecifications() {
+    }
+
+    /**
+     * Matches customers satisfying the filter, positioned strictly after the cursor (if any).
+     */
+    public static Specification<CustomerEntity> matching(CustomerFilter filter, CustomerCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (Objects.nonNull(filter.status())) {
+                predicates.add(cb.equal(root.get("status"), filter.status().getCode()));
+            }
+            if (Objects.nonNull(filter.customerType())) {
+                predicates.add(cb.equal(root.get("customerType"), filter.customerType().name()));
+            }
+            if (Objects.nonNull(filter.createdFrom())) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.createdFrom()));
+            }
+            if (Objects.nonNull(filter.createdTo())) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.createdTo()));
+            }
+
+            // (created_at, customer_id) > (:createdAt, :id)
+            if (Objects.nonNull(after)) {
+                predicates.add(cb.or(
+                    cb.greaterThan(root.get("createdAt"), after.createdAt()),
+                    cb.and(
+                        cb.equal(root.get("createdAt"), after.createdAt()),
+                        cb.greaterThan(root.get("id"), after.id())
+                    )
+                ));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -1,41 +1,51 @@
 package com.aalhendi.customer_ms.infrastructure.persistence;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * JPA repository interface for CustomerEntity.
  * Provides standard CRUD operations plus custom query methods
  * for customer-specific business operations.
+ * Filtering by status, type and created-at goes through {@link CustomerSpecifications},
+ * which is keyset-paginated and never returns an unbounded list.
  */
 @Repository
-public interface JpaCustomerRepository extends JpaRepository<CustomerEntity, Long> {
+public interface JpaCustomerRepository extends JpaRepository<CustomerEntity, Long>,
+        JpaSpecificationExecutor<CustomerEntity> {
     
     /**
      * Find a customer by customer number.
      */
     Optional<CustomerEntity> findByCustomerNumber(String customerNumber);
-    
+
     /**
-     * Find a customer by national ID.
+     * Find when a customer was last updated, without loading it.
      */
-    Optional<CustomerEntity> findByNationalId(String nationalId);
-    
+    @Query("SELECT c.updatedAt FROM CustomerEntity c WHERE c.customerNumber = :customerNumber")
+    Optional<LocalDateTime> findUpdatedAtByCustomerNumber(@Param("customerNumber") String customerNumber);
+
     /**
-     * Find customers by status.
+     * Find all customers whose customer number is in the given collection.
      */
-    List<CustomerEntity> findByStatus(Integer status);
+    List<CustomerEntity> findByCustomerNumberIn(Collection<String> customerNumbers);
     
     /**
-     * Find customers by customer type.
+     * Find a customer by national ID.
      */
-    List<CustomerEntity> findByCustomerType(String customerType);
+    Optional<CustomerEntity> findByNationalId(String nationalId);
     
     /**
      * Check if the customer number already exists.
@@ -52,27 +62,19 @@ public interface JpaCustomerRepository extends JpaRepository<CustomerEntity, Lon
      */
     long countByCustomerType(String customerType);
     
-    /**
-     * Find customers created after a specific date.
-     */
-    List<CustomerEntity> findByCreatedAtAfter(LocalDateTime date);
-    
-    /**
-     * Find customers created between dates.
-     */
-    List<CustomerEntity> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
-    
-    /**
-     * Find active customers (status = 1).
-     */
-    @Query("SELECT c FROM CustomerEntity c WHERE c.status = 1")
-    List<CustomerEntity> findActiveCustomers();
-    
     /**
      * Find customers by partial name (case-insensitive).
      */
     @Query("SELECT c FROM CustomerEntity c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<CustomerEntity> findByNameContainingIgnoreCase(@Param("name") String name);
+
+    /**
+     * Streams customers by partial name (case-insensitive), ordered by id.
+     * PostgreSQL only honours the fetch size inside a transaction, so call this from one.
+     */
+    @Query("SELECT c FROM CustomerEntity c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<CustomerEntity> streamByNameContainingIgnoreCase(@Param("name") String name);
     
     /**
      * Find customers by address containing specific text.
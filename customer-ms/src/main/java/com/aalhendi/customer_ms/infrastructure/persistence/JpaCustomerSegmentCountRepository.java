@@ -0,0 +1,29 @@
+package com.aalhendi.customer_ms.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JPA repository for CustomerSegmentCountEntity.
+ */
+@Repository
+public interface JpaCustomerSegmentCountRepository
+        extends JpaRepository<CustomerSegmentCountEntity, CustomerSegmentCountEntity.Key> {
+
+    /**
+     * Adds a delta to a segment counter in a single statement, inserting the row on first use.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO customer_segment_count (customer_type, status, customer_count)
+            VALUES (:customerType, :status, :delta)
+            ON CONFLICT (customer_type, status)
+            DO UPDATE SET customer_count = customer_segment_count.customer_count + EXCLUDED.customer_count
+            """, nativeQuery = true)
+    void upsertDelta(@Param("customerType") String customerType,
+                     @Param("status") Integer status,
+                     @Param("delta") long delta);
+}
@@ -2,19 +2,32 @@ package com.aalhendi.customer_ms.web.controllers;
 
 import com.aalhendi.customer_ms.domain.entities.Customer;
 import com.aalhendi.customer_ms.domain.services.CustomerService;
+import com.aalhendi.customer_ms.domain.services.CustomerStatsService;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerCursor;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerFilter;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerPage;
 import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
 import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
 import com.aalhendi.customer_ms.domain.exceptions.BusinessException;
 import com.aalhendi.customer_ms.domain.exceptions.CustomerError;
 import com.aalhendi.customer_ms.web.dtos.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * REST controller for customer operations.
@@ -24,10 +37,18 @@ import java.util.Optional;
 @RequestMapping("/api/customers")
 public class CustomerController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final CustomerService customerService;
+    private final CustomerStatsService statsService;
+    private final ObjectMapper objectMapper;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, CustomerStatsService statsService,
+                              ObjectMapper objectMapper) {
         this.customerService = customerService;
+        this.statsService = statsService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -55,14 +76,31 @@ public class CustomerController {
         }
     }
 
+    /**
+     * Retrieves a customer by customer number.
+     * Responses carry an ETag; a request whose If-None-Match still matches is answered 304 from the customer's
+     * update time alone, without loading it.
+     */
     @GetMapping("/{customerNumber}")
-    public ResponseEntity<CustomerResponse> getCustomer(@PathVariable String customerNumber) {
+    public ResponseEntity<CustomerResponse> getCustomer(
+            @PathVariable String customerNumber,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (Objects.isNull(customerNumber) || !customerNumber.matches("\\d{7}")) {
             throw new BusinessException(
                 CustomerError.INVALID_CUSTOMER_NUMBER_FORMAT, customerNumber
             );
         }
-        
+
+        if (Objects.nonNull(ifNoneMatch)) {
+            Optional<String> etag = customerService.findUpdatedAtByCustomerNumber(customerNumber).map(EntityTags::of);
+            if (etag.isPresent() && EntityTags.matches(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.get())
+                    .cacheControl(EntityTags.CACHE_CONTROL)
+                    .build();
+            }
+        }
+
         Optional<Customer> customerOpt = customerService.findByCustomerNumber(customerNumber);
         if (customerOpt.isEmpty()) {
             throw new BusinessException(
@@ -71,7 +109,10 @@ public class CustomerController {
         }
         
         CustomerResponse response = CustomerResponse.from(customerOpt.get());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+            .eTag(EntityTags.of(customerOpt.get().getUpdatedAt()))
+            .cacheControl(EntityTags.CACHE_CONTROL)
+            .body(response);
     }
 
     @PutMapping("/{customerNumber}")
@@ -129,4 +170,133 @@ public class CustomerController {
             .toList();
         return ResponseEntity.ok(responses);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Searches customers by name as NDJSON, one customer per line, for clients that send
+     * {@code Accept: application/x-ndjson}. Matches are written as they are fetched instead of
+     * being collected first, so a broad search doesn't spike the heap.
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomers(@RequestParam String name) {
+        // Validate before streaming starts; once the body is being written the status can't change
+        if (name.isBlank()) {
+            throw new BusinessException(CustomerError.MISSING_REQUIRED_FIELD, "name");
+        }
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(ndjson(sink -> customerService.searchCustomersByName(name, sink)));
+    }
+
+    /**
+     * Returns customer counts by type and status.
+     * Served from incrementally maintained counters, so it never scans the customer table.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<CustomerStatsResponse> getCustomerStats() {
+        return ResponseEntity.ok(CustomerStatsResponse.from(statsService));
+    }
+
+    /**
+     * Filters customers by status, type and created-at range.
+     * Results are keyset-paginated: pass the returned next_cursor to fetch the following page.
+     */
+    @GetMapping
+    public ResponseEntity<CustomerPageResponse> filterCustomers(
+            @RequestParam(required = false) String status,
+            @RequestParam(name = "customer_type", required = false) String customerType,
+            @RequestParam(name = "created_from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(name = "created_to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BusinessException(CustomerError.VALIDATION_ERROR, limit, "limit");
+        }
+
+        CustomerFilter filter = toFilter(status, customerType, createdFrom, createdTo);
+
+        CustomerCursor after = null;
+        if (Objects.nonNull(cursor)) {
+            try {
+                after = CustomerCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException(CustomerError.VALIDATION_ERROR, cursor, "cursor");
+            }
+        }
+
+        CustomerPage page = customerService.filterCustomers(filter, after, limit);
+        return ResponseEntity.ok(CustomerPageResponse.from(page));
+    }
+
+    /**
+     * Exports all customers matching the filter as newline-delimited JSON.
+     * Rows are streamed from a database cursor straight to the response, so memory stays flat
+     * regardless of how many customers match.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(required = false) String status,
+            @RequestParam(name = "customer_type", required = false) String customerType,
+            @RequestParam(name = "created_from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(name = "created_to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+
+        CustomerFilter filter = toFilter(status, customerType, createdFrom, createdTo);
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(ndjson(sink -> customerService.exportCustomers(filter, sink)));
+    }
+
+    /**
+     * A response body that writes each customer the source produces as one line of JSON.
+     */
+    private StreamingResponseBody ndjson(Consumer<Consumer<Customer>> source) {
+        return outputStream -> {
+            source.accept(customer -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(CustomerResponse.from(customer)));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+    }
+
+    /**
+     * Builds a domain filter from raw request parameters.
+     */
+    private CustomerFilter toFilter(String status, String customerType,
+                                    LocalDateTime createdFrom, LocalDateTime createdTo) {
+        CustomerStatus statusFilter = null;
+        if (Objects.nonNull(status)) {
+            try {
+                statusFilter = CustomerStatus.fromValue(status);
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException(CustomerError.VALIDATION_ERROR, status, "status");
+            }
+        }
+
+        CustomerType typeFilter = null;
+        if (Objects.nonNull(customerType)) {
+            try {
+                typeFilter = CustomerType.fromValue(customerType);
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException(CustomerError.VALIDATION_ERROR, customerType, "customer_type");
+            }
+        }
+
+        try {
+            return new CustomerFilter(statusFilter, typeFilter, createdFrom, createdTo);
+        } catch (IllegalArgumentException e) {
+            // The only invariant CustomerFilter checks is the range, so neither bound alone is to blame
+            throw new BusinessException(CustomerError.INVALID_CREATED_RANGE, createdFrom, createdTo);
+        }
+    }
+}
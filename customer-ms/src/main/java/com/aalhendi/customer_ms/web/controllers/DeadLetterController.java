@@ -0,0 +1,55 @@
+package com.aalhendi.customer_ms.web.controllers;
+
+import com.aalhendi.customer_ms.domain.exceptions.CustomerError;
+import com.aalhendi.customer_ms.domain.exceptions.BusinessException;
+import com.aalhendi.customer_ms.infrastructure.events.DeadLetterReplayer;
+import com.aalhendi.customer_ms.infrastructure.events.EventBatchProcessor;
+import com.aalhendi.customer_ms.web.dtos.DeadLetterReplayResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * REST controller for operating on dead-lettered events.
+ */
+@RestController
+@RequestMapping("/api/admin/dead-letters")
+public class DeadLetterController {
+
+    private static final int MAX_REPLAY_RECORDS = 10_000;
+
+    private final DeadLetterReplayer replayer;
+    private final Set<String> consumedTopics;
+
+    public DeadLetterController(DeadLetterReplayer replayer, List<EventBatchProcessor> processors) {
+        this.replayer = replayer;
+        this.consumedTopics = processors.stream()
+            .flatMap(processor -> processor.topics().stream())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Sends dead-lettered records of a consumed topic back through the retry tiers, in batches.
+     *
+     * @param topic the original topic, e.g. account.events.status-changed
+     * @param maxRecords the most records to replay in this call
+     * @return how many records were replayed
+     */
+    @PostMapping("/{topic}/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replay(
+            @PathVariable String topic,
+            @RequestParam(name = "max_records", defaultValue = "1000") int maxRecords) {
+        if (!consumedTopics.contains(topic)) {
+            throw new BusinessException(CustomerError.VALIDATION_ERROR, topic, "topic");
+        }
+        if (maxRecords < 1 || maxRecords > MAX_REPLAY_RECORDS) {
+            throw new BusinessException(CustomerError.VALIDATION_ERROR, String.valueOf(maxRecords), "max_records");
+        }
+
+        int replayed = replayer.replay(topic, maxRecords);
+        return ResponseEntity.ok(new DeadLetterReplayResponse(topic, replayed));
+    }
+}
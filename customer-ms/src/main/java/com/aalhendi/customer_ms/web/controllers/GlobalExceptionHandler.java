@@ -6,11 +6,13 @@ import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,6 +20,7 @@ import java.util.List;
 /**
  * Global exception handler for the customer microservice.
  * Handles all business exceptions and converts them to proper HTTP responses.
+ * Errors are always JSON, even for requests that only accept NDJSON from a streaming endpoint.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -58,7 +61,7 @@ public class GlobalExceptionHandler {
             details
         );
         
-        return ResponseEntity.status(ex.getHttpStatus()).body(errorResponse);
+        return ResponseEntity.status(ex.getHttpStatus()).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     /**
@@ -82,7 +85,7 @@ public class GlobalExceptionHandler {
             details
         );
         
-        return ResponseEntity.badRequest().body(errorResponse);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     /**
@@ -106,7 +109,26 @@ public class GlobalExceptionHandler {
             details
         );
         
-        return ResponseEntity.badRequest().body(errorResponse);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errorResponse);
+    }
+
+    /**
+     * Handles request parameters that cannot be converted to their target type (e.g. a malformed date).
+     *
+     * @param ex the type mismatch exception
+     * @return HTTP 400 with the offending parameter
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        logger.warn("Request parameter type mismatch: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            "VALIDATION_ERROR",
+            "Invalid value '%s' for field '%s'".formatted(ex.getValue(), ex.getName()),
+            List.of()
+        );
+
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     /**
@@ -125,7 +147,7 @@ public class GlobalExceptionHandler {
             List.of(ex.getMostSpecificCause().getMessage())
         );
         
-        return ResponseEntity.badRequest().body(errorResponse);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     /**
@@ -144,6 +166,6 @@ public class GlobalExceptionHandler {
             List.of()
         );
         
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 } 
\ No newline at end of file
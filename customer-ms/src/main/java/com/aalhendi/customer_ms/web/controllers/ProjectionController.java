@@ -0,0 +1,48 @@
+package com.aalhendi.customer_ms.web.controllers;
+
+import com.aalhendi.customer_ms.domain.exceptions.BusinessException;
+import com.aalhendi.customer_ms.domain.exceptions.CustomerError;
+import com.aalhendi.customer_ms.infrastructure.events.AccountProjectionRebuilder;
+import com.aalhendi.customer_ms.web.dtos.ProjectionRebuildResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Objects;
+
+/**
+ * REST controller for rebuilding read models from the event topics.
+ */
+@RestController
+@RequestMapping("/api/admin/projections")
+public class ProjectionController {
+
+    private static final String ACCOUNTS = "accounts";
+
+    private final AccountProjectionRebuilder accountProjectionRebuilder;
+
+    public ProjectionController(AccountProjectionRebuilder accountProjectionRebuilder) {
+        this.accountProjectionRebuilder = accountProjectionRebuilder;
+    }
+
+    /**
+     * Starts rebuilding the account projection in the background.
+     *
+     * @return 202 Accepted with the rebuild's progress, to be followed with GET
+     */
+    @PostMapping("/accounts/rebuild")
+    public ResponseEntity<ProjectionRebuildResponse> rebuildAccounts() {
+        AccountProjectionRebuilder.Progress progress = accountProjectionRebuilder.start();
+        if (Objects.isNull(progress)) {
+            throw new BusinessException(CustomerError.PROJECTION_REBUILD_IN_PROGRESS, ACCOUNTS);
+        }
+        return ResponseEntity.accepted().body(ProjectionRebuildResponse.from(ACCOUNTS, progress));
+    }
+
+    /**
+     * Returns the progress of the running or last account projection rebuild.
+     */
+    @GetMapping("/accounts/rebuild")
+    public ResponseEntity<ProjectionRebuildResponse> getAccountsRebuild() {
+        return ResponseEntity.ok(ProjectionRebuildResponse.from(ACCOUNTS, accountProjectionRebuilder.progress()));
+    }
+}
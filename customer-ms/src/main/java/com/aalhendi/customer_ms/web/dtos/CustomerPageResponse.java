@@ -0,0 +1,32 @@
+package com.aalhendi.customer_ms.web.dtos;
+
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerCursor;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerPage;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Response DTO for a keyset page of customers.
+ *
+ * @param customers the customers on this page
+ * @param nextCursor opaque cursor for the next page, null on the last page
+ */
+public record CustomerPageResponse(
+    @JsonProperty("customers")
+    List<CustomerResponse> customers,
+
+    @JsonProperty("next_cursor")
+    String nextCursor
+) {
+
+    /**
+     * Creates a CustomerPageResponse from a domain CustomerPage.
+     */
+    public static CustomerPageResponse from(CustomerPage page) {
+        return new CustomerPageResponse(
+            page.customers().stream().map(CustomerResponse::from).toList(),
+            page.next().map(CustomerCursor::encode).orElse(null)
+        );
+    }
+}
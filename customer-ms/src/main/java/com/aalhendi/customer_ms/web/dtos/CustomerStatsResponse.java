@@ -0,0 +1,63 @@
+package com.aalhendi.customer_ms.web.dtos;
+
+import com.aalhendi.customer_ms.domain.services.CustomerStatsService;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO for customer segment statistics.
+ *
+ * @param total total number of customers
+ * @param byType counts keyed by customer type
+ * @param byStatus counts keyed by customer status
+ * @param segments counts for every type/status segment
+ */
+public record CustomerStatsResponse(
+    @JsonProperty("total")
+    long total,
+
+    @JsonProperty("by_type")
+    Map<String, Long> byType,
+
+    @JsonProperty("by_status")
+    Map<String, Long> byStatus,
+
+    @JsonProperty("segments")
+    List<SegmentCount> segments
+) {
+
+    /**
+     * Count for a single type/status segment.
+     */
+    public record SegmentCount(
+        @JsonProperty("customer_type")
+        String customerType,
+
+        @JsonProperty("status")
+        String status,
+
+        @JsonProperty("count")
+        long count
+    ) {
+    }
+
+    /**
+     * Creates a CustomerStatsResponse from the current counters.
+     */
+    public static CustomerStatsResponse from(CustomerStatsService statsService) {
+        Map<String, Long> byType = new LinkedHashMap<>();
+        statsService.getCountsByType().forEach((type, count) -> byType.put(type.name(), count));
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        statsService.getCountsByStatus().forEach((status, count) -> byStatus.put(status.name(), count));
+
+        List<SegmentCount> segments = statsService.getSegmentCounts().entrySet().stream()
+                .map(e -> new SegmentCount(e.getKey().customerType().name(), e.getKey().status().name(), e.getValue()))
+                .toList();
+
+        return new CustomerStatsResponse(statsService.getTotalCount(), byType, byStatus, segments);
+    }
+}
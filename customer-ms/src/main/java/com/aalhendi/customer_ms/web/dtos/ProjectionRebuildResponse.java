@@ -0,0 +1,58 @@
+package com.aalhendi.customer_ms.web.dtos;
+
+import com.aalhendi.customer_ms.infrastructure.events.AccountProjectionRebuilder;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * Progress of a projection rebuild.
+ *
+ * @param projection the projection being rebuilt
+ * @param state IDLE, RUNNING, COMPLETED or FAILED
+ * @param workers how many partition workers replay the topics
+ * @param recordsTotal records to replay
+ * @param recordsApplied records replayed so far
+ * @param recordsPerSecond average replay throughput
+ * @param startedAt when the rebuild started
+ * @param finishedAt when the rebuild finished
+ * @param failure why the rebuild failed
+ */
+public record ProjectionRebuildResponse(
+    @JsonProperty("projection")
+    String projection,
+
+    @JsonProperty("state")
+    String state,
+
+    @JsonProperty("workers")
+    int workers,
+
+    @JsonProperty("records_total")
+    long recordsTotal,
+
+    @JsonProperty("records_applied")
+    long recordsApplied,
+
+    @JsonProperty("records_per_second")
+    double recordsPerSecond,
+
+    @JsonProperty("started_at")
+    Instant startedAt,
+
+    @JsonProperty("finished_at")
+    Instant finishedAt,
+
+    @JsonProperty("failure")
+    String failure
+) {
+
+    /**
+     * Creates a ProjectionRebuildResponse from a rebuild's progress.
+     */
+    public static ProjectionRebuildResponse from(String projection, AccountProjectionRebuilder.Progress progress) {
+        return new ProjectionRebuildResponse(projection, progress.state().name(), progress.workers(),
+            progress.recordsTotal(), progress.recordsApplied(), progress.recordsPerSecond(),
+            progress.startedAt(), progress.finishedAt(), progress.failure());
+    }
+}
@@ -0,0 +1,96 @@
+package com.aalhendi.customer_ms.domain.services;
+
+import com.aalhendi.customer_ms.domain.repositories.CustomerSegmentCountRepository;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerSegment;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CustomerStatsServiceImpl.
+ *
+ * Without an active transaction, deltas are applied to the in-memory mirror immediately.
+ */
+@DisplayName("CustomerStatsServiceImpl")
+class CustomerStatsServiceImplTest {
+
+    private static final CustomerSegment PENDING_RETAIL = new CustomerSegment(CustomerType.RETAIL, CustomerStatus.PENDING);
+    private static final CustomerSegment ACTIVE_RETAIL = new CustomerSegment(CustomerType.RETAIL, CustomerStatus.ACTIVE);
+    private static final CustomerSegment ACTIVE_CORPORATE = new CustomerSegment(CustomerType.CORPORATE, CustomerStatus.ACTIVE);
+
+    private CustomerSegmentCountRepository repository;
+    private CustomerStatsServiceImpl statsService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CustomerSegmentCountRepository.class);
+        statsService = new CustomerStatsServiceImpl(repository);
+    }
+
+    @Test
+    @DisplayName("should count a newly created customer")
+    void shouldCountNewlyCreatedCustomer() {
+        // When
+        statsService.recordSegmentChange(null, PENDING_RETAIL);
+
+        // Then
+        verify(repository).adjust(PENDING_RETAIL, 1L);
+        assertThat(statsService.getSegmentCount(PENDING_RETAIL)).isEqualTo(1L);
+        assertThat(statsService.getTotalCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("should move a customer between segments in key order")
+    void shouldMoveCustomerBetweenSegments() {
+        // Given
+        statsService.recordSegmentChange(null, ACTIVE_CORPORATE);
+
+        // When
+        statsService.recordSegmentChange(ACTIVE_CORPORATE, ACTIVE_RETAIL);
+
+        // Then
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).adjust(ACTIVE_CORPORATE, 1L);
+        inOrder.verify(repository).adjust(ACTIVE_RETAIL, 1L);
+        inOrder.verify(repository).adjust(ACTIVE_CORPORATE, -1L);
+        assertThat(statsService.getCountsByType())
+                .containsEntry(CustomerType.RETAIL, 1L)
+                .containsEntry(CustomerType.CORPORATE, 0L);
+        assertThat(statsService.getCountsByStatus()).containsEntry(CustomerStatus.ACTIVE, 1L);
+    }
+
+    @Test
+    @DisplayName("should ignore changes that stay in the same segment")
+    void shouldIgnoreUnchangedSegment() {
+        // When
+        statsService.recordSegmentChange(ACTIVE_RETAIL, ACTIVE_RETAIL);
+
+        // Then
+        verifyNoInteractions(repository);
+        assertThat(statsService.getTotalCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should reload the mirror from persisted counters")
+    void shouldReloadMirrorFromPersistedCounters() {
+        // Given
+        statsService.recordSegmentChange(null, PENDING_RETAIL);
+        when(repository.findAll()).thenReturn(Map.of(ACTIVE_RETAIL, 7L));
+
+        // When
+        statsService.refresh();
+
+        // Then
+        assertThat(statsService.getSegmentCount(ACTIVE_RETAIL)).isEqualTo(7L);
+        assertThat(statsService.getSegmentCount(PENDING_RETAIL)).isZero();
+        assertThat(statsService.getTotalCount()).isEqualTo(7L);
+    }
+}
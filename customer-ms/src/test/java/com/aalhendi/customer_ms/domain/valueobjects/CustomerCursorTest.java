@@ -0,0 +1,75 @@
+package com.aalhendi.customer_ms.domain.valueobjects;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for CustomerCursor value object.
+ *
+ * Tests encoding round trips and rejection of tampered cursors.
+ */
+@DisplayName("CustomerCursor")
+class CustomerCursorTest {
+
+    @Test
+    @DisplayName("should round trip through encode and decode")
+    void shouldRoundTripThroughEncodeAndDecode() {
+        // Given
+        CustomerCursor cursor = new CustomerCursor(LocalDateTime.of(2025, 6, 1, 12, 30, 15, 123_000_000), 42L);
+
+        // When
+        CustomerCursor decoded = CustomerCursor.decode(cursor.encode());
+
+        // Then
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("should produce URL-safe tokens")
+    void shouldProduceUrlSafeTokens() {
+        // Given
+        CustomerCursor cursor = new CustomerCursor(LocalDateTime.of(2025, 6, 1, 12, 30), Long.MAX_VALUE);
+
+        // When & Then
+        assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    @DisplayName("should reject null sort key")
+    void shouldRejectNullSortKey() {
+        assertThatThrownBy(() -> new CustomerCursor(null, 1L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CustomerCursor(LocalDateTime.now(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y"})
+    @DisplayName("should reject malformed tokens")
+    void shouldRejectMalformedTokens(String token) {
+        assertThatThrownBy(() -> CustomerCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should reject token with non-numeric id")
+    void shouldRejectTokenWithNonNumericId() {
+        // Given
+        String token = Base64.getUrlEncoder().encodeToString("2025-06-01T12:30|abc".getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        assertThatThrownBy(() -> CustomerCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
+    }
+}
@@ -0,0 +1,231 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.aalhendi.account.events.AccountStatusChanged;
+import com.aalhendi.account.events.AccountTransaction;
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRepository;
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRow;
+import com.aalhendi.customer_ms.infrastructure.persistence.JpaProcessedEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AccountEventConsumer's batch listeners.
+ */
+class AccountEventConsumerTest {
+
+    private AccountProjectionRepository projectionRepository;
+    private JpaProcessedEventRepository processedEventRepository;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    private Acknowledgment acknowledgment;
+    private AccountEventConsumer consumer;
+    private long offset;
+
+    @SuppressWarnings("unchecked")
+    private static <T> T mockGeneric(Class<?> type) {
+        return (T) mock(type);
+    }
+
+    private static ProducerRecord<String, byte[]> anyRecord() {
+        return any();
+    }
+
+    private static Collection<AccountProjectionRow> anyRows() {
+        return anyCollection();
+    }
+
+    private static CompletableFuture<SendResult<String, byte[]>> acked() {
+        return CompletableFuture.completedFuture(mockGeneric(SendResult.class));
+    }
+
+    @BeforeEach
+    void setUp() {
+        projectionRepository = mock(AccountProjectionRepository.class);
+        acknowledgment = mock(Acknowledgment.class);
+        processedEventRepository = mock(JpaProcessedEventRepository.class);
+        ProcessedEventStore processedEvents = new ProcessedEventStore(processedEventRepository,
+                mock(PlatformTransactionManager.class), new DedupeProperties(), new SimpleMeterRegistry());
+        kafkaTemplate = mockGeneric(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyRecord())).thenReturn(acked());
+        EventProducers producers = new EventProducers(
+                Map.of(ProducerProfile.CRITICAL, kafkaTemplate, ProducerProfile.BULK, kafkaTemplate),
+                new EventRoutingRegistry(), new EventRoutingProperties(), new SimpleMeterRegistry());
+        FailedEventForwarder failedEventForwarder =
+                new FailedEventForwarder(producers, new RetryProperties(), new SimpleMeterRegistry());
+        consumer = new AccountEventConsumer(new DomainEventCodec(new ObjectMapper(), EventEncoding.PROTOBUF),
+                processedEvents, failedEventForwarder, projectionRepository);
+    }
+
+    private ConsumerRecord<String, byte[]> record(String topic, String key, byte[] payload, String contentType) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(topic, 0, offset++, key, payload);
+        record.headers().add(EventEncoding.CONTENT_TYPE_HEADER, contentType.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private ConsumerRecord<String, byte[]> record(String topic, String key, Message event) {
+        return record(topic, key, event.toByteArray(), EventEncoding.PROTOBUF.contentType());
+    }
+
+    private ConsumerRecord<String, byte[]> statusRecord(AccountStatusChanged event) {
+        return record(AccountEventConsumer.ACCOUNT_STATUS_CHANGED_TOPIC, event.getCustomerNumber(), event);
+    }
+
+    private static String header(ProducerRecord<String, byte[]> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+
+    private static AccountStatusChanged statusChanged(String accountNumber, String newStatus, long seconds) {
+        return AccountStatusChanged.newBuilder()
+                .setAccountNumber(accountNumber)
+                .setCustomerNumber("1234567")
+                .setNewStatus(newStatus)
+                .setOccurredAt(Timestamp.newBuilder().setSeconds(seconds))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should upsert one folded change per account, then acknowledge the batch")
+    void shouldProjectThenAcknowledge() {
+        // Given
+        List<ConsumerRecord<String, byte[]>> batch = List.of(
+                statusRecord(statusChanged("1234567001", "FROZEN", 1)),
+                statusRecord(statusChanged("1234567002", "ACTIVE", 2)),
+                statusRecord(statusChanged("1234567001", "ACTIVE", 3)));
+
+        // When
+        consumer.handleAccountStatusChanged(batch, acknowledgment);
+
+        // Then
+        InOrder inOrder = inOrder(projectionRepository, acknowledgment);
+        inOrder.verify(projectionRepository).upsert(argThat((Collection<AccountProjectionRow> rows) ->
+                rows.size() == 2 && rows.stream().allMatch(row -> row.status().equals("ACTIVE"))));
+        inOrder.verify(acknowledgment).acknowledge();
+        verifyNoMoreInteractions(projectionRepository);
+        verify(kafkaTemplate, never()).send(anyRecord());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter an undecodable record and still project the rest of the batch")
+    void shouldSkipUndecodableRecord() {
+        // Given
+        AccountTransaction transaction = AccountTransaction.newBuilder()
+                .setAccountNumber("1234567001")
+                .setCustomerNumber("1234567")
+                .setNewBalance("10.500")
+                .build();
+        List<ConsumerRecord<String, byte[]>> batch = List.of(
+                record(AccountEventConsumer.ACCOUNT_TRANSACTION_TOPIC, "7654321",
+                        "not json".getBytes(StandardCharsets.UTF_8), EventEncoding.JSON.contentType()),
+                record(AccountEventConsumer.ACCOUNT_TRANSACTION_TOPIC, "1234567", transaction));
+
+        // When
+        consumer.handleAccountTransaction(batch, acknowledgment);
+
+        // Then
+        verify(projectionRepository).upsert(argThat((Collection<AccountProjectionRow> rows) ->
+                rows.size() == 1 && rows.iterator().next().balance().toPlainString().equals("10.500")));
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, byte[]> record) ->
+                record.topic().equals("account.events.transaction.dlt") && record.key().equals("7654321")));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should send every record of a batch whose projection fails to the first retry tier and acknowledge it")
+    void shouldRetryAllWhenProjectionFails() {
+        // Given
+        doThrow(new IllegalStateException("connection lost")).when(projectionRepository).upsert(anyRows());
+        List<ConsumerRecord<String, byte[]>> batch = List.of(
+                statusRecord(statusChanged("1234567001", "FROZEN", 1).toBuilder().setEventId(UUID.randomUUID().toString()).build()),
+                statusRecord(statusChanged("1234567002", "ACTIVE", 2).toBuilder().setEventId(UUID.randomUUID().toString()).build()));
+
+        // When
+        consumer.handleAccountStatusChanged(batch, acknowledgment);
+
+        // Then
+        verify(kafkaTemplate, times(2)).send(argThat((ProducerRecord<String, byte[]> record) ->
+                record.topic().equals("account.events.status-changed.retry.0")
+                        && header(record, FailedEventForwarder.ATTEMPT_HEADER).equals("1")
+                        && header(record, KafkaHeaders.DLT_EXCEPTION_FQCN).equals(IllegalStateException.class.getName())));
+        verify(processedEventRepository, never()).saveAll(any());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should not acknowledge a batch whose failed records could not be forwarded, so it is redelivered")
+    void shouldNotAcknowledgeWhenForwardingFails() {
+        // Given
+        doThrow(new IllegalStateException("connection lost")).when(projectionRepository).upsert(anyRows());
+        when(kafkaTemplate.send(anyRecord()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        List<ConsumerRecord<String, byte[]>> batch = List.of(statusRecord(statusChanged("1234567001", "FROZEN", 1)));
+
+        // When & Then - the container's error handler takes it from here
+        assertThatThrownBy(() -> consumer.handleAccountStatusChanged(batch, acknowledgment))
+                .isInstanceOf(EventPublishingException.class);
+        verifyNoInteractions(acknowledgment);
+        verify(processedEventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should skip a redelivered event from memory without asking the database again")
+    void shouldSkipRedeliveredEventFromMemory() {
+        // Given
+        AccountStatusChanged event = statusChanged("1234567001", "FROZEN", 1).toBuilder()
+                .setEventId(UUID.randomUUID().toString())
+                .build();
+        consumer.handleAccountStatusChanged(List.of(statusRecord(event)), acknowledgment);
+
+        // When
+        consumer.handleAccountStatusChanged(List.of(statusRecord(event)), acknowledgment);
+
+        // Then - the second batch is empty once deduplicated
+        verify(projectionRepository).upsert(argThat((Collection<AccountProjectionRow> rows) -> rows.size() == 1));
+        verify(projectionRepository).upsert(argThat((Collection<AccountProjectionRow> rows) -> rows.isEmpty()));
+        verify(processedEventRepository, times(1)).findProcessedIds(any());
+        verify(processedEventRepository, times(1)).saveAll(any());
+        verify(acknowledgment, times(2)).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should skip an event the database already records as processed")
+    void shouldSkipEventRecordedAsProcessed() {
+        // Given
+        UUID processedId = UUID.randomUUID();
+        when(processedEventRepository.findProcessedIds(any())).thenReturn(Set.of(processedId));
+        List<ConsumerRecord<String, byte[]>> batch = List.of(
+                statusRecord(statusChanged("1234567001", "FROZEN", 1).toBuilder().setEventId(processedId.toString()).build()),
+                statusRecord(statusChanged("1234567002", "ACTIVE", 2).toBuilder().setEventId(UUID.randomUUID().toString()).build()));
+
+        // When
+        consumer.handleAccountStatusChanged(batch, acknowledgment);
+
+        // Then
+        verify(projectionRepository).upsert(argThat((Collection<AccountProjectionRow> rows) ->
+                rows.size() == 1 && rows.iterator().next().accountNumber().equals("1234567002")));
+        verify(acknowledgment).acknowledge();
+    }
+}
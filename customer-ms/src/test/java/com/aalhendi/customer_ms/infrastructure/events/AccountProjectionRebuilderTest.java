@@ -0,0 +1,135 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRepository;
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AccountProjectionRebuilder replaying the account topics into the shadow table and swapping it in.
+ */
+class AccountProjectionRebuilderTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition(AccountEventConsumer.ACCOUNT_STATUS_CHANGED_TOPIC, 0);
+
+    private ConsumerFactory<String, byte[]> consumerFactory;
+    private AccountProjector projector;
+    private AccountProjectionRepository repository;
+    private AccountProjectionRebuilder rebuilder;
+
+    @BeforeEach
+    void setUp() {
+        consumerFactory = mockGeneric(ConsumerFactory.class);
+        projector = mock(AccountProjector.class);
+        repository = mock(AccountProjectionRepository.class);
+        rebuilder = new AccountProjectionRebuilder(consumerFactory, projector, repository, new ProjectionProperties(),
+                "customer-service", new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        rebuilder.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T mockGeneric(Class<?> type) {
+        return (T) mock(type);
+    }
+
+    private static AccountProjectionRow statusChanged(String status, long seconds) {
+        return new AccountProjectionRow("1234567001", "1234567", null, status, Instant.ofEpochSecond(seconds), null, null);
+    }
+
+    /**
+     * One partition of the status topic holding the given records, read through a metadata consumer and a worker.
+     */
+    private void givenTopicWith(List<ConsumerRecord<String, byte[]>> records) {
+        MockConsumer<String, byte[]> metadata = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        MockConsumer<String, byte[]> worker = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        for (MockConsumer<String, byte[]> consumer : List.of(metadata, worker)) {
+            consumer.updatePartitions(PARTITION.topic(), List.of(new PartitionInfo(PARTITION.topic(), 0, null, null, null)));
+            consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+            consumer.updateEndOffsets(Map.of(PARTITION, (long) records.size()));
+        }
+        // Records can only be added once the worker has assigned itself the partition
+        worker.schedulePollTask(() -> records.forEach(worker::addRecord));
+        when(consumerFactory.createConsumer(anyString(), anyString(), isNull(), any()))
+                .thenReturn(metadata)
+                .thenReturn(worker);
+    }
+
+    private AccountProjectionRebuilder.Progress awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (rebuilder.progress().state() == AccountProjectionRebuilder.State.RUNNING) {
+            assertThat(System.currentTimeMillis()).as("rebuild finished").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        return rebuilder.progress();
+    }
+
+    @Test
+    @DisplayName("Should replay every record into the shadow table, folded per account, then swap it in")
+    void shouldReplayAndSwap() throws Exception {
+        // Given
+        ConsumerRecord<String, byte[]> frozen = new ConsumerRecord<>(PARTITION.topic(), 0, 0, "1234567", new byte[0]);
+        ConsumerRecord<String, byte[]> reactivated = new ConsumerRecord<>(PARTITION.topic(), 0, 1, "1234567", new byte[0]);
+        givenTopicWith(List.of(frozen, reactivated));
+        when(projector.project(frozen)).thenReturn(statusChanged("FROZEN", 1));
+        when(projector.project(reactivated)).thenReturn(statusChanged("ACTIVE", 2));
+
+        // When
+        assertThat(rebuilder.start()).isNotNull();
+        AccountProjectionRebuilder.Progress progress = awaitFinished();
+
+        // Then
+        assertThat(progress.state()).isEqualTo(AccountProjectionRebuilder.State.COMPLETED);
+        assertThat(progress.recordsTotal()).isEqualTo(2);
+        assertThat(progress.recordsApplied()).isEqualTo(2);
+        InOrder order = inOrder(repository);
+        order.verify(repository).createShadow();
+        order.verify(repository).upsertShadow(argThat((Collection<AccountProjectionRow> rows) ->
+                rows.size() == 1 && rows.iterator().next().status().equals("ACTIVE")));
+        order.verify(repository).swapShadow();
+        verify(repository, never()).dropShadow();
+    }
+
+    @Test
+    @DisplayName("Should drop the shadow table and keep the live one when the replay fails")
+    void shouldDropShadowOnFailure() throws Exception {
+        // Given
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(PARTITION.topic(), 0, 0, "1234567", new byte[0]);
+        givenTopicWith(List.of(record));
+        when(projector.project(record)).thenReturn(statusChanged("FROZEN", 1));
+        doThrow(new IllegalStateException("connection lost")).when(repository).upsertShadow(anyCollection());
+
+        // When
+        rebuilder.start();
+        AccountProjectionRebuilder.Progress progress = awaitFinished();
+
+        // Then
+        assertThat(progress.state()).isEqualTo(AccountProjectionRebuilder.State.FAILED);
+        assertThat(progress.failure()).isEqualTo("connection lost");
+        verify(repository).dropShadow();
+        verify(repository, never()).swapShadow();
+    }
+}
@@ -0,0 +1,109 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.aalhendi.account.events.AccountClosed;
+import com.aalhendi.account.events.AccountCreated;
+import com.aalhendi.account.events.AccountStatusChanged;
+import com.aalhendi.account.events.AccountTransaction;
+import com.aalhendi.customer_ms.infrastructure.persistence.AccountProjectionRow;
+import com.google.protobuf.Timestamp;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for mapping and folding account events into account_projection changes.
+ */
+class AccountProjectorTest {
+
+    private static Timestamp at(long seconds) {
+        return Timestamp.newBuilder().setSeconds(seconds).build();
+    }
+
+    private static AccountProjectionRow created(String accountNumber, long seconds) {
+        return AccountProjector.toRow(AccountCreated.newBuilder()
+                .setAccountNumber(accountNumber)
+                .setCustomerNumber("1234567")
+                .setAccountType("SAVING")
+                .setStatus("ACTIVE")
+                .setInitialBalance("0.000")
+                .setOccurredAt(at(seconds))
+                .build());
+    }
+
+    private static AccountProjectionRow statusChanged(String accountNumber, String status, long seconds) {
+        return AccountProjector.toRow(AccountStatusChanged.newBuilder()
+                .setAccountNumber(accountNumber)
+                .setCustomerNumber("1234567")
+                .setNewStatus(status)
+                .setOccurredAt(at(seconds))
+                .build());
+    }
+
+    private static AccountProjectionRow transaction(String accountNumber, String newBalance, long seconds) {
+        return AccountProjector.toRow(AccountTransaction.newBuilder()
+                .setAccountNumber(accountNumber)
+                .setCustomerNumber("1234567")
+                .setNewBalance(newBalance)
+                .setOccurredAt(at(seconds))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should fold an account's events into one change holding the latest status and balance")
+    void shouldFoldEventsPerAccount() {
+        // Given
+        List<AccountProjectionRow> rows = List.of(
+                created("1234567001", 1),
+                transaction("1234567001", "100.000", 2),
+                statusChanged("1234567001", "FROZEN", 3),
+                transaction("1234567001", "250.500", 4));
+
+        // When
+        List<AccountProjectionRow> folded = List.copyOf(AccountProjector.fold(rows));
+
+        // Then
+        assertThat(folded).hasSize(1);
+        AccountProjectionRow row = folded.getFirst();
+        assertThat(row.accountType()).isEqualTo("SAVING");
+        assertThat(row.status()).isEqualTo("FROZEN");
+        assertThat(row.balance()).isEqualByComparingTo(new BigDecimal("250.5"));
+    }
+
+    @Test
+    @DisplayName("Should give the same result whatever order events arrive in")
+    void shouldNotDependOnArrivalOrder() {
+        // Given - the topics are read in parallel, so a status change can land before the account's creation
+        List<AccountProjectionRow> inOrder = List.of(
+                created("1234567001", 1), statusChanged("1234567001", "SUSPENDED", 2), transaction("1234567001", "5.000", 3));
+        List<AccountProjectionRow> reversed = inOrder.reversed();
+
+        // When & Then
+        assertThat(AccountProjector.fold(reversed)).containsExactlyElementsOf(AccountProjector.fold(inOrder));
+        assertThat(AccountProjector.fold(reversed).iterator().next().status()).isEqualTo("SUSPENDED");
+    }
+
+    @Test
+    @DisplayName("Should mark a closed account CLOSED and keep accounts apart, in account number order")
+    void shouldCloseAccountAndKeepAccountsApart() {
+        // Given
+        AccountProjectionRow closed = AccountProjector.toRow(AccountClosed.newBuilder()
+                .setAccountNumber("1234567002")
+                .setCustomerNumber("1234567")
+                .setAccountType("SALARY")
+                .setOccurredAt(at(5))
+                .build());
+        List<AccountProjectionRow> rows = List.of(created("1234567002", 1), closed, created("1234567001", 2));
+
+        // When
+        List<AccountProjectionRow> folded = List.copyOf(AccountProjector.fold(rows));
+
+        // Then
+        assertThat(folded).extracting(AccountProjectionRow::accountNumber).containsExactly("1234567001", "1234567002");
+        assertThat(folded.get(1).status()).isEqualTo("CLOSED");
+        assertThat(folded.get(1).accountType()).isEqualTo("SALARY");
+    }
+}
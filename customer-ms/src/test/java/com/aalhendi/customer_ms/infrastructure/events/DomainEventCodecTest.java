@@ -0,0 +1,226 @@
+package com.aalhendi.customer_ms.infrastructure.events;
+
+import com.aalhendi.account.events.AccountTransaction;
+import com.aalhendi.customer.events.CustomerCreated;
+import com.aalhendi.customer.events.CustomerStatusChanged;
+import com.aalhendi.customer.events.CustomerUpdated;
+import com.aalhendi.customer_ms.domain.events.CustomerCreatedEvent;
+import com.aalhendi.customer_ms.domain.events.CustomerStatusChangedEvent;
+import com.aalhendi.customer_ms.domain.events.CustomerUpdatedEvent;
+import com.aalhendi.customer_ms.domain.events.DomainEvent;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for DomainEventCodec in both encodings.
+ */
+class DomainEventCodecTest {
+
+    // Same settings as Boot's auto-configured mapper: ISO-8601 dates, not epoch numbers
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static final CustomerUpdatedEvent UPDATED = new CustomerUpdatedEvent("1234567", "Jane Doe", "123456789012",
+            CustomerType.CORPORATE, "Kuwait City", "ACTIVE", "customerType: RETAIL -> CORPORATE", 3L);
+
+    private static DomainEventCodec codec(EventEncoding encoding) {
+        return new DomainEventCodec(OBJECT_MAPPER, encoding);
+    }
+
+    private static void assertUpdatedMatches(CustomerUpdated decoded) {
+        assertThat(decoded.getAggregateId()).isEqualTo("1234567");
+        assertThat(decoded.getEventId()).isEqualTo(UPDATED.getEventId().toString());
+        assertThat(decoded.getEventType()).isEqualTo(UPDATED.getEventType());
+        assertThat(decoded.getOccurredAt().getSeconds()).isEqualTo(UPDATED.getOccurredAt().getEpochSecond());
+        assertThat(decoded.getOccurredAt().getNanos()).isEqualTo(UPDATED.getOccurredAt().getNano());
+        assertThat(decoded.getAggregateVersion()).isEqualTo(3L);
+        assertThat(decoded.getCustomerNumber()).isEqualTo("1234567");
+        assertThat(decoded.getName()).isEqualTo("Jane Doe");
+        assertThat(decoded.getCustomerType()).isEqualTo("CORPORATE");
+        assertThat(decoded.getStatus()).isEqualTo("ACTIVE");
+        assertThat(decoded.getVersion()).isEqualTo(3L);
+        assertThat(decoded.getChanges()).isEqualTo("customerType: RETAIL -> CORPORATE");
+    }
+
+    @Nested
+    @DisplayName("Protobuf")
+    class Protobuf {
+
+        @Test
+        @DisplayName("Should map an update's customer type, changes and version onto its schema")
+        void shouldMapUpdated() throws Exception {
+            // When
+            DomainEventCodec.EncodedEvent encoded = codec(EventEncoding.PROTOBUF).encode(UPDATED);
+            CustomerUpdated decoded = codec(EventEncoding.JSON)
+                    .decode(encoded.payload(), encoded.contentType(), CustomerUpdated.getDefaultInstance());
+
+            // Then
+            assertThat(encoded.contentType()).isEqualTo("application/x-protobuf");
+            assertUpdatedMatches(decoded);
+        }
+
+        @Test
+        @DisplayName("Should round-trip a created event through protobuf")
+        void shouldRoundTripCreated() throws Exception {
+            // Given
+            CustomerCreatedEvent event = new CustomerCreatedEvent("1234567", "Jane Doe", "123456789012",
+                    CustomerType.RETAIL, "Kuwait City", "ACTIVE", 1L);
+
+            // When
+            DomainEventCodec.EncodedEvent encoded = codec(EventEncoding.PROTOBUF).encode(event);
+            CustomerCreated decoded = codec(EventEncoding.PROTOBUF)
+                    .decode(encoded.payload(), encoded.contentType(), CustomerCreated.getDefaultInstance());
+
+            // Then
+            assertThat(decoded.getEventType()).isEqualTo(CustomerCreatedEvent.EVENT_TYPE);
+            assertThat(decoded.getCustomerType()).isEqualTo("RETAIL");
+            assertThat(decoded.getNationalId()).isEqualTo("123456789012");
+            assertThat(decoded.getAggregateVersion()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("Should encode null optional fields as the empty string")
+        void shouldEncodeNullAsEmpty() throws Exception {
+            // Given
+            CustomerUpdatedEvent withoutAddress = new CustomerUpdatedEvent("1234567", "Jane Doe", "123456789012",
+                    CustomerType.RETAIL, null, "ACTIVE", null, 2L);
+            CustomerStatusChangedEvent withoutReason = new CustomerStatusChangedEvent("1234567", null, "SUSPENDED", null, 4L);
+
+            // When
+            CustomerUpdated updated = (CustomerUpdated) DomainEventCodec.toProto(withoutAddress);
+            CustomerStatusChanged statusChanged = (CustomerStatusChanged) DomainEventCodec.toProto(withoutReason);
+
+            // Then
+            assertThat(updated.getAddress()).isEmpty();
+            assertThat(updated.getChanges()).isEmpty();
+            assertThat(updated.getVersion()).isEqualTo(2L);
+            assertThat(statusChanged.getPreviousStatus()).isEmpty();
+            assertThat(statusChanged.getReason()).isEmpty();
+            assertThat(statusChanged.getNewStatus()).isEqualTo("SUSPENDED");
+            assertThat(statusChanged.getVersion()).isEqualTo(4L);
+        }
+
+        @Test
+        @DisplayName("Should refuse an event without a protobuf schema")
+        void shouldRefuseUnknownEvent() {
+            // Given
+            DomainEvent unknown = new DomainEvent() {
+                public java.util.UUID getEventId() { return java.util.UUID.randomUUID(); }
+                public String getAggregateId() { return "1234567"; }
+                public String getEventType() { return "CustomerRenamed"; }
+                public java.time.Instant getOccurredAt() { return java.time.Instant.now(); }
+                public Long getAggregateVersion() { return 1L; }
+            };
+
+            // When & Then
+            assertThatThrownBy(() -> codec(EventEncoding.PROTOBUF).encode(unknown))
+                    .isInstanceOf(EventPublishingException.class)
+                    .hasMessageContaining("CustomerRenamed");
+        }
+    }
+
+    @Nested
+    @DisplayName("JSON")
+    class Json {
+
+        @Test
+        @DisplayName("Should decode a JSON payload into the protobuf message")
+        void shouldDecodeJsonIntoProto() throws Exception {
+            // When
+            DomainEventCodec.EncodedEvent encoded = codec(EventEncoding.JSON).encode(UPDATED);
+            CustomerUpdated decoded = codec(EventEncoding.PROTOBUF)
+                    .decode(encoded.payload(), encoded.contentType(), CustomerUpdated.getDefaultInstance());
+
+            // Then
+            assertThat(encoded.contentType()).isEqualTo("application/json");
+            assertUpdatedMatches(decoded);
+        }
+
+        @Test
+        @DisplayName("Should treat a record without a content type as JSON")
+        void shouldDefaultToJson() throws Exception {
+            // Given
+            byte[] legacyPayload = OBJECT_MAPPER.writeValueAsBytes(UPDATED);
+
+            // When
+            CustomerUpdated decoded = codec(EventEncoding.PROTOBUF)
+                    .decode(legacyPayload, null, CustomerUpdated.getDefaultInstance());
+
+            // Then
+            assertUpdatedMatches(decoded);
+        }
+
+        @Test
+        @DisplayName("Should keep the scale of an account amount written as a JSON number")
+        void shouldKeepAmountScale() throws Exception {
+            // Given - as account-ms writes its transactions
+            byte[] payload = """
+                    {"account_number": "1234567001", "amount": 10.500, "new_balance": 10.500, "version": 2}
+                    """.getBytes(StandardCharsets.UTF_8);
+
+            // When
+            AccountTransaction decoded = codec(EventEncoding.JSON)
+                    .decode(payload, EventEncoding.JSON.contentType(), AccountTransaction.getDefaultInstance());
+
+            // Then
+            assertThat(decoded.getAmount()).isEqualTo("10.500");
+            assertThat(decoded.getNewBalance()).isEqualTo("10.500");
+            assertThat(decoded.getDescription()).isEmpty();
+            assertThat(decoded.getVersion()).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("Should skip unknown fields and accept JSON names and quoted numbers")
+        void shouldSkipUnknownFields() throws Exception {
+            // Given
+            byte[] payload = """
+                    {"customerNumber": "1234567", "aggregate_version": "7", "unknown": {"nested": [1, 2, {"deep": true}]},
+                     "customer_type": "INVESTMENT", "status": null, "occurred_at": "2025-06-01T12:00:00.123+03:00"}
+                    """.getBytes(StandardCharsets.UTF_8);
+
+            // When
+            CustomerUpdated decoded = codec(EventEncoding.JSON)
+                    .decode(payload, EventEncoding.JSON.contentType(), CustomerUpdated.getDefaultInstance());
+
+            // Then
+            assertThat(decoded.getCustomerNumber()).isEqualTo("1234567");
+            assertThat(decoded.getAggregateVersion()).isEqualTo(7L);
+            assertThat(decoded.getCustomerType()).isEqualTo("INVESTMENT");
+            assertThat(decoded.getStatus()).isEmpty();
+            assertThat(decoded.getOccurredAt().getSeconds())
+                    .isEqualTo(Instant.parse("2025-06-01T09:00:00Z").getEpochSecond());
+            assertThat(decoded.getOccurredAt().getNanos()).isEqualTo(123_000_000);
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed JSON payload as an invalid event")
+        void shouldRejectMalformedJson() {
+            // When & Then
+            assertThatThrownBy(() -> codec(EventEncoding.JSON).decode("{\"customer_number\": [".getBytes(StandardCharsets.UTF_8),
+                    EventEncoding.JSON.contentType(), CustomerUpdated.getDefaultInstance()))
+                    .isInstanceOf(InvalidProtocolBufferException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject an unknown content type")
+        void shouldRejectUnknownContentType() {
+            // When & Then
+            assertThatThrownBy(() -> codec(EventEncoding.JSON)
+                    .decode(new byte[0], "application/avro", CustomerUpdated.getDefaultInstance()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("application/avro");
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import com.aalhendi.account.grpc.GetAccountSummaryResponse;
+import com.aalhendi.customer.grpc.*;
+import com.aalhendi.customer_ms.domain.entities.Customer;
+import com.aalhendi.customer_ms.domain.services.CustomerServiceImpl;
+import com.aalhendi.customer_ms.domain.valueobjects.*;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CustomerGrpcService over an in-process channel.
+ */
+class CustomerGrpcServiceTest {
+
+    private CustomerServiceImpl customerService;
+    private AccountServiceClient accountServiceClient;
+    private Server server;
+    private ManagedChannel channel;
+    private CustomerServiceGrpc.CustomerServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        customerService = mock(CustomerServiceImpl.class);
+        accountServiceClient = mock(AccountServiceClient.class);
+
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(new CustomerGrpcService(customerService, new AccountLimitChecker(accountServiceClient), new SingleFlight(new SimpleMeterRegistry())))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+        stub = CustomerServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private static Customer customer(String customerNumber, CustomerStatus status) {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        return Customer.reconstitute(
+                1L,
+                new CustomerNumber(customerNumber),
+                new CustomerName("John Doe"),
+                new NationalId("283061284257"),
+                CustomerType.RETAIL,
+                new Address("OMAR BEN AL KHATTAB STREET, ARRAYA TOWER, FLOOR 01-13, BLOCK 7, SHARQ"),
+                status,
+                now,
+                now
+        );
+    }
+
+    @Nested
+    @DisplayName("GetCustomer")
+    class GetCustomerTests {
+
+        @Test
+        @DisplayName("Should return NOT_FOUND for an unknown customer")
+        void shouldReturnNotFoundForUnknownCustomer() {
+            // Given
+            when(customerService.findByCustomerNumber("9999999")).thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> stub.getCustomer(GetCustomerRequest.newBuilder()
+                    .setCustomerNumber("9999999")
+                    .build()))
+                    .isInstanceOf(StatusRuntimeException.class)
+                    .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                    .isEqualTo(Status.Code.NOT_FOUND);
+        }
+    }
+
+    @Nested
+    @DisplayName("ValidateCustomers")
+    class ValidateCustomersTests {
+
+        @Test
+        @DisplayName("Should validate every distinct customer in request order with one lookup")
+        void shouldValidateEveryCustomerInRequestOrder() {
+            // Given
+            when(customerService.findByCustomerNumbers(anyCollection())).thenReturn(Map.of(
+                    "1234567", customer("1234567", CustomerStatus.ACTIVE),
+                    "7654321", customer("7654321", CustomerStatus.FROZEN)
+            ));
+
+            // When
+            ValidateCustomersResponse response = stub.validateCustomers(ValidateCustomersRequest.newBuilder()
+                    .addAllCustomerNumbers(List.of("7654321", "1234567", "9999999", "7654321"))
+                    .build());
+
+            // Then
+            assertThat(response.getResultsList())
+                    .extracting(CustomerValidation::getCustomerNumber,
+                            r -> r.getValidation().getIsValid(),
+                            r -> r.getValidation().getIsActive())
+                    .containsExactly(
+                            tuple("7654321", true, false),
+                            tuple("1234567", true, true),
+                            tuple("9999999", false, false));
+            verify(customerService, times(1)).findByCustomerNumbers(anyCollection());
+        }
+    }
+
+    @Nested
+    @DisplayName("PrepareAccountCreation")
+    class PrepareAccountCreationTests {
+
+        @Test
+        @DisplayName("Should validate and check the limit with a single customer load")
+        void shouldValidateAndCheckLimitWithOneLoad() {
+            // Given
+            when(customerService.findByCustomerNumber("1234567"))
+                    .thenReturn(Optional.of(customer("1234567", CustomerStatus.ACTIVE)));
+            when(accountServiceClient.getAccountSummary("1234567")).thenReturn(GetAccountSummaryResponse.newBuilder()
+                    .setCustomerNumber("1234567")
+                    .setActiveAccounts(1)
+                    .setTotalAccounts(1)
+                    .setHasSalaryAccount(true)
+                    .build());
+
+            // When
+            PrepareAccountCreationResponse response = stub.prepareAccountCreation(
+                    PrepareAccountCreationRequest.newBuilder()
+                            .setCustomerNumber("1234567")
+                            .setAccountType("SALARY")
+                            .build());
+
+            // Then
+            assertThat(response.getValidation().getIsActive()).isTrue();
+            assertThat(response.getAccountLimit().getCanCreateAccount()).isFalse();
+            assertThat(response.getAccountLimit().getAlreadyHasSalaryAccount()).isTrue();
+            verify(customerService, times(1)).findByCustomerNumber(anyString());
+        }
+
+        @Test
+        @DisplayName("Should skip the limit check for an inactive customer")
+        void shouldSkipLimitCheckForInactiveCustomer() {
+            // Given
+            when(customerService.findByCustomerNumber("1234567"))
+                    .thenReturn(Optional.of(customer("1234567", CustomerStatus.SUSPENDED)));
+
+            // When
+            PrepareAccountCreationResponse response = stub.prepareAccountCreation(
+                    PrepareAccountCreationRequest.newBuilder()
+                            .setCustomerNumber("1234567")
+                            .setAccountType("SAVING")
+                            .build());
+
+            // Then
+            assertThat(response.getValidation().getIsValid()).isTrue();
+            assertThat(response.getValidation().getIsActive()).isFalse();
+            assertThat(response.hasAccountLimit()).isFalse();
+            verifyNoInteractions(accountServiceClient);
+        }
+    }
+}
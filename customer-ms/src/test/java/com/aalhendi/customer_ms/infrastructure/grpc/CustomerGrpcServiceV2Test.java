@@ -0,0 +1,157 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import com.aalhendi.account.grpc.GetAccountSummaryResponse;
+import com.aalhendi.account.grpc.v2.AccountType;
+import com.aalhendi.customer.grpc.v2.*;
+import com.aalhendi.customer_ms.domain.entities.Customer;
+import com.aalhendi.customer_ms.domain.services.CustomerServiceImpl;
+import com.aalhendi.customer_ms.domain.valueobjects.Address;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerName;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerNumber;
+import com.aalhendi.customer_ms.domain.valueobjects.NationalId;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CustomerGrpcServiceV2 served next to v1 over an in-process channel.
+ */
+class CustomerGrpcServiceV2Test {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private CustomerServiceImpl customerService;
+    private AccountServiceClient accountServiceClient;
+    private Server server;
+    private ManagedChannel channel;
+    private CustomerServiceGrpc.CustomerServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        customerService = mock(CustomerServiceImpl.class);
+        accountServiceClient = mock(AccountServiceClient.class);
+        AccountLimitChecker accountLimitChecker = new AccountLimitChecker(accountServiceClient);
+        SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(new CustomerGrpcService(customerService, accountLimitChecker, singleFlight))
+                .addService(new CustomerGrpcServiceV2(customerService, accountLimitChecker, singleFlight))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+        stub = CustomerServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private static Customer customer(com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus status) {
+        return Customer.reconstitute(
+                1L,
+                new CustomerNumber("1234567"),
+                new CustomerName("John Doe"),
+                new NationalId("283061284257"),
+                com.aalhendi.customer_ms.domain.valueobjects.CustomerType.CORPORATE,
+                new Address("OMAR BEN AL KHATTAB STREET, ARRAYA TOWER, FLOOR 01-13, BLOCK 7, SHARQ"),
+                status,
+                CREATED_AT,
+                CREATED_AT
+        );
+    }
+
+    @Test
+    @DisplayName("Should return typed customer details while v1 keeps serving strings")
+    void shouldServeTypedCustomerNextToV1() {
+        // Given
+        when(customerService.findByCustomerNumber("1234567"))
+                .thenReturn(Optional.of(customer(com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus.FROZEN)));
+
+        // When
+        GetCustomerResponse v2 = stub.getCustomer(GetCustomerRequest.newBuilder().setCustomerNumber("1234567").build());
+        com.aalhendi.customer.grpc.GetCustomerResponse v1 = com.aalhendi.customer.grpc.CustomerServiceGrpc
+                .newBlockingStub(channel)
+                .getCustomer(com.aalhendi.customer.grpc.GetCustomerRequest.newBuilder()
+                        .setCustomerNumber("1234567")
+                        .build());
+
+        // Then
+        assertThat(v2.getCustomerType()).isEqualTo(CustomerType.CUSTOMER_TYPE_CORPORATE);
+        assertThat(v2.getStatus()).isEqualTo(CustomerStatus.CUSTOMER_STATUS_FROZEN);
+        assertThat(v2.getCreatedAt().getSeconds())
+                .isEqualTo(CREATED_AT.atZone(ZoneId.systemDefault()).toEpochSecond());
+        assertThat(v1.getStatus()).isEqualTo("FROZEN");
+    }
+
+    @Test
+    @DisplayName("Should leave enums unspecified for an unknown customer")
+    void shouldLeaveEnumsUnspecifiedForUnknownCustomer() {
+        // Given
+        when(customerService.findByCustomerNumber("9999999")).thenReturn(Optional.empty());
+
+        // When
+        ValidateCustomerResponse response = stub.validateCustomer(
+                ValidateCustomerRequest.newBuilder().setCustomerNumber("9999999").build());
+
+        // Then
+        assertThat(response.getIsValid()).isFalse();
+        assertThat(response.getStatus()).isEqualTo(CustomerStatus.CUSTOMER_STATUS_UNSPECIFIED);
+    }
+
+    @Test
+    @DisplayName("Should check the account limit for a typed account type")
+    void shouldCheckAccountLimitForTypedAccountType() {
+        // Given
+        when(customerService.findByCustomerNumber("1234567"))
+                .thenReturn(Optional.of(customer(com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus.ACTIVE)));
+        when(accountServiceClient.getAccountSummary("1234567")).thenReturn(GetAccountSummaryResponse.newBuilder()
+                .setCustomerNumber("1234567")
+                .setActiveAccounts(1)
+                .setTotalAccounts(1)
+                .setHasSalaryAccount(true)
+                .build());
+
+        // When
+        PrepareAccountCreationResponse response = stub.prepareAccountCreation(PrepareAccountCreationRequest.newBuilder()
+                .setCustomerNumber("1234567")
+                .setAccountType(AccountType.ACCOUNT_TYPE_SALARY)
+                .build());
+
+        // Then
+        assertThat(response.getValidation().getIsActive()).isTrue();
+        assertThat(response.getAccountLimit().getCanCreateAccount()).isFalse();
+        assertThat(response.getAccountLimit().getAlreadyHasSalaryAccount()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject an unspecified account type")
+    void shouldRejectUnspecifiedAccountType() {
+        // When & Then
+        assertThatThrownBy(() -> stub.prepareAccountCreation(PrepareAccountCreationRequest.newBuilder()
+                .setCustomerNumber("1234567")
+                .build()))
+                .isInstanceOf(StatusRuntimeException.class)
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.INVALID_ARGUMENT);
+        verifyNoInteractions(customerService);
+    }
+}
@@ -0,0 +1,163 @@
+package com.aalhendi.customer_ms.infrastructure.grpc;
+
+import com.aalhendi.account.grpc.AccountServiceGrpc;
+import com.aalhendi.account.grpc.GetAccountSummaryRequest;
+import com.aalhendi.account.grpc.GetAccountSummaryResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.inprocess.InProcessSocketAddress;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for client-side load balancing and health checking against several in-process replicas.
+ */
+class LoadBalancedChannelTest {
+
+    private static final int REPLICAS = 3;
+
+    private final List<Server> servers = new ArrayList<>();
+    private final List<AtomicInteger> callsPerReplica = new ArrayList<>();
+    private final List<HealthStatusManager> healthPerReplica = new ArrayList<>();
+    private final List<SocketAddress> addresses = new ArrayList<>();
+    private final List<ManagedChannel> channels = new ArrayList<>();
+
+    /**
+     * Answers GetAccountSummary and counts the calls this replica served.
+     */
+    private static class CountingAccountService extends AccountServiceGrpc.AccountServiceImplBase {
+
+        private final AtomicInteger calls;
+
+        CountingAccountService(AtomicInteger calls) {
+            this.calls = calls;
+        }
+
+        @Override
+        public void getAccountSummary(GetAccountSummaryRequest request,
+                                      StreamObserver<GetAccountSummaryResponse> responseObserver) {
+            calls.incrementAndGet();
+            responseObserver.onNext(GetAccountSummaryResponse.newBuilder()
+                    .setCustomerNumber(request.getCustomerNumber())
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < REPLICAS; i++) {
+            String serverName = InProcessServerBuilder.generateName();
+            AtomicInteger calls = new AtomicInteger();
+            HealthStatusManager health = new HealthStatusManager();
+            servers.add(InProcessServerBuilder.forName(serverName)
+                    .addService(new CountingAccountService(calls))
+                    .addService(health.getHealthService())
+                    .build()
+                    .start());
+            callsPerReplica.add(calls);
+            healthPerReplica.add(health);
+            addresses.add(new InProcessSocketAddress(serverName));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        channels.forEach(ManagedChannel::shutdownNow);
+        servers.forEach(Server::shutdownNow);
+    }
+
+    private ManagedChannel channel(String loadBalancingPolicy) {
+        AccountServiceClientProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "grpc.client.account-service.load-balancing-policy", loadBalancingPolicy
+        ))).bind("grpc.client.account-service", AccountServiceClientProperties.class).get();
+
+        ManagedChannel channel = GrpcClientConfig.configureChannel(
+                InProcessChannelBuilder.forTarget(StaticAddressNameResolverProvider.register("account-service", addresses)),
+                properties).build();
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * Calls until every expected replica has answered at least once, so all subchannels are READY,
+     * then resets the counters.
+     */
+    private void warmUp(AccountServiceGrpc.AccountServiceBlockingStub stub, List<Integer> expectedReplicas) {
+        for (int i = 0; i < 1000 && !expectedReplicas.stream().allMatch(r -> callsPerReplica.get(r).get() > 0); i++) {
+            stub.getAccountSummary(GetAccountSummaryRequest.newBuilder().setCustomerNumber("1234567").build());
+        }
+        assertThat(expectedReplicas).allMatch(r -> callsPerReplica.get(r).get() > 0);
+        callsPerReplica.forEach(calls -> calls.set(0));
+    }
+
+    private void call(AccountServiceGrpc.AccountServiceBlockingStub stub, int times) {
+        for (int i = 0; i < times; i++) {
+            stub.getAccountSummary(GetAccountSummaryRequest.newBuilder().setCustomerNumber("1234567").build());
+        }
+    }
+
+    @Test
+    @DisplayName("Should spread calls evenly over every replica with round_robin")
+    void shouldSpreadCallsWithRoundRobin() {
+        // Given
+        AccountServiceGrpc.AccountServiceBlockingStub stub = AccountServiceGrpc.newBlockingStub(channel("round_robin"));
+        warmUp(stub, List.of(0, 1, 2));
+
+        // When
+        call(stub, 30);
+
+        // Then
+        assertThat(callsPerReplica).extracting(AtomicInteger::get).containsExactly(10, 10, 10);
+    }
+
+    @Test
+    @DisplayName("Should send no calls to a replica whose health check reports NOT_SERVING")
+    void shouldSkipUnhealthyReplica() {
+        // Given
+        healthPerReplica.get(1).setStatus("", ServingStatus.NOT_SERVING);
+        AccountServiceGrpc.AccountServiceBlockingStub stub = AccountServiceGrpc.newBlockingStub(channel("round_robin"));
+        warmUp(stub, List.of(0, 2));
+
+        // When
+        call(stub, 30);
+
+        // Then
+        assertThat(callsPerReplica).extracting(AtomicInteger::get).containsExactly(15, 0, 15);
+    }
+
+    @Test
+    @DisplayName("Should use every healthy replica and skip an unhealthy one with least_request")
+    void shouldBalanceHealthyReplicasWithLeastRequest() {
+        // Given
+        healthPerReplica.get(2).setStatus("", ServingStatus.NOT_SERVING);
+        AccountServiceGrpc.AccountServiceBlockingStub stub = AccountServiceGrpc.newBlockingStub(channel("least_request"));
+        warmUp(stub, List.of(0, 1));
+
+        // When
+        call(stub, 100);
+
+        // Then
+        assertThat(callsPerReplica.get(0).get() + callsPerReplica.get(1).get()).isEqualTo(100);
+        assertThat(callsPerReplica.get(0).get()).isPositive();
+        assertThat(callsPerReplica.get(1).get()).isPositive();
+        assertThat(callsPerReplica.get(2).get()).isZero();
+    }
+}
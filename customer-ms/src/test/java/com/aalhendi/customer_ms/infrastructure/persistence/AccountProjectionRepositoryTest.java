@@ -0,0 +1,167 @@
+package com.aalhendi.customer_ms.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for AccountProjectionRepository against the Liquibase schema.
+ * Uses TestContainers to spin up a PostgreSQL instance. Tests aren't wrapped in a transaction,
+ * since the repository runs its own and a rebuild renames tables.
+ */
+@JdbcTest
+@Import({PostgreSQLTestContainer.class, AccountProjectionRepository.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountProjectionRepositoryTest {
+
+    private static final String ACCOUNT = "1234567001";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountProjectionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.dropShadow();
+        jdbcTemplate.execute("DELETE FROM " + AccountProjectionRepository.TABLE);
+    }
+
+    private static Instant at(long seconds) {
+        return Instant.ofEpochSecond(1_700_000_000L + seconds);
+    }
+
+    private static AccountProjectionRow created(String accountNumber, long seconds) {
+        return new AccountProjectionRow(accountNumber, "1234567", "SAVING", "ACTIVE", at(seconds),
+                new BigDecimal("0.000"), at(seconds));
+    }
+
+    private static AccountProjectionRow statusChanged(String accountNumber, String status, long seconds) {
+        return new AccountProjectionRow(accountNumber, "1234567", null, status, at(seconds), null, null);
+    }
+
+    private static AccountProjectionRow transaction(String accountNumber, String newBalance, long seconds) {
+        return new AccountProjectionRow(accountNumber, "1234567", null, null, null, new BigDecimal(newBalance), at(seconds));
+    }
+
+    private Map<String, Object> row(String table, String accountNumber) {
+        return jdbcTemplate.queryForMap("SELECT * FROM " + table + " WHERE account_number = ?", accountNumber);
+    }
+
+    private List<String> indexNames() {
+        return jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = ? ORDER BY indexname",
+                String.class, AccountProjectionRepository.TABLE);
+    }
+
+    @Test
+    @DisplayName("Should keep the latest status and balance when events arrive out of order")
+    void shouldKeepLatestWhenOutOfOrder() {
+        // When - the topics are consumed independently, so the creation can land last
+        repository.upsert(List.of(transaction(ACCOUNT, "250.500", 4)));
+        repository.upsert(List.of(statusChanged(ACCOUNT, "FROZEN", 3)));
+        repository.upsert(List.of(statusChanged(ACCOUNT, "ACTIVE", 2)));
+        repository.upsert(List.of(created(ACCOUNT, 1)));
+
+        // Then
+        Map<String, Object> row = row(AccountProjectionRepository.TABLE, ACCOUNT);
+        assertThat(row.get("account_type")).isEqualTo("SAVING");
+        assertThat(row.get("status")).isEqualTo("FROZEN");
+        assertThat((BigDecimal) row.get("balance")).isEqualByComparingTo("250.5");
+    }
+
+    @Test
+    @DisplayName("Should give the same row when events are applied twice")
+    void shouldBeIdempotent() {
+        // Given
+        List<AccountProjectionRow> events = List.of(created(ACCOUNT, 1), statusChanged(ACCOUNT, "FROZEN", 2),
+                transaction(ACCOUNT, "100.000", 3));
+        events.forEach(event -> repository.upsert(List.of(event)));
+        Map<String, Object> once = row(AccountProjectionRepository.TABLE, ACCOUNT);
+
+        // When - redelivered after a failed commit
+        events.forEach(event -> repository.upsert(List.of(event)));
+
+        // Then
+        Map<String, Object> twice = row(AccountProjectionRepository.TABLE, ACCOUNT);
+        assertThat(twice.get("status")).isEqualTo(once.get("status")).isEqualTo("FROZEN");
+        assertThat(twice.get("status_at")).isEqualTo(once.get("status_at"));
+        assertThat((BigDecimal) twice.get("balance")).isEqualByComparingTo((BigDecimal) once.get("balance"));
+        assertThat(twice.get("balance_at")).isEqualTo(once.get("balance_at"));
+    }
+
+    @Test
+    @DisplayName("Should keep a field's timestamp when an event doesn't carry that field")
+    void shouldIgnoreMissingTimestamps() {
+        // Given
+        repository.upsert(List.of(created(ACCOUNT, 1), statusChanged(ACCOUNT, "FROZEN", 5)));
+        Object statusAt = row(AccountProjectionRepository.TABLE, ACCOUNT).get("status_at");
+
+        // When - a transaction carries no status, so its status_at is NULL
+        repository.upsert(List.of(transaction(ACCOUNT, "75.000", 6)));
+
+        // Then
+        Map<String, Object> row = row(AccountProjectionRepository.TABLE, ACCOUNT);
+        assertThat(row.get("status")).isEqualTo("FROZEN");
+        assertThat(row.get("status_at")).isNotNull().isEqualTo(statusAt);
+        assertThat((BigDecimal) row.get("balance")).isEqualByComparingTo("75");
+    }
+
+    @Test
+    @DisplayName("Should swap in a rebuilt table holding replayed and live changes, under the live index names")
+    void shouldRebuildAndSwap() {
+        // Given
+        repository.upsert(List.of(created(ACCOUNT, 1), statusChanged(ACCOUNT, "CLOSED", 9)));
+        List<String> liveIndexNames = indexNames();
+        assertThat(liveIndexNames).containsExactlyInAnyOrder(AccountProjectionRepository.PRIMARY_KEY,
+                AccountProjectionRepository.CUSTOMER_NUMBER_INDEX);
+
+        // When - the replay races a live change, which reaches the shadow through the dual write
+        repository.createShadow();
+        repository.upsert(List.of(transaction(ACCOUNT, "40.000", 3)));
+        repository.upsertShadow(List.of(created(ACCOUNT, 1), statusChanged(ACCOUNT, "FROZEN", 2)));
+        repository.swapShadow();
+
+        // Then - the wrongly CLOSED row is replaced by the replayed one, and the schema matches Liquibase again
+        Map<String, Object> row = row(AccountProjectionRepository.TABLE, ACCOUNT);
+        assertThat(row.get("status")).isEqualTo("FROZEN");
+        assertThat((BigDecimal) row.get("balance")).isEqualByComparingTo("40");
+        assertThat(indexNames()).isEqualTo(liveIndexNames);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class,
+                AccountProjectionRepository.SHADOW_TABLE)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should rebuild again after a rebuild")
+    void shouldRebuildTwice() {
+        // Given
+        repository.createShadow();
+        repository.upsertShadow(List.of(created(ACCOUNT, 1)));
+        repository.swapShadow();
+
+        // When - the first swap must leave no names behind for the second shadow to clash with
+        repository.createShadow();
+        repository.upsertShadow(List.of(created(ACCOUNT, 1), transaction(ACCOUNT, "10.000", 2)));
+        repository.swapShadow();
+
+        // Then
+        assertThat((BigDecimal) row(AccountProjectionRepository.TABLE, ACCOUNT).get("balance")).isEqualByComparingTo("10");
+        assertThat(indexNames()).containsExactlyInAnyOrder(AccountProjectionRepository.PRIMARY_KEY,
+                AccountProjectionRepository.CUSTOMER_NUMBER_INDEX);
+    }
+}
@@ -1,5 +1,9 @@
 package com.aalhendi.customer_ms.infrastructure.persistence;
 
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerCursor;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerFilter;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerStatus;
+import com.aalhendi.customer_ms.domain.valueobjects.CustomerType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +16,7 @@ import org.springframework.test.context.TestPropertySource;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -115,6 +120,28 @@ class JpaCustomerRepositoryTest {
         assertEquals("325010179353", customer.get().getNationalId());
     }
 
+    @Test
+    void shouldFindSeveralCustomersByCustomerNumber() {
+        // When - finding two known customers and an unknown one in one query
+        List<CustomerEntity> customers = repository.findByCustomerNumberIn(List.of("1234567", "7654321", "9999999"));
+
+        // Then - should return only the known customers
+        assertEquals(2, customers.size());
+        assertTrue(customers.stream().anyMatch(c -> c.getCustomerNumber().equals("7654321")));
+    }
+
+    @Test
+    void shouldFindUpdatedAtWithoutLoadingCustomer() {
+        // When - reading only the update time of an existing and an unknown customer
+        Optional<LocalDateTime> updatedAt = repository.findUpdatedAtByCustomerNumber("1234567");
+        Optional<LocalDateTime> unknown = repository.findUpdatedAtByCustomerNumber("9999999");
+
+        // Then - should match the stored customer
+        assertTrue(updatedAt.isPresent());
+        assertEquals(repository.findByCustomerNumber("1234567").orElseThrow().getUpdatedAt(), updatedAt.get());
+        assertTrue(unknown.isEmpty());
+    }
+
     @Test
     void shouldNotFindNonExistentCustomer() {
         // When - searching for a non-existent customer
@@ -158,24 +185,24 @@ class JpaCustomerRepositoryTest {
     }
 
     @Test
-    void shouldFindCustomersByStatus() {
-        // When - finding customers by status
-        List<CustomerEntity> activeCustomers = repository.findByStatus(1);
-        List<CustomerEntity> inactiveCustomers = repository.findByStatus(0);
+    void shouldFilterCustomersByStatus() {
+        // When - filtering customers by status
+        List<CustomerEntity> activeCustomers = filter(new CustomerFilter(CustomerStatus.ACTIVE, null, null, null), null, 10);
+        List<CustomerEntity> pendingCustomers = filter(new CustomerFilter(CustomerStatus.PENDING, null, null, null), null, 10);
 
         // Then - should return customers with correct status
         assertEquals(2, activeCustomers.size()); // testCustomer1 and testCustomer3 are active
-        assertEquals(1, inactiveCustomers.size()); // testCustomer2 is inactive
+        assertEquals(1, pendingCustomers.size()); // testCustomer2 is pending
 
         assertTrue(activeCustomers.stream().allMatch(c -> c.getStatus() == 1));
-        assertTrue(inactiveCustomers.stream().allMatch(c -> c.getStatus() == 0));
+        assertTrue(pendingCustomers.stream().allMatch(c -> c.getStatus() == 0));
     }
 
     @Test
-    void shouldFindCustomersByCustomerType() {
-        // When - finding customers by type
-        List<CustomerEntity> retailCustomers = repository.findByCustomerType("RETAIL");
-        List<CustomerEntity> corporateCustomers = repository.findByCustomerType("CORPORATE");
+    void shouldFilterCustomersByCustomerType() {
+        // When - filtering customers by type
+        List<CustomerEntity> retailCustomers = filter(new CustomerFilter(null, CustomerType.RETAIL, null, null), null, 10);
+        List<CustomerEntity> corporateCustomers = filter(new CustomerFilter(null, CustomerType.CORPORATE, null, null), null, 10);
 
         // Then - should return customers with correct type
         assertEquals(2, retailCustomers.size()); // testCustomer1 and testCustomer2 are retail
@@ -185,6 +212,23 @@ class JpaCustomerRepositoryTest {
         assertTrue(corporateCustomers.stream().allMatch(c -> "CORPORATE".equals(c.getCustomerType())));
     }
 
+    @Test
+    void shouldPageThroughCustomersWithKeysetCursor() {
+        // When - walking all customers one row at a time
+        List<CustomerEntity> firstPage = filter(CustomerFilter.all(), null, 1);
+        CustomerEntity first = firstPage.getFirst();
+        List<CustomerEntity> secondPage = filter(CustomerFilter.all(), new CustomerCursor(first.getCreatedAt(), first.getId()), 1);
+        CustomerEntity second = secondPage.getFirst();
+        List<CustomerEntity> rest = filter(CustomerFilter.all(), new CustomerCursor(second.getCreatedAt(), second.getId()), 10);
+
+        // Then - every customer is visited exactly once (all share the same created_at, so id breaks the tie)
+        assertEquals(1, firstPage.size());
+        assertEquals(1, secondPage.size());
+        assertEquals(1, rest.size());
+        assertEquals(3, Stream.of(first, second, rest.getFirst())
+                .map(CustomerEntity::getCustomerNumber).distinct().count());
+    }
+
     @Test
     void shouldCountCustomersByType() {
         // When - counting customers by type
@@ -199,15 +243,19 @@ class JpaCustomerRepositoryTest {
     }
 
     @Test
-    void shouldFindCustomersCreatedAfterDate() {
-        // Given - a cutoff date in the past
-        LocalDateTime cutoffDate = LocalDateTime.now().minusHours(1);
+    void shouldFilterCustomersByCreatedAtRange() {
+        // Given - a range around now and a range entirely in the past
+        LocalDateTime now = LocalDateTime.now();
+        CustomerFilter recent = new CustomerFilter(null, null, now.minusHours(1), now.plusHours(1));
+        CustomerFilter past = new CustomerFilter(null, null, now.minusDays(2), now.minusDays(1));
 
-        // When - finding customers created after cutoff
-        List<CustomerEntity> recentCustomers = repository.findByCreatedAtAfter(cutoffDate);
+        // When - filtering by created-at range
+        List<CustomerEntity> recentCustomers = filter(recent, null, 10);
+        List<CustomerEntity> pastCustomers = filter(past, null, 10);
 
-        // Then - should find all customers (all created recently)
+        // Then - should find all customers (all created recently) and none in the past
         assertEquals(3, recentCustomers.size());
+        assertEquals(0, pastCustomers.size());
     }
 
     @Test
@@ -226,4 +274,23 @@ class JpaCustomerRepositoryTest {
 
         assertEquals(0, emptyResults.size());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldStreamCustomersByNameContaining() {
+        // When - streaming customers by name fragment
+        List<String> names;
+        try (Stream<CustomerEntity> customers = repository.streamByNameContainingIgnoreCase("BANK")) {
+            names = customers.map(CustomerEntity::getName).toList();
+        }
+
+        // Then - should match the list query
+        assertEquals(List.of("W BANK"), names);
+    }
+
+    private List<CustomerEntity> filter(CustomerFilter filter, CustomerCursor after, int limit) {
+        return repository.findBy(
+                CustomerSpecifications.matching(filter, after),
+                query -> query.sortBy(CustomerSpecifications.KEYSET_ORDER).limit(limit).all()
+        );
+    }
+}
@@ -4,6 +4,7 @@ import com.aalhendi.customer_ms.domain.entities.Customer;
 import com.aalhendi.customer_ms.domain.exceptions.BusinessException;
 import com.aalhendi.customer_ms.domain.exceptions.CustomerError;
 import com.aalhendi.customer_ms.domain.services.CustomerService;
+import com.aalhendi.customer_ms.domain.services.CustomerStatsService;
 import com.aalhendi.customer_ms.domain.valueobjects.*;
 import com.aalhendi.customer_ms.web.dtos.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,11 +19,16 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -45,6 +51,9 @@ class CustomerControllerTest {
     @MockitoBean
     private CustomerService customerService;
 
+    @MockitoBean
+    private CustomerStatsService statsService;
+
     private Customer testCustomer;
     private CreateCustomerRequest createRequest;
     private UpdateCustomerRequest updateRequest;
@@ -196,6 +205,27 @@ class CustomerControllerTest {
             verify(customerService).findByCustomerNumber("1234567");
         }
 
+        @Test
+        @DisplayName("Should tag the customer with an ETag and answer 304 while it still matches")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            // Given
+            String etag = EntityTags.of(testCustomer.getUpdatedAt());
+            when(customerService.findByCustomerNumber("1234567")).thenReturn(Optional.of(testCustomer));
+            when(customerService.findUpdatedAtByCustomerNumber("1234567")).thenReturn(Optional.of(testCustomer.getUpdatedAt()));
+
+            // When & Then
+            mockMvc.perform(get("/api/customers/1234567"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(header().string("Cache-Control", "no-cache, private"));
+            mockMvc.perform(get("/api/customers/1234567").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+
+            verify(customerService, times(1)).findByCustomerNumber("1234567");
+        }
+
         @Test
         @DisplayName("Should return 404 when customer not found")
         void shouldReturn404WhenCustomerNotFound() throws Exception {
@@ -326,4 +356,207 @@ class CustomerControllerTest {
                     .andExpect(jsonPath("$.details", hasItem(containsString("Status must be PENDING, ACTIVE, SUSPENDED, FROZEN, or CLOSED"))));
         }
     }
-} 
\ No newline at end of file
+
+    @Nested
+    @DisplayName("GET /api/customers - Filter Customers")
+    class FilterCustomersTests {
+
+        @Test
+        @DisplayName("Should return first page with next cursor")
+        void shouldReturnFirstPageWithNextCursor() throws Exception {
+            // Given
+            CustomerCursor next = new CustomerCursor(testCustomer.getCreatedAt(), testCustomer.getId());
+            when(customerService.filterCustomers(any(), isNull(), eq(1)))
+                    .thenReturn(new CustomerPage(List.of(testCustomer), next));
+
+            // When & Then
+            mockMvc.perform(get("/api/customers")
+                            .param("status", "active")
+                            .param("customer_type", "RETAIL")
+                            .param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.customers", hasSize(1)))
+                    .andExpect(jsonPath("$.customers[0].customer_number").value("1234567"))
+                    .andExpect(jsonPath("$.next_cursor").value(next.encode()));
+
+            verify(customerService).filterCustomers(
+                    new CustomerFilter(CustomerStatus.ACTIVE, CustomerType.RETAIL, null, null), null, 1);
+        }
+
+        @Test
+        @DisplayName("Should decode cursor and return last page without next cursor")
+        void shouldDecodeCursorAndReturnLastPage() throws Exception {
+            // Given
+            CustomerCursor cursor = new CustomerCursor(LocalDateTime.of(2025, 1, 1, 10, 0), 42L);
+            when(customerService.filterCustomers(any(), any(), anyInt()))
+                    .thenReturn(new CustomerPage(List.of(testCustomer), null));
+
+            // When & Then
+            mockMvc.perform(get("/api/customers").param("cursor", cursor.encode()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.next_cursor").doesNotExist());
+
+            verify(customerService).filterCustomers(CustomerFilter.all(), cursor, 50);
+        }
+
+        @Test
+        @DisplayName("Should return 400 when limit is out of range")
+        void shouldReturn400WhenLimitIsOutOfRange() throws Exception {
+            mockMvc.perform(get("/api/customers").param("limit", "501"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error_code").value("VALIDATION_ERROR"));
+
+            verifyNoInteractions(customerService);
+        }
+
+        @Test
+        @DisplayName("Should return 400 when cursor is malformed")
+        void shouldReturn400WhenCursorIsMalformed() throws Exception {
+            mockMvc.perform(get("/api/customers").param("cursor", "not-a-cursor"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error_code").value("VALIDATION_ERROR"));
+        }
+
+        @Test
+        @DisplayName("Should return 400 when created_from is not a date")
+        void shouldReturn400WhenCreatedFromIsNotADate() throws Exception {
+            mockMvc.perform(get("/api/customers").param("created_from", "yesterday"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error_code").value("VALIDATION_ERROR"));
+        }
+
+        @Test
+        @DisplayName("Should return 400 naming both bounds when created_from is not before created_to")
+        void shouldReturn400NamingBothBoundsWhenRangeIsInverted() throws Exception {
+            mockMvc.perform(get("/api/customers")
+                            .param("created_from", "2025-02-01T00:00:00")
+                            .param("created_to", "2025-01-01T00:00:00"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error_code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.message").value(containsString("'created_from,created_to'")))
+                    .andExpect(jsonPath("$.message").value(containsString("2025-01-01T00:00")));
+
+            verifyNoInteractions(customerService);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/customers/export - Export Customers")
+    class ExportCustomersTests {
+
+        @Test
+        @DisplayName("Should stream matching customers as NDJSON")
+        @SuppressWarnings("unchecked")
+        void shouldStreamMatchingCustomersAsNdjson() throws Exception {
+            // Given
+            doAnswer(invocation -> {
+                Consumer<Customer> sink = invocation.getArgument(1);
+                sink.accept(testCustomer);
+                sink.accept(testCustomer);
+                return null;
+            }).when(customerService).exportCustomers(any(), any(Consumer.class));
+
+            // When
+            var result = mockMvc.perform(get("/api/customers/export").param("status", "ACTIVE"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(matchesPattern("(\\{[^\\n]*\"customer_number\":\"1234567\"[^\\n]*}\\n){2}")));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/customers/search - Search Customers")
+    class SearchCustomersTests {
+
+        @Test
+        @DisplayName("Should return matches as a JSON array by default")
+        void shouldReturnMatchesAsJsonArray() throws Exception {
+            // Given
+            when(customerService.searchCustomersByName("John")).thenReturn(List.of(testCustomer));
+
+            // When & Then
+            mockMvc.perform(get("/api/customers/search").param("name", "John"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].customer_number").value("1234567"));
+
+            verify(customerService, never()).searchCustomersByName(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should stream matches as NDJSON when asked for")
+        @SuppressWarnings("unchecked")
+        void shouldStreamMatchesAsNdjson() throws Exception {
+            // Given
+            doAnswer(invocation -> {
+                Consumer<Customer> sink = invocation.getArgument(1);
+                sink.accept(testCustomer);
+                sink.accept(testCustomer);
+                return null;
+            }).when(customerService).searchCustomersByName(eq("John"), any(Consumer.class));
+
+            // When
+            var result = mockMvc.perform(get("/api/customers/search").param("name", "John")
+                            .accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(matchesPattern("(\\{[^\\n]*\"customer_number\":\"1234567\"[^\\n]*}\\n){2}")));
+
+            verify(customerService, never()).searchCustomersByName(anyString());
+        }
+
+        @Test
+        @DisplayName("Should reject a blank name before streaming")
+        void shouldRejectBlankNameBeforeStreaming() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/customers/search").param("name", " ")
+                            .accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.error_code").value("VALIDATION_ERROR"));
+
+            verifyNoInteractions(customerService);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/customers/stats - Customer Stats")
+    class CustomerStatsTests {
+
+        @Test
+        @DisplayName("Should return segment counts from the stats service")
+        void shouldReturnSegmentCounts() throws Exception {
+            // Given
+            CustomerSegment activeRetail = new CustomerSegment(CustomerType.RETAIL, CustomerStatus.ACTIVE);
+            when(statsService.getTotalCount()).thenReturn(3L);
+            when(statsService.getCountsByType()).thenReturn(Map.of(CustomerType.RETAIL, 3L));
+            when(statsService.getCountsByStatus()).thenReturn(Map.of(CustomerStatus.ACTIVE, 3L));
+            when(statsService.getSegmentCounts()).thenReturn(Map.of(activeRetail, 3L));
+
+            // When & Then
+            mockMvc.perform(get("/api/customers/stats"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.total").value(3))
+                    .andExpect(jsonPath("$.by_type.RETAIL").value(3))
+                    .andExpect(jsonPath("$.by_status.ACTIVE").value(3))
+                    .andExpect(jsonPath("$.segments", hasSize(1)))
+                    .andExpect(jsonPath("$.segments[0].customer_type").value("RETAIL"))
+                    .andExpect(jsonPath("$.segments[0].status").value("ACTIVE"))
+                    .andExpect(jsonPath("$.segments[0].count").value(3));
+
+            verifyNoInteractions(customerService);
+        }
+    }
+}